@@ -0,0 +1,27 @@
+package hydra.langs.kusto.kql;
+
+import java.io.Serializable;
+
+public class FunctionName implements Serializable {
+  public static final hydra.core.Name NAME = new hydra.core.Name("hydra/langs/kusto/kql.FunctionName");
+  
+  public final String value;
+  
+  public FunctionName (String value) {
+    this.value = value;
+  }
+  
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof FunctionName)) {
+      return false;
+    }
+    FunctionName o = (FunctionName) (other);
+    return value.equals(o.value);
+  }
+  
+  @Override
+  public int hashCode() {
+    return 2 * value.hashCode();
+  }
+}
\ No newline at end of file
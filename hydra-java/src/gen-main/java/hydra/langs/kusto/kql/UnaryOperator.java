@@ -0,0 +1,52 @@
+package hydra.langs.kusto.kql;
+
+import java.io.Serializable;
+
+public abstract class UnaryOperator implements Serializable {
+  public static final hydra.core.Name NAME = new hydra.core.Name("hydra/langs/kusto/kql.UnaryOperator");
+  
+  private UnaryOperator () {
+  
+  }
+  
+  public abstract <R> R accept(Visitor<R> visitor) ;
+  
+  public interface Visitor<R> {
+    R visit(Not instance) ;
+  }
+  
+  public interface PartialVisitor<R> extends Visitor<R> {
+    default R otherwise(UnaryOperator instance) {
+      throw new IllegalStateException("Non-exhaustive patterns when matching: " + (instance));
+    }
+    
+    default R visit(Not instance) {
+      return otherwise((instance));
+    }
+  }
+  
+  public static final class Not extends hydra.langs.kusto.kql.UnaryOperator implements Serializable {
+    public Not () {
+    
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Not)) {
+        return false;
+      }
+      Not o = (Not) (other);
+      return true;
+    }
+    
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+    
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.graph.Graph;
+
+
+/**
+ * Shared fixtures for the JMH benchmarks.
+ */
+final class Benchmarks {
+    private Benchmarks() {
+    }
+
+    /**
+     * An empty graph with all of the standard primitives, as used by the test suite.
+     */
+    static Graph<Kv> standardGraph() {
+        return HydraTestBase.emptyGraph();
+    }
+}
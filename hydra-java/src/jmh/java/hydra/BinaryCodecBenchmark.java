@@ -0,0 +1,121 @@
+package hydra;
+
+import com.cedarsoftware.util.io.JsonReader;
+import com.cedarsoftware.util.io.JsonWriter;
+import hydra.binary.BinaryReader;
+import hydra.binary.BinaryWriter;
+import hydra.compute.Kv;
+import hydra.core.Name;
+import hydra.graph.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.float64;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.string;
+
+
+/**
+ * Encodes and decodes a list of graph elements with the Hydra binary format, with Java serialization, and with
+ * json-io (JSON). The size of each encoding is printed during setup. Elements rather than a module are used, as
+ * modules are not Serializable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryCodecBenchmark {
+    @Param({"1000"})
+    public int elements;
+
+    private ArrayList<Element<Kv>> els;
+    private byte[] binary;
+    private byte[] serialized;
+    private String json;
+
+    @Setup
+    public void setup() throws IOException {
+        els = new ArrayList<>(elements);
+        for (int i = 0; i < elements; i++) {
+            els.add(new Element<>(new Name("example/people.person" + i), record("example/people.Person",
+                    field("id", int32(i)),
+                    field("name", string("person " + i)),
+                    field("score", float64(i / 7.0)),
+                    field("tags", list(string("friend"), string("colleague"))))));
+        }
+
+        binary = encodeBinary();
+        serialized = encodeJavaSerialization();
+        json = encodeJson();
+        System.out.println("\nbinary: " + binary.length + " bytes, Java serialization: " + serialized.length
+                + " bytes, JSON: " + json.length() + " characters");
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        BinaryWriter writer = new BinaryWriter();
+        for (Element<Kv> element : els) {
+            writer.element(element);
+        }
+        return writer.toByteArray();
+    }
+
+    @Benchmark
+    public List<Element<Kv>> decodeBinary() {
+        BinaryReader reader = BinaryReader.of(binary);
+        List<Element<Kv>> result = new ArrayList<>(reader.rootCount());
+        for (int i = 0; i < reader.rootCount(); i++) {
+            result.add(reader.element(i));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] encodeJavaSerialization() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(els);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object decodeJavaSerialization() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public String encodeJson() {
+        return JsonWriter.objectToJson(els);
+    }
+
+    @Benchmark
+    public Object decodeJson() {
+        return JsonReader.jsonToJava(json);
+    }
+}
@@ -0,0 +1,147 @@
+package hydra;
+
+import hydra.core.Literal;
+import hydra.dsl.Literals;
+import hydra.langs.tinkerpop.ColumnarGraph;
+import hydra.langs.tinkerpop.propertyGraph.Edge;
+import hydra.langs.tinkerpop.propertyGraph.EdgeLabel;
+import hydra.langs.tinkerpop.propertyGraph.Graph;
+import hydra.langs.tinkerpop.propertyGraph.PropertyKey;
+import hydra.langs.tinkerpop.propertyGraph.Vertex;
+import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares the map-of-maps Graph with ColumnarGraph for construction (run with -prof gc to compare allocation), a
+ * label scan over a property, and two-hop neighbor traversal. As Graph has no adjacency index, the map-based
+ * traversal is given one, built during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnarGraphBenchmark {
+    private static final VertexLabel PERSON = new VertexLabel("Person");
+    private static final VertexLabel PLACE = new VertexLabel("Place");
+    private static final EdgeLabel KNOWS = new EdgeLabel("knows");
+    private static final PropertyKey NAME = new PropertyKey("name");
+    private static final PropertyKey AGE = new PropertyKey("age");
+
+    @Param({"100000"})
+    public int size;
+
+    private List<Vertex<Literal>> vertexList;
+    private List<Edge<Literal>> edgeList;
+    private Graph<Literal> graph;
+    private Map<Literal, List<Literal>> adjacency;
+    private ColumnarGraph<Literal> columnar;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        vertexList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<PropertyKey, Literal> props = new HashMap<>();
+            props.put(NAME, Literals.string("v" + i));
+            if (i % 2 == 0) {
+                props.put(AGE, Literals.int32(i % 100));
+            }
+            vertexList.add(new Vertex<>(i % 4 == 0 ? PLACE : PERSON, Literals.string("v" + i), props));
+        }
+        edgeList = new ArrayList<>(size * 3);
+        for (int i = 0; i < size * 3; i++) {
+            edgeList.add(new Edge<>(KNOWS, Literals.string("e" + i), vertexList.get(random.nextInt(size)).id,
+                    vertexList.get(random.nextInt(size)).id, new HashMap<>()));
+        }
+        graph = buildGraph();
+        columnar = ColumnarGraph.from(graph);
+
+        adjacency = new HashMap<>();
+        for (Edge<Literal> e : graph.edges.values()) {
+            adjacency.computeIfAbsent(e.out, k -> new ArrayList<>()).add(e.in);
+        }
+    }
+
+    @Benchmark
+    public Graph<Literal> buildGraph() {
+        Map<Literal, Vertex<Literal>> vertices = new HashMap<>();
+        for (Vertex<Literal> v : vertexList) {
+            vertices.put(v.id, new Vertex<>(v.label, v.id, new HashMap<>(v.properties)));
+        }
+        Map<Literal, Edge<Literal>> edges = new HashMap<>();
+        for (Edge<Literal> e : edgeList) {
+            edges.put(e.id, new Edge<>(e.label, e.id, e.out, e.in, new HashMap<>(e.properties)));
+        }
+        return new Graph<>(vertices, edges);
+    }
+
+    @Benchmark
+    public ColumnarGraph<Literal> buildColumnar() {
+        return ColumnarGraph.from(graph);
+    }
+
+    @Benchmark
+    public int labelScanMap() {
+        int count = 0;
+        for (Vertex<Literal> v : graph.vertices.values()) {
+            if (v.label.equals(PERSON) && v.properties.get(AGE) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int labelScanColumnar() {
+        int count = 0;
+        for (Literal age : columnar.vertexColumn(PERSON, AGE)) {
+            if (age != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long twoHopMap() {
+        long count = 0;
+        for (int i = 0; i < 1000; i++) {
+            for (Literal n : adjacency.getOrDefault(vertexList.get(i).id, new ArrayList<>())) {
+                count += adjacency.getOrDefault(n, new ArrayList<>()).size();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long twoHopColumnar() {
+        long count = 0;
+        for (int i = 0; i < 1000; i++) {
+            int v = columnar.vertexIndex(vertexList.get(i).id);
+            for (int j = 0; j < columnar.outDegree(v); j++) {
+                count += columnar.outDegree(columnar.inVertex(columnar.outEdge(v, j)));
+            }
+        }
+        return count;
+    }
+}
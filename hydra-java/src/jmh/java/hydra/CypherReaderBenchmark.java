@@ -0,0 +1,72 @@
+package hydra;
+
+import hydra.langs.cypher.CachingCypherReader;
+import hydra.langs.cypher.CypherReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Reads a selection of the queries from CypherReaderTest, parsing each one, and through a warm query cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CypherReaderBenchmark {
+    private static final String[] QUERIES = {
+        "MATCH (n) RETURN *",
+        "MATCH (keanu:Person {name:'Keanu Reeves'})\n"
+            + "RETURN keanu.name AS name, keanu.born AS born",
+        "MATCH (bornInEighties:Person)\n"
+            + "WHERE bornInEighties.born >= 1980 AND bornInEighties.born < 1990\n"
+            + "RETURN bornInEighties.name as name, bornInEighties.born as born\n"
+            + "ORDER BY born DESC",
+        "MATCH (m:Movie {title: 'The Matrix'})<-[d:DIRECTED]-(p:Person)\n"
+            + "RETURN p.name as director",
+        "MATCH (keanu:Person {name:'Keanu Reeves'})-[:ACTED_IN]->(m:Movie)<-[:ACTED_IN]-(coActors:Person),\n"
+            + "  (coActors:Person)-[:ACTED_IN]->(m2:Movie)<-[:ACTED_IN]-(cocoActors:Person)\n"
+            + "WHERE NOT (keanu)-[:ACTED_IN]->()<-[:ACTED_IN]-(cocoActors) AND keanu <> cocoActors\n"
+            + "RETURN cocoActors.name AS recommended, count(cocoActors) AS strength\n"
+            + "ORDER BY strength DESC\n"
+            + "LIMIT 7",
+        "MATCH (n:Person)\n"
+            + "RETURN n.name,\n"
+            + "CASE n.age\n"
+            + "  WHEN null THEN -1\n"
+            + "  ELSE n.age - 10\n"
+            + "END AS age_10_years_ago",
+        "MATCH (j:Person) WHERE j.name STARTS WITH \"J\"\n"
+            + "CREATE (j)-[:FRIEND]->(jj:Person {name: \"Jay-jay\"})",
+        "MATCH (a:Person {name: 'Charlie Sheen'})\n"
+            + "OPTIONAL MATCH (a)-->(x)\n"
+            + "RETURN x"};
+
+    private final CachingCypherReader cachingReader = new CachingCypherReader(1000);
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        for (String query : QUERIES) {
+            bh.consume(CypherReader.read(query));
+        }
+    }
+
+    @Benchmark
+    public void cached(Blackhole bh) {
+        for (String query : QUERIES) {
+            bh.consume(cachingReader.read(query));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package hydra;
+
+import hydra.langs.cypher.CypherReader;
+import hydra.langs.cypher.CypherTranslator;
+import hydra.langs.cypher.openCypher.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Translates a stream of repeated queries, which differ in their layout, by parsing each query,
+ * and through a translator whose plan cache holds every query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CypherTranslatorBenchmark {
+    private static final String[] SHAPES = {
+        "MATCH (p:Person {name: '%s'}) RETURN p.name AS name, p.born AS born",
+        "MATCH (p:Person)\nWHERE p.born >= %d AND p.born < %d\nRETURN p.name AS name\nORDER BY p.born DESC",
+        "MATCH (m:Movie {title: '%s'})<-[d:DIRECTED]-(p:Person)\nRETURN p.name AS director LIMIT %d",
+        "MATCH (a:Person {name: '%s'})\nOPTIONAL MATCH (a)-->(x)\nRETURN x"};
+
+    private final CypherTranslator<Query> translator = new CypherTranslator<>(1000, q -> q);
+    private String[] queries;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            // 64 distinct queries, each submitted with two different layouts
+            int n = i % 64;
+            String shape = SHAPES[n % SHAPES.length];
+            String query = shape.contains("%d AND")
+                    ? String.format(shape, 1900 + n, 1910 + n)
+                    : shape.contains("LIMIT")
+                    ? String.format(shape, "Movie " + n, n)
+                    : String.format(shape, "Person " + n);
+            queries[i] = (i / 64) % 2 == 0 ? query : "  " + query + "\n";
+            translator.translate(queries[i]);
+        }
+    }
+
+    @Benchmark
+    public Query parse() {
+        return CypherReader.read(nextQuery());
+    }
+
+    @Benchmark
+    public Query translate() {
+        return translator.translate(nextQuery());
+    }
+
+    private String nextQuery() {
+        next = (next + 1) & (queries.length - 1);
+        return queries[next];
+    }
+}
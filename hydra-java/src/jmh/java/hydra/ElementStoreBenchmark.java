@@ -0,0 +1,94 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.core.Name;
+import hydra.graph.Element;
+import hydra.module.Namespace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.record;
+
+
+/**
+ * Adds a single element to a large set of graph elements, either by copying a HashMap, as a graph update with a
+ * flat elements map requires, or by inserting into an ElementStore. Lookups by name and by namespace are measured
+ * as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ElementStoreBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    private Map<Name, Element<Kv>> hashMap;
+    private ElementStore<Kv> store;
+    private Element<Kv> added;
+    private Name existing;
+    private Namespace namespace;
+
+    @Setup
+    public void setup() {
+        hashMap = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Element<Kv> element = element(i);
+            hashMap.put(element.name, element);
+        }
+        store = ElementStore.from(hashMap);
+        added = element(size);
+        existing = element(size / 2).name;
+        namespace = ElementStore.namespaceOf(existing).get();
+    }
+
+    @Benchmark
+    public Map<Name, Element<Kv>> insertByCopyingHashMap() {
+        Map<Name, Element<Kv>> copy = new HashMap<>(hashMap);
+        copy.put(added.name, added);
+        return copy;
+    }
+
+    @Benchmark
+    public Map<Name, Element<Kv>> insertIntoStore() {
+        return store.insert(added);
+    }
+
+    @Benchmark
+    public Element<Kv> lookupInHashMap() {
+        return hashMap.get(existing);
+    }
+
+    @Benchmark
+    public Element<Kv> lookupInStore() {
+        return store.get(existing);
+    }
+
+    @Benchmark
+    public int namespaceOfStore() {
+        return store.inNamespace(namespace).size();
+    }
+
+    // Elements are spread over 1000 modules
+    private static Element<Kv> element(int i) {
+        return new Element<>(new Name("com/example/module" + (i % 1000) + ".element" + i),
+                record("Example", field("id", int32(i))));
+    }
+}
@@ -0,0 +1,79 @@
+package hydra;
+
+import hydra.compute.Flow;
+import hydra.compute.Kv;
+import hydra.core.Term;
+import hydra.core.Unit;
+import hydra.graph.Graph;
+import hydra.lib.math.Add;
+import hydra.lib.math.Mul;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static hydra.dsl.Terms.apply;
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.string;
+
+
+/**
+ * Measures the cost of flow evaluation in two flow-heavy workloads: eager reduction of primitive applications,
+ * and monadic identity rewriting of a large term. Run with `-prof gc` to obtain allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlowAllocationBenchmark {
+    @Param({"1000"})
+    public int size;
+
+    private Graph<Kv> graph;
+    private Term<Kv> arithmetic;
+    private Term<Kv> records;
+
+    @Setup
+    public void setup() {
+        graph = Benchmarks.standardGraph();
+
+        Term<Kv> add = new Add<Kv>().term();
+        Term<Kv> mul = new Mul<Kv>().term();
+        List<Term<Kv>> sums = new ArrayList<>(size);
+        List<Term<Kv>> recs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sums.add(apply(add, int32(i), apply(mul, int32(i), int32(2))));
+            recs.add(record("Example", field("id", int32(i)), field("name", string("element" + i)),
+                    field("tags", list(string("a"), string("b"), string("c")))));
+        }
+        arithmetic = list(sums);
+        records = list(recs);
+    }
+
+    @Benchmark
+    public Term<Kv> reduce() {
+        return Flows.fromFlow(graph, Reduction.reduce(true, arithmetic));
+    }
+
+    @Benchmark
+    public Term<Kv> rewriteTermM() {
+        Flow<Unit, Term<Kv>> flow = Rewriting.rewriteTermM(recurse -> recurse, Flows::pure, records);
+        return Flows.fromFlow(new Unit(), flow);
+    }
+}
@@ -0,0 +1,96 @@
+package hydra;
+
+import hydra.compute.Flow;
+import hydra.compute.FlowState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static hydra.Flows.EMPTY_TRACE;
+
+
+/**
+ * Compares the trampolined flow interpreter with the original closure-nesting implementation of bind and map,
+ * on mapM over lists of 10^3 to 10^6 elements.
+ * The closure-nesting variant recurses once per element, so the benchmark JVM is given a very large thread stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g"})
+public class FlowsBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Integer> input;
+
+    @Setup
+    public void setup() {
+        input = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            input.add(i);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> mapMTrampolined() {
+        Flow<Integer, List<Integer>> flow = Flows.mapM(input, i -> Flows.map(Flows.getState(), s -> i + s));
+        return flow.value.apply(1).apply(EMPTY_TRACE).value.get();
+    }
+
+    @Benchmark
+    public List<Integer> mapMClosures() {
+        Flow<Integer, List<Integer>> flow = closureMapM(input, i -> closureMap(Flows.getState(), s -> i + s));
+        return flow.value.apply(1).apply(EMPTY_TRACE).value.get();
+    }
+
+    // The original closure-based combinators, in which each bind calls directly into its source flow
+
+    private static <S, A> Flow<S, A> closurePure(A obj) {
+        return new Flow<>(s -> trace -> new FlowState<>(Optional.of(obj), s, trace));
+    }
+
+    private static <S, A, B> Flow<S, B> closureBind(Flow<S, A> p, Function<A, Flow<S, B>> f) {
+        return new Flow<>(s0 -> t0 -> {
+            FlowState<S, A> fs1 = p.value.apply(s0).apply(t0);
+            Optional<A> a = fs1.value;
+            return a.isPresent()
+                    ? f.apply(a.get()).value.apply(fs1.state).apply(fs1.trace)
+                    : new FlowState<>(Optional.empty(), fs1.state, fs1.trace);
+        });
+    }
+
+    private static <S, A, B> Flow<S, B> closureMap(Flow<S, A> x, Function<A, B> f) {
+        return new Flow<>(s -> trace -> {
+            FlowState<S, A> result = x.value.apply(s).apply(trace);
+            return new FlowState<>(result.value.map(f), result.state, result.trace);
+        });
+    }
+
+    private static <S, A, B> Flow<S, List<B>> closureMapM(List<A> as, Function<A, Flow<S, B>> f) {
+        Flow<S, List<B>> result = closurePure(new ArrayList<>());
+        for (A a : as) {
+            result = closureBind(result, ys -> closureMap(f.apply(a), b -> {
+                ys.add(b);
+                return ys;
+            }));
+        }
+        return result;
+    }
+}
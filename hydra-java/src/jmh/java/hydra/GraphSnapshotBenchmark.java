@@ -0,0 +1,99 @@
+package hydra;
+
+import hydra.binary.GraphSnapshot;
+import hydra.compute.Kv;
+import hydra.core.Name;
+import hydra.graph.Element;
+import hydra.graph.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.float64;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.string;
+
+
+/**
+ * Compares building a graph of elements from Java constructors with loading the same graph from a memory-mapped
+ * snapshot, either looking up a single element or decoding every element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphSnapshotBenchmark extends HydraTestBase {
+    @Param({"100000"})
+    public int size;
+
+    private Graph<Kv> empty;
+    private Path file;
+    private Name existing;
+
+    @Setup
+    public void setup() throws IOException {
+        empty = emptyGraph();
+        file = Files.createTempFile("graph", ".hybn");
+        GraphSnapshot.write(build(), file);
+        existing = new Name("example/people.person" + (size / 2));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Element<Kv> buildAndLookup() {
+        return build().elements.get(existing);
+    }
+
+    @Benchmark
+    public Element<Kv> loadAndLookup() throws IOException {
+        return GraphSnapshot.load(file, empty.primitives, empty.annotations).elements.get(existing);
+    }
+
+    @Benchmark
+    public int loadAndDecodeAll() throws IOException {
+        int n = 0;
+        for (Element<Kv> element : GraphSnapshot.load(file, empty.primitives, empty.annotations).elements.values()) {
+            n += element.name.value.length();
+        }
+        return n;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Graph<Kv> build() {
+        Map<Name, Element<Kv>> elements = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Element<Kv> element = new Element<>(new Name("example/people.person" + i), record("example/people.Person",
+                    field("id", int32(i)),
+                    field("name", string("person " + i)),
+                    field("score", float64(i / 7.0)),
+                    field("tags", list(string("friend"), string("colleague")))));
+            elements.put(element.name, element);
+        }
+        return empty.withElements(elements);
+    }
+}
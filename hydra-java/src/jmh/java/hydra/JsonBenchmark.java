@@ -0,0 +1,99 @@
+package hydra;
+
+import hydra.json.Value;
+import hydra.langs.json.JsonSerde;
+import hydra.langs.json.JsonStreamReader;
+import hydra.langs.json.JsonStreamWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares JSON encoding and decoding through json-io (JsonSerde) with the native streaming reader and writer,
+ * over an array of small records. Also measures record-at-a-time reading of the same records as newline-delimited
+ * JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({"1000"})
+    public int records;
+
+    private Value document;
+    private String json;
+    private String ndjson;
+
+    @Setup
+    public void setup() throws IOException {
+        List<Value> elements = new ArrayList<>(records);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < records; i++) {
+            Map<String, Value> fields = new LinkedHashMap<>();
+            fields.put("id", new Value.Number_((double) i));
+            fields.put("name", new Value.String_("record \"" + i + "\""));
+            fields.put("score", new Value.Number_(i / 7.0));
+            fields.put("active", new Value.Boolean_(i % 2 == 0));
+            fields.put("tags", new Value.Array(Arrays.asList(new Value.String_("a"), new Value.String_("b"))));
+            fields.put("parent", new Value.Null());
+            Value record = new Value.Object_(fields);
+            elements.add(record);
+            new JsonStreamWriter(sb).writeLine(record);
+        }
+        document = new Value.Array(elements);
+        json = JsonStreamWriter.toString(document);
+        ndjson = sb.toString();
+    }
+
+    @Benchmark
+    public Value decodeJsonSerde() {
+        return Flows.fromFlow(JsonSerde.decode(json));
+    }
+
+    @Benchmark
+    public Value decodeStreaming() throws IOException {
+        return JsonStreamReader.parse(json);
+    }
+
+    @Benchmark
+    public int decodeStreamingRecords() throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(new StringReader(ndjson));
+        int count = 0;
+        while (reader.hasNext()) {
+            reader.readValue();
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public String encodeJsonSerde() {
+        return Flows.fromFlow(JsonSerde.encode(document));
+    }
+
+    @Benchmark
+    public String encodeStreaming() {
+        return JsonStreamWriter.toString(document);
+    }
+}
@@ -0,0 +1,80 @@
+package hydra;
+
+import hydra.langs.kusto.KqlWriter;
+import hydra.langs.kusto.kql.BinaryExpression;
+import hydra.langs.kusto.kql.BinaryOperator;
+import hydra.langs.kusto.kql.ColumnName;
+import hydra.langs.kusto.kql.Command;
+import hydra.langs.kusto.kql.Expression;
+import hydra.langs.kusto.kql.Literal;
+import hydra.langs.kusto.kql.PipelineExpression;
+import hydra.langs.kusto.kql.Query;
+import hydra.langs.kusto.kql.TableName;
+import hydra.langs.kusto.kql.TabularExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Serializes a synthetic KQL pipeline of many where clauses, each comparing a column with a literal,
+ * both to a new string and into a reused StringBuilder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KqlWriterBenchmark {
+    @Param({"10000"})
+    public int clauses;
+
+    private Query query;
+    private final StringBuilder sb = new StringBuilder();
+
+    @Setup
+    public void setup() {
+        List<TabularExpression> stages = new ArrayList<>(clauses + 1);
+        stages.add(new TabularExpression.Table(new TableName("Events")));
+        for (int i = 0; i < clauses; i++) {
+            Expression condition = new Expression.Binary(new BinaryExpression(
+                    new Expression.Column(new ColumnName("column" + (i % 100))),
+                    new BinaryOperator.Greater(),
+                    new Expression.Literal(new Literal.Int(i))));
+            stages.add(new TabularExpression.Command(new Command.Where(condition)));
+        }
+        query = new Query(new TabularExpression.Pipeline(new PipelineExpression(stages)));
+    }
+
+    @Benchmark
+    public String writeString() {
+        return KqlWriter.write(query);
+    }
+
+    @Benchmark
+    public int writeIntoBuilder() {
+        sb.setLength(0);
+        KqlWriter.write(query, sb, false);
+        return sb.length();
+    }
+
+    @Benchmark
+    public int writePretty() {
+        sb.setLength(0);
+        KqlWriter.write(query, sb, true);
+        return sb.length();
+    }
+}
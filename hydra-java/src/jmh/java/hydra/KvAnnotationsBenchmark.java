@@ -0,0 +1,95 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.core.Annotated;
+import hydra.core.Term;
+import hydra.core.Type;
+import hydra.dsl.Types;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static hydra.coreEncoding.CoreEncoding.coreEncodeType;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.string;
+
+
+/**
+ * Annotates many terms with a type and a description, either with a fresh HashMap per term, as Kv annotations are
+ * otherwise built, or with KvAnnotations, which shares compact annotation sets. The gc profiler's normalized
+ * allocation rate approximates the heap footprint of the annotations; the retained size of each list of annotated
+ * terms is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KvAnnotationsBenchmark {
+    @Param({"10000"})
+    public int terms;
+
+    private final Type<Kv> type = Types.record("example/people.Person",
+            Types.field("name", Types.string()), Types.field("age", Types.int32()));
+
+    @Setup
+    public void setup() {
+        System.out.println("\nretained with HashMaps: " + retained(this::annotateWithHashMaps)
+                + " bytes, with KvAnnotations: " + retained(this::annotateWithKvAnnotations) + " bytes");
+    }
+
+    @Benchmark
+    public List<Term<Kv>> annotateWithHashMaps() {
+        List<Term<Kv>> result = new ArrayList<>(terms);
+        for (int i = 0; i < terms; i++) {
+            Map<String, Term<Kv>> annotations = new HashMap<>();
+            annotations.put(KvAnnotations.TYPE, coreEncodeType(type));
+            annotations.put(KvAnnotations.DESCRIPTION, string("a person"));
+            result.add(new Term.Annotated<>(new Annotated<>(int32(i), new Kv(annotations))));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Term<Kv>> annotateWithKvAnnotations() {
+        List<Term<Kv>> result = new ArrayList<>(terms);
+        for (int i = 0; i < terms; i++) {
+            result.add(KvAnnotations.setTermDescription(Optional.of("a person"),
+                    KvAnnotations.setTermType(Optional.of(type), int32(i))));
+        }
+        return result;
+    }
+
+    private static long retained(Supplier<List<Term<Kv>>> annotate) {
+        long before = used();
+        List<Term<Kv>> result = annotate.get();
+        long after = used();
+        // The result must stay reachable until it has been measured
+        return result.isEmpty() ? 0 : after - before;
+    }
+
+    private static long used() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
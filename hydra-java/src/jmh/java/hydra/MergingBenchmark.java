@@ -0,0 +1,95 @@
+package hydra;
+
+import hydra.compute.StatelessAdapter;
+import hydra.core.Literal;
+import hydra.core.LiteralType;
+import hydra.dsl.LiteralTypes;
+import hydra.dsl.Literals;
+import hydra.langs.tinkerpop.Merging;
+import hydra.langs.tinkerpop.dsl.Graphs;
+import hydra.langs.tinkerpop.propertyGraph.Vertex;
+import hydra.langs.tinkerpop.propertyGraph.VertexType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Encodes the vertices of an export with two vertex labels into a single merged label, one element at a time through
+ * the adapter's coder, and as a batch, both sequentially and in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MergingBenchmark {
+    @Param({"100000"})
+    public int size;
+
+    private StatelessAdapter<List<VertexType<LiteralType>>, VertexType<LiteralType>, Vertex<Literal>, Vertex<Literal>>
+            adapter;
+    private List<Vertex<Literal>> vertices;
+
+    @Setup
+    public void setup() {
+        VertexType<LiteralType> personType = Graphs.vertexType("Person", LiteralTypes.string())
+                .property("name", LiteralTypes.string(), true)
+                .property("age", LiteralTypes.int32(), false)
+                .property("email", LiteralTypes.string(), false)
+                .build();
+        VertexType<LiteralType> companyType = Graphs.vertexType("Company", LiteralTypes.string())
+                .property("name", LiteralTypes.string(), true)
+                .property("founded", LiteralTypes.int32(), false)
+                .build();
+        adapter = Flows.fromFlow(Merging.createVertexAdapter(Arrays.asList(personType, companyType),
+                Merging.STRING_ID_ADAPTERS, true));
+
+        vertices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            vertices.add(i % 10 == 0
+                    ? Graphs.vertex(companyType, Literals.string("c" + i))
+                            .property("name", Literals.string("Company " + i))
+                            .property("founded", Literals.int32(1900 + i % 100))
+                            .build()
+                    : Graphs.vertex(personType, Literals.string("p" + i))
+                            .property("name", Literals.string("Person " + i))
+                            .property("age", Literals.int32(i % 100))
+                            .property("email", Literals.string("p" + i + "@example.org"))
+                            .build());
+        }
+    }
+
+    @Benchmark
+    public List<Vertex<Literal>> perElement() {
+        List<Vertex<Literal>> result = new ArrayList<>(vertices.size());
+        for (Vertex<Literal> v : vertices) {
+            result.add(Flows.fromFlow(adapter.coder.encode.apply(v)));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Vertex<Literal>> batch() {
+        return Merging.batchCoder(adapter).encodeAll(vertices, false);
+    }
+
+    @Benchmark
+    public List<Vertex<Literal>> batchParallel() {
+        return Merging.batchCoder(adapter).encodeAll(vertices, true);
+    }
+}
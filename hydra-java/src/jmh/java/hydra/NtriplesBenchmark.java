@@ -0,0 +1,101 @@
+package hydra;
+
+import hydra.langs.rdf.NtriplesReader;
+import hydra.langs.rdf.NtriplesWriter;
+import hydra.langs.rdf.Serde;
+import hydra.langs.rdf.syntax.BlankNode;
+import hydra.langs.rdf.syntax.Iri;
+import hydra.langs.rdf.syntax.Literal;
+import hydra.langs.rdf.syntax.Node;
+import hydra.langs.rdf.syntax.Resource;
+import hydra.langs.rdf.syntax.Triple;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares whole-graph serialization through RDF4j (Serde.toNtriples) with the streaming N-Triples writer, and
+ * RDF4j's N-Triples parser with the streaming reader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NtriplesBenchmark {
+    @Param({"10000"})
+    public int size;
+
+    private List<Triple> triples;
+    private String ntriples;
+
+    @Setup
+    public void setup() throws IOException {
+        Iri xsdString = new Iri("http://www.w3.org/2001/XMLSchema#string");
+        Iri xsdInt = new Iri("http://www.w3.org/2001/XMLSchema#int");
+        triples = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Resource subject = i % 3 == 0
+                    ? new Resource.Bnode(new BlankNode("b" + i))
+                    : new Resource.Iri(new Iri("http://example.org/person/" + i));
+            Node object = i % 2 == 0
+                    ? new Node.Literal(new Literal("Person \"" + i + "\"\nof example.org", xsdString,
+                            Optional.empty()))
+                    : new Node.Literal(new Literal(Integer.toString(i), xsdInt, Optional.empty()));
+            triples.add(new Triple(subject, new Iri("http://example.org/property/" + (i % 10)), object));
+        }
+        StringWriter sw = new StringWriter();
+        Serde.writeNtriples(triples.iterator(), sw);
+        ntriples = sw.toString();
+    }
+
+    @Benchmark
+    public String writeRdf4j() {
+        return Serde.toNtriples(triples);
+    }
+
+    @Benchmark
+    public String writeStreaming() throws IOException {
+        StringWriter sw = new StringWriter();
+        NtriplesWriter writer = new NtriplesWriter(sw);
+        writer.writeAll(triples.iterator());
+        writer.flush();
+        return sw.toString();
+    }
+
+    @Benchmark
+    public Model readRdf4j() throws IOException {
+        return Rio.parse(new StringReader(ntriples), "", RDFFormat.NTRIPLES);
+    }
+
+    @Benchmark
+    public int readStreaming() throws IOException {
+        NtriplesReader reader = new NtriplesReader(new StringReader(ntriples));
+        int count = 0;
+        while (reader.read() != null) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,99 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.core.Term;
+import hydra.graph.Graph;
+import hydra.lib.lists.Concat2;
+import hydra.lib.lists.Cons;
+import hydra.lib.lists.Head;
+import hydra.lib.lists.Length;
+import hydra.lib.lists.Pure;
+import hydra.lib.math.Add;
+import hydra.lib.math.Mul;
+import hydra.lib.math.Neg;
+import hydra.lib.math.Sub;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static hydra.dsl.Terms.apply;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.list;
+
+
+/**
+ * Runs primitive-heavy programs, using the hydra/lib/math and hydra/lib/lists primitives, through the reducer and
+ * the evaluator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrimitiveBenchmark {
+    @Param({"1000"})
+    public int size;
+
+    private Graph<Kv> graph;
+    private Term<Kv> math;
+    private Term<Kv> lists;
+
+    @Setup
+    public void setup() {
+        graph = Benchmarks.standardGraph();
+        Term<Kv> add = new Add<Kv>().term();
+        Term<Kv> mul = new Mul<Kv>().term();
+        Term<Kv> neg = new Neg<Kv>().term();
+        Term<Kv> sub = new Sub<Kv>().term();
+        Term<Kv> concat2 = new Concat2<Kv>().term();
+        Term<Kv> cons = new Cons<Kv>().term();
+        Term<Kv> head = new Head<Kv>().term();
+        Term<Kv> length = new Length<Kv>().term();
+        Term<Kv> pure = new Pure<Kv>().term();
+
+        List<Term<Kv>> mathTerms = new ArrayList<>(size);
+        List<Term<Kv>> listTerms = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // (i * 2) + (i - (-1))
+            mathTerms.add(apply(add, apply(mul, int32(i), int32(2)), apply(sub, int32(i), apply(neg, int32(1)))));
+            // length (concat2 (pure i) (cons (head (pure i)) (pure i)))
+            Term<Kv> single = apply(pure, int32(i));
+            listTerms.add(apply(length, apply(concat2, single, apply(cons, apply(head, single), single))));
+        }
+        math = list(mathTerms);
+        lists = list(listTerms);
+    }
+
+    @Benchmark
+    public Term<Kv> mathReduction() {
+        return Flows.fromFlow(graph, Reduction.reduce(true, math));
+    }
+
+    @Benchmark
+    public Term<Kv> mathEvaluation() {
+        return Flows.fromFlow(graph, Evaluation.reduce(true, math));
+    }
+
+    @Benchmark
+    public Term<Kv> listsReduction() {
+        return Flows.fromFlow(graph, Reduction.reduce(true, lists));
+    }
+
+    @Benchmark
+    public Term<Kv> listsEvaluation() {
+        return Flows.fromFlow(graph, Evaluation.reduce(true, lists));
+    }
+}
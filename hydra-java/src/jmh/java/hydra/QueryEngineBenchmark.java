@@ -0,0 +1,167 @@
+package hydra;
+
+import hydra.core.Literal;
+import hydra.dsl.Literals;
+import hydra.langs.tinkerpop.ColumnarGraph;
+import hydra.langs.tinkerpop.QueryEngine;
+import hydra.langs.tinkerpop.propertyGraph.Direction;
+import hydra.langs.tinkerpop.propertyGraph.Edge;
+import hydra.langs.tinkerpop.propertyGraph.EdgeLabel;
+import hydra.langs.tinkerpop.propertyGraph.Graph;
+import hydra.langs.tinkerpop.propertyGraph.PropertyKey;
+import hydra.langs.tinkerpop.propertyGraph.Vertex;
+import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
+import hydra.langs.tinkerpop.queries.AggregationQuery;
+import hydra.langs.tinkerpop.queries.BinaryExpression;
+import hydra.langs.tinkerpop.queries.BinaryOperator;
+import hydra.langs.tinkerpop.queries.ComparisonOperator;
+import hydra.langs.tinkerpop.queries.EdgeProjectionPattern;
+import hydra.langs.tinkerpop.queries.Expression;
+import hydra.langs.tinkerpop.queries.MatchQuery;
+import hydra.langs.tinkerpop.queries.Projection;
+import hydra.langs.tinkerpop.queries.PropertyPattern;
+import hydra.langs.tinkerpop.queries.PropertyProjection;
+import hydra.langs.tinkerpop.queries.PropertyValuePattern;
+import hydra.langs.tinkerpop.queries.Query;
+import hydra.langs.tinkerpop.queries.Variable;
+import hydra.langs.tinkerpop.queries.VertexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static hydra.langs.tinkerpop.dsl.Queries.apply;
+
+
+/**
+ * Executes compiled QueryEngine plans over a random graph: an index seek followed by a two-hop expansion, a label
+ * scan with an expansion to vertices of another label, and a hash join on property values. The cost of compiling
+ * the first query is measured separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryEngineBenchmark {
+    private static final VertexLabel PERSON = new VertexLabel("Person");
+    private static final VertexLabel PLACE = new VertexLabel("Place");
+    private static final EdgeLabel KNOWS = new EdgeLabel("knows");
+    private static final PropertyKey NAME = new PropertyKey("name");
+    private static final PropertyKey AGE = new PropertyKey("age");
+    private static final Query COUNT = new Query.Aggregate(new AggregationQuery.Count());
+
+    @Param({"100000"})
+    public int size;
+
+    private QueryEngine<Literal> engine;
+    private Query twoHopQuery;
+    private QueryEngine<Literal>.Plan twoHop;
+    private QueryEngine<Literal>.Plan scanExpand;
+    private QueryEngine<Literal>.Plan hashJoin;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        Map<Literal, Vertex<Literal>> vertices = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Map<PropertyKey, Literal> props = new HashMap<>();
+            props.put(NAME, Literals.string("v" + i));
+            props.put(AGE, Literals.int32(i % 97));
+            Literal id = Literals.string("v" + i);
+            vertices.put(id, new Vertex<>(i % 4 == 0 ? PLACE : PERSON, id, props));
+        }
+        Map<Literal, Edge<Literal>> edges = new HashMap<>();
+        for (int i = 0; i < size * 3; i++) {
+            Literal id = Literals.string("e" + i);
+            edges.put(id, new Edge<>(KNOWS, id, Literals.string("v" + random.nextInt(size)),
+                    Literals.string("v" + random.nextInt(size)), new HashMap<>()));
+        }
+        engine = new QueryEngine<>(ColumnarGraph.from(new Graph<>(vertices, edges)), Literals::string,
+                (a, b) -> a.toString().compareTo(b.toString()));
+
+        // MATCH (p:Person {name: 'v42'})-[:knows]->()-[:knows]->(q) RETURN q
+        VertexPattern q = vertex("q", null);
+        VertexPattern friend = vertex(null, null).withEdges(Collections.singletonList(knows(q)));
+        twoHopQuery = match(vertex("p", PERSON)
+                .withProperties(Collections.singletonList(
+                        new PropertyPattern(NAME, new PropertyValuePattern.Value("v42"))))
+                .withEdges(Collections.singletonList(knows(friend))));
+        twoHop = engine.compile(twoHopQuery);
+
+        // MATCH (p:Person)-[:knows]->(:Place) RETURN COUNT(*)
+        scanExpand = engine.compile(apply(
+                match(vertex("p", PERSON).withEdges(Collections.singletonList(knows(vertex(null, PLACE))))),
+                COUNT));
+
+        // MATCH (p:Person {name: 'v42'}), (s:Place) WHERE p.age = s.age RETURN COUNT(*)
+        Query join = new Query.Match(new MatchQuery(false, Arrays.asList(
+                projection(vertex("p", PERSON).withProperties(Collections.singletonList(
+                        new PropertyPattern(NAME, new PropertyValuePattern.Value("v42"))))),
+                projection(vertex("s", PLACE))),
+                Optional.of(new Expression.Binary(new BinaryExpression(
+                        property("p", AGE), new BinaryOperator.Comparison(new ComparisonOperator.Eq()),
+                        property("s", AGE))))));
+        hashJoin = engine.compile(apply(join, COUNT));
+    }
+
+    @Benchmark
+    public QueryEngine<Literal>.Plan compile() {
+        return engine.compile(twoHopQuery);
+    }
+
+    @Benchmark
+    public List<List<Object>> indexSeekTwoHops() {
+        return twoHop.execute().rows;
+    }
+
+    @Benchmark
+    public List<List<Object>> labelScanExpand() {
+        return scanExpand.execute().rows;
+    }
+
+    @Benchmark
+    public List<List<Object>> propertyHashJoin() {
+        return hashJoin.execute().rows;
+    }
+
+    private static VertexPattern vertex(String variable, VertexLabel label) {
+        return new VertexPattern(Optional.ofNullable(variable).map(Variable::new), Optional.ofNullable(label),
+                Collections.emptyList(), Collections.emptyList());
+    }
+
+    private static EdgeProjectionPattern knows(VertexPattern to) {
+        return new EdgeProjectionPattern(new Direction.Out(), Optional.of(KNOWS), Collections.emptyList(),
+                Optional.of(to));
+    }
+
+    private static Expression property(String variable, PropertyKey key) {
+        return new Expression.Property(new PropertyProjection(new Expression.Variable(new Variable(variable)), key));
+    }
+
+    private static Projection projection(VertexPattern pattern) {
+        return new Projection(new Expression.Vertex(pattern), Optional.empty());
+    }
+
+    private static Query match(VertexPattern pattern) {
+        return new Query.Match(new MatchQuery(false, Collections.singletonList(projection(pattern)),
+                Optional.empty()));
+    }
+}
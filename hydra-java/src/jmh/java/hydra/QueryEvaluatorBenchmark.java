@@ -0,0 +1,130 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.core.FieldName;
+import hydra.core.Name;
+import hydra.core.Projection;
+import hydra.core.Term;
+import hydra.graph.Element;
+import hydra.graph.Graph;
+import hydra.query.Edge;
+import hydra.query.Node;
+import hydra.query.Path;
+import hydra.query.Pattern;
+import hydra.query.Query;
+import hydra.query.Range;
+import hydra.query.RegexQuantifier;
+import hydra.query.RegexSequence;
+import hydra.query.Step;
+import hydra.query.TriplePattern;
+import hydra.query.Variable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static hydra.Flows.fromFlow;
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.variable;
+
+
+/**
+ * Evaluates path queries over a lineage graph of datasets, each of which is derived from one or two earlier
+ * datasets: the transitive ancestors of the last dataset, a bidirectional reachability check between the two ends
+ * of the graph, and a conjunctive query which joins a bounded path with a projection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryEvaluatorBenchmark {
+    private static final Path DERIVED_FROM = new Path.Step(new Step.Edge(
+            new Edge(new Name("DerivedFrom"), Optional.empty(), Optional.empty())));
+    private static final Path ANCESTOR = new Path.Regex(new RegexSequence(DERIVED_FROM,
+            new RegexQuantifier.OneOrMore()));
+
+    @Param({"100000"})
+    public int size;
+
+    private QueryEvaluator<Kv> evaluator;
+    private Term<Kv> first;
+    private Term<Kv> last;
+    private Query<Kv> boundedJoin;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        Map<Name, Element<Kv>> elements = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Name name = new Name("d" + i);
+            elements.put(name, new Element<>(name, record("Dataset", field("size", int32(i % 1000)))));
+            if (i > 0) {
+                derive(elements, i, i - 1);
+                if (i % 3 == 0) {
+                    derive(elements, i, random.nextInt(i));
+                }
+            }
+        }
+        Graph<Kv> empty = HydraTestBase.emptyGraph();
+        evaluator = new QueryEvaluator<>(empty.withElements(elements));
+        first = variable("d0");
+        last = variable("d" + (size - 1));
+
+        // The sizes of the datasets from which the last one is derived within two to four steps
+        Path twoToFour = new Path.Regex(new RegexSequence(DERIVED_FROM, new RegexQuantifier.Range(new Range(2, 4))));
+        Path sizeOf = new Path.Step(new Step.Project(new Projection(new Name("Dataset"), new FieldName("size"))));
+        boundedJoin = new Query<>(Collections.singletonList(new Variable("s")), Arrays.asList(
+                triple(new Node.Term<>(last), twoToFour, var("x")),
+                triple(var("x"), sizeOf, var("s"))));
+    }
+
+    @Benchmark
+    public Set<Term<Kv>> transitiveAncestors() {
+        return fromFlow(evaluator.reachable(last, ANCESTOR));
+    }
+
+    @Benchmark
+    public boolean bidirectionalReachability() {
+        return fromFlow(evaluator.connected(last, ANCESTOR, first));
+    }
+
+    @Benchmark
+    public List<Map<Variable, Term<Kv>>> boundedPathJoin() {
+        return fromFlow(evaluator.evaluate(boundedJoin));
+    }
+
+    private static void derive(Map<Name, Element<Kv>> elements, int from, int to) {
+        Name name = new Name("d" + from + "-d" + to);
+        elements.put(name, new Element<>(name, record("DerivedFrom",
+                field("out", variable("d" + from)), field("in", variable("d" + to)))));
+    }
+
+    private static Node<Kv> var(String name) {
+        return new Node.Variable<>(new Variable(name));
+    }
+
+    private static Pattern<Kv> triple(Node<Kv> subject, Path predicate, Node<Kv> object) {
+        return new Pattern.Triple<>(new TriplePattern<>(subject, predicate, object));
+    }
+}
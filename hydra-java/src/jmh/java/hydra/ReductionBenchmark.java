@@ -0,0 +1,99 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.core.Term;
+import hydra.graph.Graph;
+import hydra.lib.math.Add;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static hydra.dsl.Terms.apply;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.lambda;
+import static hydra.dsl.Terms.let;
+import static hydra.dsl.Terms.variable;
+
+
+/**
+ * Compares the substitution-based reducer (Reduction) with the environment-based evaluator (Evaluation) on deeply
+ * curried applications, and measures the evaluator alone on deeply nested lets; Reduction does not evaluate let
+ * terms, and fails on the primitive applications to let-bound variables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss64m"})
+public class ReductionBenchmark {
+    @Param({"10", "100", "1000"})
+    public int depth;
+
+    private Graph<Kv> graph;
+    private Term<Kv> curried;
+    private Term<Kv> lets;
+
+    @Setup
+    public void setup() {
+        graph = Benchmarks.standardGraph();
+        Term<Kv> add = new Add<Kv>().term();
+
+        // (\x0 -> \x1 -> ... -> x0 + (x1 + ...)) 0 1 ...
+        Term<Kv> body = int32(0);
+        for (int i = depth - 1; i >= 0; i--) {
+            body = apply(add, variable("x" + i), body);
+        }
+        Term<Kv> fun = body;
+        for (int i = depth - 1; i >= 0; i--) {
+            fun = lambda("x" + i, fun);
+        }
+        Term<Kv> app = fun;
+        for (int i = 0; i < depth; i++) {
+            app = apply(app, int32(i));
+        }
+        curried = app;
+
+        // let x0 = 0 in let x1 = x0 + 1 in ... in x(n-1)
+        Term<Kv> env = variable("x" + (depth - 1));
+        for (int i = depth - 1; i > 0; i--) {
+            env = let("x" + i, apply(add, variable("x" + (i - 1)), int32(1)), env);
+        }
+        lets = let("x0", int32(0), env);
+    }
+
+    @Benchmark
+    public Term<Kv> curriedSubstitution() {
+        return Flows.fromFlow(graph, Reduction.reduce(true, curried));
+    }
+
+    @Benchmark
+    public Term<Kv> curriedEnvironmentEager() {
+        return Flows.fromFlow(graph, Evaluation.reduce(true, curried));
+    }
+
+    @Benchmark
+    public Term<Kv> curriedEnvironmentLazy() {
+        return Flows.fromFlow(graph, Evaluation.reduce(false, curried));
+    }
+
+    @Benchmark
+    public Term<Kv> letsEnvironmentEager() {
+        return Flows.fromFlow(graph, Evaluation.reduce(true, lets));
+    }
+
+    @Benchmark
+    public Term<Kv> letsEnvironmentLazy() {
+        return Flows.fromFlow(graph, Evaluation.reduce(false, lets));
+    }
+}
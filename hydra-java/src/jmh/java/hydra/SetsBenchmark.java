@@ -0,0 +1,71 @@
+package hydra;
+
+import hydra.core.Term;
+import hydra.lib.sets.Insert;
+import hydra.tools.PersistentSortedSet;
+import hydra.tools.TermOrdering;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static hydra.dsl.Terms.int32;
+
+
+/**
+ * Builds a set of terms by repeated insertion, as a fold over hydra/lib/sets.insert would, comparing the original
+ * copy-on-insert hash sets with persistent sorted sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SetsBenchmark {
+    @Param({"1000", "10000"})
+    public int size;
+
+    private List<Term<Void>> elements;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(int32(random.nextInt()));
+        }
+    }
+
+    @Benchmark
+    public Set<Term<Void>> insertHashSet() {
+        Set<Term<Void>> set = Collections.emptySet();
+        for (Term<Void> t : elements) {
+            set = Insert.apply(t, set);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public Set<Term<Void>> insertPersistentSet() {
+        Set<Term<Void>> set = PersistentSortedSet.empty(TermOrdering.terms());
+        for (Term<Void> t : elements) {
+            set = Insert.apply(t, set);
+        }
+        return set;
+    }
+}
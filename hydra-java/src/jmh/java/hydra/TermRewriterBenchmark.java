@@ -0,0 +1,104 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.core.Name;
+import hydra.core.Term;
+import hydra.dsl.Types;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static hydra.dsl.Terms.apply;
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.lambda;
+import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.string;
+import static hydra.dsl.Terms.variable;
+
+
+/**
+ * Rewrites a large, annotated, module-like term by stripping its annotations and replacing two free variables,
+ * either in three passes of closure-based rewriting, as Rewriting.rewriteTerm is otherwise used, or in one fused
+ * pass of TermRewriter. The noop benchmarks apply a rewrite which changes nothing. Run with `-prof gc` to obtain
+ * allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TermRewriterBenchmark {
+    @Param({"10000"})
+    public int elements;
+
+    private static final Name X = new Name("x");
+    private static final Name Y = new Name("y");
+    private static final Name ABSENT = new Name("absent");
+
+    private Term<Kv> module;
+
+    @Setup
+    public void setup() {
+        List<Term<Kv>> els = new ArrayList<>(elements);
+        for (int i = 0; i < elements; i++) {
+            Term<Kv> name = KvAnnotations.setTermType(Optional.of(Types.string()), string("element" + i));
+            Term<Kv> body = lambda("z", apply(variable("z"), variable("x"), variable("y")));
+            Term<Kv> el = record("Example", field("id", int32(i)), field("name", name),
+                    field("tags", list(string("a"), variable("y"))), field("f", body));
+            els.add(KvAnnotations.setTermDescription(Optional.of("element " + i), el));
+        }
+        module = list(els);
+    }
+
+    @Benchmark
+    public Term<Kv> sequentialPasses() {
+        Term<Kv> stripped = Rewriting.rewriteTerm(recurse -> t -> recurse.apply(KvAnnotations.stripTerm(t)),
+                a -> a, module);
+        return replaceFreeName(Y, string("y"), replaceFreeName(X, int32(0), stripped));
+    }
+
+    @Benchmark
+    public Term<Kv> fusedPass() {
+        return TermRewriter.rewrite(module, TermRewriter.stripAnnotations(),
+                TermRewriter.replaceFreeName(X, int32(0)), TermRewriter.replaceFreeName(Y, string("y")));
+    }
+
+    @Benchmark
+    public Term<Kv> noopClosures() {
+        return replaceFreeName(ABSENT, int32(0), module);
+    }
+
+    @Benchmark
+    public Term<Kv> noopFused() {
+        return TermRewriter.rewrite(module, TermRewriter.replaceFreeName(ABSENT, int32(0)));
+    }
+
+    // Free variable replacement with nested closures, as Reduction.replaceFreeName was written
+    private static Term<Kv> replaceFreeName(Name name, Term<Kv> replacement, Term<Kv> term) {
+        return Rewriting.rewriteTerm(recurse -> t -> {
+            if (t instanceof Term.Variable) {
+                return ((Term.Variable<Kv>) t).value.equals(name) ? replacement : t;
+            } else if (t instanceof Term.Function && ((Term.Function<Kv>) t).value instanceof hydra.core.Function.Lambda
+                    && ((hydra.core.Function.Lambda<Kv>) ((Term.Function<Kv>) t).value).value.parameter.equals(name)) {
+                return t;
+            }
+            return recurse.apply(t);
+        }, a -> a, term);
+    }
+}
@@ -0,0 +1,109 @@
+package hydra;
+
+import hydra.core.Literal;
+import hydra.core.LiteralType;
+import hydra.dsl.LiteralTypes;
+import hydra.dsl.Literals;
+import hydra.langs.tinkerpop.GraphValidator;
+import hydra.langs.tinkerpop.dsl.Graphs;
+import hydra.langs.tinkerpop.propertyGraph.Edge;
+import hydra.langs.tinkerpop.propertyGraph.EdgeLabel;
+import hydra.langs.tinkerpop.propertyGraph.EdgeType;
+import hydra.langs.tinkerpop.propertyGraph.Graph;
+import hydra.langs.tinkerpop.propertyGraph.GraphSchema;
+import hydra.langs.tinkerpop.propertyGraph.Vertex;
+import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
+import hydra.langs.tinkerpop.propertyGraph.VertexType;
+import hydra.langs.tinkerpop.validate.Validate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+
+/**
+ * Validates a valid property graph (so that every element is checked) with the generated reference validator and
+ * with the compiled GraphValidator, both in parallel over the whole graph and streaming over its elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    private static final Function<LiteralType, Function<Literal, Optional<String>>> CHECK_LITERAL
+            = type -> value -> Literals.checkLiteral(type, value);
+
+    @Param({"100000"})
+    public int size;
+
+    private GraphSchema<LiteralType> schema;
+    private Graph<Literal> graph;
+    private GraphValidator<LiteralType, Literal> validator;
+
+    @Setup
+    public void setup() {
+        VertexType<LiteralType> personType = Graphs.vertexType("Person", LiteralTypes.string())
+                .property("name", LiteralTypes.string(), true)
+                .property("age", LiteralTypes.int32(), false)
+                .build();
+        EdgeType<LiteralType> knowsType = Graphs.edgeType("knows", LiteralTypes.string(), "Person", "Person")
+                .property("since", LiteralTypes.int32(), true)
+                .build();
+        schema = new GraphSchema<>(Collections.singletonMap(new VertexLabel("Person"), personType),
+                Collections.singletonMap(new EdgeLabel("knows"), knowsType));
+
+        Map<Literal, Vertex<Literal>> vertices = new HashMap<>();
+        Map<Literal, Edge<Literal>> edges = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Vertex<Literal> v = Graphs.vertex(personType, Literals.string("p" + i))
+                    .property("name", Literals.string("Person " + i))
+                    .property("age", Literals.int32(i % 100))
+                    .build();
+            vertices.put(v.id, v);
+            Edge<Literal> e = Graphs.edge(knowsType, Literals.string("e" + i),
+                            Literals.string("p" + i), Literals.string("p" + ((i + 1) % size)))
+                    .property("since", Literals.int32(2000 + i % 20))
+                    .build();
+            edges.put(e.id, e);
+        }
+        graph = new Graph<>(vertices, edges);
+        validator = new GraphValidator<>(schema, CHECK_LITERAL, Literals::showLiteral);
+    }
+
+    @Benchmark
+    public Optional<String> reference() {
+        return Validate.validateGraph(CHECK_LITERAL).apply(Literals::showLiteral).apply(schema).apply(graph);
+    }
+
+    @Benchmark
+    public GraphValidator.Report compiledFailFast() {
+        return validator.validate(graph, GraphValidator.Mode.FAIL_FAST);
+    }
+
+    @Benchmark
+    public GraphValidator.Report compiledCollectAll() {
+        return validator.validate(graph, GraphValidator.Mode.COLLECT_ALL);
+    }
+
+    @Benchmark
+    public GraphValidator.Report compiledStreaming() {
+        return validator.validate(graph.vertices.values().iterator(), graph.edges.values().iterator(),
+                GraphValidator.Mode.COLLECT_ALL, err -> { });
+    }
+}
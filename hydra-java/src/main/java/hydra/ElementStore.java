@@ -0,0 +1,227 @@
+package hydra;
+
+import hydra.core.Name;
+import hydra.core.Term;
+import hydra.graph.Element;
+import hydra.graph.Graph;
+import hydra.module.Module;
+import hydra.module.Namespace;
+import hydra.tools.PersistentHashMap;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static hydra.KvAnnotations.stripTerm;
+
+
+/**
+ * A persistent store of graph elements, with secondary indexes by namespace and by type name, which may be used
+ * as the elements map of a Graph. All three maps are hash array mapped tries, so that adding or removing an element
+ * takes O(log n) time and shares nearly all of its structure with the original store, rather than copying it.
+ * The namespace of an element is derived from its name as by qualifyNameLazy, and its type name is the nominal type
+ * of its record, union or wrapper term, if any.
+ * The standard mutators of java.util.Map are not supported; use insert and delete instead.
+ */
+public class ElementStore<A> extends AbstractMap<Name, Element<A>> {
+    private static final ElementStore<?> EMPTY = new ElementStore<>(
+            PersistentHashMap.empty(), PersistentHashMap.empty(), PersistentHashMap.empty());
+
+    private final PersistentHashMap<Name, Element<A>> elements;
+    private final PersistentHashMap<Namespace, PersistentHashMap<Name, Element<A>>> byNamespace;
+    private final PersistentHashMap<Name, PersistentHashMap<Name, Element<A>>> byType;
+
+    private ElementStore(PersistentHashMap<Name, Element<A>> elements,
+                         PersistentHashMap<Namespace, PersistentHashMap<Name, Element<A>>> byNamespace,
+                         PersistentHashMap<Name, PersistentHashMap<Name, Element<A>>> byType) {
+        this.elements = elements;
+        this.byNamespace = byNamespace;
+        this.byType = byType;
+    }
+
+    /**
+     * The empty store.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> ElementStore<A> empty() {
+        return (ElementStore<A>) EMPTY;
+    }
+
+    /**
+     * Construct a store from a map of elements. If the map is already an ElementStore, it is returned as-is.
+     */
+    public static <A> ElementStore<A> from(Map<Name, Element<A>> elements) {
+        if (elements instanceof ElementStore) {
+            return (ElementStore<A>) elements;
+        }
+        return ElementStore.<A>empty().insertAll(elements.values());
+    }
+
+    /**
+     * Add or replace an element of a graph, producing a new graph whose elements are an ElementStore.
+     * Only the first update of a graph with some other kind of elements map copies the map.
+     */
+    public static <A> Graph<A> withElement(Graph<A> graph, Element<A> element) {
+        // The generated withElements returns a raw Graph, so the graph is constructed directly
+        return new Graph<>(from(graph.elements).insert(element), graph.environment, graph.body, graph.primitives,
+                graph.annotations, graph.schema);
+    }
+
+    /**
+     * The namespace of an element name, which is the part of the name before its last '.', if any.
+     */
+    public static Optional<Namespace> namespaceOf(Name name) {
+        int i = name.value.lastIndexOf('.');
+        return i < 0 ? Optional.empty() : Optional.of(new Namespace(name.value.substring(0, i)));
+    }
+
+    /**
+     * The nominal type of an element's data, if it is a record, union or wrapper term.
+     */
+    public static <A> Optional<Name> typeNameOf(Element<A> element) {
+        Term<A> data = stripTerm(element.data);
+        if (data instanceof Term.Record) {
+            return Optional.of(((Term.Record<A>) data).value.typeName);
+        } else if (data instanceof Term.Union) {
+            return Optional.of(((Term.Union<A>) data).value.typeName);
+        } else if (data instanceof Term.Wrap) {
+            return Optional.of(((Term.Wrap<A>) data).value.typeName);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Element<A> get(Object name) {
+        return elements.get(name);
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return elements.containsKey(name);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public Set<Map.Entry<Name, Element<A>>> entrySet() {
+        return elements.entrySet();
+    }
+
+    /**
+     * The elements in a given namespace.
+     */
+    public Map<Name, Element<A>> inNamespace(Namespace namespace) {
+        PersistentHashMap<Name, Element<A>> result = byNamespace.get(namespace);
+        return result == null ? PersistentHashMap.empty() : result;
+    }
+
+    /**
+     * The elements whose data is a term of a given nominal type.
+     */
+    public Map<Name, Element<A>> ofType(Name typeName) {
+        PersistentHashMap<Name, Element<A>> result = byType.get(typeName);
+        return result == null ? PersistentHashMap.empty() : result;
+    }
+
+    /**
+     * Add or replace an element, producing a new store.
+     */
+    public ElementStore<A> insert(Element<A> element) {
+        Element<A> existing = elements.get(element.name);
+        if (existing == element) {
+            return this;
+        }
+        PersistentHashMap<Name, PersistentHashMap<Name, Element<A>>> types = byType;
+        if (existing != null) {
+            types = unindex(types, typeNameOf(existing), element.name);
+        }
+        return new ElementStore<>(
+                elements.insert(element.name, element),
+                index(byNamespace, namespaceOf(element.name), element),
+                index(types, typeNameOf(element), element));
+    }
+
+    /**
+     * Add or replace a number of elements, producing a new store.
+     */
+    public ElementStore<A> insertAll(Iterable<Element<A>> elements) {
+        ElementStore<A> result = this;
+        for (Element<A> element : elements) {
+            result = result.insert(element);
+        }
+        return result;
+    }
+
+    /**
+     * Add or replace the elements of a module, but not those of its dependencies, producing a new store.
+     */
+    public ElementStore<A> insertModule(Module<A> module) {
+        return insertAll(module.elements);
+    }
+
+    /**
+     * Remove an element, if present, producing a new store.
+     */
+    public ElementStore<A> delete(Name name) {
+        Element<A> existing = elements.get(name);
+        if (existing == null) {
+            return this;
+        }
+        return new ElementStore<>(
+                elements.delete(name),
+                unindex(byNamespace, namespaceOf(name), name),
+                unindex(byType, typeNameOf(existing), name));
+    }
+
+    /**
+     * Remove all elements in a namespace, producing a new store. Together with insertModule, this replaces a module
+     * whose elements have changed.
+     */
+    public ElementStore<A> deleteNamespace(Namespace namespace) {
+        ElementStore<A> result = this;
+        for (Name name : inNamespace(namespace).keySet()) {
+            result = result.delete(name);
+        }
+        return result;
+    }
+
+    @Override
+    public Element<A> put(Name name, Element<A> element) {
+        throw new UnsupportedOperationException("persistent map; use insert instead");
+    }
+
+    @Override
+    public Element<A> remove(Object name) {
+        throw new UnsupportedOperationException("persistent map; use delete instead");
+    }
+
+    private static <K, A> PersistentHashMap<K, PersistentHashMap<Name, Element<A>>> index(
+            PersistentHashMap<K, PersistentHashMap<Name, Element<A>>> index, Optional<K> key, Element<A> element) {
+        if (!key.isPresent()) {
+            return index;
+        }
+        PersistentHashMap<Name, Element<A>> group = index.get(key.get());
+        if (group == null) {
+            group = PersistentHashMap.empty();
+        }
+        return index.insert(key.get(), group.insert(element.name, element));
+    }
+
+    private static <K, A> PersistentHashMap<K, PersistentHashMap<Name, Element<A>>> unindex(
+            PersistentHashMap<K, PersistentHashMap<Name, Element<A>>> index, Optional<K> key, Name name) {
+        if (!key.isPresent()) {
+            return index;
+        }
+        PersistentHashMap<Name, Element<A>> group = index.get(key.get());
+        if (group == null) {
+            return index;
+        }
+        PersistentHashMap<Name, Element<A>> remaining = group.delete(name);
+        return remaining.isEmpty() ? index.delete(key.get()) : index.insert(key.get(), remaining);
+    }
+}
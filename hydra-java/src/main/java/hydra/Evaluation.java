@@ -0,0 +1,674 @@
+package hydra;
+
+import hydra.compute.Flow;
+import hydra.compute.FlowState;
+import hydra.core.Application;
+import hydra.core.CaseStatement;
+import hydra.core.Elimination;
+import hydra.core.Field;
+import hydra.core.Injection;
+import hydra.core.Lambda;
+import hydra.core.Let;
+import hydra.core.Name;
+import hydra.core.Projection;
+import hydra.core.Record;
+import hydra.core.Term;
+import hydra.dsl.Terms;
+import hydra.graph.Graph;
+import hydra.tools.LList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static hydra.Flows.bind;
+import static hydra.Flows.fail;
+import static hydra.Flows.map;
+import static hydra.Flows.mapM;
+import static hydra.Flows.pure;
+import static hydra.Flows.unexpected;
+import static hydra.strip.Strip.stripTerm;
+
+
+/**
+ * An environment-based evaluator, which is an alternative to the substitution-based reducer in Reduction.
+ * Instead of rewriting the body of a lambda for each argument, the evaluator binds arguments in an environment, and
+ * represents functions as closures over their environment. A closure is converted back into a term, by substituting
+ * its environment into its body in a single pass, only where a term is actually needed: in the arguments to
+ * primitive functions, and in the final result.
+ * Both an eager (call-by-value) and a lazy (call-by-need) strategy are supported. Unlike Reduction, let terms are
+ * evaluated; their bindings may be recursive.
+ */
+public class Evaluation {
+    private Evaluation() {
+    }
+
+    /**
+     * Evaluate a term, using either an eager or a lazy strategy. As in Reduction.reduce, eager evaluation reduces all
+     * subterms except for the bodies of lambdas, while lazy evaluation reduces a term only to weak head normal form.
+     */
+    public static <A> Flow<Graph<A>, Term<A>> reduce(boolean eager, Term<A> term) {
+        // Evaluation is deferred until the flow is run, so that each run creates its own thunks
+        return bind(Flows.getState(), (Graph<A> g) -> map(eval(eager, PrimitiveTable.of(g), term, null),
+                Evaluation::quote));
+    }
+
+    // Apply a value to a list of arguments, which are values (eager) or thunks (lazy)
+    @SuppressWarnings("unchecked")
+    private static <A> Flow<Graph<A>, Object> apply(boolean eager,
+                                                    PrimitiveTable<A> prims,
+                                                    Object fun,
+                                                    LList<Object> args) {
+        if (args == null) {
+            return pure(fun);
+        }
+
+        if (fun instanceof Closure) {
+            Closure<A> closure = (Closure<A>) fun;
+            return closure.function.accept(new hydra.core.Function.Visitor<A, Flow<Graph<A>, Object>>() {
+                @Override
+                public Flow<Graph<A>, Object> visit(hydra.core.Function.Elimination<A> instance) {
+                    return bind(force(prims, args.first),
+                            arg -> bind(eliminate(eager, prims, instance.value, closure.env, arg),
+                                    result -> apply(eager, prims, result, args.rest)));
+                }
+
+                @Override
+                public Flow<Graph<A>, Object> visit(hydra.core.Function.Lambda<A> instance) {
+                    Lambda<A> lam = instance.value;
+                    Env env = new Env(lam.parameter, args.first, closure.env);
+                    return bind(eval(eager, prims, lam.body, env), result -> apply(eager, prims, result, args.rest));
+                }
+
+                @Override
+                public Flow<Graph<A>, Object> visit(hydra.core.Function.Primitive<A> instance) {
+                    throw new IllegalStateException("primitives are not represented as closures");
+                }
+            });
+        }
+
+        Term<A> term = (Term<A>) fun;
+        return stripTerm(term).accept(new Term.PartialVisitor<A, Flow<Graph<A>, Object>>() {
+            @Override
+            public Flow<Graph<A>, Object> otherwise(Term<A> instance) {
+                // The application is stuck, e.g. on a free variable
+                return pure(applyToArguments(term, args));
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Term.Application<A> instance) {
+                // A partial application of a primitive; evaluate it together with the additional arguments
+                return eval(eager, prims, applyToArguments(term, args), null);
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Term.Function<A> instance) {
+                return instance.value.accept(new hydra.core.Function.PartialVisitor<A, Flow<Graph<A>, Object>>() {
+                    @Override
+                    public Flow<Graph<A>, Object> otherwise(hydra.core.Function<A> instance) {
+                        return bind(eval(eager, prims, term, null), f -> apply(eager, prims, f, args));
+                    }
+
+                    @Override
+                    public Flow<Graph<A>, Object> visit(hydra.core.Function.Primitive<A> instance) {
+                        return applyPrimitive(eager, prims, term, instance.value, args);
+                    }
+                });
+            }
+        });
+    }
+
+    private static <A> Flow<Graph<A>, Object> applyPrimitive(boolean eager,
+                                                             PrimitiveTable<A> prims,
+                                                             Term<A> original,
+                                                             Name name,
+                                                             LList<Object> args) {
+        PrimitiveTable.Entry<A> prim = prims.get(name);
+        if (prim == null) {
+            return fail("no such primitive function: " + name.value);
+        }
+        int arity = prim.arity;
+        if (arity > LList.length(args)) {
+            // Not enough arguments available; back out
+            return pure(applyToArguments(original, args));
+        }
+
+        Flow<Graph<A>, List<Object>> forced = mapM(LList.take(arity, args), v -> force(prims, v));
+        LList<Object> remainingArgs = LList.drop(arity, args);
+        return bind(forced, vals -> {
+            List<Term<A>> termArgs = new ArrayList<>(arity);
+            for (Object v : vals) {
+                termArgs.add(quote(v));
+            }
+            return bind(prim.implementation.apply(termArgs),
+                    result -> bind(eval(eager, prims, result, null), f -> apply(eager, prims, f, remainingArgs)));
+        });
+    }
+
+    private static <A> Term<A> applyToArguments(Term<A> function, LList<Object> args) {
+        Term<A> cur = function;
+        for (LList<Object> l = args; l != null; l = l.rest) {
+            cur = new Term.Application<>(new Application<>(cur, quote(l.first)));
+        }
+        return cur;
+    }
+
+    // Apply an elimination, with the given environment, to an evaluated argument
+    private static <A> Flow<Graph<A>, Object> eliminate(boolean eager,
+                                                        PrimitiveTable<A> prims,
+                                                        Elimination<A> elm,
+                                                        Env env,
+                                                        Object arg) {
+        if (!(arg instanceof Term)) {
+            return unexpected("data term", quote(arg));
+        }
+        @SuppressWarnings("unchecked")
+        Term<A> term = stripTerm((Term<A>) arg);
+
+        return elm.accept(new Elimination.PartialVisitor<A, Flow<Graph<A>, Object>>() {
+            @Override
+            public Flow<Graph<A>, Object> otherwise(Elimination<A> instance) {
+                return fail("unsupported elimination: " + instance);
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Elimination.Record<A> instance) {
+                Projection proj = instance.value;
+                return term.accept(new Term.PartialVisitor<A, Flow<Graph<A>, Object>>() {
+                    @Override
+                    public Flow<Graph<A>, Object> otherwise(Term<A> instance) {
+                        return unexpected("record", instance);
+                    }
+
+                    @Override
+                    public Flow<Graph<A>, Object> visit(Term.Record<A> instance) {
+                        Record<A> record = instance.value;
+                        if (!record.typeName.equals(proj.typeName)) {
+                            return fail("tried to project a " + proj.typeName + " field out of a "
+                                    + record.typeName + " record");
+                        }
+                        for (Field<A> field : record.fields) {
+                            if (field.name.equals(proj.field)) {
+                                return evalData(eager, prims, field.term);
+                            }
+                        }
+                        return fail("no such field: " + proj.field + " in " + record.typeName + " record");
+                    }
+                });
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Elimination.Union<A> instance) {
+                CaseStatement<A> cases = instance.value;
+                return term.accept(new Term.PartialVisitor<A, Flow<Graph<A>, Object>>() {
+                    @Override
+                    public Flow<Graph<A>, Object> otherwise(Term<A> instance) {
+                        return unexpected("injection", instance);
+                    }
+
+                    @Override
+                    public Flow<Graph<A>, Object> visit(Term.Union<A> instance) {
+                        Injection<A> inj = instance.value;
+                        if (!cases.typeName.equals(inj.typeName)) {
+                            return fail("tried to match a " + inj.typeName + " injection as " + cases.typeName);
+                        }
+                        for (Field<A> field : cases.cases) {
+                            if (field.name.equals(inj.field.name)) {
+                                Object value = eager ? inj.field.term : new Thunk(inj.field.term, null, false);
+                                return bind(eval(eager, prims, field.term, env),
+                                        handler -> apply(eager, prims, handler, LList.push(value, null)));
+                            }
+                        }
+                        return cases.default_.isPresent()
+                                ? eval(eager, prims, cases.default_.get(), env)
+                                : fail("no such field " + inj.field.name + " in " + cases.typeName
+                                        + " case statement");
+                    }
+                });
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Elimination.Wrap<A> instance) {
+                return term.accept(new Term.PartialVisitor<A, Flow<Graph<A>, Object>>() {
+                    @Override
+                    public Flow<Graph<A>, Object> otherwise(Term<A> instance) {
+                        return unexpected("wrapped term", instance);
+                    }
+
+                    @Override
+                    public Flow<Graph<A>, Object> visit(Term.Wrap<A> wrapped) {
+                        Name fname = instance.value;
+                        Name aname = wrapped.value.typeName;
+                        return fname.equals(aname) ? evalData(eager, prims, wrapped.value.object)
+                                : fail("tried to unwrap an instance of " + aname + " as an instance of " + fname);
+                    }
+                });
+            }
+        });
+    }
+
+    // Evaluate a term to a value: either a closed term, or a closure
+    private static <A> Flow<Graph<A>, Object> eval(boolean eager, PrimitiveTable<A> prims, Term<A> term, Env env) {
+        return term.accept(new Term.PartialVisitor<A, Flow<Graph<A>, Object>>() {
+            @Override
+            public Flow<Graph<A>, Object> otherwise(Term<A> instance) {
+                // Data terms. In eager mode, subterms are evaluated; in lazy mode, they are left alone and are only
+                // closed over the environment.
+                if (!eager) {
+                    return pure(new Quoter<A>().substitute(instance, env, new HashSet<>()));
+                }
+                Flow<Graph<A>, Term<A>> result = Rewriting.rewriteTermM(recurse -> t -> t == instance
+                        ? recurse.apply(t)
+                        : map(eval(true, prims, t, env), Evaluation::quote), Flows::pure, instance);
+                return map(result, t -> (Object) t);
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Term.Annotated<A> instance) {
+                return map(eval(eager, prims, instance.value.subject, env), v -> v instanceof Term
+                        ? Terms.annot(instance.value.annotation, Evaluation.<A>quote(v))
+                        : v);
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Term.Application<A> instance) {
+                // Unwind the application spine, so that arguments are passed to the head all at once
+                Term<A> head = instance;
+                List<Term<A>> argTerms = new ArrayList<>();
+                while (head instanceof Term.Application) {
+                    Application<A> app = ((Term.Application<A>) head).value;
+                    argTerms.add(app.argument);
+                    head = stripTerm(app.function);
+                }
+
+                Flow<Graph<A>, List<Object>> args;
+                if (eager) {
+                    args = mapM(argTerms, a -> eval(true, prims, a, env));
+                } else {
+                    List<Object> thunks = new ArrayList<>(argTerms.size());
+                    for (Term<A> a : argTerms) {
+                        thunks.add(new Thunk(a, env, false));
+                    }
+                    args = pure(thunks);
+                }
+
+                Term<A> fun = head;
+                return bind(args, argList -> {
+                    LList<Object> spine = null;
+                    for (Object arg : argList) {
+                        spine = LList.push(arg, spine);
+                    }
+                    LList<Object> finalSpine = spine;
+                    return bind(eval(eager, prims, fun, env), f -> apply(eager, prims, f, finalSpine));
+                });
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Term.Function<A> instance) {
+                return instance.value.accept(new hydra.core.Function.PartialVisitor<A, Flow<Graph<A>, Object>>() {
+                    @Override
+                    public Flow<Graph<A>, Object> otherwise(hydra.core.Function<A> fun) {
+                        return pure(new Closure<>(fun, env));
+                    }
+
+                    @Override
+                    public Flow<Graph<A>, Object> visit(hydra.core.Function.Primitive<A> prim) {
+                        // Primitives are applied as soon as they have all of their arguments, which may be none
+                        return applyPrimitive(eager, prims, instance, prim.value, null);
+                    }
+                });
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Term.Literal<A> instance) {
+                return pure(instance);
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Term.Let<A> instance) {
+                Let<A> let = instance.value;
+                List<Thunk> thunks = new ArrayList<>(let.bindings.size());
+                Env env2 = env;
+                for (Map.Entry<Name, Term<A>> e : let.bindings.entrySet()) {
+                    Thunk thunk = new Thunk(e.getValue(), null, eager);
+                    thunks.add(thunk);
+                    env2 = new Env(e.getKey(), thunk, env2);
+                }
+                // Bindings are evaluated in the extended environment, so they may refer to one another
+                for (Thunk thunk : thunks) {
+                    thunk.env = env2;
+                }
+
+                Env letEnv = env2;
+                return eager
+                        ? bind(mapM(thunks, v -> force(prims, v)),
+                                ignored -> eval(true, prims, let.environment, letEnv))
+                        : eval(false, prims, let.environment, letEnv);
+            }
+
+            @Override
+            public Flow<Graph<A>, Object> visit(Term.Variable<A> instance) {
+                for (Env e = env; e != null; e = e.parent) {
+                    if (e.name.equals(instance.value)) {
+                        return force(prims, e.value);
+                    }
+                }
+                // Free variables are left in place
+                return pure(instance);
+            }
+        });
+    }
+
+    // Evaluate a closed subterm of a data value, which is already normal if evaluation is eager
+    private static <A> Flow<Graph<A>, Object> evalData(boolean eager, PrimitiveTable<A> prims, Term<A> term) {
+        return eager ? pure(term) : eval(false, prims, term, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> Flow<Graph<A>, Object> force(PrimitiveTable<A> prims, Object value) {
+        if (!(value instanceof Thunk)) {
+            return pure(value);
+        }
+
+        Thunk thunk = (Thunk) value;
+        if (thunk.value != null) {
+            return pure(thunk.value);
+        }
+        return new Flow<>(s -> t -> {
+            if (thunk.value != null) {
+                return new FlowState<>(Optional.of(thunk.value), s, t);
+            } else if (thunk.forcing) {
+                return Flows.<Graph<A>, Object>fail("cyclic binding encountered while evaluating " + thunk.term)
+                        .value.apply(s).apply(t);
+            }
+
+            // The flag is cleared even if evaluation fails, so that forcing the thunk again reports the real failure
+            FlowState<Graph<A>, Object> result;
+            thunk.forcing = true;
+            try {
+                result = eval(thunk.eager, prims, (Term<A>) thunk.term, thunk.env).value.apply(s).apply(t);
+            } finally {
+                thunk.forcing = false;
+            }
+            if (result.value.isPresent()) {
+                thunk.value = result.value.get();
+                thunk.env = null;
+            }
+            return result;
+        });
+    }
+
+    // Convert a value back into a closed term
+    @SuppressWarnings("unchecked")
+    private static <A> Term<A> quote(Object value) {
+        return value instanceof Term ? (Term<A>) value : new Quoter<A>().quote(value);
+    }
+
+    private static Env lookup(Name name, Env env) {
+        for (Env e = env; e != null; e = e.parent) {
+            if (e.name.equals(name)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The state of a single conversion of a value into a term. The free variables of each subterm, and the quoted
+     * form of each environment binding, are computed at most once, however deeply the lambdas and lets which refer
+     * to them are nested.
+     */
+    private static final class Quoter<A> {
+        private final Map<Term<A>, Set<Name>> freeVariables = new IdentityHashMap<>();
+        private final Map<Env, Term<A>> quoted = new IdentityHashMap<>();
+        private final Map<Env, Set<Name>> quotedFreeVariables = new IdentityHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        private Term<A> quote(Object value) {
+            if (value instanceof Closure) {
+                Closure<A> closure = (Closure<A>) value;
+                Term<A> term = new Term.Function<>(closure.function);
+                if (closure.freeVariables == null) {
+                    closure.freeVariables = freeVariables(term);
+                }
+                // A closed function does not depend on its environment
+                return closure.freeVariables.isEmpty() ? term : substitute(term, closure.env, new HashSet<>());
+            } else if (value instanceof Thunk) {
+                Thunk thunk = (Thunk) value;
+                return thunk.value != null
+                        ? quote(thunk.value)
+                        : substitute((Term<A>) thunk.term, thunk.env, new HashSet<>());
+            } else {
+                return (Term<A>) value;
+            }
+        }
+
+        // The quoted value of a binding
+        private Term<A> quote(Env binding) {
+            Term<A> term = quoted.get(binding);
+            if (term == null) {
+                term = quote(binding.value);
+                quoted.put(binding, term);
+            }
+            return term;
+        }
+
+        // The free variables of the quoted value of a binding
+        private Set<Name> quotedFreeVariables(Env binding) {
+            Set<Name> vars = quotedFreeVariables.get(binding);
+            if (vars == null) {
+                vars = freeVariables(quote(binding));
+                quotedFreeVariables.put(binding, vars);
+            }
+            return vars;
+        }
+
+        // The free variables of a term. The free variables of each of its subterms are recorded along the way.
+        private Set<Name> freeVariables(Term<A> term) {
+            Set<Name> known = freeVariables.get(term);
+            if (known != null) {
+                return known;
+            }
+
+            // The free variables of each subterm are added to the set of its parent, at the top of the stack
+            Deque<Set<Name>> parents = new ArrayDeque<>();
+            parents.push(new HashSet<>());
+            Rewriting.rewriteTerm(recurse -> inner -> {
+                Set<Name> vars = freeVariables.get(inner);
+                if (vars == null) {
+                    vars = new HashSet<>();
+                    if (inner instanceof Term.Variable) {
+                        vars.add(((Term.Variable<A>) inner).value);
+                    } else {
+                        parents.push(vars);
+                        recurse.apply(inner);
+                        parents.pop();
+                        if (inner instanceof Term.Function
+                                && ((Term.Function<A>) inner).value instanceof hydra.core.Function.Lambda) {
+                            vars.remove(((hydra.core.Function.Lambda<A>) ((Term.Function<A>) inner).value)
+                                    .value.parameter);
+                        } else if (inner instanceof Term.Let) {
+                            vars.removeAll(((Term.Let<A>) inner).value.bindings.keySet());
+                        }
+                    }
+                    freeVariables.put(inner, vars);
+                }
+                parents.peek().addAll(vars);
+                return inner;
+            }, a -> a, term);
+            return freeVariables.get(term);
+        }
+
+        // Extend an environment so that any of the given binders which would capture a free variable of a
+        // substituted value is renamed to a fresh name, and add the remaining binders to the set of shadowed names.
+        // The scope is the list of terms in which the binders are visible.
+        private Env renameBinders(Collection<Name> binders,
+                                  List<Term<A>> scope,
+                                  Env env,
+                                  Set<Name> shadowed,
+                                  Map<Name, Name> renamed) {
+            Set<Name> free = new HashSet<>();
+            for (Term<A> t : scope) {
+                free.addAll(freeVariables(t));
+            }
+            free.removeAll(binders);
+            Set<Name> captured = new HashSet<>();
+            Set<Name> avoid = new HashSet<>(free);
+            for (Name name : free) {
+                Env binding = shadowed.contains(name) ? null : lookup(name, env);
+                if (binding != null) {
+                    captured.addAll(quotedFreeVariables(binding));
+                }
+            }
+            avoid.addAll(captured);
+
+            Env env2 = env;
+            for (Name binder : binders) {
+                if (captured.contains(binder)) {
+                    Set<Name> inScope = new HashSet<>(avoid);
+                    for (Term<A> t : scope) {
+                        inScope.addAll(freeVariables(t));
+                        allBinders(t, inScope);
+                    }
+                    Name fresh = binder;
+                    for (int i = 1; inScope.contains(fresh) || binders.contains(fresh); i++) {
+                        fresh = new Name(binder.value + i);
+                    }
+                    avoid.add(fresh);
+                    renamed.put(binder, fresh);
+                    env2 = new Env(binder, Terms.variable(fresh.value), env2);
+                    shadowed.remove(binder);
+                } else {
+                    shadowed.add(binder);
+                }
+            }
+            return env2;
+        }
+
+        // Replace the free variables of a term with the values they are bound to in an environment.
+        // Lambda parameters and let bindings which would capture a free variable of a substituted value are renamed.
+        private Term<A> substitute(Term<A> term, Env env, Set<Name> shadowed) {
+            if (env == null) {
+                return term;
+            }
+
+            return Rewriting.rewriteTerm(recurse -> inner -> inner.accept(new Term.PartialVisitor<A, Term<A>>() {
+                @Override
+                public Term<A> otherwise(Term<A> instance) {
+                    return recurse.apply(instance);
+                }
+
+                @Override
+                public Term<A> visit(Term.Function<A> instance) {
+                    if (instance.value instanceof hydra.core.Function.Lambda) {
+                        Lambda<A> lam = ((hydra.core.Function.Lambda<A>) instance.value).value;
+                        Set<Name> shadowed2 = new HashSet<>(shadowed);
+                        Map<Name, Name> renamed = new HashMap<>();
+                        Env env2 = renameBinders(Collections.singletonList(lam.parameter),
+                                Collections.singletonList(lam.body), env, shadowed2, renamed);
+                        return new Term.Function<>(new hydra.core.Function.Lambda<>(
+                                new Lambda<>(renamed.getOrDefault(lam.parameter, lam.parameter),
+                                        substitute(lam.body, env2, shadowed2))));
+                    }
+                    return recurse.apply(instance);
+                }
+
+                @Override
+                public Term<A> visit(Term.Let<A> instance) {
+                    Let<A> let = instance.value;
+                    List<Term<A>> scope = new ArrayList<>(let.bindings.values());
+                    scope.add(let.environment);
+                    Set<Name> shadowed2 = new HashSet<>(shadowed);
+                    Map<Name, Name> renamed = new HashMap<>();
+                    Env env2 = renameBinders(let.bindings.keySet(), scope, env, shadowed2, renamed);
+                    Map<Name, Term<A>> bindings = new HashMap<>();
+                    for (Map.Entry<Name, Term<A>> e : let.bindings.entrySet()) {
+                        bindings.put(renamed.getOrDefault(e.getKey(), e.getKey()),
+                                substitute(e.getValue(), env2, shadowed2));
+                    }
+                    return new Term.Let<>(new Let<>(bindings, substitute(let.environment, env2, shadowed2)));
+                }
+
+                @Override
+                public Term<A> visit(Term.Variable<A> instance) {
+                    if (!shadowed.contains(instance.value)) {
+                        Env binding = lookup(instance.value, env);
+                        if (binding != null) {
+                            return quote(binding);
+                        }
+                    }
+                    return instance;
+                }
+            }), a -> a, term);
+        }
+    }
+
+    // Add the names of all lambda parameters and let bindings in a term to a set
+    private static <A> void allBinders(Term<A> term, Set<Name> names) {
+        Rewriting.rewriteTerm(recurse -> inner -> {
+            if (inner instanceof Term.Function
+                    && ((Term.Function<A>) inner).value instanceof hydra.core.Function.Lambda) {
+                names.add(((hydra.core.Function.Lambda<A>) ((Term.Function<A>) inner).value).value.parameter);
+            } else if (inner instanceof Term.Let) {
+                names.addAll(((Term.Let<A>) inner).value.bindings.keySet());
+            }
+            return recurse.apply(inner);
+        }, a -> a, term);
+    }
+
+    /**
+     * A lambda or elimination together with the environment in which it was evaluated.
+     */
+    private static class Closure<A> {
+        private final hydra.core.Function<A> function;
+        private final Env env;
+        // The free variables of the function, computed when the closure is first quoted
+        private Set<Name> freeVariables;
+
+        private Closure(hydra.core.Function<A> function, Env env) {
+            this.function = function;
+            this.env = env;
+        }
+    }
+
+    /**
+     * A persistent environment, binding names to values or thunks.
+     */
+    private static class Env {
+        private final Name name;
+        private final Object value;
+        private final Env parent;
+
+        private Env(Name name, Object value, Env parent) {
+            this.name = name;
+            this.value = value;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * A suspended evaluation of a term in an environment, which is performed at most once.
+     */
+    private static class Thunk {
+        private final Term<?> term;
+        private final boolean eager;
+        private Env env;
+        private Object value;
+        private boolean forcing;
+
+        private Thunk(Term<?> term, Env env, boolean eager) {
+            this.term = term;
+            this.env = env;
+            this.eager = eager;
+        }
+    }
+}
@@ -8,11 +8,11 @@ import hydra.tier1.Tier1;
 import hydra.tools.FlowException;
 import hydra.tools.Function3;
 import hydra.tools.Function4;
+import hydra.tools.Trampoline;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -28,40 +28,27 @@ import java.util.stream.Collectors;
  * A collection of convenience methods for constructing and composing flows, or stateful computations.
  */
 public interface Flows {
-    Trace EMPTY_TRACE
-            = new Trace(Collections.emptyList(), Collections.emptyList(), Collections.emptyMap());
+    Trace EMPTY_TRACE = Traces.EMPTY;
 
     /**
      * Apply a function flow to a domain value flow.
      */
     static <S, A, B> Flow<S, B> apply(Flow<S, Function<A, B>> mapping, Flow<S, A> input) {
-        return new Flow<>(s0 -> t0 -> {
-            FlowState<S, Function<A, B>> fs1 = mapping.value.apply(s0).apply(t0);
-            Optional<Function<A, B>> mf = fs1.value;
-            return mf.isPresent()
-                    ? map(mf.get(), input).value.apply(fs1.state).apply(fs1.trace)
-                    : new FlowState<>(Optional.empty(), fs1.state, fs1.trace);
-        });
+        return bind(mapping, f -> map(f, input));
     }
 
     /**
      * Monadic bind function for flows.
      */
     static <S, A, B> Flow<S, B> bind(Flow<S, A> p, Function<A, Flow<S, B>> f) {
-        return new Flow<>(s0 -> t0 -> {
-            FlowState<S, A> fs1 = p.value.apply(s0).apply(t0);
-            Optional<A> a = fs1.value;
-            return a.isPresent()
-                    ? f.apply(a.get()).value.apply(fs1.state).apply(fs1.trace)
-                    : new FlowState<>(Optional.empty(), fs1.state, fs1.trace);
-        });
+        return new Trampoline.Bind<>(p, f);
     }
 
     /**
      * Monadic bind with reversed arguments.
      */
     static <S, A, B> Flow<S, B> bind(Function<A, Flow<S, B>> f, Flow<S, A> p) {
-        return bind(f, p);
+        return bind(p, f);
     }
 
     /**
@@ -134,12 +121,8 @@ public interface Flows {
      * Produce a failure flow with the provided message.
      */
     static <S, A> Flow<S, A> fail(String msg) {
-        return new Flow<>(s -> trace -> {
-            String errMsg = "Error: " + msg; // TODO: include stack trace
-            List<String> messages = new ArrayList<>(trace.messages);
-            messages.add(errMsg);
-            return new FlowState<>(Optional.empty(), s, trace.withMessages(messages));
-        });
+        // TODO: include stack trace
+        return new Flow<>(s -> trace -> new FlowState<>(Optional.empty(), s, Traces.appendError(msg, trace)));
     }
 
     /**
@@ -161,7 +144,7 @@ public interface Flows {
      * Extract the value from a flow, throwing an exception if the flow failed.
      */
     static <S, A> A fromFlow(S state, Flow<S, A> flow) throws FlowException {
-        FlowState<S, A> result = flow.value.apply(state).apply(EMPTY_TRACE);
+        FlowState<S, A> result = Trampoline.run(flow, state, EMPTY_TRACE);
         if (result.value.isPresent()) {
             return result.value.get();
         } else {
@@ -180,17 +163,14 @@ public interface Flows {
      * Extract the state from a flow.
      */
     static <S> Flow<S, S> getState() {
-        return new Flow<>(s0 -> t0 -> new FlowState<>(Optional.of(s0), s0, t0));
+        return Trampoline.GetState.instance();
     }
 
     /**
      * Map a function over a flow.
      */
     static <S, A, B> Flow<S, B> map(Function<A, B> f, Flow<S, A> x) {
-        return new Flow<>(s -> trace -> {
-            FlowState<S, A> result = x.value.apply(s).apply(trace);
-            return new FlowState<>(result.value.map(f), result.state, result.trace);
-        });
+        return new Trampoline.Map<>(x, f);
     }
 
     /**
@@ -204,14 +184,7 @@ public interface Flows {
      * Map a monadic function over a list, producing a flow of lists.
      */
     static <S, A, B> Flow<S, List<B>> mapM(List<A> as, Function<A, Flow<S, B>> f) {
-        Flow<S, List<B>> result = pure(new ArrayList<>());
-        for (A a : as) {
-            result = bind(result, ys -> map(f.apply(a), b -> {
-                ys.add(b); // Modify in place
-                return ys;
-            }));
-        }
-        return result;
+        return new Trampoline.Traverse<>(as, f, () -> new ArrayList<>(as.size()));
     }
 
     /**
@@ -247,21 +220,14 @@ public interface Flows {
      * Map a monadic function over a set, producing a flow of sets.
      */
     static <S, A, B> Flow<S, Set<B>> mapM(Set<A> as, Function<A, Flow<S, B>> f) {
-        Flow<S, Set<B>> result = pure(new HashSet<>(as.size()));
-        for (A a : as) {
-            result = bind(result, ys -> map(f.apply(a), b -> {
-                ys.add(b); // Modify in place
-                return ys;
-            }));
-        }
-        return result;
+        return new Trampoline.Traverse<>(as, f, () -> new HashSet<>(as.size()));
     }
 
     /**
      * Map a bifunction over two flows, producing a flow.
      */
     static <S, A, B, C> Flow<S, C> map2(Flow<S, A> x, Flow<S, B> y, BiFunction<A, B, C> f) {
-        return Flows.bind(x, a1 -> Flows.bind(y, b1 -> Flows.pure(f.apply(a1, b1))));
+        return Flows.bind(x, a1 -> Flows.map(y, b1 -> f.apply(a1, b1)));
     }
 
     /**
@@ -270,8 +236,8 @@ public interface Flows {
     static <S, A, B, C, D> Flow<S, D> map3(Flow<S, A> a, Flow<S, B> b, Flow<S, C> c, Function3<A, B, C, D> f) {
         return Flows.bind(a,
                 a1 -> Flows.bind(b,
-                        b1 -> Flows.bind(c,
-                                c1 -> Flows.pure(f.apply(a1, b1, c1)))));
+                        b1 -> Flows.map(c,
+                                c1 -> f.apply(a1, b1, c1))));
     }
 
     /**
@@ -285,8 +251,8 @@ public interface Flows {
         return Flows.bind(a,
                 a1 -> Flows.bind(b,
                         b1 -> Flows.bind(c,
-                                c1 -> Flows.bind(d,
-                                        d1 -> Flows.pure(f.apply(a1, b1, c1, d1))))));
+                                c1 -> Flows.map(d,
+                                        d1 -> f.apply(a1, b1, c1, d1)))));
     }
 
     /**
@@ -294,7 +260,7 @@ public interface Flows {
      * and neither state nor trace are modified.
      */
     static <S, A> Flow<S, A> pure(A obj) {
-        return new Flow<>(s -> trace -> new FlowState<>(Optional.of(obj), s, trace));
+        return new Trampoline.Pure<>(obj);
     }
 
     /**
@@ -303,7 +269,7 @@ public interface Flows {
     static <S> Flow<S, Boolean> putState(S snew) {
         // Note: for lack of a unit value other than null,
         // we use use a boolean as the ignorable value output of putState()
-        return new Flow<>(s0 -> t0 -> new FlowState<>(Optional.of(true), snew, t0));
+        return new Trampoline.PutState<>(snew);
     }
 
     /**
@@ -320,14 +286,7 @@ public interface Flows {
      * Analogous to the sequence function in Haskell.
      */
     static <S, A> Flow<S, List<A>> sequence(List<Flow<S, A>> elements) {
-        Flow<S, List<A>> result = Flows.pure(new ArrayList<>(elements.size()));
-        for (Flow<S, A> element : elements) {
-            result = Flows.bind(result, xs -> Flows.map(element, x -> {
-                xs.add(x); // Modify in place
-                return xs;
-            }));
-        }
-        return result;
+        return new Trampoline.Traverse<>(elements, Function.identity(), () -> new ArrayList<>(elements.size()));
     }
 
     /**
@@ -349,7 +308,13 @@ public interface Flows {
      * Continue a flow after adding a warning message.
      */
     static <S, A> Flow<S, A> warn(String message, Flow<S, A> flow) {
-        Function<Flow<S, A>, Flow<S, A>> f = Tier1.warn(message);
-        return f.apply(flow);
+        return Traces.warn(message, flow);
+    }
+
+    /**
+     * Evaluate a flow with an additional frame on the trace stack.
+     */
+    static <S, A> Flow<S, A> withTrace(String frame, Flow<S, A> flow) {
+        return Traces.withTrace(frame, flow);
     }
 }
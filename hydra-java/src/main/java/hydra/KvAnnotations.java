@@ -0,0 +1,173 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.core.Annotated;
+import hydra.core.Term;
+import hydra.core.Type;
+import hydra.tools.AnnotationMap;
+import hydra.tools.WeakInterner;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static hydra.coreEncoding.CoreEncoding.coreEncodeType;
+import static hydra.dsl.Terms.string;
+
+
+/**
+ * Compact, shared Kv annotations, and functions for setting the annotations of terms and types, as in Hydra.Kv.
+ * Every Kv produced here holds an AnnotationMap rather than a HashMap, and equal annotation sets are represented by
+ * a single Kv instance for as long as any term refers to it; annotating many subterms with the same type or
+ * description therefore costs one reference per subterm, rather than one map.
+ * As in Hydra.Kv, a term or type carries at most one layer of annotations after any of the setters is applied.
+ */
+public class KvAnnotations {
+    /**
+     * The key of description annotations.
+     */
+    public static final String DESCRIPTION = "description";
+
+    /**
+     * The key of type annotations.
+     */
+    public static final String TYPE = "type";
+
+    private static final Kv EMPTY = new Kv(AnnotationMap.empty());
+
+    // Canonical instances, which are held only as long as they are otherwise reachable
+    private static final WeakInterner<Kv> CANONICAL = new WeakInterner<>();
+
+    private KvAnnotations() {
+    }
+
+    /**
+     * The empty annotation set.
+     */
+    public static Kv empty() {
+        return EMPTY;
+    }
+
+    /**
+     * The shared, compact Kv with the given annotations.
+     */
+    public static Kv kv(Map<String, Term<Kv>> annotations) {
+        if (annotations.isEmpty()) {
+            return EMPTY;
+        }
+        return canonical(new Kv(AnnotationMap.from(annotations)));
+    }
+
+    /**
+     * The value of an annotation, if present.
+     */
+    public static Optional<Term<Kv>> getAnnotation(String key, Kv kv) {
+        return Optional.ofNullable(kv.annotations.get(key));
+    }
+
+    /**
+     * Add, replace or remove (given an empty value) an annotation.
+     */
+    public static Kv setAnnotation(String key, Optional<Term<Kv>> value, Kv kv) {
+        AnnotationMap before = AnnotationMap.from(kv.annotations);
+        AnnotationMap after = value.isPresent() ? before.with(key, value.get()) : before.without(key);
+        if (after.isEmpty()) {
+            return EMPTY;
+        }
+        return after == kv.annotations ? canonical(kv) : canonical(new Kv(after));
+    }
+
+    /**
+     * The annotations of a term, merged over all of its layers of annotations. Outer annotations take precedence.
+     */
+    public static Kv termAnnotation(Term<Kv> term) {
+        if (!(term instanceof Term.Annotated)) {
+            return EMPTY;
+        }
+        Annotated<Term<Kv>, Kv> ann = ((Term.Annotated<Kv>) term).value;
+        return ann.subject instanceof Term.Annotated ? merge(ann.annotation, termAnnotation(ann.subject))
+                : ann.annotation;
+    }
+
+    /**
+     * The annotations of a type, merged over all of its layers of annotations. Outer annotations take precedence.
+     */
+    public static Kv typeAnnotation(Type<Kv> type) {
+        if (!(type instanceof Type.Annotated)) {
+            return EMPTY;
+        }
+        Annotated<Type<Kv>, Kv> ann = ((Type.Annotated<Kv>) type).value;
+        return ann.subject instanceof Type.Annotated ? merge(ann.annotation, typeAnnotation(ann.subject))
+                : ann.annotation;
+    }
+
+    /**
+     * Add, replace or remove an annotation of a term.
+     */
+    public static Term<Kv> setTermAnnotation(String key, Optional<Term<Kv>> value, Term<Kv> term) {
+        Kv kv = setAnnotation(key, value, termAnnotation(term));
+        Term<Kv> subject = stripTerm(term);
+        return kv == EMPTY ? subject : new Term.Annotated<>(new Annotated<>(subject, kv));
+    }
+
+    /**
+     * Add, replace or remove an annotation of a type.
+     */
+    public static Type<Kv> setTypeAnnotation(String key, Optional<Term<Kv>> value, Type<Kv> type) {
+        Kv kv = setAnnotation(key, value, typeAnnotation(type));
+        Type<Kv> subject = stripType(type);
+        return kv == EMPTY ? subject : new Type.Annotated<>(new Annotated<>(subject, kv));
+    }
+
+    /**
+     * Set or remove the description of a term.
+     */
+    public static Term<Kv> setTermDescription(Optional<String> description, Term<Kv> term) {
+        return setTermAnnotation(DESCRIPTION, description.map(d -> string(d)), term);
+    }
+
+    /**
+     * Set or remove the type of a term.
+     */
+    public static Term<Kv> setTermType(Optional<Type<Kv>> type, Term<Kv> term) {
+        return setTermAnnotation(TYPE, type.map(t -> coreEncodeType(t)), term);
+    }
+
+    /**
+     * Set or remove the description of a type.
+     */
+    public static Type<Kv> setTypeDescription(Optional<String> description, Type<Kv> type) {
+        return setTypeAnnotation(DESCRIPTION, description.map(d -> string(d)), type);
+    }
+
+    /**
+     * Remove any layers of annotations from a term. Unlike Strip.stripTerm, this allocates nothing.
+     */
+    public static <A> Term<A> stripTerm(Term<A> term) {
+        while (term instanceof Term.Annotated) {
+            term = ((Term.Annotated<A>) term).value.subject;
+        }
+        return term;
+    }
+
+    /**
+     * Remove any layers of annotations from a type. Unlike Strip.stripType, this allocates nothing.
+     */
+    public static <A> Type<A> stripType(Type<A> type) {
+        while (type instanceof Type.Annotated) {
+            type = ((Type.Annotated<A>) type).value.subject;
+        }
+        return type;
+    }
+
+    private static Kv merge(Kv outer, Kv inner) {
+        AnnotationMap merged = AnnotationMap.from(inner.annotations);
+        for (Map.Entry<String, Term<Kv>> e : outer.annotations.entrySet()) {
+            merged = merged.with(e.getKey(), e.getValue());
+        }
+        return kv(merged);
+    }
+
+    private static Kv canonical(Kv kv) {
+        return CANONICAL.intern(kv);
+    }
+}
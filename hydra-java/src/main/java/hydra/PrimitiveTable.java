@@ -0,0 +1,165 @@
+package hydra;
+
+import hydra.compute.Flow;
+import hydra.core.Name;
+import hydra.core.Term;
+import hydra.graph.Graph;
+import hydra.graph.Primitive;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static hydra.extras.Extras.primitiveArity;
+
+
+/**
+ * A precompiled dispatch table for the primitive functions of a graph. Each primitive is resolved once, when the
+ * table is built, to an entry with a dense integer id, which holds its arity and implementation.
+ * Names are resolved to ids through an open-addressed array of the primitive names. Since the names of primitives
+ * are usually string constants, a lookup is typically an identity comparison and an array access.
+ * Tables are cached per primitives map, by identity, for as long as the map is reachable; graphs which share a
+ * primitives map therefore share a table. For this reason, the primitives map of a graph should not be modified
+ * after the graph is in use.
+ * The reducers look up the table once per evaluation, and pass it down to each application.
+ */
+public class PrimitiveTable<A> {
+    // A copy-on-write list of tables. Few distinct primitives maps exist at a time, so a lookup is a short scan,
+    // and it neither locks nor allocates.
+    private static final AtomicReference<List<Cached>> TABLES = new AtomicReference<>(Collections.emptyList());
+
+    private final List<Entry<A>> entries;
+    private final String[] slotNames;
+    private final int[] slotIds;
+
+    private PrimitiveTable(Map<Name, Primitive<A>> primitives) {
+        List<Entry<A>> entries = new ArrayList<>(primitives.size());
+        int capacity = Integer.highestOneBit(Math.max(primitives.size(), 1) * 2) * 2;
+        this.slotNames = new String[capacity];
+        this.slotIds = new int[capacity];
+        for (Primitive<A> prim : primitives.values()) {
+            int id = entries.size();
+            entries.add(new Entry<>(id, prim));
+            String name = prim.name.value;
+            int slot = name.hashCode() & (capacity - 1);
+            while (slotNames[slot] != null) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slotNames[slot] = name;
+            slotIds[slot] = id;
+        }
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Get the dispatch table for a graph, building it if necessary.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> PrimitiveTable<A> of(Graph<A> graph) {
+        Map<Name, Primitive<A>> primitives = graph.primitives;
+        PrimitiveTable<?> table = find(TABLES.get(), primitives);
+        if (table != null) {
+            return (PrimitiveTable<A>) table;
+        }
+
+        PrimitiveTable<A> built = new PrimitiveTable<>(primitives);
+        while (true) {
+            List<Cached> current = TABLES.get();
+            // Another thread may have built a table for the same map in the meantime
+            table = find(current, primitives);
+            if (table != null) {
+                return (PrimitiveTable<A>) table;
+            }
+            List<Cached> updated = new ArrayList<>(current.size() + 1);
+            for (Cached cached : current) {
+                if (cached.primitives.get() != null) {
+                    updated.add(cached);
+                }
+            }
+            updated.add(new Cached(primitives, built));
+            if (TABLES.compareAndSet(current, updated)) {
+                return built;
+            }
+        }
+    }
+
+    private static PrimitiveTable<?> find(List<Cached> tables, Map<?, ?> primitives) {
+        for (Cached cached : tables) {
+            if (cached.primitives.get() == primitives) {
+                return cached.table;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the entry of a primitive by name, returning null if there is no such primitive.
+     */
+    public Entry<A> get(Name name) {
+        int id = id(name);
+        return id < 0 ? null : entries.get(id);
+    }
+
+    /**
+     * Get the entry of a primitive by id.
+     */
+    public Entry<A> get(int id) {
+        return entries.get(id);
+    }
+
+    /**
+     * Get the id of a primitive by name, returning -1 if there is no such primitive.
+     */
+    public int id(Name name) {
+        String s = name.value;
+        int mask = slotNames.length - 1;
+        for (int slot = s.hashCode() & mask; ; slot = (slot + 1) & mask) {
+            String candidate = slotNames[slot];
+            if (candidate == null) {
+                return -1;
+            }
+            if (candidate == s || candidate.equals(s)) {
+                return slotIds[slot];
+            }
+        }
+    }
+
+    /**
+     * The number of primitives in the table.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * A resolved primitive function, together with its id and arity.
+     */
+    public static final class Entry<A> {
+        public final int id;
+        public final Primitive<A> primitive;
+        public final int arity;
+        public final Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation;
+
+        private Entry(int id, Primitive<A> primitive) {
+            this.id = id;
+            this.primitive = primitive;
+            this.arity = primitiveArity(primitive);
+            this.implementation = primitive.implementation;
+        }
+    }
+
+    // A table, together with a weak reference to the primitives map it was built from
+    private static final class Cached {
+        private final WeakReference<Map<?, ?>> primitives;
+        private final PrimitiveTable<?> table;
+
+        private Cached(Map<?, ?> primitives, PrimitiveTable<?> table) {
+            this.primitives = new WeakReference<>(primitives);
+            this.table = table;
+        }
+    }
+}
@@ -0,0 +1,982 @@
+package hydra;
+
+import hydra.compute.Flow;
+import hydra.core.Field;
+import hydra.core.FieldName;
+import hydra.core.Name;
+import hydra.core.Projection;
+import hydra.core.Record;
+import hydra.core.Term;
+import hydra.graph.Element;
+import hydra.graph.Graph;
+import hydra.query.ComparisonConstraint;
+import hydra.query.Edge;
+import hydra.query.Node;
+import hydra.query.Path;
+import hydra.query.Pattern;
+import hydra.query.Query;
+import hydra.query.RegexQuantifier;
+import hydra.query.RegexSequence;
+import hydra.query.Step;
+import hydra.query.TriplePattern;
+import hydra.query.Variable;
+import hydra.tools.TermOrdering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static hydra.strip.Strip.stripTerm;
+
+
+/**
+ * An evaluator for hydra/query queries over the elements of a graph. Each element is a node, which is identified by a
+ * variable term with the element's name, and the values of record fields are nodes as well.
+ * The fields of record-valued elements are indexed by projection, in both directions, when the evaluator is
+ * constructed; the relations of edge steps are derived from those indexes on first use.
+ * Paths are compiled into finite automata, in which bounded quantifiers are unrolled, and are evaluated by
+ * breadth-first search over pairs of nodes and automaton states: forward from a bound subject, backward from a bound
+ * object, or from both ends at once, meeting in the middle, when both are bound. Transitive patterns with neither
+ * end bound are evaluated semi-naively, each round of the search expanding only the pairs reached in the last one.
+ * An evaluator may be used by any number of threads.
+ * The following are not supported, and cause evaluation to fail: graph patterns; comparison steps other than
+ * equality anywhere but as the entire predicate of a triple pattern; and comparisons of which either end is an
+ * unbound variable when the comparison is reached, as such a comparison may be satisfied by terms outside of the graph.
+ */
+public class QueryEvaluator<A> {
+    private static final FieldName DEFAULT_OUT = new FieldName("out");
+    private static final FieldName DEFAULT_IN = new FieldName("in");
+    private static final Relation EMPTY = new Relation(new LongList());
+    private static final int UNBOUND = -1;
+
+    private final List<Term<A>> terms = new ArrayList<>();
+    private final Map<Term<A>, Integer> ids = new HashMap<>();
+    private final Map<Name, int[]> elementsByType = new HashMap<>();
+    private final Map<Projection, Relation> projections = new HashMap<>();
+    private final Map<Edge, Relation> edges = new ConcurrentHashMap<>();
+    private final Map<Path, Automaton> automata = new ConcurrentHashMap<>();
+
+    /**
+     * Construct an evaluator over the elements of a graph, indexing the fields of all record-valued elements.
+     */
+    public QueryEvaluator(Graph<A> graph) {
+        Map<Name, LongList> byType = new HashMap<>();
+        Map<Projection, LongList> pairs = new HashMap<>();
+        for (Element<A> element : graph.elements.values()) {
+            int node = intern(new Term.Variable<>(element.name));
+            Term<A> data = stripTerm(element.data);
+            if (data instanceof Term.Record) {
+                Record<A> record = ((Term.Record<A>) data).value;
+                byType.computeIfAbsent(record.typeName, t -> new LongList()).add(node);
+                for (Field<A> field : record.fields) {
+                    pairs.computeIfAbsent(new Projection(record.typeName, field.name), p -> new LongList())
+                            .add(pair(node, intern(stripTerm(field.term))));
+                }
+            }
+        }
+        byType.forEach((type, nodes) -> {
+            int[] array = new int[nodes.size];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = (int) nodes.values[i];
+            }
+            elementsByType.put(type, array);
+        });
+        pairs.forEach((projection, list) -> projections.put(projection, new Relation(list)));
+    }
+
+    /**
+     * Evaluate a query, returning the distinct bindings of its selected variables which satisfy all of its patterns.
+     * Variables which are bound only on some branches of a disjunction may be absent from a binding.
+     */
+    public <S> Flow<S, List<Map<Variable, Term<A>>>> evaluate(Query<A> query) {
+        return attempt(() -> {
+            Context cx = new Context();
+            for (Pattern<A> pattern : query.patterns) {
+                cx.declare(pattern);
+            }
+            for (Variable variable : query.variables) {
+                if (!cx.slots.containsKey(variable)) {
+                    throw new QueryException("selected variable does not appear in any pattern: " + variable.value);
+                }
+            }
+
+            List<int[]> rows = Collections.singletonList(cx.emptyRow());
+            rows = cx.conjunction(query.patterns, rows, new HashSet<>());
+
+            Set<Map<Variable, Term<A>>> results = new LinkedHashSet<>();
+            for (int[] row : rows) {
+                Map<Variable, Term<A>> result = new LinkedHashMap<>();
+                for (Variable variable : query.variables) {
+                    int value = row[cx.slots.get(variable)];
+                    if (value != UNBOUND) {
+                        result.put(variable, cx.term(value));
+                    }
+                }
+                results.add(result);
+            }
+            return new ArrayList<>(results);
+        });
+    }
+
+    /**
+     * Find all nodes reachable from a given node along a path.
+     */
+    public <S> Flow<S, Set<Term<A>>> reachable(Term<A> subject, Path path) {
+        return attempt(() -> {
+            Context cx = new Context();
+            Set<Term<A>> result = new LinkedHashSet<>();
+            for (int node : cx.search(automaton(path), cx.id(subject), true)) {
+                result.add(cx.term(node));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Whether the second node is reachable from the first along a path.
+     */
+    public <S> Flow<S, Boolean> connected(Term<A> subject, Path path, Term<A> object) {
+        return attempt(() -> {
+            Context cx = new Context();
+            return cx.connected(automaton(path), cx.id(subject), cx.id(object));
+        });
+    }
+
+    // Run a computation, turning an invalid or unsupported query into a failed flow
+    private static <S, X> Flow<S, X> attempt(Supplier<X> computation) {
+        X result;
+        try {
+            result = computation.get();
+        } catch (QueryException e) {
+            return Flows.fail(e.getMessage());
+        }
+        return Flows.pure(result);
+    }
+
+    private int intern(Term<A> term) {
+        Integer id = ids.get(term);
+        if (id == null) {
+            id = terms.size();
+            terms.add(term);
+            ids.put(term, id);
+        }
+        return id;
+    }
+
+    private Automaton automaton(Path path) {
+        return automata.computeIfAbsent(path, p -> {
+            Automaton m = new Automaton();
+            int[] ends = build(m, p, false);
+            m.freeze(ends[0], ends[1]);
+            return m;
+        });
+    }
+
+    // Add the states and transitions of a path to an automaton, returning its start and accept states
+    private int[] build(Automaton m, Path path, boolean inverse) {
+        return path.accept(new Path.Visitor<int[]>() {
+            @Override
+            public int[] visit(Path.Step instance) {
+                int from = m.state();
+                int to = m.state();
+                step(m, instance.value, inverse, from, to);
+                return new int[] {from, to};
+            }
+
+            @Override
+            public int[] visit(Path.Regex instance) {
+                return quantify(m, instance.value, inverse);
+            }
+
+            @Override
+            public int[] visit(Path.Inverse instance) {
+                return build(m, instance.value, !inverse);
+            }
+        });
+    }
+
+    private void step(Automaton m, Step step, boolean inverse, int from, int to) {
+        step.accept(new Step.Visitor<Void>() {
+            @Override
+            public Void visit(Step.Edge instance) {
+                m.add(from, to, edgeRelation(instance.value), null, inverse);
+                return null;
+            }
+
+            @Override
+            public Void visit(Step.Project instance) {
+                m.add(from, to, projections.getOrDefault(instance.value, EMPTY), instance.value, inverse);
+                return null;
+            }
+
+            @Override
+            public Void visit(Step.Compare instance) {
+                if (!(instance.value instanceof ComparisonConstraint.Equal)) {
+                    throw new QueryException("unsupported path: a comparison other than equality may only be "
+                            + "the entire predicate of a pattern, not a step of a longer path");
+                }
+                m.epsilon(from, to);
+                return null;
+            }
+        });
+    }
+
+    // Unroll a quantified path into min required copies, followed by either a loop or (max - min) optional copies
+    private int[] quantify(Automaton m, RegexSequence sequence, boolean inverse) {
+        int[] bounds = sequence.quantifier.accept(new RegexQuantifier.Visitor<int[]>() {
+            @Override
+            public int[] visit(RegexQuantifier.One instance) {
+                return new int[] {1, 1};
+            }
+
+            @Override
+            public int[] visit(RegexQuantifier.ZeroOrOne instance) {
+                return new int[] {0, 1};
+            }
+
+            @Override
+            public int[] visit(RegexQuantifier.ZeroOrMore instance) {
+                return new int[] {0, -1};
+            }
+
+            @Override
+            public int[] visit(RegexQuantifier.OneOrMore instance) {
+                return new int[] {1, -1};
+            }
+
+            @Override
+            public int[] visit(RegexQuantifier.Exactly instance) {
+                return new int[] {instance.value, instance.value};
+            }
+
+            @Override
+            public int[] visit(RegexQuantifier.AtLeast instance) {
+                return new int[] {instance.value, -1};
+            }
+
+            @Override
+            public int[] visit(RegexQuantifier.Range instance) {
+                return new int[] {instance.value.min, instance.value.max};
+            }
+        });
+        int min = bounds[0];
+        int max = bounds[1];
+        if (min < 0 || (max >= 0 && max < min)) {
+            throw new QueryException("invalid quantifier bounds: " + min + ".." + max);
+        }
+
+        int start = m.state();
+        int end = start;
+        for (int i = 0; i < min; i++) {
+            int[] copy = build(m, sequence.path, inverse);
+            m.epsilon(end, copy[0]);
+            end = copy[1];
+        }
+        int accept = m.state();
+        m.epsilon(end, accept);
+        if (max < 0) {
+            int[] loop = build(m, sequence.path, inverse);
+            m.epsilon(end, loop[0]);
+            m.epsilon(loop[1], loop[0]);
+            m.epsilon(loop[1], accept);
+        } else {
+            for (int i = min; i < max; i++) {
+                int[] copy = build(m, sequence.path, inverse);
+                m.epsilon(end, copy[0]);
+                end = copy[1];
+                m.epsilon(end, accept);
+            }
+        }
+        return new int[] {start, accept};
+    }
+
+    // The relation of an edge type, joining the out and in fields of each record of that type
+    private Relation edgeRelation(Edge edge) {
+        return edges.computeIfAbsent(edge, e -> {
+            Relation outs = projections.getOrDefault(new Projection(e.type, e.out.orElse(DEFAULT_OUT)), EMPTY);
+            Relation ins = projections.getOrDefault(new Projection(e.type, e.in.orElse(DEFAULT_IN)), EMPTY);
+            LongList pairs = new LongList();
+            for (int record : elementsByType.getOrDefault(e.type, new int[0])) {
+                for (int i = first(outs.forward, record); i < outs.forward.length
+                        && source(outs.forward[i]) == record; i++) {
+                    for (int j = first(ins.forward, record); j < ins.forward.length
+                            && source(ins.forward[j]) == record; j++) {
+                        pairs.add(pair(target(outs.forward[i]), target(ins.forward[j])));
+                    }
+                }
+            }
+            return new Relation(pairs);
+        });
+    }
+
+    private static long pair(int source, int target) {
+        return ((long) source << 32) | (target & 0xffffffffL);
+    }
+
+    private static int source(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    private static int target(long pair) {
+        return (int) pair;
+    }
+
+    // The index of the first pair with the given source in a sorted array of pairs
+    private static int first(long[] pairs, int source) {
+        long key = pair(source, 0);
+        int lo = 0;
+        int hi = pairs.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (pairs[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * The state of a single evaluation: the slots of query variables, the ids of query constants which are not
+     * nodes of the graph, and the results of the searches made so far.
+     */
+    private class Context {
+        private final Map<Variable, Integer> slots = new HashMap<>();
+        private final List<Term<A>> extraTerms = new ArrayList<>();
+        private final Map<Term<A>, Integer> extraIds = new HashMap<>();
+        private final Map<Automaton, Map<Integer, int[]>> forwardResults = new HashMap<>();
+        private final Map<Automaton, Map<Integer, int[]>> backwardResults = new HashMap<>();
+
+        int id(Term<A> term) {
+            Term<A> stripped = stripTerm(term);
+            Integer id = ids.get(stripped);
+            if (id != null) {
+                return id;
+            }
+            id = extraIds.get(stripped);
+            if (id == null) {
+                id = terms.size() + extraTerms.size();
+                extraTerms.add(stripped);
+                extraIds.put(stripped, id);
+            }
+            return id;
+        }
+
+        Term<A> term(int id) {
+            return id < terms.size() ? terms.get(id) : extraTerms.get(id - terms.size());
+        }
+
+        int[] emptyRow() {
+            int[] row = new int[slots.size()];
+            Arrays.fill(row, UNBOUND);
+            return row;
+        }
+
+        void declare(Pattern<A> pattern) {
+            Set<Variable> variables = new LinkedHashSet<>();
+            collect(pattern, variables);
+            for (Variable variable : variables) {
+                slots.computeIfAbsent(variable, v -> slots.size());
+            }
+        }
+
+        // The value of a node in a row, or UNBOUND for wildcards and unbound variables
+        int resolve(Node<A> node, int[] row) {
+            if (node instanceof Node.Term) {
+                return id(((Node.Term<A>) node).value);
+            }
+            int slot = slot(node);
+            return slot < 0 ? UNBOUND : row[slot];
+        }
+
+        int slot(Node<A> node) {
+            return node instanceof Node.Variable ? slots.get(((Node.Variable<A>) node).value) : -1;
+        }
+
+        List<int[]> evaluate(Pattern<A> pattern, List<int[]> rows, Set<Variable> bound) {
+            return pattern.accept(new Pattern.Visitor<A, List<int[]>>() {
+                @Override
+                public List<int[]> visit(Pattern.Triple<A> instance) {
+                    List<int[]> result = triple(instance.value, rows);
+                    bound.addAll(variables(instance));
+                    return result;
+                }
+
+                @Override
+                public List<int[]> visit(Pattern.Negation<A> instance) {
+                    List<int[]> result = new ArrayList<>();
+                    for (int[] row : rows) {
+                        if (evaluate(instance.value, Collections.singletonList(row), new HashSet<>(bound)).isEmpty()) {
+                            result.add(row);
+                        }
+                    }
+                    return result;
+                }
+
+                @Override
+                public List<int[]> visit(Pattern.Conjunction<A> instance) {
+                    return conjunction(instance.value, rows, bound);
+                }
+
+                @Override
+                public List<int[]> visit(Pattern.Disjunction<A> instance) {
+                    List<int[]> result = new ArrayList<>();
+                    Set<Variable> common = null;
+                    for (Pattern<A> branch : instance.value) {
+                        Set<Variable> branchBound = new HashSet<>(bound);
+                        result.addAll(evaluate(branch, rows, branchBound));
+                        if (common == null) {
+                            common = branchBound;
+                        } else {
+                            common.retainAll(branchBound);
+                        }
+                    }
+                    if (common != null) {
+                        bound.addAll(common);
+                    }
+                    return result;
+                }
+
+                @Override
+                public List<int[]> visit(Pattern.Graph<A> instance) {
+                    throw new QueryException("unsupported pattern: graph patterns are not supported, as an evaluator "
+                            + "has a single graph; found a pattern over " + instance.value.graph.value);
+                }
+            });
+        }
+
+        // Evaluate the patterns of a conjunction, choosing at each step the pattern with the most bound nodes
+        List<int[]> conjunction(List<Pattern<A>> patterns, List<int[]> rows, Set<Variable> bound) {
+            List<Pattern<A>> remaining = new ArrayList<>(patterns);
+            while (!remaining.isEmpty() && !rows.isEmpty()) {
+                Pattern<A> best = remaining.get(0);
+                int bestScore = Integer.MIN_VALUE;
+                for (Pattern<A> pattern : remaining) {
+                    int score = score(pattern, bound);
+                    if (score > bestScore) {
+                        best = pattern;
+                        bestScore = score;
+                    }
+                }
+                remaining.remove(best);
+                rows = evaluate(best, rows, bound);
+            }
+            return rows;
+        }
+
+        // Filters come first, then triples by the number of bound ends; comparisons wait until both ends are bound
+        private int score(Pattern<A> pattern, Set<Variable> bound) {
+            if (pattern instanceof Pattern.Negation) {
+                return bound.containsAll(variables(pattern)) ? 3 : -1;
+            }
+            if (!(pattern instanceof Pattern.Triple)) {
+                return 0;
+            }
+            TriplePattern<A> triple = ((Pattern.Triple<A>) pattern).value;
+            int ends = (isBound(triple.subject, bound) ? 1 : 0) + (isBound(triple.object, bound) ? 1 : 0);
+            if (isComparison(triple.predicate)) {
+                return ends == 2 ? 3 : -2;
+            }
+            return ends;
+        }
+
+        private boolean isBound(Node<A> node, Set<Variable> bound) {
+            return node instanceof Node.Term
+                    || (node instanceof Node.Variable && bound.contains(((Node.Variable<A>) node).value));
+        }
+
+        private Set<Variable> variables(Pattern<A> pattern) {
+            Set<Variable> result = new HashSet<>();
+            collect(pattern, result);
+            return result;
+        }
+
+        private List<int[]> triple(TriplePattern<A> triple, List<int[]> rows) {
+            if (isComparison(triple.predicate)) {
+                return compare(triple, rows);
+            }
+            Automaton m = automaton(triple.predicate);
+            int subjectSlot = slot(triple.subject);
+            int objectSlot = slot(triple.object);
+            List<int[]> result = new ArrayList<>();
+            for (int[] row : rows) {
+                int subject = resolve(triple.subject, row);
+                int object = resolve(triple.object, row);
+                if (subject != UNBOUND && object != UNBOUND) {
+                    if (connected(m, subject, object)) {
+                        result.add(row);
+                    }
+                } else if (subject != UNBOUND) {
+                    extend(result, row, objectSlot, search(m, subject, true));
+                } else if (object != UNBOUND) {
+                    extend(result, row, subjectSlot, search(m, object, false));
+                } else {
+                    for (int source : sources(m)) {
+                        int[] targets = search(m, source, true);
+                        if (targets.length == 0) {
+                            continue;
+                        }
+                        if (subjectSlot < 0) {
+                            extend(result, row, objectSlot, targets);
+                        } else if (subjectSlot == objectSlot) {
+                            // The same variable at both ends: only cycles back to the source
+                            if (Arrays.stream(targets).anyMatch(t -> t == source)) {
+                                int[] extended = row.clone();
+                                extended[subjectSlot] = source;
+                                result.add(extended);
+                            }
+                        } else {
+                            int[] withSource = row.clone();
+                            withSource[subjectSlot] = source;
+                            extend(result, withSource, objectSlot, targets);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        // Bind a slot to each of the given nodes, or keep the row once if the slot is a wildcard
+        private void extend(List<int[]> result, int[] row, int slot, int[] nodes) {
+            if (slot < 0) {
+                if (nodes.length > 0) {
+                    result.add(row);
+                }
+                return;
+            }
+            for (int node : nodes) {
+                int[] extended = row.clone();
+                extended[slot] = node;
+                result.add(extended);
+            }
+        }
+
+        private List<int[]> compare(TriplePattern<A> triple, List<int[]> rows) {
+            ComparisonConstraint constraint = ((Step.Compare) ((Path.Step) triple.predicate).value).value;
+            List<int[]> result = new ArrayList<>();
+            for (int[] row : rows) {
+                int subject = resolve(triple.subject, row);
+                int object = resolve(triple.object, row);
+                if (subject == UNBOUND || object == UNBOUND) {
+                    Node<A> end = subject == UNBOUND ? triple.subject : triple.object;
+                    throw new QueryException("unsupported comparison: both ends of a comparison must be bound, but "
+                            + (end instanceof Node.Variable
+                            ? "variable " + ((Node.Variable<A>) end).value.value + " is not bound by another pattern"
+                            : "one end is a wildcard"));
+                }
+                int c = TermOrdering.<A>terms().compare(term(subject), term(object));
+                if (satisfies(constraint, c)) {
+                    result.add(row);
+                }
+            }
+            return result;
+        }
+
+        // The nodes from which a search must start in order to find all pairs connected by a path
+        private int[] sources(Automaton m) {
+            if (m.nullable) {
+                int[] all = new int[terms.size()];
+                for (int i = 0; i < all.length; i++) {
+                    all[i] = i;
+                }
+                return all;
+            }
+            BitSet sources = new BitSet();
+            for (Transition t : m.initial) {
+                long[] pairs = t.inverse ? t.relation.backward : t.relation.forward;
+                for (long p : pairs) {
+                    sources.set(source(p));
+                }
+            }
+            return sources.stream().toArray();
+        }
+
+        int[] search(Automaton m, int node, boolean forward) {
+            Map<Integer, int[]> cache = (forward ? forwardResults : backwardResults)
+                    .computeIfAbsent(m, k -> new HashMap<>());
+            int[] result = cache.get(node);
+            if (result == null) {
+                Search search = new Search(m, forward);
+                search.enqueue(node, forward ? m.start : m.accept);
+                search.run();
+                result = search.found.toIntArray();
+                cache.put(node, result);
+            }
+            return result;
+        }
+
+        // A bidirectional search, expanding the smaller of the two frontiers until they meet or one is exhausted
+        boolean connected(Automaton m, int subject, int object) {
+            int[] known = forwardResults.getOrDefault(m, Collections.emptyMap()).get(subject);
+            if (known != null) {
+                return Arrays.stream(known).anyMatch(n -> n == object);
+            }
+            Search forward = new Search(m, true);
+            Search backward = new Search(m, false);
+            forward.other = backward;
+            backward.other = forward;
+            backward.enqueue(object, m.accept);
+            forward.enqueue(subject, m.start);
+            while (!forward.met && !backward.met && forward.pending() > 0 && backward.pending() > 0) {
+                if (forward.pending() <= backward.pending()) {
+                    forward.expandLevel();
+                } else {
+                    backward.expandLevel();
+                }
+            }
+            return forward.met || backward.met;
+        }
+
+        /**
+         * A breadth-first search over pairs of nodes and automaton states, in which each level expands only the
+         * pairs first reached in the level before.
+         */
+        private class Search {
+            private final Automaton m;
+            private final boolean forward;
+            private final int goal;
+            private final LongSet visited = new LongSet();
+            private final LongList queue = new LongList();
+            private final LongList found = new LongList();
+            private int head = 0;
+            private Search other;
+            private boolean met = false;
+
+            Search(Automaton m, boolean forward) {
+                this.m = m;
+                this.forward = forward;
+                this.goal = forward ? m.accept : m.start;
+            }
+
+            void run() {
+                while (pending() > 0) {
+                    expandLevel();
+                }
+            }
+
+            int pending() {
+                return queue.size - head;
+            }
+
+            void enqueue(int node, int state) {
+                long key = (long) node * m.size + state;
+                if (visited.add(key)) {
+                    queue.add(key);
+                    if (state == goal) {
+                        found.add(node);
+                    }
+                    if (other != null && other.visited.contains(key)) {
+                        met = true;
+                    }
+                }
+            }
+
+            void expandLevel() {
+                int end = queue.size;
+                while (head < end) {
+                    long key = queue.values[head++];
+                    int node = (int) (key / m.size);
+                    int state = (int) (key % m.size);
+                    for (Transition t : forward ? m.outgoing[state] : m.incoming[state]) {
+                        if (t.relation == null) {
+                            enqueue(node, t.state);
+                            continue;
+                        }
+                        boolean along = forward != t.inverse;
+                        long[] pairs = along ? t.relation.forward : t.relation.backward;
+                        for (int i = first(pairs, node); i < pairs.length && source(pairs[i]) == node; i++) {
+                            enqueue(target(pairs[i]), t.state);
+                        }
+                        if (along && t.projection != null) {
+                            projectInline(node, t);
+                        }
+                    }
+                }
+            }
+
+            // Project a field out of a record which is not an element, such as a record nested in another record
+            private void projectInline(int node, Transition t) {
+                Term<A> term = term(node);
+                if (term instanceof Term.Record) {
+                    Record<A> record = ((Term.Record<A>) term).value;
+                    if (record.typeName.equals(t.projection.typeName)) {
+                        for (Field<A> field : record.fields) {
+                            if (field.name.equals(t.projection.field)) {
+                                enqueue(id(field.term), t.state);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static <A> void collect(Pattern<A> pattern, Set<Variable> variables) {
+        pattern.accept(new Pattern.Visitor<A, Void>() {
+            @Override
+            public Void visit(Pattern.Triple<A> instance) {
+                for (Node<A> node : Arrays.asList(instance.value.subject, instance.value.object)) {
+                    if (node instanceof Node.Variable) {
+                        variables.add(((Node.Variable<A>) node).value);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public Void visit(Pattern.Negation<A> instance) {
+                collect(instance.value, variables);
+                return null;
+            }
+
+            @Override
+            public Void visit(Pattern.Conjunction<A> instance) {
+                instance.value.forEach(p -> collect(p, variables));
+                return null;
+            }
+
+            @Override
+            public Void visit(Pattern.Disjunction<A> instance) {
+                instance.value.forEach(p -> collect(p, variables));
+                return null;
+            }
+
+            @Override
+            public Void visit(Pattern.Graph<A> instance) {
+                throw new QueryException("unsupported pattern: graph patterns are not supported, as an evaluator "
+                        + "has a single graph; found a pattern over " + instance.value.graph.value);
+            }
+        });
+    }
+
+    private static boolean isComparison(Path path) {
+        return path instanceof Path.Step && ((Path.Step) path).value instanceof Step.Compare
+                && !(((Step.Compare) ((Path.Step) path).value).value instanceof ComparisonConstraint.Equal);
+    }
+
+    private static boolean satisfies(ComparisonConstraint constraint, int c) {
+        return constraint.accept(new ComparisonConstraint.Visitor<Boolean>() {
+            @Override
+            public Boolean visit(ComparisonConstraint.Equal instance) {
+                return c == 0;
+            }
+
+            @Override
+            public Boolean visit(ComparisonConstraint.NotEqual instance) {
+                return c != 0;
+            }
+
+            @Override
+            public Boolean visit(ComparisonConstraint.LessThan instance) {
+                return c < 0;
+            }
+
+            @Override
+            public Boolean visit(ComparisonConstraint.GreaterThan instance) {
+                return c > 0;
+            }
+
+            @Override
+            public Boolean visit(ComparisonConstraint.LessThanOrEqual instance) {
+                return c <= 0;
+            }
+
+            @Override
+            public Boolean visit(ComparisonConstraint.GreaterThanOrEqual instance) {
+                return c >= 0;
+            }
+        });
+    }
+
+    /**
+     * A nondeterministic finite automaton over steps, with epsilon transitions.
+     */
+    private static class Automaton {
+        private final List<List<Transition>> out = new ArrayList<>();
+        private final List<List<Transition>> in = new ArrayList<>();
+        private Transition[][] outgoing;
+        private Transition[][] incoming;
+        private int size;
+        private int start;
+        private int accept;
+        // Whether the path matches the empty sequence of steps
+        private boolean nullable;
+        // The non-epsilon transitions which may be taken first
+        private List<Transition> initial;
+
+        int state() {
+            out.add(new ArrayList<>());
+            in.add(new ArrayList<>());
+            return out.size() - 1;
+        }
+
+        void epsilon(int from, int to) {
+            add(from, to, null, null, false);
+        }
+
+        void add(int from, int to, Relation relation, Projection projection, boolean inverse) {
+            out.get(from).add(new Transition(relation, projection, inverse, to));
+            in.get(to).add(new Transition(relation, projection, inverse, from));
+        }
+
+        void freeze(int start, int accept) {
+            this.start = start;
+            this.accept = accept;
+            size = out.size();
+            outgoing = new Transition[size][];
+            incoming = new Transition[size][];
+            for (int i = 0; i < size; i++) {
+                outgoing[i] = out.get(i).toArray(new Transition[0]);
+                incoming[i] = in.get(i).toArray(new Transition[0]);
+            }
+
+            BitSet closure = new BitSet(size);
+            List<Integer> stack = new ArrayList<>(Collections.singletonList(start));
+            closure.set(start);
+            initial = new ArrayList<>();
+            while (!stack.isEmpty()) {
+                int q = stack.remove(stack.size() - 1);
+                for (Transition t : outgoing[q]) {
+                    if (t.relation != null) {
+                        initial.add(t);
+                    } else if (!closure.get(t.state)) {
+                        closure.set(t.state);
+                        stack.add(t.state);
+                    }
+                }
+            }
+            nullable = closure.get(accept);
+        }
+    }
+
+    /**
+     * A transition to or from a state. Epsilon transitions have no relation.
+     */
+    /**
+     * An invalid or unsupported query, which is reported as a failed flow.
+     */
+    private static class QueryException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        QueryException(String message) {
+            super(message);
+        }
+    }
+
+    private static class Transition {
+        private final Relation relation;
+        private final Projection projection;
+        private final boolean inverse;
+        private final int state;
+
+        Transition(Relation relation, Projection projection, boolean inverse, int state) {
+            this.relation = relation;
+            this.projection = projection;
+            this.inverse = inverse;
+            this.state = state;
+        }
+    }
+
+    /**
+     * A binary relation between nodes, as sorted arrays of pairs in both directions.
+     */
+    private static class Relation {
+        private final long[] forward;
+        private final long[] backward;
+
+        Relation(LongList pairs) {
+            forward = Arrays.copyOf(pairs.values, pairs.size);
+            Arrays.sort(forward);
+            backward = new long[forward.length];
+            for (int i = 0; i < forward.length; i++) {
+                backward[i] = pair(target(forward[i]), source(forward[i]));
+            }
+            Arrays.sort(backward);
+        }
+    }
+
+    private static class LongList {
+        private long[] values = new long[8];
+        private int size = 0;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toIntArray() {
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = (int) values[i];
+            }
+            return result;
+        }
+    }
+
+    /**
+     * An open-addressing hash set of non-negative longs.
+     */
+    private static class LongSet {
+        private long[] table = new long[16];
+        private int size = 0;
+
+        LongSet() {
+            Arrays.fill(table, -1L);
+        }
+
+        boolean contains(long value) {
+            int mask = table.length - 1;
+            for (int i = hash(value) & mask; ; i = (i + 1) & mask) {
+                if (table[i] == value) {
+                    return true;
+                }
+                if (table[i] == -1L) {
+                    return false;
+                }
+            }
+        }
+
+        boolean add(long value) {
+            if (2 * (size + 1) > table.length) {
+                long[] old = table;
+                table = new long[old.length * 2];
+                Arrays.fill(table, -1L);
+                size = 0;
+                for (long v : old) {
+                    if (v != -1L) {
+                        add(v);
+                    }
+                }
+            }
+            int mask = table.length - 1;
+            for (int i = hash(value) & mask; ; i = (i + 1) & mask) {
+                if (table[i] == value) {
+                    return false;
+                }
+                if (table[i] == -1L) {
+                    table[i] = value;
+                    size++;
+                    return true;
+                }
+            }
+        }
+
+        private static int hash(long value) {
+            long h = value * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -15,9 +15,7 @@ import hydra.dsl.Terms;
 import hydra.graph.Graph;
 import hydra.tools.LList;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Function;
 
 import static hydra.Flows.bind;
@@ -25,7 +23,6 @@ import static hydra.Flows.fail;
 import static hydra.Flows.mapM;
 import static hydra.Flows.pure;
 import static hydra.Flows.unexpected;
-import static hydra.extras.Extras.primitiveArity;
 import static hydra.strip.Strip.stripTerm;
 
 
@@ -125,7 +122,10 @@ public class Reduction {
         });
     }
 
-    private static <A> Flow<Graph<A>, Term<A>> applyIfNullary(boolean eager, Term<A> original, LList<Term<A>> args) {
+    private static <A> Flow<Graph<A>, Term<A>> applyIfNullary(boolean eager,
+                                                                PrimitiveTable<A> prims,
+                                                                Term<A> original,
+                                                                LList<Term<A>> args) {
         return stripTerm(original).accept(new Term.PartialVisitor<A, Flow<Graph<A>, Term<A>>>() {
             @Override
             public Flow<Graph<A>, Term<A>> otherwise(Term<A> instance) {
@@ -135,7 +135,7 @@ public class Reduction {
             @Override
             public Flow<Graph<A>, Term<A>> visit(Term.Application<A> instance) {
                 Application<A> app = instance.value;
-                return applyIfNullary(eager, app.function, LList.push(app.argument, args));
+                return applyIfNullary(eager, prims, app.function, LList.push(app.argument, args));
             }
 
             @Override
@@ -151,10 +151,10 @@ public class Reduction {
                             Term<A> arg = args.first;
                             LList<Term<A>> remainingArgs = args.rest;
                             // Reduce the argument prior to application, regardless of laziness
-                            return bind(reduceArg(eager, stripTerm(arg)),
+                            return bind(reduceArg(eager, prims, stripTerm(arg)),
                                     reducedArg -> bind(applyElimination(elm, reducedArg),
-                                            result -> bind(reduce(eager, result),
-                                                    reducedResult -> applyIfNullary(eager, reducedResult,
+                                            result -> bind(reduce(eager, prims, result),
+                                                    reducedResult -> applyIfNullary(eager, prims, reducedResult,
                                                             remainingArgs))));
                         }
                     }
@@ -167,31 +167,35 @@ public class Reduction {
                             Lambda<A> lam = instance.value;
                             Term<A> arg = args.first;
                             LList<Term<A>> remainingArgs = args.rest;
-                            return bind(reduce(eager, stripTerm(arg)),
+                            return bind(reduce(eager, prims, stripTerm(arg)),
                                     reducedArg -> {
                                         Term<A> result = replaceFreeName(lam.parameter, reducedArg, lam.body);
-                                        return bind(reduce(eager, result),
-                                                reducedResult -> applyIfNullary(eager, reducedResult, remainingArgs));
+                                        return bind(reduce(eager, prims, result),
+                                                reducedResult -> applyIfNullary(eager, prims, reducedResult,
+                                                        remainingArgs));
                                     });
                         }
                     }
 
                     @Override
                     public Flow<Graph<A>, Term<A>> visit(hydra.core.Function.Primitive<A> instance) {
-                        return bind(Lexical.requirePrimitive(instance.value), prim -> {
-                            int arity = primitiveArity(prim);
-                            if (arity <= LList.length(args)) {
-                                List<Term<A>> argList = LList.take(arity, args);
-                                Flow<Graph<A>, List<Term<A>>> reducedArgs = mapM(argList, a -> reduceArg(eager, a));
-                                LList<Term<A>> remainingArgs = LList.drop(arity, args);
-                                return bind(reducedArgs, rargs -> bind(prim.implementation.apply(rargs),
-                                        result -> bind(reduce(eager, result),
-                                                reducedResult -> applyIfNullary(eager, reducedResult, remainingArgs))));
-                            } else {
-                                // Not enough arguments available; back out
-                                return pure(applyToArguments(original, args));
-                            }
-                        });
+                        PrimitiveTable.Entry<A> prim = prims.get(instance.value);
+                        if (prim == null) {
+                            return fail("no such primitive function: " + instance.value.value);
+                        }
+                        int arity = prim.arity;
+                        if (arity <= LList.length(args)) {
+                            List<Term<A>> argList = LList.take(arity, args);
+                            Flow<Graph<A>, List<Term<A>>> reducedArgs = mapM(argList, a -> reduceArg(eager, prims, a));
+                            LList<Term<A>> remainingArgs = LList.drop(arity, args);
+                            return bind(reducedArgs, rargs -> bind(prim.implementation.apply(rargs),
+                                    result -> bind(reduce(eager, prims, result),
+                                            reducedResult -> applyIfNullary(eager, prims, reducedResult,
+                                                    remainingArgs))));
+                        } else {
+                            // Not enough arguments available; back out
+                            return pure(applyToArguments(original, args));
+                        }
                     }
                 });
             }
@@ -241,14 +245,16 @@ public class Reduction {
         return eager && !isLambda;
     }
 
-    public static <A> Flow<Graph<A>, Term<A>> reduce(boolean eager, Term<A> term) {
-        return reduce(eager, term, new HashMap<>(), null);
+    /**
+     * Reduce a term by beta-reduction and substitution, using either an eager or a lazy strategy.
+     * See also Evaluation.reduce, which avoids substitution by evaluating terms in an environment.
+     */
+    public static <A> Flow<Graph<A>, Term<A>> reduce(boolean eager, Term<A> original) {
+        // The primitives of the graph are resolved once, and are passed down to each application
+        return bind(Flows.getState(), (Graph<A> g) -> reduce(eager, PrimitiveTable.of(g), original));
     }
 
-    private static <A> Flow<Graph<A>, Term<A>> reduce(boolean eager,
-                                                      Term<A> original,
-                                                      Map<Name, Term<A>> env,
-                                                      LList<Term<A>> args) {
+    private static <A> Flow<Graph<A>, Term<A>> reduce(boolean eager, PrimitiveTable<A> prims, Term<A> original) {
         return Rewriting.rewriteTermM(
                 new Function<Function<Term<A>, Flow<Graph<A>, Term<A>>>, Function<Term<A>, Flow<Graph<A>, Term<A>>>>() {
                     @Override
@@ -263,7 +269,7 @@ public class Reduction {
                                 return bind(ready, new Function<Term<A>, Flow<Graph<A>, Term<A>>>() {
                                     @Override
                                     public Flow<Graph<A>, Term<A>> apply(Term<A> inner) {
-                                        return applyIfNullary(eager, inner, null);
+                                        return applyIfNullary(eager, prims, inner, null);
                                     }
                                 });
                             }
@@ -272,42 +278,16 @@ public class Reduction {
                 }, Flows::pure, original);
     }
 
-    private static <A> Flow<Graph<A>, Term<A>> reduceArg(boolean eager, Term<A> arg) {
+    private static <A> Flow<Graph<A>, Term<A>> reduceArg(boolean eager, PrimitiveTable<A> prims, Term<A> arg) {
         // Reduce an argument only if evaluation is lazy (i.e. the argument may not already have been reduced)
-        return eager ? pure(arg) : reduce(false, arg);
+        return eager ? pure(arg) : reduce(false, prims, arg);
     }
 
     /**
      * Replace occurrences of a free variable (name) in a term with a given term.
+     * Variables bound by a lambda or a let of the same name are not replaced, and unchanged subterms are shared.
      */
     public static <A> Term<A> replaceFreeName(Name toReplace, Term<A> replacement, Term<A> body) {
-        return Rewriting.rewriteTerm(recurse -> inner -> inner.accept(new Term.PartialVisitor<A, Term<A>>() {
-            @Override
-            public Term<A> otherwise(Term<A> instance) {
-                return recurse.apply(instance);
-            }
-
-            @Override
-            public Term<A> visit(Term.Function<A> instance) {
-                hydra.core.Function<A> fun = instance.value;
-                return fun.accept(new hydra.core.Function.PartialVisitor<A, Term<A>>() {
-                    @Override
-                    public Term<A> otherwise(hydra.core.Function<A> instance) {
-                        return recurse.apply(inner);
-                    }
-
-                    @Override
-                    public Term<A> visit(hydra.core.Function.Lambda<A> instance) {
-                        Lambda<A> lam = instance.value;
-                        return lam.parameter.equals(toReplace) ? inner : recurse.apply(inner);
-                    }
-                });
-            }
-
-            @Override
-            public Term<A> visit(Term.Variable<A> instance) {
-                return instance.value.equals(toReplace) ? replacement : instance;
-            }
-        }), a -> a, body);
+        return TermRewriter.rewrite(body, TermRewriter.replaceFreeName(toReplace, replacement));
     }
-}
\ No newline at end of file
+}
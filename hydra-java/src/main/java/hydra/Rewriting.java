@@ -17,7 +17,11 @@ import hydra.core.Record;
 import hydra.core.Sum;
 import hydra.core.Term;
 import hydra.dsl.Terms;
+import hydra.tools.PersistentSortedMap;
+import hydra.tools.PersistentSortedSet;
+import hydra.tools.TermOrdering;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,7 +29,6 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
-import static hydra.Flows.fromFlow;
 import static hydra.Flows.map;
 import static hydra.Flows.map2;
 import static hydra.Flows.mapM;
@@ -126,18 +129,116 @@ public interface Rewriting {
     }
 
     /**
-     * This is a workaround for a non-monadic rewriting function; the latter would be more efficient.
+     * Rewrite a term using a function. Unlike rewriteTermM, no flows are constructed, and a single visitor is used
+     * for all subterms. See also TermRewriter, which fuses rules and preserves unchanged subterms.
      */
     static <A, B> Term<B> rewriteTerm(Function<Function<Term<A>, Term<B>>, Function<Term<A>, Term<B>>> f,
                                       Function<A, B> mf, Term<A> original) {
-        Function<Function<Term<A>, Flow<Boolean, Term<B>>>, Function<Term<A>, Flow<Boolean, Term<B>>>> fflow =
-                recurse -> (Function<Term<A>, Flow<Boolean, Term<B>>>) term -> {
-                    Term<B> result = f.apply(t -> fromFlow(null, null, recurse.apply(t))).apply(term);
-                    return pure(result);
-                };
-
-        Function<A, Flow<Boolean, B>> mfflow = a -> pure(mf.apply(a));
-        return fromFlow(null, null, rewriteTermM(fflow, mfflow, original));
+        Function<Function<Term<A>, Term<B>>, Function<Term<A>, Term<B>>> fsub = recurse -> {
+            Term.Visitor<A, Term<B>> visitor = new Term.Visitor<A, Term<B>>() {
+                @Override
+                public Term<B> visit(Term.Annotated<A> instance) {
+                    Annotated<Term<A>, A> ann = instance.value;
+                    return Terms.annot(mf.apply(ann.annotation), recurse.apply(ann.subject));
+                }
+
+                @Override
+                public Term<B> visit(Term.Application<A> instance) {
+                    return new Term.Application<>(new Application<>(recurse.apply(instance.value.function),
+                            recurse.apply(instance.value.argument)));
+                }
+
+                @Override
+                public Term<B> visit(Term.Function<A> instance) {
+                    return new Term.Function<>(RewritingHelpers.rewriteFunction(recurse, instance.value));
+                }
+
+                @Override
+                public Term<B> visit(Term.Let<A> instance) {
+                    Map<Name, Term<B>> bindings = new HashMap<>();
+                    for (Map.Entry<Name, Term<A>> e : instance.value.bindings.entrySet()) {
+                        bindings.put(e.getKey(), recurse.apply(e.getValue()));
+                    }
+                    return new Term.Let<>(new Let<>(bindings, recurse.apply(instance.value.environment)));
+                }
+
+                @Override
+                public Term<B> visit(Term.List<A> instance) {
+                    return new Term.List<>(RewritingHelpers.rewriteList(recurse, instance.value));
+                }
+
+                @Override
+                public Term<B> visit(Term.Literal<A> instance) {
+                    return new Term.Literal<>(instance.value);
+                }
+
+                @Override
+                public Term<B> visit(Term.Map<A> instance) {
+                    PersistentSortedMap<Term<B>, Term<B>> map = PersistentSortedMap.empty(TermOrdering.terms());
+                    for (Map.Entry<Term<A>, Term<A>> e : instance.value.entrySet()) {
+                        map = map.insert(recurse.apply(e.getKey()), recurse.apply(e.getValue()));
+                    }
+                    return new Term.Map<>(map);
+                }
+
+                @Override
+                public Term<B> visit(Term.Optional<A> instance) {
+                    return new Term.Optional<>(instance.value.map(recurse));
+                }
+
+                @Override
+                public Term<B> visit(Term.Product<A> instance) {
+                    return new Term.Product<>(RewritingHelpers.rewriteList(recurse, instance.value));
+                }
+
+                @Override
+                public Term<B> visit(Term.Record<A> instance) {
+                    return new Term.Record<>(new Record<>(instance.value.typeName,
+                            RewritingHelpers.rewriteFields(recurse, instance.value.fields)));
+                }
+
+                @Override
+                public Term<B> visit(Term.Set<A> instance) {
+                    PersistentSortedSet<Term<B>> set = PersistentSortedSet.empty(TermOrdering.terms());
+                    for (Term<A> t : instance.value) {
+                        set = set.insert(recurse.apply(t));
+                    }
+                    return new Term.Set<>(set);
+                }
+
+                @Override
+                public Term<B> visit(Term.Stream<A> instance) {
+                    throw new UnsupportedOperationException("term streams cannot be rewritten, as a stream may be "
+                            + "infinite");
+                }
+
+                @Override
+                public Term<B> visit(Term.Sum<A> instance) {
+                    return new Term.Sum<>(new Sum<>(instance.value.index, instance.value.size,
+                            recurse.apply(instance.value.term)));
+                }
+
+                @Override
+                public Term<B> visit(Term.Union<A> instance) {
+                    Field<A> field = instance.value.field;
+                    return new Term.Union<>(new Injection<>(instance.value.typeName,
+                            new Field<>(field.name, recurse.apply(field.term))));
+                }
+
+                @Override
+                public Term<B> visit(Term.Variable<A> instance) {
+                    return new Term.Variable<>(instance.value);
+                }
+
+                @Override
+                public Term<B> visit(Term.Wrap<A> instance) {
+                    return new Term.Wrap<>(new Nominal<>(instance.value.typeName,
+                            recurse.apply(instance.value.object)));
+                }
+            };
+            return term -> term.accept(visitor);
+        };
+        return rewrite(fsub, f).apply(original);
     }
 
     /**
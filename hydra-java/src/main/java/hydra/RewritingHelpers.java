@@ -0,0 +1,83 @@
+package hydra;
+
+import hydra.core.CaseStatement;
+import hydra.core.Elimination;
+import hydra.core.Field;
+import hydra.core.Lambda;
+import hydra.core.OptionalCases;
+import hydra.core.Term;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * Helpers for Rewriting.rewriteTerm, which rewrite the immediate subterms of a node. They are kept out of the
+ * Rewriting interface, as interfaces cannot have private methods in Java 8.
+ */
+final class RewritingHelpers {
+    private RewritingHelpers() {
+    }
+
+    static <A, B> hydra.core.Function<B> rewriteFunction(Function<Term<A>, Term<B>> recurse,
+                                                                 hydra.core.Function<A> original) {
+        if (original instanceof hydra.core.Function.Lambda) {
+            Lambda<A> lambda = ((hydra.core.Function.Lambda<A>) original).value;
+            return new hydra.core.Function.Lambda<>(new Lambda<>(lambda.parameter, recurse.apply(lambda.body)));
+        } else if (original instanceof hydra.core.Function.Primitive) {
+            return new hydra.core.Function.Primitive<>(((hydra.core.Function.Primitive<A>) original).value);
+        }
+        Elimination<A> elim = ((hydra.core.Function.Elimination<A>) original).value;
+        return new hydra.core.Function.Elimination<>(elim.accept(new Elimination.Visitor<A, Elimination<B>>() {
+            @Override
+            public Elimination<B> visit(Elimination.List<A> instance) {
+                return new Elimination.List<>(recurse.apply(instance.value));
+            }
+
+            @Override
+            public Elimination<B> visit(Elimination.Optional<A> instance) {
+                return new Elimination.Optional<>(new OptionalCases<>(recurse.apply(instance.value.nothing),
+                        recurse.apply(instance.value.just)));
+            }
+
+            @Override
+            public Elimination<B> visit(Elimination.Product<A> instance) {
+                return new Elimination.Product<>(instance.value);
+            }
+
+            @Override
+            public Elimination<B> visit(Elimination.Record<A> instance) {
+                return new Elimination.Record<>(instance.value);
+            }
+
+            @Override
+            public Elimination<B> visit(Elimination.Union<A> instance) {
+                CaseStatement<A> cases = instance.value;
+                return new Elimination.Union<>(new CaseStatement<>(cases.typeName, cases.default_.map(recurse),
+                        rewriteFields(recurse, cases.cases)));
+            }
+
+            @Override
+            public Elimination<B> visit(Elimination.Wrap<A> instance) {
+                return new Elimination.Wrap<>(instance.value);
+            }
+        }));
+    }
+
+    static <A, B> List<Field<B>> rewriteFields(Function<Term<A>, Term<B>> recurse, List<Field<A>> fields) {
+        List<Field<B>> result = new ArrayList<>(fields.size());
+        for (Field<A> field : fields) {
+            result.add(new Field<>(field.name, recurse.apply(field.term)));
+        }
+        return result;
+    }
+
+    static <A, B> List<Term<B>> rewriteList(Function<Term<A>, Term<B>> recurse, List<Term<A>> terms) {
+        List<Term<B>> result = new ArrayList<>(terms.size());
+        for (Term<A> term : terms) {
+            result.add(recurse.apply(term));
+        }
+        return result;
+    }
+}
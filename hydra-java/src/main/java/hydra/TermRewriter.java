@@ -0,0 +1,459 @@
+package hydra;
+
+import hydra.core.Annotated;
+import hydra.core.Application;
+import hydra.core.CaseStatement;
+import hydra.core.Elimination;
+import hydra.core.Field;
+import hydra.core.Injection;
+import hydra.core.Lambda;
+import hydra.core.Let;
+import hydra.core.Name;
+import hydra.core.Nominal;
+import hydra.core.OptionalCases;
+import hydra.core.Record;
+import hydra.core.Sum;
+import hydra.core.Term;
+import hydra.tools.TermOrdering;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+
+/**
+ * Single-pass, identity-preserving rewriting of terms. A rewrite is described by rules, each of which may change a
+ * node before and after its subterms are rewritten; several rules may be fused into one, so that what would
+ * otherwise be several passes over a term, each rebuilding it, becomes a single traversal.
+ * A node which no rule changes, and none of whose subterms has changed, is returned as-is: rewriting a term which
+ * needs no changes allocates nothing per node, and unchanged subtrees are shared between the original term and the
+ * result.
+ * <p>
+ * Rules are scoped: on entering the body of a lambda or a let, each rule is given the chance to replace itself for
+ * the scope of the bound variable, or to disable itself within that scope; a subterm within which every rule is
+ * disabled is not visited at all.
+ * A rewriter visits one term at a time, and is created by rewrite for each term.
+ */
+public final class TermRewriter<A> implements Term.Visitor<A, Term<A>> {
+    private Rule<A> rule;
+
+    private TermRewriter(Rule<A> rule) {
+        this.rule = rule;
+    }
+
+    /**
+     * A rewrite rule. Each method returns its argument to leave the node unchanged.
+     */
+    public interface Rule<A> {
+        /**
+         * Rewrite a node before its subterms are rewritten. The subterms of the result are then rewritten.
+         */
+        default Term<A> before(Term<A> term) {
+            return term;
+        }
+
+        /**
+         * Rewrite a node after its subterms have been rewritten.
+         */
+        default Term<A> after(Term<A> term) {
+            return term;
+        }
+
+        /**
+         * The rule to apply within the scope of a bound variable: this rule, another rule, or null to apply no rule.
+         */
+        default Rule<A> bind(Name variable) {
+            return this;
+        }
+    }
+
+    /**
+     * Rewrite a term with the given rules, which are applied in order at each node.
+     */
+    @SafeVarargs
+    public static <A> Term<A> rewrite(Term<A> term, Rule<A>... rules) {
+        // The rules are copied one at a time, rather than with Arrays.asList, so that the array does not escape
+        List<Rule<A>> list = new ArrayList<>(rules.length);
+        for (Rule<A> r : rules) {
+            list.add(r);
+        }
+        Rule<A> rule = fuse(list);
+        return rule == null ? term : new TermRewriter<>(rule).term(term);
+    }
+
+    /**
+     * Fuse rules into a single rule, which applies each of them in order at each node. Null rules are ignored, and
+     * null is returned if no rule remains.
+     */
+    public static <A> Rule<A> fuse(List<Rule<A>> rules) {
+        List<Rule<A>> nonNull = new ArrayList<>(rules.size());
+        for (Rule<A> r : rules) {
+            if (r != null) {
+                nonNull.add(r);
+            }
+        }
+        switch (nonNull.size()) {
+            case 0:
+                return null;
+            case 1:
+                return nonNull.get(0);
+            default:
+                return new Fused<>(nonNull);
+        }
+    }
+
+    /**
+     * A rule which removes all annotations.
+     */
+    public static <A> Rule<A> stripAnnotations() {
+        return new Rule<A>() {
+            @Override
+            public Term<A> before(Term<A> term) {
+                return KvAnnotations.stripTerm(term);
+            }
+        };
+    }
+
+    /**
+     * A rule which replaces the free occurrences of a variable with a term. The replacement is not itself rewritten.
+     */
+    public static <A> Rule<A> replaceFreeName(Name name, Term<A> replacement) {
+        return new Rule<A>() {
+            @Override
+            public Term<A> after(Term<A> term) {
+                return term instanceof Term.Variable && ((Term.Variable<A>) term).value.equals(name)
+                        ? replacement : term;
+            }
+
+            @Override
+            public Rule<A> bind(Name variable) {
+                return variable.equals(name) ? null : this;
+            }
+        };
+    }
+
+    /**
+     * A rule which maps each annotation; an annotation is unchanged if the function returns it.
+     */
+    public static <A> Rule<A> mapAnnotations(Function<A, A> mapping) {
+        return new Rule<A>() {
+            @Override
+            public Term<A> after(Term<A> term) {
+                if (term instanceof Term.Annotated) {
+                    Annotated<Term<A>, A> ann = ((Term.Annotated<A>) term).value;
+                    A mapped = mapping.apply(ann.annotation);
+                    if (mapped != ann.annotation) {
+                        return new Term.Annotated<>(new Annotated<>(ann.subject, mapped));
+                    }
+                }
+                return term;
+            }
+        };
+    }
+
+    private Term<A> term(Term<A> original) {
+        Term<A> before = rule.before(original);
+        return rule.after(before.accept(this));
+    }
+
+    // Rewrite a subterm within the scope of a bound variable
+    private Term<A> scoped(Term<A> term, Name variable) {
+        Rule<A> inner = rule.bind(variable);
+        return inner == null ? term : scoped(term, inner);
+    }
+
+    // Rewrite a subterm within the scope of some bound variables
+    private Term<A> scoped(Term<A> term, Iterable<Name> variables) {
+        Rule<A> inner = rule;
+        for (Name v : variables) {
+            inner = inner.bind(v);
+            if (inner == null) {
+                return term;
+            }
+        }
+        return scoped(term, inner);
+    }
+
+    private Term<A> scoped(Term<A> term, Rule<A> inner) {
+        Rule<A> outer = rule;
+        rule = inner;
+        try {
+            return term(term);
+        } finally {
+            rule = outer;
+        }
+    }
+
+    private List<Term<A>> terms(List<Term<A>> original) {
+        List<Term<A>> result = null;
+        for (int i = 0; i < original.size(); i++) {
+            Term<A> t = original.get(i);
+            Term<A> t1 = term(t);
+            if (t1 != t && result == null) {
+                result = new ArrayList<>(original.subList(0, i));
+            }
+            if (result != null) {
+                result.add(t1);
+            }
+        }
+        return result == null ? original : result;
+    }
+
+    private List<Field<A>> fields(List<Field<A>> original) {
+        List<Field<A>> result = null;
+        for (int i = 0; i < original.size(); i++) {
+            Field<A> f = original.get(i);
+            Field<A> f1 = field(f);
+            if (f1 != f && result == null) {
+                result = new ArrayList<>(original.subList(0, i));
+            }
+            if (result != null) {
+                result.add(f1);
+            }
+        }
+        return result == null ? original : result;
+    }
+
+    private Field<A> field(Field<A> original) {
+        Term<A> t = term(original.term);
+        return t == original.term ? original : new Field<>(original.name, t);
+    }
+
+    private Optional<Term<A>> optional(Optional<Term<A>> original) {
+        if (!original.isPresent()) {
+            return original;
+        }
+        Term<A> t = term(original.get());
+        return t == original.get() ? original : Optional.of(t);
+    }
+
+    @Override
+    public Term<A> visit(Term.Annotated<A> instance) {
+        Term<A> subject = term(instance.value.subject);
+        return subject == instance.value.subject ? instance
+                : new Term.Annotated<>(new Annotated<>(subject, instance.value.annotation));
+    }
+
+    @Override
+    public Term<A> visit(Term.Application<A> instance) {
+        Term<A> function = term(instance.value.function);
+        Term<A> argument = term(instance.value.argument);
+        return function == instance.value.function && argument == instance.value.argument ? instance
+                : new Term.Application<>(new Application<>(function, argument));
+    }
+
+    @Override
+    public Term<A> visit(Term.Function<A> instance) {
+        hydra.core.Function<A> fun = instance.value;
+        if (fun instanceof hydra.core.Function.Lambda) {
+            Lambda<A> lambda = ((hydra.core.Function.Lambda<A>) fun).value;
+            Term<A> body = scoped(lambda.body, lambda.parameter);
+            return body == lambda.body ? instance
+                    : new Term.Function<>(new hydra.core.Function.Lambda<>(new Lambda<>(lambda.parameter, body)));
+        } else if (fun instanceof hydra.core.Function.Elimination) {
+            Elimination<A> elim = ((hydra.core.Function.Elimination<A>) fun).value;
+            Elimination<A> elim1 = elimination(elim);
+            return elim1 == elim ? instance : new Term.Function<>(new hydra.core.Function.Elimination<>(elim1));
+        } else {
+            return instance;
+        }
+    }
+
+    private Elimination<A> elimination(Elimination<A> elim) {
+        if (elim instanceof Elimination.List) {
+            Term<A> fold = ((Elimination.List<A>) elim).value;
+            Term<A> fold1 = term(fold);
+            return fold1 == fold ? elim : new Elimination.List<>(fold1);
+        } else if (elim instanceof Elimination.Optional) {
+            OptionalCases<A> cases = ((Elimination.Optional<A>) elim).value;
+            Term<A> nothing = term(cases.nothing);
+            Term<A> just = term(cases.just);
+            return nothing == cases.nothing && just == cases.just ? elim
+                    : new Elimination.Optional<>(new OptionalCases<>(nothing, just));
+        } else if (elim instanceof Elimination.Union) {
+            CaseStatement<A> cases = ((Elimination.Union<A>) elim).value;
+            Optional<Term<A>> default_ = optional(cases.default_);
+            List<Field<A>> fields = fields(cases.cases);
+            return default_ == cases.default_ && fields == cases.cases ? elim
+                    : new Elimination.Union<>(new CaseStatement<>(cases.typeName, default_, fields));
+        } else {
+            return elim;
+        }
+    }
+
+    @Override
+    public Term<A> visit(Term.Let<A> instance) {
+        Map<Name, Term<A>> bindings = instance.value.bindings;
+        Set<Name> names = bindings.keySet();
+        Map<Name, Term<A>> bindings1 = null;
+        for (Map.Entry<Name, Term<A>> e : bindings.entrySet()) {
+            Term<A> t = scoped(e.getValue(), names);
+            if (t != e.getValue()) {
+                if (bindings1 == null) {
+                    bindings1 = new HashMap<>(bindings);
+                }
+                bindings1.put(e.getKey(), t);
+            }
+        }
+        Term<A> env = scoped(instance.value.environment, names);
+        return bindings1 == null && env == instance.value.environment ? instance
+                : new Term.Let<>(new Let<>(bindings1 == null ? bindings : bindings1, env));
+    }
+
+    @Override
+    public Term<A> visit(Term.List<A> instance) {
+        List<Term<A>> terms = terms(instance.value);
+        return terms == instance.value ? instance : new Term.List<>(terms);
+    }
+
+    @Override
+    public Term<A> visit(Term.Literal<A> instance) {
+        return instance;
+    }
+
+    @Override
+    public Term<A> visit(Term.Map<A> instance) {
+        Map<Term<A>, Term<A>> map1 = null;
+        for (Map.Entry<Term<A>, Term<A>> e : instance.value.entrySet()) {
+            Term<A> k = term(e.getKey());
+            Term<A> v = term(e.getValue());
+            if (map1 == null && (k != e.getKey() || v != e.getValue())) {
+                map1 = new LinkedHashMap<>();
+                for (Map.Entry<Term<A>, Term<A>> prev : instance.value.entrySet()) {
+                    if (prev.getKey() == e.getKey()) {
+                        break;
+                    }
+                    map1.put(prev.getKey(), prev.getValue());
+                }
+            }
+            if (map1 != null) {
+                map1.put(k, v);
+            }
+        }
+        return map1 == null ? instance : new Term.Map<>(TermOrdering.sortedMap(map1));
+    }
+
+    @Override
+    public Term<A> visit(Term.Optional<A> instance) {
+        Optional<Term<A>> value = optional(instance.value);
+        return value == instance.value ? instance : new Term.Optional<>(value);
+    }
+
+    @Override
+    public Term<A> visit(Term.Product<A> instance) {
+        List<Term<A>> terms = terms(instance.value);
+        return terms == instance.value ? instance : new Term.Product<>(terms);
+    }
+
+    @Override
+    public Term<A> visit(Term.Record<A> instance) {
+        List<Field<A>> fields = fields(instance.value.fields);
+        return fields == instance.value.fields ? instance
+                : new Term.Record<>(new Record<>(instance.value.typeName, fields));
+    }
+
+    @Override
+    public Term<A> visit(Term.Set<A> instance) {
+        // The elements are copied only once one of them has changed
+        List<Term<A>> elements1 = null;
+        int i = 0;
+        for (Term<A> el : instance.value) {
+            Term<A> el1 = term(el);
+            if (elements1 == null && el1 != el) {
+                elements1 = new ArrayList<>(instance.value.size());
+                for (Term<A> prev : instance.value) {
+                    if (elements1.size() == i) {
+                        break;
+                    }
+                    elements1.add(prev);
+                }
+            }
+            if (elements1 != null) {
+                elements1.add(el1);
+            }
+            i++;
+        }
+        return elements1 == null ? instance : new Term.Set<>(TermOrdering.sortedSet(elements1));
+    }
+
+    @Override
+    public Term<A> visit(Term.Stream<A> instance) {
+        throw new UnsupportedOperationException("term streams cannot be rewritten, as a stream may be infinite");
+    }
+
+    @Override
+    public Term<A> visit(Term.Sum<A> instance) {
+        Term<A> t = term(instance.value.term);
+        return t == instance.value.term ? instance
+                : new Term.Sum<>(new Sum<>(instance.value.index, instance.value.size, t));
+    }
+
+    @Override
+    public Term<A> visit(Term.Union<A> instance) {
+        Field<A> field = field(instance.value.field);
+        return field == instance.value.field ? instance
+                : new Term.Union<>(new Injection<>(instance.value.typeName, field));
+    }
+
+    @Override
+    public Term<A> visit(Term.Variable<A> instance) {
+        return instance;
+    }
+
+    @Override
+    public Term<A> visit(Term.Wrap<A> instance) {
+        Term<A> object = term(instance.value.object);
+        return object == instance.value.object ? instance
+                : new Term.Wrap<>(new Nominal<>(instance.value.typeName, object));
+    }
+
+    /**
+     * Several rules, applied in order.
+     */
+    private static final class Fused<A> implements Rule<A> {
+        // An ArrayList, so that the rules may be visited by index, without an iterator
+        private final List<Rule<A>> rules;
+
+        private Fused(List<Rule<A>> rules) {
+            this.rules = rules;
+        }
+
+        @Override
+        public Term<A> before(Term<A> term) {
+            for (int i = 0; i < rules.size(); i++) {
+                term = rules.get(i).before(term);
+            }
+            return term;
+        }
+
+        @Override
+        public Term<A> after(Term<A> term) {
+            for (int i = 0; i < rules.size(); i++) {
+                term = rules.get(i).after(term);
+            }
+            return term;
+        }
+
+        // Only rules which change within the scope require a new fused rule
+        @Override
+        public Rule<A> bind(Name variable) {
+            List<Rule<A>> bound = null;
+            for (int i = 0; i < rules.size(); i++) {
+                Rule<A> r0 = rules.get(i);
+                Rule<A> r = r0.bind(variable);
+                if (r != r0 && bound == null) {
+                    bound = new ArrayList<>(rules.subList(0, i));
+                }
+                if (bound != null) {
+                    bound.add(r);
+                }
+            }
+            return bound == null ? this : fuse(bound);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package hydra;
+
+import hydra.compute.Flow;
+import hydra.compute.FlowState;
+import hydra.compute.Trace;
+import hydra.constants.Constants;
+import hydra.tools.ConsList;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Optional;
+
+
+/**
+ * Utility functions for traces, i.e. the stack of frames and the log of messages which accompany a flow.
+ * The stack and message lists of traces created here are persistent ConsLists, so that pushing a frame or adding
+ * a message takes constant time and shares structure with the original trace.
+ */
+public class Traces {
+    /**
+     * An empty trace.
+     */
+    public static final Trace EMPTY = new Trace(ConsList.empty(), ConsList.empty(), Collections.emptyMap());
+
+    private static volatile boolean stackTracking = !"false".equals(System.getProperty("hydra.trace.stack"));
+
+    private Traces() {
+    }
+
+    /**
+     * Add an error message to the end of the message log.
+     */
+    public static Trace appendError(String msg, Trace trace) {
+        return trace.withMessages(ConsList.snoc(trace.messages, "Error: " + msg));
+    }
+
+    /**
+     * Check whether stack tracking is enabled. When it is disabled, withTrace does not push frames, and error
+     * messages do not include a stack. Stack tracking is enabled by default, unless the system property
+     * hydra.trace.stack is set to false.
+     */
+    public static boolean isStackTracking() {
+        return stackTracking;
+    }
+
+    /**
+     * Add an error message to the head of the message log. The message includes the current stack, which is only
+     * formatted when the message is read.
+     */
+    public static Trace pushError(String msg, Trace trace) {
+        List<String> stack = ConsList.from(trace.stack);
+        return trace.withMessages(ConsList.consLazy(() -> formatError(msg, stack), trace.messages));
+    }
+
+    /**
+     * Push a frame onto the stack.
+     */
+    public static Trace pushFrame(String frame, Trace trace) {
+        return trace.withStack(ConsList.cons(frame, trace.stack));
+    }
+
+    /**
+     * Add a warning message to the head of the message log.
+     */
+    public static Trace pushWarning(String msg, Trace trace) {
+        return trace.withMessages(ConsList.cons("Warning: " + msg, trace.messages));
+    }
+
+    /**
+     * Enable or disable stack tracking, e.g. in production runs where only the final failure is of interest.
+     * The setting is read whenever a flow created by withTrace is evaluated, so it also applies to flows which were
+     * built before the setting was changed.
+     */
+    public static void setStackTracking(boolean enabled) {
+        stackTracking = enabled;
+    }
+
+    /**
+     * Continue a flow after adding a warning message.
+     */
+    public static <S, A> Flow<S, A> warn(String msg, Flow<S, A> flow) {
+        return new Flow<>(s0 -> t0 -> {
+            FlowState<S, A> f1 = flow.value.apply(s0).apply(t0);
+            return new FlowState<>(f1.value, f1.state, pushWarning(msg, f1.trace));
+        });
+    }
+
+    /**
+     * Evaluate a flow with an additional frame on the trace stack, restoring the original stack afterwards.
+     * Evaluation fails if the stack has already reached the maximum trace depth.
+     */
+    public static <S, A> Flow<S, A> withTrace(String frame, Flow<S, A> flow) {
+        return new Flow<>(s0 -> t0 -> {
+            if (!stackTracking) {
+                return flow.value.apply(s0).apply(t0);
+            }
+            if (t0.stack.size() >= Constants.maxTraceDepth) {
+                return new FlowState<>(Optional.empty(), s0,
+                        pushError("maximum trace depth exceeded. This may indicate an infinite loop", t0));
+            }
+            FlowState<S, A> f1 = flow.value.apply(s0).apply(pushFrame(frame, t0));
+            return new FlowState<>(f1.value, f1.state, f1.trace.withStack(t0.stack));
+        });
+    }
+
+    private static String formatError(String msg, List<String> stack) {
+        StringBuilder sb = new StringBuilder("Error: ").append(msg).append(" (");
+        ListIterator<String> iter = stack.listIterator(stack.size());
+        boolean first = true;
+        while (iter.hasPrevious()) {
+            if (first) {
+                first = false;
+            } else {
+                sb.append(" > ");
+            }
+            sb.append(iter.previous());
+        }
+        return sb.append(")").toString();
+    }
+}
@@ -0,0 +1,121 @@
+package hydra.binary;
+
+/**
+ * Constants of the Hydra binary format, which is written by BinaryWriter and read by BinaryReader.
+ * <p>
+ * A file begins with a header: the four magic bytes "HYBN", a version byte, and the big-endian 32-bit offsets of
+ * the string table and the root table. The header is followed by the encoded nodes, then by the string table, which
+ * is a varint count followed by the length-prefixed UTF-8 bytes of each string, and then by the root table, which
+ * is a varint count followed by the varint offset of each root node.
+ * <p>
+ * A node is a tag byte followed by its contents. Names, field names, namespaces and string literals are varint
+ * indexes into the string table. Integers are zigzag varints, floats are fixed-width IEEE 754 values, and big
+ * integers are length-prefixed two's-complement bytes. The text of a binary literal is length-prefixed, one byte per
+ * character, unless it holds characters above U+00FF, in which case it is a string table index. Lists, maps
+ * and sets are a varint count followed by their elements. A node which has already been written is replaced by a
+ * back-reference: the BACKREF tag followed by the varint distance back to the first copy. The SHARED bit is set on
+ * the tag of each node which is the target of a back-reference, so that readers need only remember those nodes in
+ * order to preserve sharing.
+ * <p>
+ * Term streams have no encoding, as a stream may be infinite; they must be converted to lists before they are written.
+ * <p>
+ * The writer and reader extend this class for its constants.
+ */
+abstract class BinaryFormat {
+    static final byte[] MAGIC = {'H', 'Y', 'B', 'N'};
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 13;
+
+    static final int SHARED = 0x80;
+    static final int BACKREF = 0x7f;
+
+    // Terms
+    static final int TERM_ANNOTATED = 1;
+    static final int TERM_APPLICATION = 2;
+    static final int TERM_LAMBDA = 3;
+    static final int TERM_PRIMITIVE = 4;
+    static final int TERM_ELIM_LIST = 5;
+    static final int TERM_ELIM_OPTIONAL = 6;
+    static final int TERM_ELIM_PRODUCT = 7;
+    static final int TERM_ELIM_RECORD = 8;
+    static final int TERM_ELIM_UNION = 9;
+    static final int TERM_ELIM_WRAP = 10;
+    static final int TERM_LET = 11;
+    static final int TERM_LIST = 12;
+    static final int TERM_MAP = 13;
+    static final int TERM_NOTHING = 14;
+    static final int TERM_JUST = 15;
+    static final int TERM_PRODUCT = 16;
+    static final int TERM_RECORD = 17;
+    static final int TERM_SET = 18;
+    static final int TERM_SUM = 19;
+    static final int TERM_UNION = 20;
+    static final int TERM_VARIABLE = 21;
+    static final int TERM_WRAP = 22;
+
+    // Literal terms
+    static final int LITERAL_BINARY = 23;
+    static final int LITERAL_FALSE = 24;
+    static final int LITERAL_TRUE = 25;
+    static final int LITERAL_BIGFLOAT = 26;
+    static final int LITERAL_FLOAT32 = 27;
+    static final int LITERAL_FLOAT64 = 28;
+    static final int LITERAL_BIGINT = 29;
+    static final int LITERAL_INT8 = 30;
+    static final int LITERAL_INT16 = 31;
+    static final int LITERAL_INT32 = 32;
+    static final int LITERAL_INT64 = 33;
+    static final int LITERAL_UINT8 = 34;
+    static final int LITERAL_UINT16 = 35;
+    static final int LITERAL_UINT32 = 36;
+    static final int LITERAL_UINT64 = 37;
+    static final int LITERAL_STRING = 38;
+
+    // Annotations
+    static final int KV = 39;
+
+    // Types
+    static final int TYPE_ANNOTATED = 40;
+    static final int TYPE_APPLICATION = 41;
+    static final int TYPE_FUNCTION = 42;
+    static final int TYPE_LAMBDA = 43;
+    static final int TYPE_LIST = 44;
+    static final int TYPE_LITERAL = 45;
+    static final int TYPE_MAP = 46;
+    static final int TYPE_OPTIONAL = 47;
+    static final int TYPE_PRODUCT = 48;
+    static final int TYPE_RECORD = 49;
+    static final int TYPE_SET = 50;
+    static final int TYPE_STREAM = 51;
+    static final int TYPE_SUM = 52;
+    static final int TYPE_UNION = 53;
+    static final int TYPE_VARIABLE = 54;
+    static final int TYPE_WRAP = 55;
+
+    // Literal types, which follow TYPE_LITERAL
+    static final int LITERAL_TYPE_BINARY = 0;
+    static final int LITERAL_TYPE_BOOLEAN = 1;
+    static final int LITERAL_TYPE_BIGFLOAT = 2;
+    static final int LITERAL_TYPE_FLOAT32 = 3;
+    static final int LITERAL_TYPE_FLOAT64 = 4;
+    static final int LITERAL_TYPE_BIGINT = 5;
+    static final int LITERAL_TYPE_INT8 = 6;
+    static final int LITERAL_TYPE_INT16 = 7;
+    static final int LITERAL_TYPE_INT32 = 8;
+    static final int LITERAL_TYPE_INT64 = 9;
+    static final int LITERAL_TYPE_UINT8 = 10;
+    static final int LITERAL_TYPE_UINT16 = 11;
+    static final int LITERAL_TYPE_UINT32 = 12;
+    static final int LITERAL_TYPE_UINT64 = 13;
+    static final int LITERAL_TYPE_STRING = 14;
+
+    // Binary literals which are not binary strings
+    static final int LITERAL_BINARY_STRING = 56;
+
+    // Elements and modules
+    static final int ELEMENT = 60;
+    static final int MODULE = 61;
+
+    BinaryFormat() {
+    }
+}
@@ -0,0 +1,664 @@
+package hydra.binary;
+
+import hydra.KvAnnotations;
+import hydra.compute.Kv;
+import hydra.core.Annotated;
+import hydra.core.Application;
+import hydra.core.ApplicationType;
+import hydra.core.CaseStatement;
+import hydra.core.Elimination;
+import hydra.core.Field;
+import hydra.core.FieldName;
+import hydra.core.FieldType;
+import hydra.core.FloatType;
+import hydra.core.FloatValue;
+import hydra.core.Function;
+import hydra.core.FunctionType;
+import hydra.core.Injection;
+import hydra.core.IntegerType;
+import hydra.core.IntegerValue;
+import hydra.core.Lambda;
+import hydra.core.LambdaType;
+import hydra.core.Let;
+import hydra.core.Literal;
+import hydra.core.LiteralType;
+import hydra.core.MapType;
+import hydra.core.Name;
+import hydra.core.Nominal;
+import hydra.core.OptionalCases;
+import hydra.core.Projection;
+import hydra.core.Record;
+import hydra.core.RowType;
+import hydra.core.Sum;
+import hydra.core.Term;
+import hydra.core.TupleProjection;
+import hydra.core.Type;
+import hydra.graph.Element;
+import hydra.module.Module;
+import hydra.module.Namespace;
+import hydra.tools.TermOrdering;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * A reader for the Hydra binary format, as written by BinaryWriter. The reader decodes from any ByteBuffer,
+ * including a buffer mapped from a file, using absolute reads only; each root may be decoded independently and in
+ * any order, and strings are decoded from the string table only when they are first needed. Nodes which the writer
+ * shared are decoded once, and are shared among all of the values decoded by the same reader.
+ * Malformed input results in an IllegalArgumentException. A reader may be used by any number of threads.
+ */
+public class BinaryReader extends BinaryFormat {
+    private final ByteBuffer buffer;
+    private final int[] stringOffsets;
+    private final int[] stringLengths;
+    private final String[] strings;
+    private final int[] roots;
+    private final Map<Integer, Object> shared = new ConcurrentHashMap<>();
+
+    /**
+     * Construct a reader over an encoded buffer, reading its header, string table and root table.
+     */
+    public BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE) {
+            throw new IllegalArgumentException("not a Hydra binary file: too short");
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) {
+                throw new IllegalArgumentException("not a Hydra binary file: bad magic number");
+            }
+        }
+        if (buffer.get(4) != VERSION) {
+            throw new IllegalArgumentException("unsupported Hydra binary version: " + buffer.get(4));
+        }
+
+        Decoder d = new Decoder(buffer.getInt(5));
+        stringOffsets = new int[d.count()];
+        stringLengths = new int[stringOffsets.length];
+        for (int i = 0; i < stringOffsets.length; i++) {
+            stringLengths[i] = d.count();
+            stringOffsets[i] = d.pos;
+            d.pos += stringLengths[i];
+        }
+        strings = new String[stringOffsets.length];
+
+        d.pos = buffer.getInt(9);
+        roots = new int[d.count()];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = d.count();
+        }
+    }
+
+    /**
+     * Construct a reader over an encoded byte array.
+     */
+    public static BinaryReader of(byte[] bytes) {
+        return new BinaryReader(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decode the first root of an encoding as a term.
+     */
+    public static Term<Kv> decodeTerm(byte[] bytes) {
+        return of(bytes).term(0);
+    }
+
+    /**
+     * Decode the first root of an encoding as a type.
+     */
+    public static Type<Kv> decodeType(byte[] bytes) {
+        return of(bytes).type(0);
+    }
+
+    /**
+     * Decode the first root of an encoding as an element.
+     */
+    public static Element<Kv> decodeElement(byte[] bytes) {
+        return of(bytes).element(0);
+    }
+
+    /**
+     * Decode the first root of an encoding as a module.
+     */
+    public static Module<Kv> decodeModule(byte[] bytes) {
+        return of(bytes).module(0);
+    }
+
+    /**
+     * The number of roots in the encoding.
+     */
+    public int rootCount() {
+        return roots.length;
+    }
+
+    /**
+     * Decode a root as a term.
+     */
+    public Term<Kv> term(int root) {
+        return new Decoder(root(root)).term();
+    }
+
+    /**
+     * Decode a root as a type.
+     */
+    public Type<Kv> type(int root) {
+        return new Decoder(root(root)).type();
+    }
+
+    /**
+     * Decode a root as an element.
+     */
+    public Element<Kv> element(int root) {
+        return new Decoder(root(root)).element();
+    }
+
+    /**
+     * Decode a root as a module, together with its dependencies.
+     */
+    public Module<Kv> module(int root) {
+        return new Decoder(root(root)).module();
+    }
+
+    /**
+     * Read the name of an element root without decoding the element's data.
+     */
+    Name elementName(int root) {
+        Decoder d = new Decoder(root(root));
+        int tag = d.u8();
+        if (tag == BACKREF) {
+            d.pos = d.pos - 1 - d.count();
+            tag = d.u8();
+        }
+        d.expect(tag, ELEMENT);
+        return d.name();
+    }
+
+    private int root(int root) {
+        if (root < 0 || root >= roots.length) {
+            throw new IndexOutOfBoundsException("no such root: " + root + " of " + roots.length);
+        }
+        return roots[root];
+    }
+
+    // Strings are decoded on first use; concurrent readers may decode the same string twice, which is harmless
+    private String string(int id) {
+        if (id < 0 || id >= strings.length) {
+            throw new IllegalArgumentException("no such string: " + id);
+        }
+        String s = strings[id];
+        if (s == null) {
+            s = decode(stringOffsets[id], stringLengths[id], StandardCharsets.UTF_8);
+            strings[id] = s;
+        }
+        return s;
+    }
+
+    private String decode(int offset, int length, Charset charset) {
+        if (offset + length > buffer.limit()) {
+            throw new IllegalArgumentException("unexpected end of input");
+        }
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset, length, charset);
+        }
+        // A direct or mapped buffer must be read into an array first, as a string always owns its characters
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * A cursor over the buffer, which decodes one value at a time.
+     */
+    private final class Decoder {
+        private int pos;
+
+        private Decoder(int pos) {
+            this.pos = pos;
+        }
+
+        private int u8() {
+            if (pos >= buffer.limit()) {
+                throw new IllegalArgumentException("unexpected end of input");
+            }
+            return buffer.get(pos++) & 0xff;
+        }
+
+        private long varlong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = u8();
+                result |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint at offset " + pos);
+        }
+
+        private int count() {
+            long n = varlong();
+            if (n < 0 || n > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("invalid count at offset " + pos);
+            }
+            return (int) n;
+        }
+
+        private long zigzag() {
+            long v = varlong();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        private long fixed(int width) {
+            long result = 0;
+            for (int i = 0; i < width; i++) {
+                result |= (long) u8() << (8 * i);
+            }
+            return result;
+        }
+
+        private String string() {
+            return BinaryReader.this.string(count());
+        }
+
+        // A binary string, which holds one byte per character
+        private String latin1(int length) {
+            String s = decode(pos, length, StandardCharsets.ISO_8859_1);
+            pos += length;
+            return s;
+        }
+
+        private Name name() {
+            return new Name(string());
+        }
+
+        private Optional<String> optionalString() {
+            int id = count();
+            return id == 0 ? Optional.empty() : Optional.of(BinaryReader.this.string(id - 1));
+        }
+
+        private BigInteger bigInteger() {
+            byte[] bytes = new byte[count()];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) u8();
+            }
+            return new BigInteger(bytes);
+        }
+
+        // Decode the node at the target of a back-reference, unless it has already been decoded
+        private Object backref(int start, java.util.function.Function<Decoder, Object> decode) {
+            int target = start - count();
+            Object node = shared.get(target);
+            if (node == null) {
+                int after = pos;
+                pos = target;
+                node = decode.apply(this);
+                pos = after;
+            }
+            return node;
+        }
+
+        private Object share(int start, Object node) {
+            Object existing = shared.putIfAbsent(start, node);
+            return existing == null ? node : existing;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Term<Kv> term() {
+            int start = pos;
+            int tag = u8();
+            if (tag == BACKREF) {
+                return (Term<Kv>) backref(start, Decoder::term);
+            }
+            Term<Kv> term = termContents(tag & ~SHARED);
+            return (tag & SHARED) != 0 ? (Term<Kv>) share(start, term) : term;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Type<Kv> type() {
+            int start = pos;
+            int tag = u8();
+            if (tag == BACKREF) {
+                return (Type<Kv>) backref(start, Decoder::type);
+            }
+            Type<Kv> type = typeContents(tag & ~SHARED);
+            return (tag & SHARED) != 0 ? (Type<Kv>) share(start, type) : type;
+        }
+
+        private Kv kv() {
+            int start = pos;
+            int tag = u8();
+            if (tag == BACKREF) {
+                return (Kv) backref(start, Decoder::kv);
+            }
+            expect(tag, KV);
+            int n = count();
+            Map<String, Term<Kv>> annotations = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                String key = string();
+                annotations.put(key, term());
+            }
+            Kv kv = KvAnnotations.kv(annotations);
+            return (tag & SHARED) != 0 ? (Kv) share(start, kv) : kv;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Element<Kv> element() {
+            int start = pos;
+            int tag = u8();
+            if (tag == BACKREF) {
+                return (Element<Kv>) backref(start, Decoder::element);
+            }
+            expect(tag, ELEMENT);
+            Name name = name();
+            Element<Kv> element = new Element<>(name, term());
+            return (tag & SHARED) != 0 ? (Element<Kv>) share(start, element) : element;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Module<Kv> module() {
+            int start = pos;
+            int tag = u8();
+            if (tag == BACKREF) {
+                return (Module<Kv>) backref(start, Decoder::module);
+            }
+            expect(tag, MODULE);
+            Namespace namespace = new Namespace(string());
+            Optional<String> description = optionalString();
+            List<Element<Kv>> elements = new ArrayList<>();
+            for (int i = count(); i > 0; i--) {
+                elements.add(element());
+            }
+            List<Module<Kv>> termDeps = new ArrayList<>();
+            for (int i = count(); i > 0; i--) {
+                termDeps.add(module());
+            }
+            List<Module<Kv>> typeDeps = new ArrayList<>();
+            for (int i = count(); i > 0; i--) {
+                typeDeps.add(module());
+            }
+            Module<Kv> module = new Module<>(namespace, elements, termDeps, typeDeps, description);
+            return (tag & SHARED) != 0 ? (Module<Kv>) share(start, module) : module;
+        }
+
+        private void expect(int tag, int expected) {
+            if ((tag & ~SHARED) != expected) {
+                throw new IllegalArgumentException("unexpected tag " + tag + " at offset " + (pos - 1));
+            }
+        }
+
+        private List<Term<Kv>> terms() {
+            int n = count();
+            List<Term<Kv>> terms = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                terms.add(term());
+            }
+            return terms;
+        }
+
+        private List<Type<Kv>> types() {
+            int n = count();
+            List<Type<Kv>> types = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                types.add(type());
+            }
+            return types;
+        }
+
+        private List<Field<Kv>> fields() {
+            int n = count();
+            List<Field<Kv>> fields = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                FieldName name = new FieldName(string());
+                fields.add(new Field<>(name, term()));
+            }
+            return fields;
+        }
+
+        private RowType<Kv> row() {
+            Name typeName = name();
+            Optional<Name> extends_ = optionalString().map(Name::new);
+            int n = count();
+            List<FieldType<Kv>> fields = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                FieldName name = new FieldName(string());
+                fields.add(new FieldType<>(name, type()));
+            }
+            return new RowType<>(typeName, extends_, fields);
+        }
+
+        private Term<Kv> termContents(int tag) {
+            switch (tag) {
+                case TERM_ANNOTATED: {
+                    Term<Kv> subject = term();
+                    return new Term.Annotated<>(new Annotated<>(subject, kv()));
+                }
+                case TERM_APPLICATION: {
+                    Term<Kv> function = term();
+                    return new Term.Application<>(new Application<>(function, term()));
+                }
+                case TERM_LAMBDA: {
+                    Name parameter = name();
+                    return new Term.Function<>(new Function.Lambda<>(new Lambda<>(parameter, term())));
+                }
+                case TERM_PRIMITIVE:
+                    return new Term.Function<>(new Function.Primitive<>(name()));
+                case TERM_ELIM_LIST:
+                    return elimination(new Elimination.List<>(term()));
+                case TERM_ELIM_OPTIONAL: {
+                    Term<Kv> nothing = term();
+                    return elimination(new Elimination.Optional<>(new OptionalCases<>(nothing, term())));
+                }
+                case TERM_ELIM_PRODUCT: {
+                    int arity = count();
+                    return elimination(new Elimination.Product<>(new TupleProjection(arity, count())));
+                }
+                case TERM_ELIM_RECORD: {
+                    Name typeName = name();
+                    return elimination(new Elimination.Record<>(new Projection(typeName, new FieldName(string()))));
+                }
+                case TERM_ELIM_UNION: {
+                    Name typeName = name();
+                    Optional<Term<Kv>> default_ = u8() == 0 ? Optional.empty() : Optional.of(term());
+                    return elimination(new Elimination.Union<>(new CaseStatement<>(typeName, default_, fields())));
+                }
+                case TERM_ELIM_WRAP:
+                    return elimination(new Elimination.Wrap<>(name()));
+                case TERM_LET: {
+                    int n = count();
+                    Map<Name, Term<Kv>> bindings = new HashMap<>();
+                    for (int i = 0; i < n; i++) {
+                        Name name = name();
+                        bindings.put(name, term());
+                    }
+                    return new Term.Let<>(new Let<>(bindings, term()));
+                }
+                case TERM_LIST:
+                    return new Term.List<>(terms());
+                case TERM_MAP: {
+                    int n = count();
+                    Map<Term<Kv>, Term<Kv>> entries = new HashMap<>();
+                    for (int i = 0; i < n; i++) {
+                        Term<Kv> key = term();
+                        entries.put(key, term());
+                    }
+                    return new Term.Map<>(TermOrdering.sortedMap(entries));
+                }
+                case TERM_NOTHING:
+                    return new Term.Optional<>(Optional.empty());
+                case TERM_JUST:
+                    return new Term.Optional<>(Optional.of(term()));
+                case TERM_PRODUCT:
+                    return new Term.Product<>(terms());
+                case TERM_RECORD: {
+                    Name typeName = name();
+                    return new Term.Record<>(new Record<>(typeName, fields()));
+                }
+                case TERM_SET:
+                    return new Term.Set<>(TermOrdering.sortedSet(terms()));
+                case TERM_SUM: {
+                    int index = count();
+                    int size = count();
+                    return new Term.Sum<>(new Sum<>(index, size, term()));
+                }
+                case TERM_UNION: {
+                    Name typeName = name();
+                    FieldName field = new FieldName(string());
+                    return new Term.Union<>(new Injection<>(typeName, new Field<>(field, term())));
+                }
+                case TERM_VARIABLE:
+                    return new Term.Variable<>(name());
+                case TERM_WRAP: {
+                    Name typeName = name();
+                    return new Term.Wrap<>(new Nominal<>(typeName, term()));
+                }
+                default:
+                    return new Term.Literal<>(literal(tag));
+            }
+        }
+
+        private Term<Kv> elimination(Elimination<Kv> elimination) {
+            return new Term.Function<>(new Function.Elimination<>(elimination));
+        }
+
+        private Literal literal(int tag) {
+            switch (tag) {
+                case LITERAL_BINARY:
+                    return new Literal.Binary(latin1(count()));
+                case LITERAL_BINARY_STRING:
+                    return new Literal.Binary(string());
+                case LITERAL_FALSE:
+                    return new Literal.Boolean_(false);
+                case LITERAL_TRUE:
+                    return new Literal.Boolean_(true);
+                case LITERAL_BIGFLOAT:
+                    return new Literal.Float_(new FloatValue.Bigfloat(Double.longBitsToDouble(fixed(8))));
+                case LITERAL_FLOAT32:
+                    return new Literal.Float_(new FloatValue.Float32(Float.intBitsToFloat((int) fixed(4))));
+                case LITERAL_FLOAT64:
+                    return new Literal.Float_(new FloatValue.Float64(Double.longBitsToDouble(fixed(8))));
+                case LITERAL_BIGINT:
+                    return new Literal.Integer_(new IntegerValue.Bigint(bigInteger()));
+                case LITERAL_INT8:
+                    return new Literal.Integer_(new IntegerValue.Int8((short) zigzag()));
+                case LITERAL_INT16:
+                    return new Literal.Integer_(new IntegerValue.Int16((short) zigzag()));
+                case LITERAL_INT32:
+                    return new Literal.Integer_(new IntegerValue.Int32((int) zigzag()));
+                case LITERAL_INT64:
+                    return new Literal.Integer_(new IntegerValue.Int64(zigzag()));
+                case LITERAL_UINT8:
+                    return new Literal.Integer_(new IntegerValue.Uint8((byte) zigzag()));
+                case LITERAL_UINT16:
+                    return new Literal.Integer_(new IntegerValue.Uint16((char) varlong()));
+                case LITERAL_UINT32:
+                    return new Literal.Integer_(new IntegerValue.Uint32(zigzag()));
+                case LITERAL_UINT64:
+                    return new Literal.Integer_(new IntegerValue.Uint64(bigInteger()));
+                case LITERAL_STRING:
+                    return new Literal.String_(string());
+                default:
+                    throw new IllegalArgumentException("unexpected term tag " + tag + " at offset " + (pos - 1));
+            }
+        }
+
+        private Type<Kv> typeContents(int tag) {
+            switch (tag) {
+                case TYPE_ANNOTATED: {
+                    Type<Kv> subject = type();
+                    return new Type.Annotated<>(new Annotated<>(subject, kv()));
+                }
+                case TYPE_APPLICATION: {
+                    Type<Kv> function = type();
+                    return new Type.Application<>(new ApplicationType<>(function, type()));
+                }
+                case TYPE_FUNCTION: {
+                    Type<Kv> domain = type();
+                    return new Type.Function<>(new FunctionType<>(domain, type()));
+                }
+                case TYPE_LAMBDA: {
+                    Name parameter = name();
+                    return new Type.Lambda<>(new LambdaType<>(parameter, type()));
+                }
+                case TYPE_LIST:
+                    return new Type.List<>(type());
+                case TYPE_LITERAL:
+                    return new Type.Literal<>(literalType(u8()));
+                case TYPE_MAP: {
+                    Type<Kv> keys = type();
+                    return new Type.Map<>(new MapType<>(keys, type()));
+                }
+                case TYPE_OPTIONAL:
+                    return new Type.Optional<>(type());
+                case TYPE_PRODUCT:
+                    return new Type.Product<>(types());
+                case TYPE_RECORD:
+                    return new Type.Record<>(row());
+                case TYPE_SET:
+                    return new Type.Set<>(type());
+                case TYPE_STREAM:
+                    return new Type.Stream<>(type());
+                case TYPE_SUM:
+                    return new Type.Sum<>(types());
+                case TYPE_UNION:
+                    return new Type.Union<>(row());
+                case TYPE_VARIABLE:
+                    return new Type.Variable<>(name());
+                case TYPE_WRAP: {
+                    Name typeName = name();
+                    return new Type.Wrap<>(new Nominal<>(typeName, type()));
+                }
+                default:
+                    throw new IllegalArgumentException("unexpected type tag " + tag + " at offset " + (pos - 1));
+            }
+        }
+
+        private LiteralType literalType(int tag) {
+            switch (tag) {
+                case LITERAL_TYPE_BINARY:
+                    return new LiteralType.Binary();
+                case LITERAL_TYPE_BOOLEAN:
+                    return new LiteralType.Boolean_();
+                case LITERAL_TYPE_BIGFLOAT:
+                    return new LiteralType.Float_(new FloatType.Bigfloat());
+                case LITERAL_TYPE_FLOAT32:
+                    return new LiteralType.Float_(new FloatType.Float32());
+                case LITERAL_TYPE_FLOAT64:
+                    return new LiteralType.Float_(new FloatType.Float64());
+                case LITERAL_TYPE_BIGINT:
+                    return new LiteralType.Integer_(new IntegerType.Bigint());
+                case LITERAL_TYPE_INT8:
+                    return new LiteralType.Integer_(new IntegerType.Int8());
+                case LITERAL_TYPE_INT16:
+                    return new LiteralType.Integer_(new IntegerType.Int16());
+                case LITERAL_TYPE_INT32:
+                    return new LiteralType.Integer_(new IntegerType.Int32());
+                case LITERAL_TYPE_INT64:
+                    return new LiteralType.Integer_(new IntegerType.Int64());
+                case LITERAL_TYPE_UINT8:
+                    return new LiteralType.Integer_(new IntegerType.Uint8());
+                case LITERAL_TYPE_UINT16:
+                    return new LiteralType.Integer_(new IntegerType.Uint16());
+                case LITERAL_TYPE_UINT32:
+                    return new LiteralType.Integer_(new IntegerType.Uint32());
+                case LITERAL_TYPE_UINT64:
+                    return new LiteralType.Integer_(new IntegerType.Uint64());
+                case LITERAL_TYPE_STRING:
+                    return new LiteralType.String_();
+                default:
+                    throw new IllegalArgumentException("unexpected literal type " + tag + " at offset " + (pos - 1));
+            }
+        }
+    }
+}
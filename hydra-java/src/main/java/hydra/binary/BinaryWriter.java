@@ -0,0 +1,939 @@
+package hydra.binary;
+
+import hydra.compute.Kv;
+import hydra.core.Elimination;
+import hydra.core.Field;
+import hydra.core.FieldType;
+import hydra.core.FloatType;
+import hydra.core.FloatValue;
+import hydra.core.Function;
+import hydra.core.IntegerType;
+import hydra.core.IntegerValue;
+import hydra.core.Literal;
+import hydra.core.LiteralType;
+import hydra.core.Name;
+import hydra.core.RowType;
+import hydra.core.Term;
+import hydra.core.Type;
+import hydra.graph.Element;
+import hydra.module.Module;
+import hydra.tools.Bytes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+
+/**
+ * A writer for the Hydra binary format, which encodes any number of terms, types, elements and modules (the roots)
+ * into a single buffer with a shared string table. A node which is reachable more than once, by identity, is
+ * written only once, and is referred to thereafter; to share structurally equal subterms as well, intern the roots
+ * with an Interner before writing them. Term streams are not supported, and cause an IllegalArgumentException; a
+ * writer should be discarded after a failure, as it may hold a partially written root.
+ * See BinaryFormat for a description of the format. A writer may not be used by more than one thread at a time.
+ */
+public class BinaryWriter extends BinaryFormat {
+    // Nodes whose encodings are shorter than this are always written in full
+    private static final int MIN_SHARED_LENGTH = 3;
+
+    private final Output out = new Output();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final List<Integer> roots = new ArrayList<>();
+    // The start and length of each node which may be referred back to, packed into a long
+    private final Map<Object, Long> written = new IdentityHashMap<>();
+
+    private final Term.Visitor<Kv, Void> termWriter = new TermWriter();
+    private final Type.Visitor<Kv, Void> typeWriter = new TypeWriter();
+
+    /**
+     * Construct an empty writer.
+     */
+    public BinaryWriter() {
+        out.skip(HEADER_SIZE);
+    }
+
+    /**
+     * Encode a single term.
+     */
+    public static byte[] encode(Term<Kv> term) {
+        return new BinaryWriter().term(term).toByteArray();
+    }
+
+    /**
+     * Encode a single type.
+     */
+    public static byte[] encode(Type<Kv> type) {
+        return new BinaryWriter().type(type).toByteArray();
+    }
+
+    /**
+     * Encode a single element.
+     */
+    public static byte[] encode(Element<Kv> element) {
+        return new BinaryWriter().element(element).toByteArray();
+    }
+
+    /**
+     * Encode a single module, together with its dependencies.
+     */
+    public static byte[] encode(Module<Kv> module) {
+        return new BinaryWriter().module(module).toByteArray();
+    }
+
+    /**
+     * Add a term as the next root.
+     *
+     * @throws IllegalArgumentException if the term contains a term stream
+     */
+    public BinaryWriter term(Term<Kv> term) {
+        roots.add(out.pos);
+        writeTerm(term);
+        return this;
+    }
+
+    /**
+     * Add a type as the next root.
+     */
+    public BinaryWriter type(Type<Kv> type) {
+        roots.add(out.pos);
+        writeType(type);
+        return this;
+    }
+
+    /**
+     * Add an element as the next root.
+     */
+    public BinaryWriter element(Element<Kv> element) {
+        roots.add(out.pos);
+        writeElement(element);
+        return this;
+    }
+
+    /**
+     * Add a module, together with its term and type dependencies, as the next root.
+     */
+    public BinaryWriter module(Module<Kv> module) {
+        roots.add(out.pos);
+        writeModule(module);
+        return this;
+    }
+
+    /**
+     * The number of roots written so far.
+     */
+    public int rootCount() {
+        return roots.size();
+    }
+
+    /**
+     * The complete encoding of the roots written so far. More roots may be added afterwards.
+     */
+    public byte[] toByteArray() {
+        Output tail = new Output();
+        tail.varint(strings.size());
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            tail.varint(bytes.length);
+            tail.bytes(bytes, bytes.length);
+        }
+        int rootTable = out.pos + tail.pos;
+        tail.varint(roots.size());
+        for (int root : roots) {
+            tail.varint(root);
+        }
+
+        byte[] result = Arrays.copyOf(out.buf, out.pos + tail.pos);
+        System.arraycopy(tail.buf, 0, result, out.pos, tail.pos);
+        System.arraycopy(MAGIC, 0, result, 0, MAGIC.length);
+        result[4] = (byte) VERSION;
+        putInt(result, 5, out.pos);
+        putInt(result, 9, rootTable);
+        return result;
+    }
+
+    /**
+     * Write the complete encoding of the roots written so far to a stream.
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        stream.write(toByteArray());
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private void writeTerm(Term<Kv> term) {
+        if (!backref(term)) {
+            int start = out.pos;
+            term.accept(termWriter);
+            remember(term, start);
+        }
+    }
+
+    private void writeType(Type<Kv> type) {
+        if (!backref(type)) {
+            int start = out.pos;
+            type.accept(typeWriter);
+            remember(type, start);
+        }
+    }
+
+    private void writeKv(Kv kv) {
+        if (!backref(kv)) {
+            int start = out.pos;
+            out.tag(KV);
+            out.varint(kv.annotations.size());
+            for (Map.Entry<String, Term<Kv>> e : kv.annotations.entrySet()) {
+                string(e.getKey());
+                writeTerm(e.getValue());
+            }
+            remember(kv, start);
+        }
+    }
+
+    private void writeElement(Element<Kv> element) {
+        if (!backref(element)) {
+            int start = out.pos;
+            out.tag(ELEMENT);
+            name(element.name);
+            writeTerm(element.data);
+            remember(element, start);
+        }
+    }
+
+    private void writeModule(Module<Kv> module) {
+        if (!backref(module)) {
+            int start = out.pos;
+            out.tag(MODULE);
+            string(module.namespace.value);
+            optionalString(module.description);
+            out.varint(module.elements.size());
+            for (Element<Kv> element : module.elements) {
+                writeElement(element);
+            }
+            out.varint(module.termDependencies.size());
+            for (Module<Kv> dep : module.termDependencies) {
+                writeModule(dep);
+            }
+            out.varint(module.typeDependencies.size());
+            for (Module<Kv> dep : module.typeDependencies) {
+                writeModule(dep);
+            }
+            remember(module, start);
+        }
+    }
+
+    // Write a reference to an earlier copy of a node, if there is one, and mark the copy as shared
+    private boolean backref(Object node) {
+        Long w = written.get(node);
+        if (w == null) {
+            return false;
+        }
+        int start = (int) (w >>> 32);
+        int distance = out.pos - start;
+        if (1 + Output.varintSize(distance) >= (int) (long) w) {
+            return false;
+        }
+        out.buf[start] |= (byte) SHARED;
+        out.tag(BACKREF);
+        out.varint(distance);
+        return true;
+    }
+
+    private void remember(Object node, int start) {
+        int length = out.pos - start;
+        if (length >= MIN_SHARED_LENGTH) {
+            written.putIfAbsent(node, ((long) start << 32) | length);
+        }
+    }
+
+    private void string(String s) {
+        out.varint(stringId(s));
+    }
+
+    private void name(Name name) {
+        out.varint(stringId(name.value));
+    }
+
+    // An absent string is written as 0, and a present one as its index plus one
+    private void optionalString(Optional<String> s) {
+        out.varint(s.isPresent() ? stringId(s.get()) + 1 : 0);
+    }
+
+    private int stringId(String s) {
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = strings.size();
+            strings.add(s);
+            stringIds.put(s, id);
+        }
+        return id;
+    }
+
+    private void terms(Collection<Term<Kv>> terms) {
+        out.varint(terms.size());
+        for (Term<Kv> t : terms) {
+            writeTerm(t);
+        }
+    }
+
+    private void types(List<Type<Kv>> types) {
+        out.varint(types.size());
+        for (Type<Kv> t : types) {
+            writeType(t);
+        }
+    }
+
+    private void fields(List<Field<Kv>> fields) {
+        out.varint(fields.size());
+        for (Field<Kv> f : fields) {
+            string(f.name.value);
+            writeTerm(f.term);
+        }
+    }
+
+    private void row(RowType<Kv> row) {
+        name(row.typeName);
+        optionalString(row.extends_.map(n -> n.value));
+        out.varint(row.fields.size());
+        for (FieldType<Kv> f : row.fields) {
+            string(f.name.value);
+            writeType(f.type);
+        }
+    }
+
+    private void bigInteger(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        out.varint(bytes.length);
+        out.bytes(bytes, bytes.length);
+    }
+
+    private void literal(Literal literal) {
+        literal.accept(new Literal.Visitor<Void>() {
+            @Override
+            public Void visit(Literal.Binary instance) {
+                if (Bytes.isBinaryString(instance.value)) {
+                    out.tag(LITERAL_BINARY);
+                    out.varint(instance.value.length());
+                    out.latin1(instance.value);
+                } else {
+                    out.tag(LITERAL_BINARY_STRING);
+                    string(instance.value);
+                }
+                return null;
+            }
+
+            @Override
+            public Void visit(Literal.Boolean_ instance) {
+                out.tag(instance.value ? LITERAL_TRUE : LITERAL_FALSE);
+                return null;
+            }
+
+            @Override
+            public Void visit(Literal.Float_ instance) {
+                instance.value.accept(new FloatValue.Visitor<Void>() {
+                    @Override
+                    public Void visit(FloatValue.Bigfloat instance) {
+                        out.tag(LITERAL_BIGFLOAT);
+                        out.fixed64(Double.doubleToRawLongBits(instance.value));
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(FloatValue.Float32 instance) {
+                        out.tag(LITERAL_FLOAT32);
+                        out.fixed32(Float.floatToRawIntBits(instance.value));
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(FloatValue.Float64 instance) {
+                        out.tag(LITERAL_FLOAT64);
+                        out.fixed64(Double.doubleToRawLongBits(instance.value));
+                        return null;
+                    }
+                });
+                return null;
+            }
+
+            @Override
+            public Void visit(Literal.Integer_ instance) {
+                instance.value.accept(new IntegerValue.Visitor<Void>() {
+                    @Override
+                    public Void visit(IntegerValue.Bigint instance) {
+                        out.tag(LITERAL_BIGINT);
+                        bigInteger(instance.value);
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(IntegerValue.Int8 instance) {
+                        out.tag(LITERAL_INT8);
+                        out.zigzag(instance.value);
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(IntegerValue.Int16 instance) {
+                        out.tag(LITERAL_INT16);
+                        out.zigzag(instance.value);
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(IntegerValue.Int32 instance) {
+                        out.tag(LITERAL_INT32);
+                        out.zigzag(instance.value);
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(IntegerValue.Int64 instance) {
+                        out.tag(LITERAL_INT64);
+                        out.zigzag(instance.value);
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(IntegerValue.Uint8 instance) {
+                        out.tag(LITERAL_UINT8);
+                        out.zigzag(instance.value);
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(IntegerValue.Uint16 instance) {
+                        out.tag(LITERAL_UINT16);
+                        out.varint(instance.value);
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(IntegerValue.Uint32 instance) {
+                        out.tag(LITERAL_UINT32);
+                        out.zigzag(instance.value);
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(IntegerValue.Uint64 instance) {
+                        out.tag(LITERAL_UINT64);
+                        bigInteger(instance.value);
+                        return null;
+                    }
+                });
+                return null;
+            }
+
+            @Override
+            public Void visit(Literal.String_ instance) {
+                out.tag(LITERAL_STRING);
+                string(instance.value);
+                return null;
+            }
+        });
+    }
+
+    private static int literalType(LiteralType type) {
+        return type.accept(new LiteralType.Visitor<Integer>() {
+            @Override
+            public Integer visit(LiteralType.Binary instance) {
+                return LITERAL_TYPE_BINARY;
+            }
+
+            @Override
+            public Integer visit(LiteralType.Boolean_ instance) {
+                return LITERAL_TYPE_BOOLEAN;
+            }
+
+            @Override
+            public Integer visit(LiteralType.Float_ instance) {
+                return instance.value.accept(new FloatType.Visitor<Integer>() {
+                    @Override
+                    public Integer visit(FloatType.Bigfloat instance) {
+                        return LITERAL_TYPE_BIGFLOAT;
+                    }
+
+                    @Override
+                    public Integer visit(FloatType.Float32 instance) {
+                        return LITERAL_TYPE_FLOAT32;
+                    }
+
+                    @Override
+                    public Integer visit(FloatType.Float64 instance) {
+                        return LITERAL_TYPE_FLOAT64;
+                    }
+                });
+            }
+
+            @Override
+            public Integer visit(LiteralType.Integer_ instance) {
+                return instance.value.accept(new IntegerType.Visitor<Integer>() {
+                    @Override
+                    public Integer visit(IntegerType.Bigint instance) {
+                        return LITERAL_TYPE_BIGINT;
+                    }
+
+                    @Override
+                    public Integer visit(IntegerType.Int8 instance) {
+                        return LITERAL_TYPE_INT8;
+                    }
+
+                    @Override
+                    public Integer visit(IntegerType.Int16 instance) {
+                        return LITERAL_TYPE_INT16;
+                    }
+
+                    @Override
+                    public Integer visit(IntegerType.Int32 instance) {
+                        return LITERAL_TYPE_INT32;
+                    }
+
+                    @Override
+                    public Integer visit(IntegerType.Int64 instance) {
+                        return LITERAL_TYPE_INT64;
+                    }
+
+                    @Override
+                    public Integer visit(IntegerType.Uint8 instance) {
+                        return LITERAL_TYPE_UINT8;
+                    }
+
+                    @Override
+                    public Integer visit(IntegerType.Uint16 instance) {
+                        return LITERAL_TYPE_UINT16;
+                    }
+
+                    @Override
+                    public Integer visit(IntegerType.Uint32 instance) {
+                        return LITERAL_TYPE_UINT32;
+                    }
+
+                    @Override
+                    public Integer visit(IntegerType.Uint64 instance) {
+                        return LITERAL_TYPE_UINT64;
+                    }
+                });
+            }
+
+            @Override
+            public Integer visit(LiteralType.String_ instance) {
+                return LITERAL_TYPE_STRING;
+            }
+        });
+    }
+
+    private class TermWriter implements Term.Visitor<Kv, Void> {
+        @Override
+        public Void visit(Term.Annotated<Kv> instance) {
+            out.tag(TERM_ANNOTATED);
+            writeTerm(instance.value.subject);
+            writeKv(instance.value.annotation);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Application<Kv> instance) {
+            out.tag(TERM_APPLICATION);
+            writeTerm(instance.value.function);
+            writeTerm(instance.value.argument);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Function<Kv> instance) {
+            return instance.value.accept(new Function.Visitor<Kv, Void>() {
+                @Override
+                public Void visit(Function.Elimination<Kv> instance) {
+                    return elimination(instance.value);
+                }
+
+                @Override
+                public Void visit(Function.Lambda<Kv> instance) {
+                    out.tag(TERM_LAMBDA);
+                    name(instance.value.parameter);
+                    writeTerm(instance.value.body);
+                    return null;
+                }
+
+                @Override
+                public Void visit(Function.Primitive<Kv> instance) {
+                    out.tag(TERM_PRIMITIVE);
+                    name(instance.value);
+                    return null;
+                }
+            });
+        }
+
+        private Void elimination(Elimination<Kv> elimination) {
+            return elimination.accept(new Elimination.Visitor<Kv, Void>() {
+                @Override
+                public Void visit(Elimination.List<Kv> instance) {
+                    out.tag(TERM_ELIM_LIST);
+                    writeTerm(instance.value);
+                    return null;
+                }
+
+                @Override
+                public Void visit(Elimination.Optional<Kv> instance) {
+                    out.tag(TERM_ELIM_OPTIONAL);
+                    writeTerm(instance.value.nothing);
+                    writeTerm(instance.value.just);
+                    return null;
+                }
+
+                @Override
+                public Void visit(Elimination.Product<Kv> instance) {
+                    out.tag(TERM_ELIM_PRODUCT);
+                    out.varint(instance.value.arity);
+                    out.varint(instance.value.index);
+                    return null;
+                }
+
+                @Override
+                public Void visit(Elimination.Record<Kv> instance) {
+                    out.tag(TERM_ELIM_RECORD);
+                    name(instance.value.typeName);
+                    string(instance.value.field.value);
+                    return null;
+                }
+
+                @Override
+                public Void visit(Elimination.Union<Kv> instance) {
+                    out.tag(TERM_ELIM_UNION);
+                    name(instance.value.typeName);
+                    if (instance.value.default_.isPresent()) {
+                        out.tag(1);
+                        writeTerm(instance.value.default_.get());
+                    } else {
+                        out.tag(0);
+                    }
+                    fields(instance.value.cases);
+                    return null;
+                }
+
+                @Override
+                public Void visit(Elimination.Wrap<Kv> instance) {
+                    out.tag(TERM_ELIM_WRAP);
+                    name(instance.value);
+                    return null;
+                }
+            });
+        }
+
+        @Override
+        public Void visit(Term.Let<Kv> instance) {
+            out.tag(TERM_LET);
+            out.varint(instance.value.bindings.size());
+            for (Map.Entry<Name, Term<Kv>> e : instance.value.bindings.entrySet()) {
+                name(e.getKey());
+                writeTerm(e.getValue());
+            }
+            writeTerm(instance.value.environment);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.List<Kv> instance) {
+            out.tag(TERM_LIST);
+            terms(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Literal<Kv> instance) {
+            literal(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Map<Kv> instance) {
+            out.tag(TERM_MAP);
+            out.varint(instance.value.size());
+            for (Map.Entry<Term<Kv>, Term<Kv>> e : instance.value.entrySet()) {
+                writeTerm(e.getKey());
+                writeTerm(e.getValue());
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Optional<Kv> instance) {
+            if (instance.value.isPresent()) {
+                out.tag(TERM_JUST);
+                writeTerm(instance.value.get());
+            } else {
+                out.tag(TERM_NOTHING);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Product<Kv> instance) {
+            out.tag(TERM_PRODUCT);
+            terms(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Record<Kv> instance) {
+            out.tag(TERM_RECORD);
+            name(instance.value.typeName);
+            fields(instance.value.fields);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Set<Kv> instance) {
+            out.tag(TERM_SET);
+            terms(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Stream<Kv> instance) {
+            throw new IllegalArgumentException("term streams cannot be encoded in the Hydra binary format, as a "
+                    + "stream may be infinite; convert the stream to a list before encoding it");
+        }
+
+        @Override
+        public Void visit(Term.Sum<Kv> instance) {
+            out.tag(TERM_SUM);
+            out.varint(instance.value.index);
+            out.varint(instance.value.size);
+            writeTerm(instance.value.term);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Union<Kv> instance) {
+            out.tag(TERM_UNION);
+            name(instance.value.typeName);
+            string(instance.value.field.name.value);
+            writeTerm(instance.value.field.term);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Variable<Kv> instance) {
+            out.tag(TERM_VARIABLE);
+            name(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Term.Wrap<Kv> instance) {
+            out.tag(TERM_WRAP);
+            name(instance.value.typeName);
+            writeTerm(instance.value.object);
+            return null;
+        }
+    }
+
+    private class TypeWriter implements Type.Visitor<Kv, Void> {
+        @Override
+        public Void visit(Type.Annotated<Kv> instance) {
+            out.tag(TYPE_ANNOTATED);
+            writeType(instance.value.subject);
+            writeKv(instance.value.annotation);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Application<Kv> instance) {
+            out.tag(TYPE_APPLICATION);
+            writeType(instance.value.function);
+            writeType(instance.value.argument);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Function<Kv> instance) {
+            out.tag(TYPE_FUNCTION);
+            writeType(instance.value.domain);
+            writeType(instance.value.codomain);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Lambda<Kv> instance) {
+            out.tag(TYPE_LAMBDA);
+            name(instance.value.parameter);
+            writeType(instance.value.body);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.List<Kv> instance) {
+            out.tag(TYPE_LIST);
+            writeType(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Literal<Kv> instance) {
+            out.tag(TYPE_LITERAL);
+            out.tag(literalType(instance.value));
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Map<Kv> instance) {
+            out.tag(TYPE_MAP);
+            writeType(instance.value.keys);
+            writeType(instance.value.values);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Optional<Kv> instance) {
+            out.tag(TYPE_OPTIONAL);
+            writeType(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Product<Kv> instance) {
+            out.tag(TYPE_PRODUCT);
+            types(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Record<Kv> instance) {
+            out.tag(TYPE_RECORD);
+            row(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Set<Kv> instance) {
+            out.tag(TYPE_SET);
+            writeType(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Stream<Kv> instance) {
+            out.tag(TYPE_STREAM);
+            writeType(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Sum<Kv> instance) {
+            out.tag(TYPE_SUM);
+            types(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Union<Kv> instance) {
+            out.tag(TYPE_UNION);
+            row(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Variable<Kv> instance) {
+            out.tag(TYPE_VARIABLE);
+            name(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Type.Wrap<Kv> instance) {
+            out.tag(TYPE_WRAP);
+            name(instance.value.typeName);
+            writeType(instance.value.object);
+            return null;
+        }
+    }
+
+    /**
+     * A growable byte buffer with varint and fixed-width encoders.
+     */
+    private static final class Output {
+        private byte[] buf = new byte[256];
+        private int pos = 0;
+
+        private void ensure(int n) {
+            if (pos + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+            }
+        }
+
+        private void skip(int n) {
+            ensure(n);
+            pos += n;
+        }
+
+        private void tag(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        private void bytes(byte[] bytes, int length) {
+            ensure(length);
+            System.arraycopy(bytes, 0, buf, pos, length);
+            pos += length;
+        }
+
+        // The characters of a binary string, one byte each
+        private void latin1(String s) {
+            ensure(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                buf[pos++] = (byte) s.charAt(i);
+            }
+        }
+
+        private void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7fL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        private void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        private void fixed32(int value) {
+            ensure(4);
+            for (int i = 0; i < 4; i++) {
+                buf[pos++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        private void fixed64(long value) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buf[pos++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        private static int varintSize(int value) {
+            int size = 1;
+            while ((value & ~0x7f) != 0) {
+                value >>>= 7;
+                size++;
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package hydra.binary;
+
+import hydra.compute.Kv;
+import hydra.core.Field;
+import hydra.core.IntegerValue;
+import hydra.core.Literal;
+import hydra.core.Name;
+import hydra.core.Record;
+import hydra.core.Term;
+import hydra.graph.AnnotationClass;
+import hydra.graph.Element;
+import hydra.graph.Graph;
+import hydra.graph.Primitive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static hydra.dsl.Terms.boolean_;
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.map;
+import static hydra.dsl.Terms.optional;
+import static hydra.dsl.Terms.string;
+import static hydra.dsl.Terms.variable;
+
+
+/**
+ * Snapshots of fully built graphs in the Hydra binary format. A snapshot holds the elements, environment and body of
+ * a graph and of its schema graph, if any, together with the names of the graph's primitives. Loading a snapshot maps
+ * the file into memory and reads only the element names; the data of an element is decoded when the element is first
+ * looked up, so that a process which uses only a few elements of a large graph need not decode the rest.
+ * <p>
+ * Primitive implementations and annotation classes are code rather than data, so they are not written to the
+ * snapshot; they are supplied again when the snapshot is loaded, and each primitive of the snapshot is resolved by
+ * name.
+ */
+public class GraphSnapshot {
+    private static final Name SNAPSHOT = new Name("hydra/binary.Snapshot");
+
+    private GraphSnapshot() {
+    }
+
+    /**
+     * Write a snapshot of a graph to a file.
+     */
+    public static void write(Graph<Kv> graph, Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(graph, out);
+        }
+    }
+
+    /**
+     * Write a snapshot of a graph to a stream.
+     */
+    public static void write(Graph<Kv> graph, OutputStream out) throws IOException {
+        BinaryWriter writer = new BinaryWriter();
+        writeSection(graph, writer);
+        writer.writeTo(out);
+    }
+
+    /**
+     * Load a snapshot from a file, which is mapped into memory. Element data are decoded on first access.
+     *
+     * @param primitives  the available primitives, of which those named in the snapshot are added to the graph
+     * @param annotations the annotation class of the graph and of its schema graph
+     */
+    public static Graph<Kv> load(Path path, Map<Name, Primitive<Kv>> primitives, AnnotationClass<Kv> annotations)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), primitives, annotations);
+        }
+    }
+
+    /**
+     * Load a snapshot from a buffer. Element data are decoded on first access.
+     */
+    public static Graph<Kv> load(ByteBuffer buffer, Map<Name, Primitive<Kv>> primitives,
+                                 AnnotationClass<Kv> annotations) {
+        return new Loader(new BinaryReader(buffer), primitives, annotations).section();
+    }
+
+    // A section is a header root, the body, the environment, the elements, and then the schema section, if any
+    private static void writeSection(Graph<Kv> graph, BinaryWriter writer) {
+        List<Term<Kv>> primitiveNames = new ArrayList<>(graph.primitives.size());
+        for (Name name : graph.primitives.keySet()) {
+            primitiveNames.add(string(name.value));
+        }
+        List<Field<Kv>> header = new ArrayList<>(3);
+        header.add(field("elements", int32(graph.elements.size())));
+        header.add(field("primitives", list(primitiveNames)));
+        header.add(field("schema", boolean_(graph.schema.isPresent())));
+        writer.term(new Term.Record<>(new Record<>(SNAPSHOT, header)));
+
+        writer.term(graph.body);
+
+        Map<Term<Kv>, Term<Kv>> environment = new HashMap<>();
+        for (Map.Entry<Name, Optional<Term<Kv>>> e : graph.environment.entrySet()) {
+            environment.put(variable(e.getKey().value), optional(e.getValue()));
+        }
+        writer.term(map(environment));
+
+        for (Element<Kv> element : graph.elements.values()) {
+            writer.element(element);
+        }
+
+        graph.schema.ifPresent(schema -> writeSection(schema, writer));
+    }
+
+    private static final class Loader {
+        private final BinaryReader reader;
+        private final Map<Name, Primitive<Kv>> primitives;
+        private final AnnotationClass<Kv> annotations;
+        private int root = 0;
+
+        private Loader(BinaryReader reader, Map<Name, Primitive<Kv>> primitives, AnnotationClass<Kv> annotations) {
+            this.reader = reader;
+            this.primitives = primitives;
+            this.annotations = annotations;
+        }
+
+        private Graph<Kv> section() {
+            List<Field<Kv>> header = header(reader.term(root++));
+            int elementCount = int32Value(header.get(0).term);
+            Map<Name, Primitive<Kv>> prims = new HashMap<>();
+            for (Term<Kv> t : ((Term.List<Kv>) header.get(1).term).value) {
+                Name name = new Name(((Literal.String_) ((Term.Literal<Kv>) t).value).value);
+                Primitive<Kv> prim = primitives.get(name);
+                if (prim == null) {
+                    throw new IllegalArgumentException("snapshot requires an unavailable primitive: " + name.value);
+                }
+                prims.put(name, prim);
+            }
+            boolean hasSchema = ((Literal.Boolean_) ((Term.Literal<Kv>) header.get(2).term).value).value;
+
+            Term<Kv> body = reader.term(root++);
+
+            Map<Name, Optional<Term<Kv>>> environment = new HashMap<>();
+            for (Map.Entry<Term<Kv>, Term<Kv>> e : ((Term.Map<Kv>) reader.term(root++)).value.entrySet()) {
+                environment.put(((Term.Variable<Kv>) e.getKey()).value, ((Term.Optional<Kv>) e.getValue()).value);
+            }
+
+            Map<Name, Element<Kv>> elements = new LazyElements(reader, root, elementCount);
+            root += elementCount;
+
+            Optional<Graph<Kv>> schema = hasSchema ? Optional.of(section()) : Optional.empty();
+            return new Graph<>(elements, environment, body, prims, annotations, schema);
+        }
+
+        private static List<Field<Kv>> header(Term<Kv> term) {
+            if (!(term instanceof Term.Record) || !((Term.Record<Kv>) term).value.typeName.equals(SNAPSHOT)) {
+                throw new IllegalArgumentException("not a graph snapshot");
+            }
+            return ((Term.Record<Kv>) term).value.fields;
+        }
+
+        private static int int32Value(Term<Kv> term) {
+            return ((IntegerValue.Int32) ((Literal.Integer_) ((Term.Literal<Kv>) term).value).value).value;
+        }
+    }
+
+    /**
+     * The elements of a snapshot, which are indexed by name when the snapshot is loaded, and decoded on first access.
+     */
+    private static final class LazyElements extends AbstractMap<Name, Element<Kv>> {
+        private final BinaryReader reader;
+        private final int firstRoot;
+        private final Map<Name, Integer> index;
+        private final AtomicReferenceArray<Element<Kv>> decoded;
+
+        private LazyElements(BinaryReader reader, int firstRoot, int count) {
+            this.reader = reader;
+            this.firstRoot = firstRoot;
+            this.index = new HashMap<>(count * 4 / 3 + 1);
+            this.decoded = new AtomicReferenceArray<>(count);
+            for (int i = 0; i < count; i++) {
+                index.put(reader.elementName(firstRoot + i), i);
+            }
+        }
+
+        @Override
+        public Element<Kv> get(Object name) {
+            Integer i = index.get(name);
+            return i == null ? null : element(i);
+        }
+
+        @Override
+        public boolean containsKey(Object name) {
+            return index.containsKey(name);
+        }
+
+        @Override
+        public Set<Name> keySet() {
+            return Collections.unmodifiableSet(index.keySet());
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+        @Override
+        public Set<Map.Entry<Name, Element<Kv>>> entrySet() {
+            return new AbstractSet<Map.Entry<Name, Element<Kv>>>() {
+                @Override
+                public Iterator<Map.Entry<Name, Element<Kv>>> iterator() {
+                    Iterator<Map.Entry<Name, Integer>> entries = index.entrySet().iterator();
+                    return new Iterator<Map.Entry<Name, Element<Kv>>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<Name, Element<Kv>> next() {
+                            Map.Entry<Name, Integer> e = entries.next();
+                            return new SimpleImmutableEntry<>(e.getKey(), element(e.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return index.size();
+                }
+            };
+        }
+
+        private Element<Kv> element(int i) {
+            Element<Kv> element = decoded.get(i);
+            if (element == null) {
+                element = reader.element(firstRoot + i);
+                if (!decoded.compareAndSet(i, null, element)) {
+                    element = decoded.get(i);
+                }
+            }
+            return element;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import hydra.core.Term;
 import hydra.core.Tuple;
 import hydra.core.Type;
 import hydra.graph.Graph;
+import hydra.tools.Bytes;
 import hydra.tools.PrettyPrinter;
 
 import java.math.BigInteger;
@@ -91,6 +92,19 @@ public class Expect {
         }));
     }
 
+    /**
+     * Decode a binary value as bytes. Binary literals hold their bytes as base64 text; other literals are rejected.
+     */
+    public static <S, A> Flow<S, Bytes> bytes(final Term<A> term) {
+        return bind(binary(term), s -> {
+            try {
+                return pure(Bytes.fromLiteral(new Literal.Binary(s)));
+            } catch (IllegalArgumentException e) {
+                return unexpected("base64-encoded binary", s);
+            }
+        });
+    }
+
     /**
      * Decode a boolean value.
      */
@@ -449,6 +463,40 @@ public class Expect {
         }));
     }
 
+    /**
+     * Decode a map of terms to terms, without copying it.
+     */
+    public static <S, A> Flow<S, Map<Term<A>, Term<A>>> termMap(final Term<A> term) {
+        return term.accept(new Term.PartialVisitor<A, Flow<S, Map<Term<A>, Term<A>>>>() {
+            @Override
+            public Flow<S, Map<Term<A>, Term<A>>> otherwise(Term<A> instance) {
+                return wrongType("map", term);
+            }
+
+            @Override
+            public Flow<S, Map<Term<A>, Term<A>>> visit(Term.Map<A> instance) {
+                return pure(instance.value);
+            }
+        });
+    }
+
+    /**
+     * Decode a set of terms, without copying it.
+     */
+    public static <S, A> Flow<S, Set<Term<A>>> termSet(final Term<A> term) {
+        return term.accept(new Term.PartialVisitor<A, Flow<S, Set<Term<A>>>>() {
+            @Override
+            public Flow<S, Set<Term<A>>> otherwise(Term<A> instance) {
+                return wrongType("set", term);
+            }
+
+            @Override
+            public Flow<S, Set<Term<A>>> visit(Term.Set<A> instance) {
+                return pure(instance.value);
+            }
+        });
+    }
+
     /**
      * Decode a term.
      */
@@ -0,0 +1,679 @@
+package hydra.dsl;
+
+import hydra.core.Annotated;
+import hydra.core.Application;
+import hydra.core.ApplicationType;
+import hydra.core.CaseStatement;
+import hydra.core.Elimination;
+import hydra.core.Field;
+import hydra.core.FieldType;
+import hydra.core.FunctionType;
+import hydra.core.Injection;
+import hydra.core.Lambda;
+import hydra.core.LambdaType;
+import hydra.core.Let;
+import hydra.core.MapType;
+import hydra.core.Name;
+import hydra.core.Nominal;
+import hydra.core.OptionalCases;
+import hydra.core.Record;
+import hydra.core.RowType;
+import hydra.core.Sum;
+import hydra.core.Term;
+import hydra.core.Type;
+import hydra.tools.TermOrdering;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * An opt-in hash-consing factory for terms and types. Interning a term or type produces a canonical instance in
+ * which every subterm and subtype is also canonical, so that structurally equal values interned by the same interner
+ * are represented by the same object, and may be compared with ==. Repeated fragments, such as the field types of
+ * common schemas, are stored only once.
+ * Nodes are looked up by their shallow contents (names, literals) together with the identities of their
+ * already-interned children and annotations, so that interning a node whose children are canonical takes constant
+ * time; the recursive hashCode and equals of the generated classes are never used for children. Annotations are
+ * made canonical by equality, once per annotation instance.
+ * Terms built through Terms and Types may be interned at any point, either once when complete or bottom-up as
+ * they are constructed. Interning uses an explicit work stack rather than recursion, so that deeply nested values
+ * do not overflow the call stack. An interner may be shared by any number of threads, and does not lock.
+ * Streams are not interned. An interner retains all of the values it has produced, and should be discarded when it
+ * is no longer needed.
+ */
+public class Interner<A> {
+    private final ConcurrentHashMap<Key, Object> table = new ConcurrentHashMap<>();
+    private final Set<Identity> canonical = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<A, A> annotations = new ConcurrentHashMap<>();
+    private final Set<Identity> canonicalAnnotations = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Get the canonical instance of a term.
+     */
+    public Term<A> term(Term<A> term) {
+        return isCanonical(term) ? term : new TermInterner().run(term);
+    }
+
+    /**
+     * Get the canonical instance of a type.
+     */
+    public Type<A> type(Type<A> type) {
+        return isCanonical(type) ? type : new TypeInterner().run(type);
+    }
+
+    /**
+     * The number of distinct term and type nodes held by this interner.
+     */
+    public int size() {
+        return table.size();
+    }
+
+    private boolean isCanonical(Object node) {
+        return canonical.contains(new Identity(node));
+    }
+
+    // Find the canonical node with the given shape and children, registering the candidate if there is none yet
+    @SuppressWarnings("unchecked")
+    private <T> T find(T candidate, List<Object> shape, Object... children) {
+        Object existing = table.putIfAbsent(new Key(shape, children), candidate);
+        if (existing != null) {
+            return (T) existing;
+        }
+        canonical.add(new Identity(candidate));
+        return candidate;
+    }
+
+    // Find the canonical instance of an annotation, which is compared by value
+    private A annotation(A ann) {
+        if (canonicalAnnotations.contains(new Identity(ann))) {
+            return ann;
+        }
+        A existing = annotations.putIfAbsent(ann, ann);
+        if (existing != null) {
+            return existing;
+        }
+        canonicalAnnotations.add(new Identity(ann));
+        return ann;
+    }
+
+    private static List<Object> shape(Object... parts) {
+        return Arrays.asList(parts);
+    }
+
+    /**
+     * A single interning operation. Nodes are taken from a work stack, and each node is interned once all of its
+     * children are canonical. Visiting a node whose children are not yet canonical schedules those children, and
+     * the node is visited again after them; the result of the first visit is discarded.
+     */
+    private abstract class Walk<T> {
+        private final Deque<T> stack = new ArrayDeque<>();
+        private final Map<T, T> done = new IdentityHashMap<>();
+        private final List<T> pending = new ArrayList<>();
+
+        protected abstract T visit(T node);
+
+        T run(T root) {
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                T node = stack.peek();
+                if (done.containsKey(node)) {
+                    stack.pop();
+                    continue;
+                }
+                T result = visit(node);
+                if (pending.isEmpty()) {
+                    stack.pop();
+                    done.put(node, result);
+                } else {
+                    for (T child : pending) {
+                        stack.push(child);
+                    }
+                    pending.clear();
+                }
+            }
+            return done.get(root);
+        }
+
+        // Get the canonical instance of a child if it is known, or otherwise schedule the child and return it as is
+        protected T child(T node) {
+            if (isCanonical(node)) {
+                return node;
+            }
+            T result = done.get(node);
+            if (result != null) {
+                return result;
+            }
+            pending.add(node);
+            return node;
+        }
+
+        protected List<T> children(List<T> nodes) {
+            List<T> result = null;
+            for (int i = 0; i < nodes.size(); i++) {
+                T t = nodes.get(i);
+                T t2 = child(t);
+                if (result == null && t2 != t) {
+                    result = new ArrayList<>(nodes.subList(0, i));
+                }
+                if (result != null) {
+                    result.add(t2);
+                }
+            }
+            return result == null ? nodes : result;
+        }
+
+        // Find the canonical node, unless some children are still pending
+        protected <N> N lookup(N candidate, List<Object> shape, Object... children) {
+            return pending.isEmpty() ? find(candidate, shape, children) : null;
+        }
+    }
+
+    private final class TermInterner extends Walk<Term<A>> implements Term.Visitor<A, Term<A>> {
+        @Override
+        protected Term<A> visit(Term<A> node) {
+            return node.accept(this);
+        }
+
+        private List<Field<A>> fields(List<Field<A>> fields) {
+            List<Field<A>> result = null;
+            for (int i = 0; i < fields.size(); i++) {
+                Field<A> f = fields.get(i);
+                Term<A> t = child(f.term);
+                if (result == null && t != f.term) {
+                    result = new ArrayList<>(fields.subList(0, i));
+                }
+                if (result != null) {
+                    result.add(t == f.term ? f : new Field<>(f.name, t));
+                }
+            }
+            return result == null ? fields : result;
+        }
+
+        private Object[] fieldTerms(List<Field<A>> fields) {
+            Object[] children = new Object[fields.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = fields.get(i).term;
+            }
+            return children;
+        }
+
+        private List<Object> fieldNames(Object tag, Name typeName, List<Field<A>> fields) {
+            List<Object> shape = new ArrayList<>(fields.size() + 2);
+            shape.add(tag);
+            shape.add(typeName);
+            for (Field<A> f : fields) {
+                shape.add(f.name);
+            }
+            return shape;
+        }
+
+        @Override
+        public Term<A> visit(Term.Annotated<A> instance) {
+            Annotated<Term<A>, A> ann = instance.value;
+            Term<A> subject = child(ann.subject);
+            A annotation = annotation(ann.annotation);
+            Term<A> candidate = subject == ann.subject && annotation == ann.annotation
+                    ? instance : new Term.Annotated<>(new Annotated<>(subject, annotation));
+            return lookup(candidate, shape("Term.annotated"), annotation, subject);
+        }
+
+        @Override
+        public Term<A> visit(Term.Application<A> instance) {
+            Term<A> function = child(instance.value.function);
+            Term<A> argument = child(instance.value.argument);
+            Term<A> candidate = function == instance.value.function && argument == instance.value.argument
+                    ? instance : new Term.Application<>(new Application<>(function, argument));
+            return lookup(candidate, shape("Term.application"), function, argument);
+        }
+
+        @Override
+        public Term<A> visit(Term.Function<A> instance) {
+            return instance.value.accept(new hydra.core.Function.Visitor<A, Term<A>>() {
+                @Override
+                public Term<A> visit(hydra.core.Function.Elimination<A> elim) {
+                    return elimination(instance, elim.value);
+                }
+
+                @Override
+                public Term<A> visit(hydra.core.Function.Lambda<A> lambda) {
+                    Lambda<A> lam = lambda.value;
+                    Term<A> body = child(lam.body);
+                    Term<A> candidate = body == lam.body
+                            ? instance : new Term.Function<>(new hydra.core.Function.Lambda<>(
+                                    new Lambda<>(lam.parameter, body)));
+                    return lookup(candidate, shape("Term.lambda", lam.parameter), body);
+                }
+
+                @Override
+                public Term<A> visit(hydra.core.Function.Primitive<A> prim) {
+                    return lookup(instance, shape("Term.primitive", prim.value));
+                }
+            });
+        }
+
+        private Term<A> elimination(Term.Function<A> original, Elimination<A> elim) {
+            return elim.accept(new Elimination.Visitor<A, Term<A>>() {
+                @Override
+                public Term<A> visit(Elimination.List<A> instance) {
+                    Term<A> fold = child(instance.value);
+                    return lookup(fold == instance.value ? original : eliminationTerm(new Elimination.List<>(fold)),
+                            shape("Term.elimination.list"), fold);
+                }
+
+                @Override
+                public Term<A> visit(Elimination.Optional<A> instance) {
+                    OptionalCases<A> cases = instance.value;
+                    Term<A> nothing = child(cases.nothing);
+                    Term<A> just = child(cases.just);
+                    Term<A> candidate = nothing == cases.nothing && just == cases.just
+                            ? original
+                            : eliminationTerm(new Elimination.Optional<>(new OptionalCases<>(nothing, just)));
+                    return lookup(candidate, shape("Term.elimination.optional"), nothing, just);
+                }
+
+                @Override
+                public Term<A> visit(Elimination.Product<A> instance) {
+                    return lookup(original, shape("Term.elimination.product", instance.value));
+                }
+
+                @Override
+                public Term<A> visit(Elimination.Record<A> instance) {
+                    return lookup(original, shape("Term.elimination.record", instance.value));
+                }
+
+                @Override
+                public Term<A> visit(Elimination.Union<A> instance) {
+                    CaseStatement<A> stmt = instance.value;
+                    Optional<Term<A>> dflt = stmt.default_.map(TermInterner.this::child);
+                    List<Field<A>> cases = fields(stmt.cases);
+                    boolean sameDefault = !dflt.isPresent() || dflt.get() == stmt.default_.get();
+                    Term<A> candidate = cases == stmt.cases && sameDefault
+                            ? original
+                            : eliminationTerm(new Elimination.Union<>(new CaseStatement<>(stmt.typeName, dflt, cases)));
+                    List<Object> shape = fieldNames("Term.elimination.union", stmt.typeName, cases);
+                    shape.add(dflt.isPresent());
+                    Object[] children = fieldTerms(cases);
+                    if (dflt.isPresent()) {
+                        children = Arrays.copyOf(children, children.length + 1);
+                        children[children.length - 1] = dflt.get();
+                    }
+                    return lookup(candidate, shape, children);
+                }
+
+                @Override
+                public Term<A> visit(Elimination.Wrap<A> instance) {
+                    return lookup(original, shape("Term.elimination.wrap", instance.value));
+                }
+            });
+        }
+
+        private Term<A> eliminationTerm(Elimination<A> elim) {
+            return new Term.Function<>(new hydra.core.Function.Elimination<>(elim));
+        }
+
+        @Override
+        public Term<A> visit(Term.Let<A> instance) {
+            Let<A> let = instance.value;
+            List<Map.Entry<Name, Term<A>>> bindings = new ArrayList<>(let.bindings.entrySet());
+            bindings.sort(Comparator.comparing(e -> e.getKey().value));
+            Map<Name, Term<A>> bindings2 = new LinkedHashMap<>();
+            List<Object> shape = new ArrayList<>(bindings.size() + 1);
+            shape.add("Term.let");
+            Object[] children = new Object[bindings.size() + 1];
+            boolean changed = false;
+            for (int i = 0; i < bindings.size(); i++) {
+                Map.Entry<Name, Term<A>> e = bindings.get(i);
+                Term<A> t = child(e.getValue());
+                changed |= t != e.getValue();
+                bindings2.put(e.getKey(), t);
+                shape.add(e.getKey());
+                children[i] = t;
+            }
+            Term<A> env = child(let.environment);
+            children[bindings.size()] = env;
+            Term<A> candidate = !changed && env == let.environment
+                    ? instance : new Term.Let<>(new Let<>(bindings2, env));
+            return lookup(candidate, shape, children);
+        }
+
+        @Override
+        public Term<A> visit(Term.List<A> instance) {
+            List<Term<A>> els = children(instance.value);
+            return lookup(els == instance.value ? instance : new Term.List<>(els), shape("Term.list"), els.toArray());
+        }
+
+        @Override
+        public Term<A> visit(Term.Literal<A> instance) {
+            return lookup(instance, shape("Term.literal", instance.value));
+        }
+
+        @Override
+        public Term<A> visit(Term.Map<A> instance) {
+            Map<Term<A>, Term<A>> map = new HashMap<>();
+            List<Term<A>> keys = new ArrayList<>(instance.value.size());
+            boolean changed = false;
+            for (Map.Entry<Term<A>, Term<A>> e : instance.value.entrySet()) {
+                Term<A> k = child(e.getKey());
+                Term<A> v = child(e.getValue());
+                changed |= k != e.getKey() || v != e.getValue();
+                map.put(k, v);
+                keys.add(k);
+            }
+            // Sets and maps are keyed on their interned elements in the structural term ordering, so that equal
+            // sets and maps have the same children regardless of iteration order
+            keys.sort(TermOrdering.terms());
+            Object[] children = new Object[keys.size() * 2];
+            for (int i = 0; i < keys.size(); i++) {
+                children[2 * i] = keys.get(i);
+                children[2 * i + 1] = map.get(keys.get(i));
+            }
+            return lookup(changed ? new Term.Map<>(TermOrdering.sortedMap(map)) : instance, shape("Term.map"),
+                    children);
+        }
+
+        @Override
+        public Term<A> visit(Term.Optional<A> instance) {
+            if (!instance.value.isPresent()) {
+                return lookup(instance, shape("Term.optional", false));
+            }
+            Term<A> t = child(instance.value.get());
+            return lookup(t == instance.value.get() ? instance : new Term.Optional<>(Optional.of(t)),
+                    shape("Term.optional", true), t);
+        }
+
+        @Override
+        public Term<A> visit(Term.Product<A> instance) {
+            List<Term<A>> els = children(instance.value);
+            return lookup(els == instance.value ? instance : new Term.Product<>(els),
+                    shape("Term.product"), els.toArray());
+        }
+
+        @Override
+        public Term<A> visit(Term.Record<A> instance) {
+            Record<A> rec = instance.value;
+            List<Field<A>> fields = fields(rec.fields);
+            return lookup(fields == rec.fields ? instance : new Term.Record<>(new Record<>(rec.typeName, fields)),
+                    fieldNames("Term.record", rec.typeName, fields), fieldTerms(fields));
+        }
+
+        @Override
+        public Term<A> visit(Term.Set<A> instance) {
+            Set<Term<A>> set = new HashSet<>();
+            List<Term<A>> els = new ArrayList<>(instance.value.size());
+            boolean changed = false;
+            for (Term<A> t : instance.value) {
+                Term<A> t2 = child(t);
+                changed |= t2 != t;
+                set.add(t2);
+                els.add(t2);
+            }
+            els.sort(TermOrdering.terms());
+            return lookup(changed ? new Term.Set<>(TermOrdering.sortedSet(set)) : instance, shape("Term.set"),
+                    els.toArray());
+        }
+
+        @Override
+        public Term<A> visit(Term.Stream<A> instance) {
+            return instance;
+        }
+
+        @Override
+        public Term<A> visit(Term.Sum<A> instance) {
+            Sum<A> sum = instance.value;
+            Term<A> t = child(sum.term);
+            return lookup(t == sum.term ? instance : new Term.Sum<>(new Sum<>(sum.index, sum.size, t)),
+                    shape("Term.sum", sum.index, sum.size), t);
+        }
+
+        @Override
+        public Term<A> visit(Term.Union<A> instance) {
+            Injection<A> inj = instance.value;
+            Term<A> t = child(inj.field.term);
+            Term<A> candidate = t == inj.field.term
+                    ? instance : new Term.Union<>(new Injection<>(inj.typeName, new Field<>(inj.field.name, t)));
+            return lookup(candidate, shape("Term.union", inj.typeName, inj.field.name), t);
+        }
+
+        @Override
+        public Term<A> visit(Term.Variable<A> instance) {
+            return lookup(instance, shape("Term.variable", instance.value));
+        }
+
+        @Override
+        public Term<A> visit(Term.Wrap<A> instance) {
+            Nominal<Term<A>> wrapped = instance.value;
+            Term<A> t = child(wrapped.object);
+            return lookup(t == wrapped.object ? instance : new Term.Wrap<>(new Nominal<>(wrapped.typeName, t)),
+                    shape("Term.wrap", wrapped.typeName), t);
+        }
+    }
+
+    private final class TypeInterner extends Walk<Type<A>> implements Type.Visitor<A, Type<A>> {
+        @Override
+        protected Type<A> visit(Type<A> node) {
+            return node.accept(this);
+        }
+
+        private RowType<A> row(RowType<A> row) {
+            List<FieldType<A>> fields = null;
+            for (int i = 0; i < row.fields.size(); i++) {
+                FieldType<A> f = row.fields.get(i);
+                Type<A> t = child(f.type);
+                if (fields == null && t != f.type) {
+                    fields = new ArrayList<>(row.fields.subList(0, i));
+                }
+                if (fields != null) {
+                    fields.add(t == f.type ? f : new FieldType<>(f.name, t));
+                }
+            }
+            return fields == null ? row : new RowType<>(row.typeName, row.extends_, fields);
+        }
+
+        private List<Object> rowShape(Object tag, RowType<A> row) {
+            List<Object> shape = new ArrayList<>(row.fields.size() + 3);
+            shape.add(tag);
+            shape.add(row.typeName);
+            shape.add(row.extends_);
+            for (FieldType<A> f : row.fields) {
+                shape.add(f.name);
+            }
+            return shape;
+        }
+
+        private Object[] rowTypes(RowType<A> row) {
+            Object[] children = new Object[row.fields.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = row.fields.get(i).type;
+            }
+            return children;
+        }
+
+        @Override
+        public Type<A> visit(Type.Annotated<A> instance) {
+            Annotated<Type<A>, A> ann = instance.value;
+            Type<A> subject = child(ann.subject);
+            A annotation = annotation(ann.annotation);
+            Type<A> candidate = subject == ann.subject && annotation == ann.annotation
+                    ? instance : new Type.Annotated<>(new Annotated<>(subject, annotation));
+            return lookup(candidate, shape("Type.annotated"), annotation, subject);
+        }
+
+        @Override
+        public Type<A> visit(Type.Application<A> instance) {
+            Type<A> function = child(instance.value.function);
+            Type<A> argument = child(instance.value.argument);
+            Type<A> candidate = function == instance.value.function && argument == instance.value.argument
+                    ? instance : new Type.Application<>(new ApplicationType<>(function, argument));
+            return lookup(candidate, shape("Type.application"), function, argument);
+        }
+
+        @Override
+        public Type<A> visit(Type.Function<A> instance) {
+            Type<A> dom = child(instance.value.domain);
+            Type<A> cod = child(instance.value.codomain);
+            Type<A> candidate = dom == instance.value.domain && cod == instance.value.codomain
+                    ? instance : new Type.Function<>(new FunctionType<>(dom, cod));
+            return lookup(candidate, shape("Type.function"), dom, cod);
+        }
+
+        @Override
+        public Type<A> visit(Type.Lambda<A> instance) {
+            LambdaType<A> lam = instance.value;
+            Type<A> body = child(lam.body);
+            return lookup(body == lam.body ? instance : new Type.Lambda<>(new LambdaType<>(lam.parameter, body)),
+                    shape("Type.lambda", lam.parameter), body);
+        }
+
+        @Override
+        public Type<A> visit(Type.List<A> instance) {
+            Type<A> t = child(instance.value);
+            return lookup(t == instance.value ? instance : new Type.List<>(t), shape("Type.list"), t);
+        }
+
+        @Override
+        public Type<A> visit(Type.Literal<A> instance) {
+            return lookup(instance, shape("Type.literal", instance.value));
+        }
+
+        @Override
+        public Type<A> visit(Type.Map<A> instance) {
+            Type<A> keys = child(instance.value.keys);
+            Type<A> values = child(instance.value.values);
+            Type<A> candidate = keys == instance.value.keys && values == instance.value.values
+                    ? instance : new Type.Map<>(new MapType<>(keys, values));
+            return lookup(candidate, shape("Type.map"), keys, values);
+        }
+
+        @Override
+        public Type<A> visit(Type.Optional<A> instance) {
+            Type<A> t = child(instance.value);
+            return lookup(t == instance.value ? instance : new Type.Optional<>(t), shape("Type.optional"), t);
+        }
+
+        @Override
+        public Type<A> visit(Type.Product<A> instance) {
+            List<Type<A>> els = children(instance.value);
+            return lookup(els == instance.value ? instance : new Type.Product<>(els),
+                    shape("Type.product"), els.toArray());
+        }
+
+        @Override
+        public Type<A> visit(Type.Record<A> instance) {
+            RowType<A> row = row(instance.value);
+            return lookup(row == instance.value ? instance : new Type.Record<>(row),
+                    rowShape("Type.record", row), rowTypes(row));
+        }
+
+        @Override
+        public Type<A> visit(Type.Set<A> instance) {
+            Type<A> t = child(instance.value);
+            return lookup(t == instance.value ? instance : new Type.Set<>(t), shape("Type.set"), t);
+        }
+
+        @Override
+        public Type<A> visit(Type.Stream<A> instance) {
+            Type<A> t = child(instance.value);
+            return lookup(t == instance.value ? instance : new Type.Stream<>(t), shape("Type.stream"), t);
+        }
+
+        @Override
+        public Type<A> visit(Type.Sum<A> instance) {
+            List<Type<A>> els = children(instance.value);
+            return lookup(els == instance.value ? instance : new Type.Sum<>(els), shape("Type.sum"), els.toArray());
+        }
+
+        @Override
+        public Type<A> visit(Type.Union<A> instance) {
+            RowType<A> row = row(instance.value);
+            return lookup(row == instance.value ? instance : new Type.Union<>(row),
+                    rowShape("Type.union", row), rowTypes(row));
+        }
+
+        @Override
+        public Type<A> visit(Type.Variable<A> instance) {
+            return lookup(instance, shape("Type.variable", instance.value));
+        }
+
+        @Override
+        public Type<A> visit(Type.Wrap<A> instance) {
+            Nominal<Type<A>> wrapped = instance.value;
+            Type<A> t = child(wrapped.object);
+            return lookup(t == wrapped.object ? instance : new Type.Wrap<>(new Nominal<>(wrapped.typeName, t)),
+                    shape("Type.wrap", wrapped.typeName), t);
+        }
+    }
+
+    /**
+     * A lookup key consisting of the shallow contents of a node, compared by value, and its interned children,
+     * compared by identity. The hash code is computed once.
+     */
+    private static final class Key {
+        private final List<Object> shape;
+        private final Object[] children;
+        private final int hash;
+
+        private Key(List<Object> shape, Object[] children) {
+            this.shape = shape;
+            this.children = children;
+            int h = shape.hashCode();
+            for (Object child : children) {
+                h = 31 * h + System.identityHashCode(child);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key o = (Key) other;
+            if (hash != o.hash || children.length != o.children.length) {
+                return false;
+            }
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != o.children[i]) {
+                    return false;
+                }
+            }
+            return shape.equals(o.shape);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // A wrapper which compares an object by identity, for use in concurrent sets
+    private static final class Identity {
+        private final Object value;
+
+        private Identity(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Identity && ((Identity) other).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+}
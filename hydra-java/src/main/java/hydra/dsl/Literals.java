@@ -5,6 +5,7 @@ import hydra.core.FloatValue;
 import hydra.core.IntegerValue;
 import hydra.core.Literal;
 import hydra.core.LiteralType;
+import hydra.tools.Bytes;
 
 import java.math.BigInteger;
 import java.util.Optional;
@@ -27,6 +28,10 @@ public interface Literals {
         return new Literal.Binary(value);
     }
 
+    static Literal binary(final Bytes value) {
+        return value.toLiteral();
+    }
+
     static Literal boolean_(final boolean value) {
         return new Literal.Boolean_(value);
     }
@@ -23,6 +23,8 @@ import hydra.core.Tuple;
 import hydra.core.Unit;
 
 import hydra.core.Nominal;
+import hydra.tools.Bytes;
+import hydra.tools.LiteralTerms;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -52,7 +54,7 @@ public interface Terms {
     static <A> Term<A> apply(final Term<A> lhs, final Term<A>... rhs) {
         Term<A> cur = lhs;
         for (Term<A> r : rhs) {
-            cur = new Term.Application<>(new Application<>(lhs, r));
+            cur = new Term.Application<>(new Application<>(cur, r));
         }
         return cur;
     }
@@ -106,11 +108,18 @@ public interface Terms {
         return literal(Literals.binary(value));
     }
 
+    /**
+     * Construct a binary literal term from bytes, which are encoded as base64.
+     */
+    static <A> Term<A> binary(final Bytes value) {
+        return literal(Literals.binary(value));
+    }
+
     /**
      * Construct a boolean literal term.
      */
     static <A> Term<A> boolean_(final boolean value) {
-        return literal(Literals.boolean_(value));
+        return LiteralTerms.boolean_(value);
     }
 
     /**
@@ -232,7 +241,7 @@ public interface Terms {
      * Construct an int32 literal term.
      */
     static <A> Term<A> int32(final int value) {
-        return literal(Literals.int32(value));
+        return LiteralTerms.int32(value);
     }
 
     /**
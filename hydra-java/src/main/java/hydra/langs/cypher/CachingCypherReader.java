@@ -0,0 +1,126 @@
+package hydra.langs.cypher;
+
+import hydra.langs.cypher.openCypher.Query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * A Cypher reader which keeps the most recently used queries in a bounded cache, so that statements which are
+ * submitted repeatedly are only parsed once. Queries are looked up by their normalized text (see {@link #normalize}),
+ * so that queries which differ only in layout share a cache entry.
+ * Queries which fail to parse are not cached. Cached queries are shared between callers, and must not be modified.
+ * A reader may be used by any number of threads.
+ */
+public class CachingCypherReader {
+    private final int capacity;
+    private final Map<String, Query> cache;
+
+    /**
+     * Construct a reader which caches up to the given number of queries.
+     */
+    public CachingCypherReader(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("cache capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<String, Query>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Query> eldest) {
+                return size() > CachingCypherReader.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Read a query, parsing it only if an equivalent query is not already in the cache.
+     */
+    public Query read(String query) {
+        String key = normalize(query);
+        Query result;
+        synchronized (cache) {
+            result = cache.get(key);
+        }
+        if (result == null) {
+            // Parse outside of the lock; if two threads parse the same query at once, the later result wins
+            result = CypherReader.read(query);
+            synchronized (cache) {
+                cache.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The number of queries currently in the cache.
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Remove all queries from the cache.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Normalize the layout of a query: leading and trailing whitespace is removed, and each other run of whitespace
+     * is replaced with a single space. Quoted strings and names, and comments, are left as they are.
+     */
+    static String normalize(String query) {
+        int length = query.length();
+        StringBuilder sb = new StringBuilder(length);
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < length) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                i++;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            int end;
+            if (c == '\'' || c == '"' || c == '`') {
+                end = endOfQuoted(query, i, c);
+            } else if (c == '/' && i + 1 < length && query.charAt(i + 1) == '/') {
+                end = query.indexOf('\n', i);
+                end = end < 0 ? length : end + 1;
+            } else if (c == '/' && i + 1 < length && query.charAt(i + 1) == '*') {
+                end = query.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+            } else {
+                end = i + 1;
+            }
+            sb.append(query, i, end);
+            i = end;
+        }
+        return sb.toString();
+    }
+
+    // The index just past the closing quote, or the end of the query if the quote is not closed
+    private static int endOfQuoted(String query, int start, char quote) {
+        int i = start + 1;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (c == '\\' && quote != '`') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return query.length();
+    }
+}
@@ -113,8 +113,14 @@ import hydra.langs.cypher.openCypher.XorExpression;
 import hydra.langs.cypher.openCypher.YieldItem;
 import hydra.langs.cypher.openCypher.YieldItems;
 import hydra.tools.AntlrReaderBase;
+import org.antlr.v4.runtime.ANTLRErrorStrategy;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.apache.commons.text.StringEscapeUtils;
@@ -135,11 +141,43 @@ import java.util.Optional;
  */
 public class CypherReader extends AntlrReaderBase {
 
+    private static final ThreadLocal<QueryParser> PARSERS = ThreadLocal.withInitial(QueryParser::new);
+
     public static Query read(String query) {
-        CypherLexer lexer = new CypherLexer(CharStreams.fromString(query));
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        CypherParser parser = new CypherParser(tokens);
-        return read(parser.oC_Query());
+        return read(PARSERS.get().parse(query));
+    }
+
+    /**
+     * A lexer and parser which are reused for successive queries on the same thread.
+     * Each query is first parsed using ANTLR's faster SLL prediction mode, giving up at the first syntax error.
+     * Only if that fails is the query parsed again with full LL prediction and the default error recovery,
+     * which accepts or rejects exactly the queries which a fresh parser would.
+     */
+    private static class QueryParser {
+        private final CypherLexer lexer = new CypherLexer(CharStreams.fromString(""));
+        private final CommonTokenStream tokens = new CommonTokenStream(lexer);
+        private final CypherParser parser = new CypherParser(tokens);
+        private final ANTLRErrorStrategy bail = new BailErrorStrategy();
+        private final ANTLRErrorStrategy recover = new DefaultErrorStrategy();
+
+        private CypherParser.OC_QueryContext parse(String query) {
+            lexer.setInputStream(CharStreams.fromString(query));
+            tokens.setTokenSource(lexer);
+            parser.setTokenStream(tokens);
+            parser.removeErrorListeners();
+            parser.setErrorHandler(bail);
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            try {
+                return parser.oC_Query();
+            } catch (ParseCancellationException e) {
+                tokens.seek(0);
+                parser.reset();
+                parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+                parser.setErrorHandler(recover);
+                parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+                return parser.oC_Query();
+            }
+        }
     }
 
     ////////////////////////////////////
@@ -595,7 +633,7 @@ public class CypherReader extends AntlrReaderBase {
     }
 
     private static NodeLabel read(CypherParser.OC_NodeLabelContext ctx) {
-        return new NodeLabel(ctx.getText());
+        return new NodeLabel(ctx.oC_LabelName().getText());
     }
 
     private static PatternElementChain read(CypherParser.OC_PatternElementChainContext ctx) {
@@ -0,0 +1,76 @@
+package hydra.langs.cypher;
+
+import hydra.langs.cypher.openCypher.Query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+
+/**
+ * A translation service from Cypher text to some compiled form of the query, such as a hydra.langs.tinkerpop.queries
+ * query. The most recently used plans are kept in a bounded cache, keyed by normalized query text
+ * (see {@link CachingCypherReader#normalize}), so that statements which are submitted repeatedly, possibly with a
+ * different layout, are parsed and compiled only once. Queries which differ in their literal values have distinct
+ * plans; literals are not lifted into parameters, since the compilers do not support parameters.
+ * Queries which fail to parse or compile are not cached. A translator may be used by any number of threads.
+ */
+public class CypherTranslator<T> {
+    private final int capacity;
+    private final Function<Query, T> compile;
+    private final Map<String, T> plans;
+
+    /**
+     * Construct a translator which compiles parsed queries with the given function, and caches up to the given
+     * number of plans.
+     */
+    public CypherTranslator(int capacity, Function<Query, T> compile) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("cache capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.compile = compile;
+        this.plans = new LinkedHashMap<String, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > CypherTranslator.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * A translator into hydra.langs.tinkerpop.queries queries.
+     */
+    public static CypherTranslator<hydra.langs.tinkerpop.queries.Query> toQueries(int capacity) {
+        return new CypherTranslator<>(capacity, FromCypher::from);
+    }
+
+    /**
+     * Translate a query, parsing and compiling it only if an equivalent query is not already in the cache.
+     * Exceptions thrown while parsing or compiling the query are passed on to the caller.
+     */
+    public T translate(String query) {
+        String key = CachingCypherReader.normalize(query);
+        T plan;
+        synchronized (plans) {
+            plan = plans.get(key);
+        }
+        if (plan == null) {
+            // Compile outside of the lock; if two threads compile the same query at once, the later plan wins
+            plan = compile.apply(CypherReader.read(key));
+            synchronized (plans) {
+                plans.put(key, plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * The number of plans currently in the cache.
+     */
+    public int size() {
+        synchronized (plans) {
+            return plans.size();
+        }
+    }
+}
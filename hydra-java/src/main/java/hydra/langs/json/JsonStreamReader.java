@@ -0,0 +1,524 @@
+package hydra.langs.json;
+
+import hydra.json.Value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A single-pass, pull-style JSON reader which produces Hydra's native JSON values directly from a character stream,
+ * without an intermediate object model.
+ * Events are pulled one at a time with next(), or whole values with readValue(). Any number of whitespace-separated
+ * top-level values may appear in the input, so that newline-delimited JSON can be processed one record at a time
+ * without holding the whole document in memory.
+ */
+public class JsonStreamReader implements Closeable {
+    /**
+     * The events produced by the reader.
+     */
+    public enum Event {
+        BEGIN_ARRAY,
+        END_ARRAY,
+        BEGIN_OBJECT,
+        END_OBJECT,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Parser states, one per open container (plus the top level)
+    private static final byte TOP = 0;
+    private static final byte ARRAY_FIRST = 1;
+    private static final byte ARRAY_NEXT = 2;
+    private static final byte OBJECT_FIRST = 3;
+    private static final byte OBJECT_NEXT = 4;
+    private static final byte OBJECT_VALUE = 5;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+    private long offset = 0;
+
+    private byte[] states = new byte[32];
+    private int depth = 0;
+
+    private final StringBuilder scratch = new StringBuilder();
+    private String stringValue;
+    private double numberValue;
+    private boolean booleanValue;
+
+    /**
+     * Construct a reader over a character stream. The stream is read in blocks, so there is no need to buffer it.
+     */
+    public JsonStreamReader(Reader reader) {
+        this.reader = reader;
+        states[0] = TOP;
+    }
+
+    /**
+     * Construct a reader over a UTF-8 encoded byte stream.
+     */
+    public JsonStreamReader(InputStream input) {
+        this(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a string containing exactly one JSON value.
+     */
+    public static Value parse(String json) throws IOException {
+        try (JsonStreamReader reader = new JsonStreamReader(new StringReader(json))) {
+            Value value = reader.readValue();
+            if (reader.hasNext()) {
+                throw reader.error("unexpected content after JSON value");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Whether any further events remain. At the top level, this skips whitespace and checks for the end of the input;
+     * inside an array or object, there is always at least a closing event.
+     */
+    public boolean hasNext() throws IOException {
+        return depth > 0 || skipWhitespace() >= 0;
+    }
+
+    /**
+     * Advance to the next event, or return null at the end of the input.
+     * After STRING or NAME, the text is available from stringValue(); after NUMBER, from numberValue(); after
+     * BOOLEAN, from booleanValue().
+     */
+    public Event next() throws IOException {
+        int c;
+        switch (states[depth]) {
+            case TOP:
+                c = skipWhitespace();
+                if (c < 0) {
+                    return null;
+                }
+                pos++;
+                return readValueStart((char) c);
+            case ARRAY_FIRST:
+                c = requireNonWhitespace("a value or ']'");
+                if (c == ']') {
+                    depth--;
+                    return Event.END_ARRAY;
+                }
+                states[depth] = ARRAY_NEXT;
+                return readValueStart((char) c);
+            case ARRAY_NEXT:
+                c = requireNonWhitespace("',' or ']'");
+                if (c == ']') {
+                    depth--;
+                    return Event.END_ARRAY;
+                } else if (c != ',') {
+                    throw unexpected("',' or ']'", c);
+                }
+                return readValueStart(requireNonWhitespace("a value"));
+            case OBJECT_FIRST:
+                c = requireNonWhitespace("a field name or '}'");
+                if (c == '}') {
+                    depth--;
+                    return Event.END_OBJECT;
+                }
+                return readName(c);
+            case OBJECT_NEXT:
+                c = requireNonWhitespace("',' or '}'");
+                if (c == '}') {
+                    depth--;
+                    return Event.END_OBJECT;
+                } else if (c != ',') {
+                    throw unexpected("',' or '}'", c);
+                }
+                return readName(requireNonWhitespace("a field name"));
+            default:
+                states[depth] = OBJECT_NEXT;
+                return readValueStart(requireNonWhitespace("a value"));
+        }
+    }
+
+    /**
+     * The text of the current STRING or NAME event.
+     */
+    public String stringValue() {
+        return stringValue;
+    }
+
+    /**
+     * The value of the current NUMBER event.
+     */
+    public double numberValue() {
+        return numberValue;
+    }
+
+    /**
+     * The value of the current BOOLEAN event.
+     */
+    public boolean booleanValue() {
+        return booleanValue;
+    }
+
+    /**
+     * The number of arrays and objects which are currently open.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Read the next complete value, e.g. the next record of a newline-delimited JSON stream, or the value following
+     * a NAME event.
+     */
+    public Value readValue() throws IOException {
+        Event event = next();
+        if (event == null) {
+            throw error("unexpected end of input");
+        }
+        return readValue(event);
+    }
+
+    /**
+     * Read the complete value which begins with the given event, which must be the event most recently returned by
+     * next(). Nesting is handled with an explicit stack, so deeply nested input cannot overflow the call stack.
+     */
+    @SuppressWarnings("unchecked")
+    public Value readValue(Event first) throws IOException {
+        ArrayDeque<Object> containers = new ArrayDeque<>();
+        ArrayDeque<String> names = new ArrayDeque<>();
+        Event event = first;
+        while (true) {
+            Value value;
+            switch (event) {
+                case BEGIN_ARRAY:
+                    containers.push(new ArrayList<Value>());
+                    event = next();
+                    continue;
+                case BEGIN_OBJECT:
+                    containers.push(new LinkedHashMap<String, Value>());
+                    event = next();
+                    continue;
+                case NAME:
+                    names.push(stringValue);
+                    event = next();
+                    continue;
+                case END_ARRAY:
+                    value = new Value.Array((List<Value>) containers.pop());
+                    break;
+                case END_OBJECT:
+                    value = new Value.Object_((Map<String, Value>) containers.pop());
+                    break;
+                default:
+                    value = scalarValue(event);
+            }
+
+            if (containers.isEmpty()) {
+                return value;
+            }
+            Object parent = containers.peek();
+            if (parent instanceof List) {
+                ((List<Value>) parent).add(value);
+            } else {
+                ((Map<String, Value>) parent).put(names.pop(), value);
+            }
+            event = next();
+        }
+    }
+
+    /**
+     * Skip over the complete value which begins with the given event, without constructing it.
+     */
+    public void skipValue(Event first) throws IOException {
+        if (first == Event.BEGIN_ARRAY || first == Event.BEGIN_OBJECT) {
+            int target = depth - 1;
+            while (depth > target) {
+                if (next() == null) {
+                    throw error("unexpected end of input");
+                }
+            }
+        } else if (first == Event.NAME) {
+            Event value = next();
+            skipValue(value);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Value scalarValue(Event event) {
+        switch (event) {
+            case STRING:
+                return new Value.String_(stringValue);
+            case NUMBER:
+                return new Value.Number_(numberValue);
+            case BOOLEAN:
+                return new Value.Boolean_(booleanValue);
+            default:
+                return new Value.Null();
+        }
+    }
+
+    private Event readValueStart(char c) throws IOException {
+        switch (c) {
+            case '{':
+                push(OBJECT_FIRST);
+                return Event.BEGIN_OBJECT;
+            case '[':
+                push(ARRAY_FIRST);
+                return Event.BEGIN_ARRAY;
+            case '"':
+                stringValue = readString();
+                return Event.STRING;
+            case 't':
+                readKeyword("rue");
+                booleanValue = true;
+                return Event.BOOLEAN;
+            case 'f':
+                readKeyword("alse");
+                booleanValue = false;
+                return Event.BOOLEAN;
+            case 'n':
+                readKeyword("ull");
+                return Event.NULL;
+            default:
+                if (c == '-' || isDigit(c)) {
+                    numberValue = readNumber(c);
+                    return Event.NUMBER;
+                }
+                throw unexpected("a value", c);
+        }
+    }
+
+    private Event readName(int c) throws IOException {
+        if (c != '"') {
+            throw unexpected("a field name", c);
+        }
+        stringValue = readString();
+        int colon = requireNonWhitespace("':'");
+        if (colon != ':') {
+            throw unexpected("':'", colon);
+        }
+        states[depth] = OBJECT_VALUE;
+        return Event.NAME;
+    }
+
+    private void push(byte state) {
+        if (++depth == states.length) {
+            states = Arrays.copyOf(states, states.length * 2);
+        }
+        states[depth] = state;
+    }
+
+    // Reads the remainder of a string, the opening quote having been consumed
+    private String readString() throws IOException {
+        // Fast path: the string lies entirely within the buffer and contains no escapes
+        int start = pos;
+        while (pos < limit) {
+            char c = buffer[pos];
+            if (c == '"') {
+                String s = new String(buffer, start, pos - start);
+                pos++;
+                return s;
+            } else if (c == '\\' || c < 0x20) {
+                break;
+            }
+            pos++;
+        }
+
+        scratch.setLength(0);
+        scratch.append(buffer, start, pos - start);
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw error("unterminated string");
+            }
+            char c = buffer[pos++];
+            if (c == '"') {
+                return scratch.toString();
+            } else if (c == '\\') {
+                scratch.append(readEscape());
+            } else if (c < 0x20) {
+                throw error("unescaped control character in string");
+            } else {
+                scratch.append(c);
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int d = Character.digit(read(), 16);
+                    if (d < 0) {
+                        throw error("invalid unicode escape");
+                    }
+                    code = (code << 4) | d;
+                }
+                return (char) code;
+            default:
+                throw unexpected("an escape character", c);
+        }
+    }
+
+    private double readNumber(char first) throws IOException {
+        scratch.setLength(0);
+        scratch.append(first);
+        boolean negative = first == '-';
+        int c = negative ? read() : first;
+        if (!isDigit(c)) {
+            throw unexpected("a digit", c);
+        }
+        if (negative) {
+            scratch.append((char) c);
+        }
+
+        // Integers of up to 18 digits are accumulated directly, avoiding Double.parseDouble
+        long mantissa = c - '0';
+        int digits = 1;
+        if (c != '0') {
+            while (isDigit(peek())) {
+                char d = buffer[pos++];
+                scratch.append(d);
+                mantissa = mantissa * 10 + (d - '0');
+                digits++;
+            }
+        }
+
+        boolean integral = true;
+        if (peek() == '.') {
+            integral = false;
+            scratch.append(buffer[pos++]);
+            readDigits();
+        }
+        int e = peek();
+        if (e == 'e' || e == 'E') {
+            integral = false;
+            scratch.append(buffer[pos++]);
+            int sign = peek();
+            if (sign == '+' || sign == '-') {
+                scratch.append(buffer[pos++]);
+            }
+            readDigits();
+        }
+
+        if (integral && digits <= 18) {
+            return negative ? (mantissa == 0 ? -0.0 : -mantissa) : mantissa;
+        }
+        return Double.parseDouble(scratch.toString());
+    }
+
+    private void readDigits() throws IOException {
+        int c = read();
+        if (!isDigit(c)) {
+            throw unexpected("a digit", c);
+        }
+        scratch.append((char) c);
+        while (isDigit(peek())) {
+            scratch.append(buffer[pos++]);
+        }
+    }
+
+    private void readKeyword(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            int c = read();
+            if (c != rest.charAt(i)) {
+                throw unexpected("'" + rest.charAt(i) + "'", c);
+            }
+        }
+    }
+
+    // Returns the next non-whitespace character without consuming it, or -1 at the end of the input
+    private int skipWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[pos];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    // Consumes and returns the next non-whitespace character, failing at the end of the input
+    private char requireNonWhitespace(String expected) throws IOException {
+        int c = skipWhitespace();
+        if (c < 0) {
+            throw unexpected(expected, c);
+        }
+        pos++;
+        return (char) c;
+    }
+
+    private int peek() throws IOException {
+        return pos < limit || fill() ? buffer[pos] : -1;
+    }
+
+    private int read() throws IOException {
+        return pos < limit || fill() ? buffer[pos++] : -1;
+    }
+
+    private boolean fill() throws IOException {
+        offset += limit;
+        pos = 0;
+        limit = 0;
+        int n;
+        do {
+            n = reader.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private IOException unexpected(String expected, int found) {
+        return error("expected " + expected + ", found "
+                + (found < 0 ? "end of input" : "'" + (char) found + "'"));
+    }
+
+    private IOException error(String message) {
+        return new IOException("JSON parse error at offset " + (offset + pos) + ": " + message);
+    }
+}
@@ -0,0 +1,260 @@
+package hydra.langs.json;
+
+import hydra.json.Value;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A single-pass JSON writer which serializes Hydra's native JSON values, or a stream of writer calls, directly to an
+ * Appendable such as a Writer or StringBuilder. Output is compact, and numbers are formatted as by JsonSerde.
+ * Writers are not buffered; wrap unbuffered streams in a BufferedWriter.
+ */
+public class JsonStreamWriter {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Appendable out;
+
+    // For each open container (index 0 is the top level), whether a value has already been written to it
+    private boolean[] nonEmpty = new boolean[32];
+    private boolean[] isObject = new boolean[32];
+    private int depth = 0;
+    private boolean expectingValue = false;
+
+    public JsonStreamWriter(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Serialize a JSON value to a string.
+     */
+    public static String toString(Value value) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            new JsonStreamWriter(sb).write(value);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write a complete JSON value.
+     */
+    public JsonStreamWriter write(Value value) throws IOException {
+        beforeValue();
+        writeValue(value);
+        return this;
+    }
+
+    /**
+     * Write a complete top-level value followed by a newline, as a record of newline-delimited JSON.
+     */
+    public JsonStreamWriter writeLine(Value value) throws IOException {
+        if (depth > 0) {
+            throw new IllegalStateException("records may only be written at the top level");
+        }
+        write(value);
+        out.append('\n');
+        nonEmpty[0] = false;
+        return this;
+    }
+
+    public JsonStreamWriter beginArray() throws IOException {
+        beforeValue();
+        out.append('[');
+        push(false);
+        return this;
+    }
+
+    public JsonStreamWriter endArray() throws IOException {
+        pop(false);
+        out.append(']');
+        return this;
+    }
+
+    public JsonStreamWriter beginObject() throws IOException {
+        beforeValue();
+        out.append('{');
+        push(true);
+        return this;
+    }
+
+    public JsonStreamWriter endObject() throws IOException {
+        if (expectingValue) {
+            throw new IllegalStateException("missing value for field");
+        }
+        pop(true);
+        out.append('}');
+        return this;
+    }
+
+    /**
+     * Write a field name. Must be followed by exactly one value.
+     */
+    public JsonStreamWriter name(String name) throws IOException {
+        if (depth == 0 || !isObject[depth] || expectingValue) {
+            throw new IllegalStateException("field names are only allowed directly within an object");
+        }
+        if (nonEmpty[depth]) {
+            out.append(',');
+        }
+        nonEmpty[depth] = true;
+        writeString(name);
+        out.append(':');
+        expectingValue = true;
+        return this;
+    }
+
+    public JsonStreamWriter value(String s) throws IOException {
+        beforeValue();
+        writeString(s);
+        return this;
+    }
+
+    public JsonStreamWriter value(double d) throws IOException {
+        beforeValue();
+        writeNumber(d);
+        return this;
+    }
+
+    public JsonStreamWriter value(boolean b) throws IOException {
+        beforeValue();
+        out.append(b ? "true" : "false");
+        return this;
+    }
+
+    public JsonStreamWriter nullValue() throws IOException {
+        beforeValue();
+        out.append("null");
+        return this;
+    }
+
+    private void beforeValue() throws IOException {
+        if (isObject[depth]) {
+            if (!expectingValue) {
+                throw new IllegalStateException("a field name is required before each value in an object");
+            }
+            expectingValue = false;
+        } else {
+            if (nonEmpty[depth]) {
+                // Adjacent top-level values are separated by whitespace; array elements by commas
+                out.append(depth == 0 ? '\n' : ',');
+            }
+            nonEmpty[depth] = true;
+        }
+    }
+
+    private void push(boolean object) {
+        if (++depth == nonEmpty.length) {
+            nonEmpty = Arrays.copyOf(nonEmpty, nonEmpty.length * 2);
+            isObject = Arrays.copyOf(isObject, isObject.length * 2);
+        }
+        nonEmpty[depth] = false;
+        isObject[depth] = object;
+    }
+
+    private void pop(boolean object) {
+        if (depth == 0 || isObject[depth] != object) {
+            throw new IllegalStateException("no open " + (object ? "object" : "array") + " to close");
+        }
+        depth--;
+    }
+
+    // Writes a value without any separator bookkeeping; nested values are always well-formed
+    private void writeValue(Value value) throws IOException {
+        if (value instanceof Value.String_) {
+            writeString(((Value.String_) value).value);
+        } else if (value instanceof Value.Number_) {
+            writeNumber(((Value.Number_) value).value);
+        } else if (value instanceof Value.Object_) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<String, Value> e : ((Value.Object_) value).value.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(e.getKey());
+                out.append(':');
+                writeValue(e.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof Value.Array) {
+            out.append('[');
+            List<Value> elements = ((Value.Array) value).value;
+            for (int i = 0; i < elements.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                writeValue(elements.get(i));
+            }
+            out.append(']');
+        } else if (value instanceof Value.Boolean_) {
+            out.append(((Value.Boolean_) value).value ? "true" : "false");
+        } else {
+            out.append("null");
+        }
+    }
+
+    private void writeNumber(double d) throws IOException {
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            throw new IllegalArgumentException("JSON does not support non-finite numbers: " + d);
+        }
+        // Small integral values are common; format them without going through Double.toString
+        long l = (long) d;
+        if (l == d && l > -10000000L && l < 10000000L && (l != 0 || Double.doubleToRawLongBits(d) == 0L)) {
+            out.append(Long.toString(l)).append(".0");
+        } else {
+            out.append(Double.toString(d));
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        out.append('"');
+        int start = 0;
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                out.append(s, start, i);
+                writeEscape(c);
+                start = i + 1;
+            }
+        }
+        out.append(s, start, len);
+        out.append('"');
+    }
+
+    private void writeEscape(char c) throws IOException {
+        switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            case '\b':
+                out.append("\\b");
+                break;
+            case '\f':
+                out.append("\\f");
+                break;
+            default:
+                out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+        }
+    }
+}
@@ -38,44 +38,152 @@ import hydra.langs.kusto.kql.UnionCommand;
 import hydra.langs.kusto.kql.UnionKind;
 import hydra.tools.MapperBase;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
- * Simple serializer for Kusto Query Language (KQL) queries
+ * Simple serializer for Kusto Query Language (KQL) queries.
+ * Queries are written directly to a single Appendable, such as a StringBuilder or a Writer, so that serialization
+ * takes time linear in the size of the output, and produces no intermediate strings.
  */
 public class KqlWriter extends MapperBase {
+    private final Appendable out;
+    private final boolean pretty;
+    private int depth = 0;
+
+    private final Consumer<ColumnAlias> writeColumnAlias = this::write;
+    private final Consumer<ColumnAssignment> writeColumnAssignment = this::write;
+    private final Consumer<ColumnName> writeColumnName = this::write;
+    private final Consumer<Expression> writeExpression = this::write;
+    private final Consumer<KeyValuePair> writeKeyValuePair = this::write;
+    private final Consumer<LetBinding> writeLetBinding = this::write;
+    private final Consumer<Parameter> writeParameter = this::write;
+    private final Consumer<Projection> writeProjection = this::write;
+    private final Consumer<SortBy> writeSortBy = this::write;
+    private final Consumer<TableName> writeTableName = this::write;
+    private final Consumer<TabularExpression> writeTabularExpression = this::write;
+
+    private KqlWriter(Appendable out, boolean pretty) {
+        this.out = out;
+        this.pretty = pretty;
+    }
+
+    /**
+     * Serialize a query, with each stage of a pipeline on its own line.
+     */
+    public static String write(Query query) {
+        return write(query, false);
+    }
+
+    /**
+     * Serialize a query. If pretty is true, the stages of nested pipelines, such as the right-hand side of a join,
+     * are further indented according to their depth.
+     */
+    public static String write(Query query, boolean pretty) {
+        StringBuilder sb = new StringBuilder();
+        write(query, sb, pretty);
+        return sb.toString();
+    }
+
+    /**
+     * Serialize a query, appending it to the given builder.
+     */
+    public static void write(Query query, StringBuilder sb, boolean pretty) {
+        new KqlWriter(sb, pretty).write(query.value);
+    }
+
+    /**
+     * Serialize a query, appending it to the given Appendable, such as a Writer. The output is not buffered by the
+     * serializer; wrap the Appendable in a buffer if it is expensive to write to.
+     */
+    public static void write(Query query, Appendable out, boolean pretty) throws IOException {
+        try {
+            new KqlWriter(out, pretty).write(query.value);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private KqlWriter append(char c) {
+        try {
+            out.append(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private KqlWriter append(int i) {
+        return append(Integer.toString(i));
+    }
+
+    private KqlWriter append(String s) {
+        try {
+            out.append(s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private <T> void commaSep(List<T> parts, Consumer<T> write) {
+        sep(", ", parts, write);
+    }
+
+    private <T> void sep(String delimiter, List<T> parts, Consumer<T> write) {
+        boolean first = true;
+        for (T part : parts) {
+            if (!first) {
+                append(delimiter);
+            }
+            first = false;
+            write.accept(part);
+        }
+    }
 
-    private static <T> String commaSep(List<T> parts, Function<T, String> toString) {
-        return sep(", ", parts, toString);
+    // Like sep, but with a line break and the given number of tabs before each delimiter
+    private <T> void lines(int tabs, String delimiter, List<T> parts, Consumer<T> write) {
+        boolean first = true;
+        for (T part : parts) {
+            if (!first) {
+                newline(tabs);
+                append(delimiter);
+            }
+            first = false;
+            write.accept(part);
+        }
     }
 
-    private static <T> String sep(String delimiter, List<T> parts, Function<T, String> toString) {
-        return parts.stream().map(toString).collect(Collectors.joining(delimiter));
+    private void newline(int tabs) {
+        append('\n');
+        for (int i = pretty ? -depth : 0; i < tabs; i++) {
+            append('\t');
+        }
     }
 
-    private static String write(boolean b) {
-        return b ? "true" : "false";
+    private void write(boolean b) {
+        append(b ? "true" : "false");
     }
 
-    private static String write(double d) {
-        return Double.toString(d);
+    private void write(double d) {
+        append(Double.toString(d));
     }
 
-    private static String write(int i) {
-        return Integer.toString(i);
+    private void write(int i) {
+        append(Integer.toString(i));
     }
 
-    private static String write(long l) {
-        return Long.toString(l);
+    private void write(long l) {
+        append(Long.toString(l));
     }
 
-    private static String write(String s) {
-        return "\"" + s + "\""; // TODO: quoting
+    private void write(String s) {
+        append('"').append(s).append('"'); // TODO: quoting
     }
 
-    private static String write(BinaryOperator o) {
+    private static String keyword(BinaryOperator o) {
         return o.accept(new BinaryOperator.Visitor<String>() {
             @Override
             public String visit(BinaryOperator.CaseInsensitiveEqual instance) {
@@ -169,151 +277,219 @@ public class KqlWriter extends MapperBase {
         });
     }
 
-    private static String write(ColumnAlias a) {
-        return write(a.column) + " = " + write(a.alias);
+    private void write(ColumnAlias a) {
+        write(a.column);
+        append(" = ");
+        write(a.alias);
     }
 
-    private static String write(ColumnAssignment a) {
-        return write(a.column) + " = " + write(a.expression);
+    private void write(ColumnAssignment a) {
+        write(a.column);
+        append(" = ");
+        write(a.expression);
     }
 
-    private static String write(ColumnName n) {
-        return n.value;
+    private void write(ColumnName n) {
+        append(n.value);
     }
 
-    private static String write(Command c) {
-        return c.accept(new Command.Visitor<String>() {
-            @Override
-            public String visit(Command.Count instance) {
-                return "count";
-            }
-
-            @Override
-            public String visit(Command.Distinct instance) {
-                return "distinct " + commaSep(instance.value, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Command.Extend instance) {
-                return "extend " + commaSep(instance.value, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Command.Join instance) {
-                JoinCommand c = instance.value;
-                return "join kind="
-                        + write(c.kind)
-                        + " (" + write(c.expression) + ") on "
-                        + write(c.on);
-            }
-
-            @Override
-            public String visit(Command.Limit instance) {
-                return "limit " + instance.value;
-            }
-
-            @Override
-            public String visit(Command.Mvexpand instance) {
-                return "mvexpand " + write(instance.value);
-            }
-
-            @Override
-            public String visit(Command.OrderBy instance) {
-                return "order by " + commaSep(instance.value, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Command.Parse instance) {
-                ParseCommand c = instance.value;
-                return "parse " + c.column + " with " + sep("\n\t", c.pairs, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Command.Print instance) {
-                PrintCommand c = instance.value;
-                return "print " + (c.column.map(columnName -> write(columnName) + "=").orElse(""))
-                        + write(c.expression);
-            }
-
-            @Override
-            public String visit(Command.Project instance) {
-                return "project " + sep("\n\t, ", instance.value, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Command.ProjectAway instance) {
-                return "project-away " + sep("\n\t, ", instance.value, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Command.ProjectRename instance) {
-                return "project-rename " + sep("\n\t, ", instance.value, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Command.Render instance) {
-                return "render " + instance.value;
-            }
-
-            @Override
-            public String visit(Command.Search instance) {
-                SearchCommand c = instance.value;
-                return "search "
-                        + (c.datasets.size() > 0 ? "in (" + commaSep(c.datasets, KqlWriter::write) + ") " : "")
-                        + write(c.pattern);
-            }
-
-            @Override
-            public String visit(Command.SortBy instance) {
-                return "sort by " + commaSep(instance.value, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Command.Summarize instance) {
-                SummarizeCommand c = instance.value;
-                return "summarize " + sep("\n\t, ", c.columns, KqlWriter::write)
-                        + (c.by.size() > 0 ? " by " + sep(", ", c.by, KqlWriter::write) : "");
-            }
-
-            @Override
-            public String visit(Command.Take instance) {
-                return "take " + instance.value;
-            }
-
-            @Override
-            public String visit(Command.Top instance) {
-                TopCommand c = instance.value;
-                return "top " + c.count
-                        + (c.sort.size() > 0 ? " by " + sep(", ", c.sort, KqlWriter::write) : "");
-            }
-
-            @Override
-            public String visit(Command.Union instance) {
-                UnionCommand c = instance.value;
-                return "union "
-                        + (c.parameters.size() > 0 ? sep(", ", c.parameters, KqlWriter::write) + " " : "")
-                        + (c.kind.map(k -> "kind=" + write(k) + " ").orElse(""))
-                        + (c.withSource.map(c1 -> "withsource=" + write(c1) + " ").orElse(""))
-                        + (c.isFuzzy.map(f -> "isfuzzy=" + write(f) + " ").orElse(""))
-                        + sep(", ", c.tables, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Command.Where instance) {
-                return "where " + write(instance.value);
-            }
-        });
+    private void write(Command c) {
+        c.accept(commandWriter);
     }
 
-    private static String write(Datetime d) {
-        return d.value;
+    private final Command.Visitor<Void> commandWriter = new Command.Visitor<Void>() {
+        @Override
+        public Void visit(Command.Count instance) {
+            append("count");
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Distinct instance) {
+            append("distinct ");
+            commaSep(instance.value, writeColumnName);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Extend instance) {
+            append("extend ");
+            commaSep(instance.value, writeColumnAssignment);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Join instance) {
+            JoinCommand c = instance.value;
+            append("join kind=").append(keyword(c.kind)).append(" (");
+            depth++;
+            write(c.expression);
+            depth--;
+            append(") on ");
+            write(c.on);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Limit instance) {
+            append("limit ").append(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Mvexpand instance) {
+            append("mvexpand ");
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.OrderBy instance) {
+            append("order by ");
+            commaSep(instance.value, writeSortBy);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Parse instance) {
+            ParseCommand c = instance.value;
+            append("parse ");
+            write(c.column);
+            append(" with ");
+            lines(1, "", c.pairs, writeKeyValuePair);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Print instance) {
+            PrintCommand c = instance.value;
+            append("print ");
+            if (c.column.isPresent()) {
+                write(c.column.get());
+                append("=");
+            }
+            write(c.expression);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Project instance) {
+            append("project ");
+            lines(1, ", ", instance.value, writeProjection);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.ProjectAway instance) {
+            append("project-away ");
+            lines(1, ", ", instance.value, writeColumnName);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.ProjectRename instance) {
+            append("project-rename ");
+            lines(1, ", ", instance.value, writeColumnAlias);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Render instance) {
+            append("render ").append(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Search instance) {
+            SearchCommand c = instance.value;
+            append("search ");
+            if (c.datasets.size() > 0) {
+                append("in (");
+                commaSep(c.datasets, writeTableName);
+                append(") ");
+            }
+            write(c.pattern);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.SortBy instance) {
+            append("sort by ");
+            commaSep(instance.value, writeSortBy);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Summarize instance) {
+            SummarizeCommand c = instance.value;
+            append("summarize ");
+            lines(1, ", ", c.columns, writeColumnAssignment);
+            if (c.by.size() > 0) {
+                append(" by ");
+                sep(", ", c.by, writeColumnName);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Take instance) {
+            append("take ").append(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Top instance) {
+            TopCommand c = instance.value;
+            append("top ").append(c.count);
+            if (c.sort.size() > 0) {
+                append(" by ");
+                sep(", ", c.sort, writeSortBy);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Union instance) {
+            UnionCommand c = instance.value;
+            append("union ");
+            if (c.parameters.size() > 0) {
+                sep(", ", c.parameters, writeParameter);
+                append(" ");
+            }
+            if (c.kind.isPresent()) {
+                append("kind=").append(keyword(c.kind.get())).append(" ");
+            }
+            if (c.withSource.isPresent()) {
+                append("withsource=");
+                write(c.withSource.get());
+                append(" ");
+            }
+            if (c.isFuzzy.isPresent()) {
+                append("isfuzzy=");
+                write(c.isFuzzy.get());
+                append(" ");
+            }
+            sep(", ", c.tables, writeTableName);
+            return null;
+        }
+
+        @Override
+        public Void visit(Command.Where instance) {
+            append("where ");
+            write(instance.value);
+            return null;
+        }
+    };
+
+    private void write(Datetime d) {
+        append(d.value);
     }
 
-    private static String write(Duration d) {
-        return d.value + write(d.unit);
+    private void write(Duration d) {
+        append(d.value).append(keyword(d.unit));
     }
 
-    private static String write(DurationUnit u) {
+    private static String keyword(DurationUnit u) {
         return u.accept(new DurationUnit.Visitor<String>(){
             @Override
             public String visit(DurationUnit.Second instance) {
@@ -332,92 +508,121 @@ public class KqlWriter extends MapperBase {
         });
     }
 
-    private static String write(Expression e) {
-        return e.accept(new Expression.Visitor<String>(){
-            @Override
-            public String visit(Expression.And instance) {
-                return sep(" and ", instance.value, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Expression.Any instance) {
-                return "*";
-            }
-
-            @Override
-            public String visit(Expression.Between instance) {
-                BetweenExpression e = instance.value;
-                return write(e.expression) + " "
-                        + (e.not ? "!" : "")
-                        + "between("
-                        + write(e.lowerBound)
-                        + " .. "
-                        + write(e.upperBound)
-                        + ")";
-            }
-
-            @Override
-            public String visit(Expression.Binary instance) {
-                BinaryExpression e = instance.value;
-                return write(e.left) + " " + write(e.operator) + " " + write(e.right);
-            }
-
-            @Override
-            public String visit(Expression.Braces instance) {
-                return "{" + write(instance.value) + "}";
-            }
-
-            @Override
-            public String visit(Expression.Column instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(Expression.Dataset instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(Expression.Index instance) {
-                IndexExpression e = instance.value;
-                return write(e.expression) + "[" + write(e.index) + "]";
-            }
-
-            @Override
-            public String visit(Expression.List instance) {
-                return "(" + commaSep(instance.value, KqlWriter::write) + ")";
-            }
-
-            @Override
-            public String visit(Expression.Literal instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(Expression.Or instance) {
-                return sep(" or ", instance.value, KqlWriter::write);
-            }
-
-            @Override
-            public String visit(Expression.Parentheses instance) {
-                return "(" + write(instance.value) + ")";
-            }
-
-            @Override
-            public String visit(Expression.Property instance) {
-                PropertyExpression e = instance.value;
-                return write(e.expression) + "." + write(e.property);
-            }
-
-            @Override
-            public String visit(Expression.Unary instance) {
-                UnaryExpression e = instance.value;
-                return write(e.operator) + " " + write(e.expression);
-            }
-        });
+    private void write(Expression e) {
+        e.accept(expressionWriter);
     }
 
-    private static String write(JoinKind k) {
+    private final Expression.Visitor<Void> expressionWriter = new Expression.Visitor<Void>() {
+        @Override
+        public Void visit(Expression.And instance) {
+            sep(" and ", instance.value, writeExpression);
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Any instance) {
+            append("*");
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Between instance) {
+            BetweenExpression e = instance.value;
+            write(e.expression);
+            append(" ").append(e.not ? "!" : "").append("between(");
+            write(e.lowerBound);
+            append(" .. ");
+            write(e.upperBound);
+            append(")");
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Binary instance) {
+            BinaryExpression e = instance.value;
+            write(e.left);
+            append(" ").append(keyword(e.operator)).append(" ");
+            write(e.right);
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Braces instance) {
+            append("{");
+            write(instance.value);
+            append("}");
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Column instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Dataset instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Index instance) {
+            IndexExpression e = instance.value;
+            write(e.expression);
+            append("[");
+            write(e.index);
+            append("]");
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.List instance) {
+            append("(");
+            commaSep(instance.value, writeExpression);
+            append(")");
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Literal instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Or instance) {
+            sep(" or ", instance.value, writeExpression);
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Parentheses instance) {
+            append("(");
+            write(instance.value);
+            append(")");
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Property instance) {
+            PropertyExpression e = instance.value;
+            write(e.expression);
+            append(".");
+            write(e.property);
+            return null;
+        }
+
+        @Override
+        public Void visit(Expression.Unary instance) {
+            UnaryExpression e = instance.value;
+            append(keyword(e.operator)).append(" ");
+            write(e.expression);
+            return null;
+        }
+    };
+
+    private static String keyword(JoinKind k) {
         return k.accept(new JoinKind.Visitor<String>() {
             @Override
             public String visit(JoinKind.Leftouter instance) {
@@ -466,58 +671,73 @@ public class KqlWriter extends MapperBase {
         });
     }
 
-    private static String write(KeyValuePair p) {
-        return p.key + " " + write(p.value);
+    private void write(KeyValuePair p) {
+        append(p.key).append(" ");
+        write(p.value);
     }
 
-    private static String write(LetBinding b) {
-        return write(b.name) + " = " + write(b.expression) + ";";
+    private void write(LetBinding b) {
+        write(b.name);
+        append(" = ");
+        write(b.expression);
+        append(";");
     }
 
-    private static String write(LetExpression l) {
-        return sep("\n", l.bindings, KqlWriter::write) + "\n" + write(l.expression);
+    private void write(LetExpression l) {
+        lines(0, "", l.bindings, writeLetBinding);
+        newline(0);
+        write(l.expression);
     }
 
-    private static String write(Literal l) {
-        return l.accept(new Literal.Visitor<String>(){
-            @Override
-            public String visit(Literal.Duration instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(Literal.Datetime instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(Literal.String_ instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(Literal.Int instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(Literal.Long_ instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(Literal.Double_ instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(Literal.Boolean_ instance) {
-                return write(instance.value);
-            }
-        });
+    private void write(Literal l) {
+        l.accept(literalWriter);
     }
 
-    private static String write(Order o) {
+    private final Literal.Visitor<Void> literalWriter = new Literal.Visitor<Void>() {
+        @Override
+        public Void visit(Literal.Duration instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Literal.Datetime instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Literal.String_ instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Literal.Int instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Literal.Long_ instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Literal.Double_ instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(Literal.Boolean_ instance) {
+            write(instance.value);
+            return null;
+        }
+    };
+
+    private static String keyword(Order o) {
         return o.accept(new Order.Visitor<String>() {
             @Override
             public String visit(Order.Ascending instance) {
@@ -531,55 +751,65 @@ public class KqlWriter extends MapperBase {
         });
     }
 
-    private static String write(Parameter p) {
-        return p.key + "=" + write(p.value);
+    private void write(Parameter p) {
+        append(p.key).append("=");
+        write(p.value);
     }
 
-    private static String write(PipelineExpression p) {
-        return String.join("\n\t| ", map(p.value, KqlWriter::write));
+    private void write(PipelineExpression p) {
+        lines(1, "| ", p.value, writeTabularExpression);
     }
 
-    private static String write(Projection p) {
-        return write(p.expression) + (p.alias.map(columnName -> " = " + write(columnName)).orElse(""));
+    private void write(Projection p) {
+        write(p.expression);
+        if (p.alias.isPresent()) {
+            append(" = ");
+            write(p.alias.get());
+        }
     }
 
-    public static String write(Query query) {
-        return write(query.value);
-    }
-
-    private static String write(SortBy s) {
-        return write(s.column) + (s.order.map(order -> " by " + write(order)).orElse(""));
+    private void write(SortBy s) {
+        write(s.column);
+        if (s.order.isPresent()) {
+            append(" by ").append(keyword(s.order.get()));
+        }
     }
 
-    private static String write(TableName n) {
-        return n.value;
+    private void write(TableName n) {
+        append(n.value);
     }
 
-    private static String write(TabularExpression e) {
-        return e.accept(new TabularExpression.Visitor<String>() {
-            @Override
-            public String visit(TabularExpression.Command instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(TabularExpression.Pipeline instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(TabularExpression.Let instance) {
-                return write(instance.value);
-            }
-
-            @Override
-            public String visit(TabularExpression.Table instance) {
-                return write(instance.value);
-            }
-        });
+    private void write(TabularExpression e) {
+        e.accept(tabularWriter);
     }
 
-    private static String write(UnaryOperator o) {
+    private final TabularExpression.Visitor<Void> tabularWriter = new TabularExpression.Visitor<Void>() {
+        @Override
+        public Void visit(TabularExpression.Command instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(TabularExpression.Pipeline instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(TabularExpression.Let instance) {
+            write(instance.value);
+            return null;
+        }
+
+        @Override
+        public Void visit(TabularExpression.Table instance) {
+            write(instance.value);
+            return null;
+        }
+    };
+
+    private static String keyword(UnaryOperator o) {
         return o.accept(new UnaryOperator.Visitor<String>(){
             @Override
             public String visit(UnaryOperator.Not instance) {
@@ -588,7 +818,7 @@ public class KqlWriter extends MapperBase {
         });
     }
 
-    private static String write(UnionKind k) {
+    private static String keyword(UnionKind k) {
         return k.accept(new UnionKind.Visitor<String>() {
             @Override
             public String visit(UnionKind.Inner instance) {
@@ -0,0 +1,289 @@
+package hydra.langs.rdf;
+
+import hydra.langs.rdf.syntax.BlankNode;
+import hydra.langs.rdf.syntax.Iri;
+import hydra.langs.rdf.syntax.LanguageTag;
+import hydra.langs.rdf.syntax.Literal;
+import hydra.langs.rdf.syntax.Node;
+import hydra.langs.rdf.syntax.Resource;
+import hydra.langs.rdf.syntax.Triple;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A streaming N-Triples reader which parses one line at a time into Hydra RDF syntax, so that arbitrarily large
+ * documents can be processed in constant memory. Blank lines and comments are skipped.
+ * Iteration wraps parse and I/O errors in UncheckedIOException; use read() to receive them as IOException.
+ */
+public class NtriplesReader implements Iterator<Triple>, Closeable {
+  private static final Iri XSD_STRING = new Iri(NtriplesWriter.XSD_STRING);
+  private static final Iri RDF_LANG_STRING = new Iri(NtriplesWriter.RDF_LANG_STRING);
+
+  private final BufferedReader reader;
+  private final StringBuilder scratch = new StringBuilder();
+  private long lineNumber = 0;
+  private String line;
+  private int pos;
+  private Triple lookahead;
+
+  /**
+   * Construct a reader over a character stream.
+   */
+  public NtriplesReader(Reader reader) {
+    this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+  }
+
+  /**
+   * Construct a reader over a UTF-8 encoded byte stream.
+   */
+  public NtriplesReader(InputStream input) {
+    this(new InputStreamReader(input, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Read the next triple, or return null at the end of the input.
+   */
+  public Triple read() throws IOException {
+    if (lookahead != null) {
+      Triple t = lookahead;
+      lookahead = null;
+      return t;
+    }
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      pos = 0;
+      skipWhitespace();
+      if (pos < line.length() && line.charAt(pos) != '#') {
+        return readTriple();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The remaining triples as a lazily-evaluated sequential stream.
+   */
+  public Stream<Triple> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+        false);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (lookahead == null) {
+      try {
+        lookahead = read();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return lookahead != null;
+  }
+
+  @Override
+  public Triple next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Triple t = lookahead;
+    lookahead = null;
+    return t;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private Triple readTriple() throws IOException {
+    Resource subject = peek() == '<' ? new Resource.Iri(readIri()) : new Resource.Bnode(readBlankNode());
+    skipWhitespace();
+    Iri predicate = readIri();
+    skipWhitespace();
+    Node object;
+    int c = peek();
+    if (c == '<') {
+      object = new Node.Iri(readIri());
+    } else if (c == '"') {
+      object = new Node.Literal(readLiteral());
+    } else {
+      object = new Node.Bnode(readBlankNode());
+    }
+    skipWhitespace();
+    expect('.');
+    skipWhitespace();
+    if (pos < line.length() && line.charAt(pos) != '#') {
+      throw error("unexpected content after triple");
+    }
+    return new Triple(subject, predicate, object);
+  }
+
+  private Iri readIri() throws IOException {
+    expect('<');
+    scratch.setLength(0);
+    while (true) {
+      int c = nextChar();
+      if (c == '>') {
+        return new Iri(scratch.toString());
+      } else if (c == '\\') {
+        int e = nextChar();
+        if (e != 'u' && e != 'U') {
+          throw error("invalid escape in IRI");
+        }
+        scratch.appendCodePoint(readHex(e == 'u' ? 4 : 8));
+      } else if (c < 0) {
+        throw error("unterminated IRI");
+      } else if (c <= 0x20 || c == '<' || c == '"') {
+        throw error("invalid character in IRI");
+      } else {
+        scratch.append((char) c);
+      }
+    }
+  }
+
+  private BlankNode readBlankNode() throws IOException {
+    expect('_');
+    expect(':');
+    int start = pos;
+    while (pos < line.length()) {
+      char c = line.charAt(pos);
+      if (c == ' ' || c == '\t' || c == '<' || c == '"') {
+        break;
+      }
+      pos++;
+    }
+    // A label may contain, but not end with, a period; any trailing period terminates the statement
+    while (pos > start && line.charAt(pos - 1) == '.') {
+      pos--;
+    }
+    if (pos == start) {
+      throw error("empty blank node label");
+    }
+    return new BlankNode(line.substring(start, pos));
+  }
+
+  private Literal readLiteral() throws IOException {
+    expect('"');
+    scratch.setLength(0);
+    while (true) {
+      int c = nextChar();
+      if (c == '"') {
+        break;
+      } else if (c == '\\') {
+        readEscape();
+      } else if (c < 0) {
+        throw error("unterminated literal");
+      } else {
+        scratch.append((char) c);
+      }
+    }
+    String lexicalForm = scratch.toString();
+
+    int c = peek();
+    if (c == '@') {
+      pos++;
+      int start = pos;
+      while (pos < line.length() && (Character.isLetterOrDigit(line.charAt(pos)) || line.charAt(pos) == '-')) {
+        pos++;
+      }
+      if (pos == start) {
+        throw error("empty language tag");
+      }
+      return new Literal(lexicalForm, RDF_LANG_STRING, Optional.of(new LanguageTag(line.substring(start, pos))));
+    } else if (c == '^') {
+      pos++;
+      expect('^');
+      return new Literal(lexicalForm, readIri(), Optional.empty());
+    } else {
+      return new Literal(lexicalForm, XSD_STRING, Optional.empty());
+    }
+  }
+
+  private void readEscape() throws IOException {
+    int e = nextChar();
+    switch (e) {
+      case 't':
+        scratch.append('\t');
+        break;
+      case 'b':
+        scratch.append('\b');
+        break;
+      case 'n':
+        scratch.append('\n');
+        break;
+      case 'r':
+        scratch.append('\r');
+        break;
+      case 'f':
+        scratch.append('\f');
+        break;
+      case '"':
+      case '\'':
+      case '\\':
+        scratch.append((char) e);
+        break;
+      case 'u':
+        scratch.appendCodePoint(readHex(4));
+        break;
+      case 'U':
+        scratch.appendCodePoint(readHex(8));
+        break;
+      default:
+        throw error("invalid escape in literal");
+    }
+  }
+
+  private int readHex(int digits) throws IOException {
+    int code = 0;
+    for (int i = 0; i < digits; i++) {
+      int d = Character.digit(nextChar(), 16);
+      if (d < 0) {
+        throw error("invalid unicode escape");
+      }
+      code = (code << 4) | d;
+    }
+    if (!Character.isValidCodePoint(code)) {
+      throw error("invalid code point in unicode escape");
+    }
+    return code;
+  }
+
+  private void skipWhitespace() {
+    while (pos < line.length() && (line.charAt(pos) == ' ' || line.charAt(pos) == '\t')) {
+      pos++;
+    }
+  }
+
+  private void expect(char expected) throws IOException {
+    if (peek() != expected) {
+      throw error("expected '" + expected + "'");
+    }
+    pos++;
+  }
+
+  private int peek() {
+    return pos < line.length() ? line.charAt(pos) : -1;
+  }
+
+  private int nextChar() {
+    return pos < line.length() ? line.charAt(pos++) : -1;
+  }
+
+  private IOException error(String message) {
+    return new IOException("N-Triples parse error at line " + lineNumber + ", column " + (pos + 1) + ": "
+        + message);
+  }
+}
@@ -0,0 +1,181 @@
+package hydra.langs.rdf;
+
+import hydra.langs.rdf.syntax.Iri;
+import hydra.langs.rdf.syntax.Literal;
+import hydra.langs.rdf.syntax.Node;
+import hydra.langs.rdf.syntax.Resource;
+import hydra.langs.rdf.syntax.Triple;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * A streaming N-Triples writer. Triples are escaped directly into an internal buffer, one line per triple, so that
+ * arbitrarily large graphs can be written without holding the output (or any intermediate RDF4j objects) in memory.
+ */
+public class NtriplesWriter implements Closeable, Flushable {
+  static final String XSD_STRING = "http://www.w3.org/2001/XMLSchema#string";
+  static final String RDF_LANG_STRING = "http://www.w3.org/1999/02/22-rdf-syntax-ns#langString";
+
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Writer out;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private int pos = 0;
+
+  /**
+   * Construct a writer over a character stream. Output is buffered internally.
+   */
+  public NtriplesWriter(Writer out) {
+    this.out = out;
+  }
+
+  /**
+   * Construct a writer which encodes its output as UTF-8.
+   */
+  public NtriplesWriter(OutputStream out) {
+    this(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Write a single triple, followed by a newline.
+   */
+  public void write(Triple triple) throws IOException {
+    writeResource(triple.subject);
+    append(' ');
+    writeIri(triple.predicate);
+    append(' ');
+    writeNode(triple.object);
+    append(' ');
+    append('.');
+    append('\n');
+  }
+
+  /**
+   * Write each of a sequence of triples as it is produced.
+   */
+  public void writeAll(Iterator<Triple> triples) throws IOException {
+    while (triples.hasNext()) {
+      write(triples.next());
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.write(buffer, 0, pos);
+    pos = 0;
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    out.close();
+  }
+
+  private void writeResource(Resource r) throws IOException {
+    if (r instanceof Resource.Iri) {
+      writeIri(((Resource.Iri) r).value);
+    } else {
+      writeBlankNode(((Resource.Bnode) r).value.value);
+    }
+  }
+
+  private void writeNode(Node n) throws IOException {
+    if (n instanceof Node.Iri) {
+      writeIri(((Node.Iri) n).value);
+    } else if (n instanceof Node.Bnode) {
+      writeBlankNode(((Node.Bnode) n).value.value);
+    } else {
+      writeLiteral(((Node.Literal) n).value);
+    }
+  }
+
+  private void writeIri(Iri iri) throws IOException {
+    append('<');
+    String s = iri.value;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c <= 0x20 || c == '<' || c == '>' || c == '"' || c == '{' || c == '}' || c == '|' || c == '^'
+          || c == '`' || c == '\\') {
+        writeUnicodeEscape(c);
+      } else {
+        append(c);
+      }
+    }
+    append('>');
+  }
+
+  private void writeBlankNode(String label) throws IOException {
+    append('_');
+    append(':');
+    append(label);
+  }
+
+  private void writeLiteral(Literal lit) throws IOException {
+    append('"');
+    String s = lit.lexicalForm;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"':
+          append('\\');
+          append('"');
+          break;
+        case '\\':
+          append('\\');
+          append('\\');
+          break;
+        case '\n':
+          append('\\');
+          append('n');
+          break;
+        case '\r':
+          append('\\');
+          append('r');
+          break;
+        default:
+          append(c);
+      }
+    }
+    append('"');
+
+    if (lit.languageTag.isPresent()) {
+      append('@');
+      append(lit.languageTag.get().value);
+    } else if (!lit.datatypeIri.value.equals(XSD_STRING)) {
+      append('^');
+      append('^');
+      writeIri(lit.datatypeIri);
+    }
+  }
+
+  private void writeUnicodeEscape(char c) throws IOException {
+    append('\\');
+    append('u');
+    append(HEX[(c >> 12) & 0xf]);
+    append(HEX[(c >> 8) & 0xf]);
+    append(HEX[(c >> 4) & 0xf]);
+    append(HEX[c & 0xf]);
+  }
+
+  private void append(String s) throws IOException {
+    for (int i = 0; i < s.length(); i++) {
+      append(s.charAt(i));
+    }
+  }
+
+  private void append(char c) throws IOException {
+    if (pos == BUFFER_SIZE) {
+      out.write(buffer, 0, pos);
+      pos = 0;
+    }
+    buffer[pos++] = c;
+  }
+}
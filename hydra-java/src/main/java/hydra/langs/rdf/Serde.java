@@ -5,9 +5,15 @@ import hydra.langs.rdf.syntax.Graph;
 import hydra.langs.rdf.syntax.Node;
 import hydra.langs.rdf.syntax.Triple;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
@@ -47,11 +53,38 @@ public interface Serde {
   static String toNtriples(Collection<Triple> triples) {
     ByteArrayOutputStream bos = new ByteArrayOutputStream();
     List<Statement> model = triples.stream().map(Serde::tripleToStatement).collect(Collectors.toList());
-    Rio.write(model, bos, RDFFormat.TURTLE);
+    Rio.write(model, bos, RDFFormat.NTRIPLES);
 
     return bos.toString();
   }
 
+  /**
+   * Serialize a stream of RDF triples as N-Triples, writing each triple as it arrives.
+   * The writer is flushed, but not closed.
+   */
+  static void writeNtriples(Iterator<Triple> triples, Writer out) throws IOException {
+    NtriplesWriter writer = new NtriplesWriter(out);
+    writer.writeAll(triples);
+    writer.flush();
+  }
+
+  /**
+   * Serialize a stream of RDF triples as UTF-8 encoded N-Triples, writing each triple as it arrives.
+   * The output stream is flushed, but not closed.
+   */
+  static void writeNtriples(Stream<Triple> triples, OutputStream out) throws IOException {
+    NtriplesWriter writer = new NtriplesWriter(out);
+    writer.writeAll(triples.iterator());
+    writer.flush();
+  }
+
+  /**
+   * Lazily parse N-Triples from a character stream. Parse errors surface as UncheckedIOException.
+   */
+  static Stream<Triple> readNtriples(Reader in) {
+    return new NtriplesReader(in).stream();
+  }
+
   /**
    * Convert a blank node to its RDF4j equivalent.
    */
@@ -0,0 +1,461 @@
+package hydra.langs.tinkerpop;
+
+import hydra.langs.tinkerpop.propertyGraph.Edge;
+import hydra.langs.tinkerpop.propertyGraph.EdgeLabel;
+import hydra.langs.tinkerpop.propertyGraph.Graph;
+import hydra.langs.tinkerpop.propertyGraph.PropertyKey;
+import hydra.langs.tinkerpop.propertyGraph.Vertex;
+import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+
+/**
+ * An immutable, columnar representation of a property graph, as an alternative to the map-of-maps Graph.
+ * Vertices and edges are numbered densely, with the elements of each label occupying a contiguous range, so that
+ * label scans are range scans. Property keys are dictionary-encoded, and each label stores one value column per
+ * property key which occurs in it. Edges are indexed by out- and in-vertex in compressed sparse row (CSR) form.
+ */
+public class ColumnarGraph<V> {
+    private final List<PropertyKey> keys = new ArrayList<>();
+    private final Map<PropertyKey, Integer> keyNumbers = new HashMap<>();
+
+    private final Object[] vertexIds;
+    private final List<LabelGroup<VertexLabel>> vertexGroups;
+    private final Map<VertexLabel, LabelGroup<VertexLabel>> vertexGroupsByLabel;
+    private final IdIndex vertexIndex;
+
+    private final Object[] edgeIds;
+    private final int[] edgeOut;
+    private final int[] edgeIn;
+    private final List<LabelGroup<EdgeLabel>> edgeGroups;
+    private final Map<EdgeLabel, LabelGroup<EdgeLabel>> edgeGroupsByLabel;
+    private final IdIndex edgeIndex;
+
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    private ColumnarGraph(Collection<Vertex<V>> vertices, Collection<Edge<V>> edges) {
+        Map<VertexLabel, List<Vertex<V>>> verticesByLabel = groupBy(vertices, v -> v.label);
+        vertexIds = new Object[vertices.size()];
+        vertexIndex = new IdIndex(vertices.size());
+        vertexGroups = new ArrayList<>();
+        vertexGroupsByLabel = new HashMap<>();
+        int i = 0;
+        for (Map.Entry<VertexLabel, List<Vertex<V>>> e : verticesByLabel.entrySet()) {
+            List<Map<PropertyKey, V>> props = new ArrayList<>();
+            for (Vertex<V> v : e.getValue()) {
+                vertexIndex.put(v.id, i);
+                vertexIds[i++] = v.id;
+                props.add(v.properties);
+            }
+            LabelGroup<VertexLabel> group = new LabelGroup<>(e.getKey(), i - e.getValue().size(), props,
+                    keyNumbers, keys);
+            vertexGroups.add(group);
+            vertexGroupsByLabel.put(group.label, group);
+        }
+
+        Map<EdgeLabel, List<Edge<V>>> edgesByLabel = groupBy(edges, ed -> ed.label);
+        edgeIds = new Object[edges.size()];
+        edgeOut = new int[edges.size()];
+        edgeIn = new int[edges.size()];
+        edgeIndex = new IdIndex(edges.size());
+        edgeGroups = new ArrayList<>();
+        edgeGroupsByLabel = new HashMap<>();
+        i = 0;
+        for (Map.Entry<EdgeLabel, List<Edge<V>>> e : edgesByLabel.entrySet()) {
+            List<Map<PropertyKey, V>> props = new ArrayList<>();
+            for (Edge<V> ed : e.getValue()) {
+                edgeIndex.put(ed.id, i);
+                edgeIds[i] = ed.id;
+                edgeOut[i] = requireVertex(ed, ed.out);
+                edgeIn[i] = requireVertex(ed, ed.in);
+                props.add(ed.properties);
+                i++;
+            }
+            LabelGroup<EdgeLabel> group = new LabelGroup<>(e.getKey(), i - e.getValue().size(), props,
+                    keyNumbers, keys);
+            edgeGroups.add(group);
+            edgeGroupsByLabel.put(group.label, group);
+        }
+
+        outOffsets = new int[vertexIds.length + 1];
+        outEdges = new int[edgeIds.length];
+        buildAdjacency(edgeOut, outOffsets, outEdges);
+        inOffsets = new int[vertexIds.length + 1];
+        inEdges = new int[edgeIds.length];
+        buildAdjacency(edgeIn, inOffsets, inEdges);
+    }
+
+    /**
+     * Construct a columnar graph from a map-of-maps graph. Every edge must refer to vertices in the graph.
+     */
+    public static <V> ColumnarGraph<V> from(Graph<V> graph) {
+        return new ColumnarGraph<>(graph.vertices.values(), graph.edges.values());
+    }
+
+    /**
+     * Convert back to a map-of-maps graph.
+     */
+    public Graph<V> toGraph() {
+        Map<V, Vertex<V>> vertices = new HashMap<>();
+        for (int v = 0; v < vertexIds.length; v++) {
+            vertices.put(vertexId(v), vertex(v));
+        }
+        Map<V, Edge<V>> edges = new HashMap<>();
+        for (int e = 0; e < edgeIds.length; e++) {
+            edges.put(edgeId(e), edge(e));
+        }
+        return new Graph<>(vertices, edges);
+    }
+
+    public int vertexCount() {
+        return vertexIds.length;
+    }
+
+    public int edgeCount() {
+        return edgeIds.length;
+    }
+
+    /**
+     * The dense index of the vertex with the given id, or -1 if there is no such vertex.
+     */
+    public int vertexIndex(V id) {
+        return vertexIndex.get(id);
+    }
+
+    /**
+     * The dense index of the edge with the given id, or -1 if there is no such edge.
+     */
+    public int edgeIndex(V id) {
+        return edgeIndex.get(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V vertexId(int v) {
+        return (V) vertexIds[v];
+    }
+
+    public VertexLabel vertexLabel(int v) {
+        return groupOf(vertexGroups, v).label;
+    }
+
+    /**
+     * The value of a vertex property, or null if the vertex has no such property.
+     */
+    public V vertexProperty(int v, PropertyKey key) {
+        return groupOf(vertexGroups, v).get(v, keyNumber(key));
+    }
+
+    /**
+     * The indices of all vertices with the given label, as a contiguous range.
+     */
+    public IntStream vertices(VertexLabel label) {
+        LabelGroup<VertexLabel> group = vertexGroupsByLabel.get(label);
+        return group == null ? IntStream.empty() : IntStream.range(group.start, group.end);
+    }
+
+    /**
+     * The values of a property for all vertices with the given label, aligned with vertices(label), with nulls for
+     * absent values. The list is a read-only view of the underlying column.
+     */
+    public List<V> vertexColumn(VertexLabel label, PropertyKey key) {
+        LabelGroup<VertexLabel> group = vertexGroupsByLabel.get(label);
+        return group == null ? Collections.emptyList() : group.column(keyNumber(key));
+    }
+
+    /**
+     * Materialize a vertex.
+     */
+    public Vertex<V> vertex(int v) {
+        return new Vertex<>(vertexLabel(v), vertexId(v), groupOf(vertexGroups, v).properties(v, keys));
+    }
+
+    @SuppressWarnings("unchecked")
+    public V edgeId(int e) {
+        return (V) edgeIds[e];
+    }
+
+    public EdgeLabel edgeLabel(int e) {
+        return groupOf(edgeGroups, e).label;
+    }
+
+    /**
+     * The index of the out-vertex of an edge.
+     */
+    public int outVertex(int e) {
+        return edgeOut[e];
+    }
+
+    /**
+     * The index of the in-vertex of an edge.
+     */
+    public int inVertex(int e) {
+        return edgeIn[e];
+    }
+
+    /**
+     * The value of an edge property, or null if the edge has no such property.
+     */
+    public V edgeProperty(int e, PropertyKey key) {
+        return groupOf(edgeGroups, e).get(e, keyNumber(key));
+    }
+
+    /**
+     * The indices of all edges with the given label, as a contiguous range.
+     */
+    public IntStream edges(EdgeLabel label) {
+        LabelGroup<EdgeLabel> group = edgeGroupsByLabel.get(label);
+        return group == null ? IntStream.empty() : IntStream.range(group.start, group.end);
+    }
+
+    /**
+     * The values of a property for all edges with the given label, aligned with edges(label), with nulls for absent
+     * values. The list is a read-only view of the underlying column.
+     */
+    public List<V> edgeColumn(EdgeLabel label, PropertyKey key) {
+        LabelGroup<EdgeLabel> group = edgeGroupsByLabel.get(label);
+        return group == null ? Collections.emptyList() : group.column(keyNumber(key));
+    }
+
+    /**
+     * Materialize an edge.
+     */
+    public Edge<V> edge(int e) {
+        return new Edge<>(edgeLabel(e), edgeId(e), vertexId(edgeOut[e]), vertexId(edgeIn[e]),
+                groupOf(edgeGroups, e).properties(e, keys));
+    }
+
+    public int outDegree(int v) {
+        return outOffsets[v + 1] - outOffsets[v];
+    }
+
+    public int inDegree(int v) {
+        return inOffsets[v + 1] - inOffsets[v];
+    }
+
+    /**
+     * The i-th outgoing edge of a vertex, for allocation-free iteration alongside outDegree.
+     */
+    public int outEdge(int v, int i) {
+        return outEdges[outOffsets[v] + i];
+    }
+
+    /**
+     * The i-th incoming edge of a vertex, for allocation-free iteration alongside inDegree.
+     */
+    public int inEdge(int v, int i) {
+        return inEdges[inOffsets[v] + i];
+    }
+
+    /**
+     * The indices of the outgoing edges of a vertex.
+     */
+    public IntStream outEdges(int v) {
+        return Arrays.stream(outEdges, outOffsets[v], outOffsets[v + 1]);
+    }
+
+    /**
+     * The indices of the incoming edges of a vertex.
+     */
+    public IntStream inEdges(int v) {
+        return Arrays.stream(inEdges, inOffsets[v], inOffsets[v + 1]);
+    }
+
+    /**
+     * The indices of the in-vertices of the outgoing edges of a vertex.
+     */
+    public IntStream outNeighbors(int v) {
+        return outEdges(v).map(e -> edgeIn[e]);
+    }
+
+    /**
+     * The indices of the out-vertices of the incoming edges of a vertex.
+     */
+    public IntStream inNeighbors(int v) {
+        return inEdges(v).map(e -> edgeOut[e]);
+    }
+
+    private int keyNumber(PropertyKey key) {
+        Integer k = keyNumbers.get(key);
+        return k == null ? -1 : k;
+    }
+
+    private int requireVertex(Edge<V> edge, V id) {
+        int v = vertexIndex.get(id);
+        if (v < 0) {
+            throw new IllegalArgumentException("edge " + edge.id + " refers to a missing vertex: " + id);
+        }
+        return v;
+    }
+
+    private static <L> LabelGroup<L> groupOf(List<LabelGroup<L>> groups, int index) {
+        int lo = 0;
+        int hi = groups.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (groups.get(mid).start <= index) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return groups.get(lo);
+    }
+
+    private static <E, L> Map<L, List<E>> groupBy(Collection<E> elements, Function<E, L> labelOf) {
+        Map<L, List<E>> groups = new LinkedHashMap<>();
+        for (E el : elements) {
+            groups.computeIfAbsent(labelOf.apply(el), l -> new ArrayList<>()).add(el);
+        }
+        return groups;
+    }
+
+    // Counting sort of edges by endpoint
+    private static void buildAdjacency(int[] endpoints, int[] offsets, int[] adjacency) {
+        for (int endpoint : endpoints) {
+            offsets[endpoint + 1]++;
+        }
+        for (int v = 0; v < offsets.length - 1; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int e = 0; e < endpoints.length; e++) {
+            adjacency[next[endpoints[e]]++] = e;
+        }
+    }
+
+    /**
+     * The elements of a single label: a contiguous range of element indices, and one value column per property key
+     * which occurs in the label, with nulls for absent values.
+     */
+    private static class LabelGroup<L> {
+        private final L label;
+        private final int start;
+        private final int end;
+        private final int[] columnOfKey;
+        private final int[] keyOfColumn;
+        private final Object[][] columns;
+
+        <V> LabelGroup(L label, int start, List<Map<PropertyKey, V>> props, Map<PropertyKey, Integer> keyNumbers,
+                       List<PropertyKey> keys) {
+            this.label = label;
+            this.start = start;
+            this.end = start + props.size();
+
+            List<Integer> groupKeys = new ArrayList<>();
+            BitSet seen = new BitSet();
+            for (Map<PropertyKey, V> p : props) {
+                for (PropertyKey key : p.keySet()) {
+                    Integer k = keyNumbers.get(key);
+                    if (k == null) {
+                        k = keys.size();
+                        keys.add(key);
+                        keyNumbers.put(key, k);
+                    }
+                    if (!seen.get(k)) {
+                        seen.set(k);
+                        groupKeys.add(k);
+                    }
+                }
+            }
+
+            keyOfColumn = new int[groupKeys.size()];
+            int maxKey = -1;
+            for (int c = 0; c < keyOfColumn.length; c++) {
+                keyOfColumn[c] = groupKeys.get(c);
+                maxKey = Math.max(maxKey, keyOfColumn[c]);
+            }
+            columnOfKey = new int[maxKey + 1];
+            Arrays.fill(columnOfKey, -1);
+            for (int c = 0; c < keyOfColumn.length; c++) {
+                columnOfKey[keyOfColumn[c]] = c;
+            }
+
+            columns = new Object[keyOfColumn.length][props.size()];
+            for (int i = 0; i < props.size(); i++) {
+                for (Map.Entry<PropertyKey, V> e : props.get(i).entrySet()) {
+                    columns[columnOfKey[keyNumbers.get(e.getKey())]][i] = e.getValue();
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        <V> V get(int index, int key) {
+            if (key < 0 || key >= columnOfKey.length || columnOfKey[key] < 0) {
+                return null;
+            }
+            return (V) columns[columnOfKey[key]][index - start];
+        }
+
+        @SuppressWarnings("unchecked")
+        <V> List<V> column(int key) {
+            if (key < 0 || key >= columnOfKey.length || columnOfKey[key] < 0) {
+                return Collections.nCopies(end - start, null);
+            }
+            return Collections.unmodifiableList(Arrays.asList((V[]) columns[columnOfKey[key]]));
+        }
+
+        @SuppressWarnings("unchecked")
+        <V> Map<PropertyKey, V> properties(int index, List<PropertyKey> keys) {
+            Map<PropertyKey, V> props = new HashMap<>();
+            for (int c = 0; c < columns.length; c++) {
+                Object value = columns[c][index - start];
+                if (value != null) {
+                    props.put(keys.get(keyOfColumn[c]), (V) value);
+                }
+            }
+            return props;
+        }
+    }
+
+    /**
+     * An open-addressing index from element ids to dense element indices.
+     */
+    private static class IdIndex {
+        private final Object[] ids;
+        private final int[] indices;
+
+        IdIndex(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) * 2;
+            ids = new Object[size];
+            indices = new int[size];
+        }
+
+        void put(Object id, int index) {
+            int slot = find(id);
+            if (ids[slot] != null) {
+                throw new IllegalArgumentException("duplicate element id: " + id);
+            }
+            ids[slot] = id;
+            indices[slot] = index;
+        }
+
+        int get(Object id) {
+            int slot = find(id);
+            return ids[slot] == null ? -1 : indices[slot];
+        }
+
+        private int find(Object id) {
+            int mask = ids.length - 1;
+            int h = id.hashCode();
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (ids[slot] != null && !ids[slot].equals(id)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
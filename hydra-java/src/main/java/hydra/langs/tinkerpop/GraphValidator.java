@@ -0,0 +1,396 @@
+package hydra.langs.tinkerpop;
+
+import hydra.langs.tinkerpop.propertyGraph.Edge;
+import hydra.langs.tinkerpop.propertyGraph.EdgeLabel;
+import hydra.langs.tinkerpop.propertyGraph.EdgeType;
+import hydra.langs.tinkerpop.propertyGraph.Graph;
+import hydra.langs.tinkerpop.propertyGraph.GraphSchema;
+import hydra.langs.tinkerpop.propertyGraph.PropertyKey;
+import hydra.langs.tinkerpop.propertyGraph.PropertyType;
+import hydra.langs.tinkerpop.propertyGraph.Vertex;
+import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
+import hydra.langs.tinkerpop.propertyGraph.VertexType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+
+/**
+ * A property graph validator which compiles each vertex and edge type of a schema once, up front, and then checks
+ * vertices and edges in parallel using fork/join.
+ * Graphs which are too large to hold in memory may be validated as streams of vertices and edges.
+ * Error messages are the same as those of hydra.langs.tinkerpop.validate.Validate, which remains the reference
+ * implementation.
+ */
+public class GraphValidator<T, V> {
+    /**
+     * Whether to stop at the first error, or to collect all of them.
+     */
+    public enum Mode {
+        FAIL_FAST,
+        COLLECT_ALL
+    }
+
+    // Below this many elements, a task checks its elements sequentially rather than splitting further
+    private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+    private final Function<V, String> showValue;
+    private final Map<VertexLabel, CompiledType> vertexTypes = new HashMap<>();
+    private final Map<EdgeLabel, CompiledEdgeType> edgeTypes = new HashMap<>();
+
+    public GraphValidator(GraphSchema<T> schema,
+                          Function<T, Function<V, Optional<String>>> checkValue,
+                          Function<V, String> showValue) {
+        this.showValue = showValue;
+        for (VertexType<T> type : schema.vertices.values()) {
+            vertexTypes.put(type.label, new CompiledType(checkValue.apply(type.id),
+                    compileProperties(type.properties, checkValue)));
+        }
+        for (EdgeType<T> type : schema.edges.values()) {
+            edgeTypes.put(type.label, new CompiledEdgeType(checkValue.apply(type.id),
+                    compileProperties(type.properties, checkValue), type.out, type.in));
+        }
+    }
+
+    /**
+     * Check a single vertex against the schema.
+     */
+    public Optional<String> checkVertex(Vertex<V> vertex) {
+        return Optional.ofNullable(vertexError(vertex));
+    }
+
+    /**
+     * Check a single edge against the schema, without checking its endpoints.
+     */
+    public Optional<String> checkEdge(Edge<V> edge) {
+        return Optional.ofNullable(edgeError(edge, null));
+    }
+
+    /**
+     * Check a single edge against the schema, including the labels of its out- and in-vertices.
+     * The label function returns null for vertex ids which do not exist.
+     */
+    public Optional<String> checkEdge(Edge<V> edge, Function<V, VertexLabel> labelForVertexId) {
+        return Optional.ofNullable(edgeError(edge, labelForVertexId));
+    }
+
+    /**
+     * Validate a graph using the common fork/join pool.
+     */
+    public Report validate(Graph<V> graph, Mode mode) {
+        return validate(graph, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Validate a graph using the given fork/join pool. Vertices are checked before edges.
+     * In FAIL_FAST mode, the report contains only one error, which is not necessarily the first in iteration order,
+     * and per-label counts cover only the elements checked before stopping.
+     */
+    public Report validate(Graph<V> graph, Mode mode, ForkJoinPool pool) {
+        Function<V, VertexLabel> labelForVertexId = id -> {
+            Vertex<V> v = graph.vertices.get(id);
+            return v == null ? null : v.label;
+        };
+
+        Partial<VertexLabel> vertexResult = pool.invoke(new CheckTask<>(graph.vertices.values().spliterator(),
+                this::vertexError, v -> v.label, mode, new Stop()));
+        if (mode == Mode.FAIL_FAST && !vertexResult.errors.isEmpty()) {
+            return new Report(vertexResult.errors, vertexResult.counts, Collections.emptyMap());
+        }
+        Partial<EdgeLabel> edgeResult = pool.invoke(new CheckTask<>(graph.edges.values().spliterator(),
+                e -> edgeError(e, labelForVertexId), e -> e.label, mode, new Stop()));
+
+        List<String> errors = vertexResult.errors;
+        errors.addAll(edgeResult.errors);
+        return new Report(errors, vertexResult.counts, edgeResult.counts);
+    }
+
+    /**
+     * Validate a graph given as a sequence of vertices followed by a sequence of edges, on the calling thread.
+     * Neither vertices nor edges are retained; only a compact index of vertex ids to labels, which is used to check
+     * edge endpoints. Errors are passed to the sink as they are found, and are not included in the report.
+     * Unlike a Graph, a sequence of vertices may repeat an id; repeated ids are reported as errors.
+     */
+    public Report validate(Iterator<Vertex<V>> vertices, Iterator<Edge<V>> edges, Mode mode, Consumer<String> sink) {
+        VertexLabelIndex<V> index = new VertexLabelIndex<>();
+        Map<VertexLabel, Long> vertexCounts = new HashMap<>();
+        while (vertices.hasNext()) {
+            Vertex<V> vertex = vertices.next();
+            String err = vertexError(vertex);
+            if (!index.put(vertex.id, vertex.label) && err == null) {
+                err = vertexPrefix(vertex) + "Duplicate id";
+            }
+            if (err != null) {
+                sink.accept(err);
+                vertexCounts.merge(vertex.label, 1L, Long::sum);
+                if (mode == Mode.FAIL_FAST) {
+                    return new Report(Collections.emptyList(), vertexCounts, Collections.emptyMap());
+                }
+            }
+        }
+
+        Map<EdgeLabel, Long> edgeCounts = new HashMap<>();
+        Function<V, VertexLabel> labelForVertexId = index::get;
+        while (edges.hasNext()) {
+            Edge<V> edge = edges.next();
+            String err = edgeError(edge, labelForVertexId);
+            if (err != null) {
+                sink.accept(err);
+                edgeCounts.merge(edge.label, 1L, Long::sum);
+                if (mode == Mode.FAIL_FAST) {
+                    break;
+                }
+            }
+        }
+        return new Report(Collections.emptyList(), vertexCounts, edgeCounts);
+    }
+
+    /**
+     * Validate a graph given as a stream of vertices followed by a stream of edges; see the iterator-based variant.
+     * The edge stream is not consumed until the vertex stream has been exhausted.
+     */
+    public Report validate(Stream<Vertex<V>> vertices, Stream<Edge<V>> edges, Mode mode, Consumer<String> sink) {
+        return validate(vertices.iterator(), edges.iterator(), mode, sink);
+    }
+
+    private String vertexError(Vertex<V> vertex) {
+        CompiledType type = vertexTypes.get(vertex.label);
+        if (type == null) {
+            return vertexPrefix(vertex) + "Unexpected label: " + vertex.label.value;
+        }
+        String err = type.check(vertex.id, vertex.properties);
+        return err == null ? null : vertexPrefix(vertex) + err;
+    }
+
+    private String edgeError(Edge<V> edge, Function<V, VertexLabel> labelForVertexId) {
+        CompiledEdgeType type = edgeTypes.get(edge.label);
+        if (type == null) {
+            return edgePrefix(edge) + "Unexpected label: " + edge.label.value;
+        }
+        String err = type.check(edge.id, edge.properties);
+        if (err == null && labelForVertexId != null) {
+            err = checkEndpoint("Out", type.out, edge.out, labelForVertexId);
+            if (err == null) {
+                err = checkEndpoint("In", type.in, edge.in, labelForVertexId);
+            }
+        }
+        return err == null ? null : edgePrefix(edge) + err;
+    }
+
+    private String checkEndpoint(String direction, VertexLabel expected, V id,
+                                 Function<V, VertexLabel> labelForVertexId) {
+        VertexLabel actual = labelForVertexId.apply(id);
+        if (actual == null) {
+            return direction + "-vertex does not exist: " + showValue.apply(id);
+        } else if (!actual.value.equals(expected.value)) {
+            return "Wrong " + direction.toLowerCase() + "-vertex label: expected " + expected.value + ", found "
+                    + actual.value;
+        } else {
+            return null;
+        }
+    }
+
+    private String vertexPrefix(Vertex<V> vertex) {
+        return "Invalid vertex with id " + showValue.apply(vertex.id) + ": ";
+    }
+
+    private String edgePrefix(Edge<V> edge) {
+        return "Invalid edge with id " + showValue.apply(edge.id) + ": ";
+    }
+
+    private CompiledProperties compileProperties(List<PropertyType<T>> types,
+                                                 Function<T, Function<V, Optional<String>>> checkValue) {
+        Map<PropertyKey, Function<V, Optional<String>>> checkers = new HashMap<>();
+        List<PropertyKey> required = new ArrayList<>();
+        for (PropertyType<T> type : types) {
+            checkers.put(type.key, checkValue.apply(type.value));
+            if (type.required) {
+                required.add(type.key);
+            }
+        }
+        return new CompiledProperties(checkers, required.toArray(new PropertyKey[0]));
+    }
+
+    /**
+     * The checks for the properties of a single element type: one pre-applied value checker per key, and the
+     * required keys.
+     */
+    private class CompiledProperties {
+        private final Map<PropertyKey, Function<V, Optional<String>>> checkers;
+        private final PropertyKey[] required;
+
+        CompiledProperties(Map<PropertyKey, Function<V, Optional<String>>> checkers, PropertyKey[] required) {
+            this.checkers = checkers;
+            this.required = required;
+        }
+
+        String check(Map<PropertyKey, V> props) {
+            for (PropertyKey key : required) {
+                if (!props.containsKey(key)) {
+                    return "Missing value for : " + key.value;
+                }
+            }
+            for (Map.Entry<PropertyKey, V> e : props.entrySet()) {
+                Function<V, Optional<String>> checker = checkers.get(e.getKey());
+                if (checker == null) {
+                    return "Unexpected key: " + e.getKey().value;
+                }
+                Optional<String> err = checker.apply(e.getValue());
+                if (err.isPresent()) {
+                    return "Invalid value: " + err.get();
+                }
+            }
+            return null;
+        }
+    }
+
+    private class CompiledType {
+        private final Function<V, Optional<String>> checkId;
+        private final CompiledProperties properties;
+
+        CompiledType(Function<V, Optional<String>> checkId, CompiledProperties properties) {
+            this.checkId = checkId;
+            this.properties = properties;
+        }
+
+        String check(V id, Map<PropertyKey, V> props) {
+            Optional<String> idErr = checkId.apply(id);
+            if (idErr.isPresent()) {
+                return "Invalid id: " + idErr.get();
+            }
+            String propErr = properties.check(props);
+            return propErr == null ? null : "Invalid property: " + propErr;
+        }
+    }
+
+    private class CompiledEdgeType extends CompiledType {
+        private final VertexLabel out;
+        private final VertexLabel in;
+
+        CompiledEdgeType(Function<V, Optional<String>> checkId, CompiledProperties properties,
+                         VertexLabel out, VertexLabel in) {
+            super(checkId, properties);
+            this.out = out;
+            this.in = in;
+        }
+    }
+
+    /**
+     * The result of validating a graph: any errors, together with error counts per vertex and edge label.
+     */
+    public static class Report {
+        public final List<String> errors;
+        public final Map<VertexLabel, Long> vertexErrorCounts;
+        public final Map<EdgeLabel, Long> edgeErrorCounts;
+
+        Report(List<String> errors, Map<VertexLabel, Long> vertexErrorCounts, Map<EdgeLabel, Long> edgeErrorCounts) {
+            this.errors = errors;
+            this.vertexErrorCounts = vertexErrorCounts;
+            this.edgeErrorCounts = edgeErrorCounts;
+        }
+
+        /**
+         * Whether no errors were found, including any errors which were passed to a sink rather than collected.
+         */
+        public boolean isValid() {
+            return errors.isEmpty() && vertexErrorCounts.isEmpty() && edgeErrorCounts.isEmpty();
+        }
+
+        public Optional<String> firstError() {
+            return errors.isEmpty() ? Optional.empty() : Optional.of(errors.get(0));
+        }
+    }
+
+    /**
+     * Errors and per-label error counts for some subset of the elements of a graph.
+     */
+    static class Partial<L> {
+        final List<String> errors = new ArrayList<>();
+        final Map<L, Long> counts = new HashMap<>();
+
+        void add(L label, String error) {
+            errors.add(error);
+            counts.merge(label, 1L, Long::sum);
+        }
+
+        void addAll(Partial<L> other) {
+            errors.addAll(other.errors);
+            other.counts.forEach((label, count) -> counts.merge(label, count, Long::sum));
+        }
+    }
+
+    /**
+     * A flag shared by all of the tasks of a fail-fast validation.
+     */
+    private static class Stop {
+        private volatile boolean stopped = false;
+    }
+
+    /**
+     * Checks the elements of a spliterator, forking subtasks for its prefixes until the remainder is small.
+     * Results are merged in encounter order.
+     */
+    private static class CheckTask<E, L> extends RecursiveTask<Partial<L>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<E> elements;
+        private final Function<E, String> check;
+        private final Function<E, L> labelOf;
+        private final Mode mode;
+        private final Stop stop;
+
+        CheckTask(Spliterator<E> elements, Function<E, String> check, Function<E, L> labelOf, Mode mode, Stop stop) {
+            this.elements = elements;
+            this.check = check;
+            this.labelOf = labelOf;
+            this.mode = mode;
+            this.stop = stop;
+        }
+
+        @Override
+        protected Partial<L> compute() {
+            List<CheckTask<E, L>> forked = new ArrayList<>();
+            Spliterator<E> prefix;
+            while (elements.estimateSize() > SEQUENTIAL_THRESHOLD && (prefix = elements.trySplit()) != null) {
+                CheckTask<E, L> task = new CheckTask<>(prefix, check, labelOf, mode, stop);
+                task.fork();
+                forked.add(task);
+            }
+
+            Partial<L> own = new Partial<>();
+            boolean failFast = mode == Mode.FAIL_FAST;
+            while (!(failFast && stop.stopped) && elements.tryAdvance(el -> {
+                String err = check.apply(el);
+                if (err != null) {
+                    own.add(labelOf.apply(el), err);
+                    if (failFast) {
+                        stop.stopped = true;
+                    }
+                }
+            })) {
+                // Keep going
+            }
+
+            Partial<L> result = new Partial<>();
+            for (CheckTask<E, L> task : forked) {
+                result.addAll(task.join());
+            }
+            result.addAll(own);
+            if (failFast && result.errors.size() > 1) {
+                result.errors.subList(1, result.errors.size()).clear();
+            }
+            return result;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package hydra.langs.tinkerpop;
 
 import hydra.Flows;
+import hydra.Traces;
 import hydra.basics.Basics;
 import hydra.compute.Flow;
 import hydra.compute.StatelessAdapter;
@@ -18,8 +19,10 @@ import hydra.langs.tinkerpop.propertyGraph.PropertyType;
 import hydra.langs.tinkerpop.propertyGraph.Vertex;
 import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
 import hydra.langs.tinkerpop.propertyGraph.VertexType;
+import hydra.tools.FlowException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,6 +31,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static hydra.Flows.pure;
 
@@ -100,115 +105,44 @@ public class Merging {
         return Optional.empty();
     }
 
-    private static <T, V> StatelessCoder<Vertex<V>, Vertex<V>> constructMergedVertexCoder(
+    private static <T, V> MergedCoder<Vertex<V>> constructMergedVertexCoder(
             List<VertexType<T>> types,
             IdAdapters<T, V> idAdapters,
             Set<PropertyKey> unifiedPropertyKeys) {
-        Map<VertexLabel, StatelessCoder<Vertex<V>, Vertex<V>>> coders
-                = constructVertexCoders(types, idAdapters, unifiedPropertyKeys);
-        return new StatelessCoder<Vertex<V>, Vertex<V>>(
-                v -> Flows.bind(getCoder(coders, v.label), coder -> coder.encode.apply(v)),
-                v -> Flows.bind(getCoder(coders, v.label), coder -> coder.decode.apply(v)));
+        Map<Object, ElementCoder<Vertex<V>>> coders = new HashMap<Object, ElementCoder<Vertex<V>>>();
+        for (VertexType<T> type : types) {
+            coders.put(type.label, new VertexCoder<V>(
+                    idAdapters.forVertexId.apply(type.label),
+                    new PropertyKeyTable(type.label.value, type.properties, unifiedPropertyKeys)));
+        }
+        return new MergedCoder<Vertex<V>>(coders, v -> v.label);
     }
 
-    private static <T, V> StatelessCoder<Edge<V>, Edge<V>> constructMergedEdgeCoder(
+    private static <T, V> MergedCoder<Edge<V>> constructMergedEdgeCoder(
             List<EdgeType<T>> types,
             IdAdapters<T, V> idAdapters,
             Set<PropertyKey> unifiedPropertyKeys) {
-        Map<EdgeLabel, StatelessCoder<Edge<V>, Edge<V>>> coders
-                = constructEdgeCoders(types, idAdapters, unifiedPropertyKeys);
-        return new StatelessCoder<Edge<V>, Edge<V>>(
-                e -> Flows.bind(getCoder(coders, e.label), coder -> coder.encode.apply(e)),
-                e -> Flows.bind(getCoder(coders, e.label), coder -> coder.decode.apply(e)));
-    }
-
-    private static <T, V> StatelessCoder<Vertex<V>, Vertex<V>> constructVertexCoder(
-            VertexType<T> type,
-            IdAdapters<T, V> idAdapters,
-            Set<PropertyKey> unifiedPropertyKeys) {
-        StatelessCoder<Map<PropertyKey, V>, Map<PropertyKey, V>> propertiesCoder
-                = constructPropertiesCoder(type.label.value, unifiedPropertyKeys);
-
-        return new StatelessCoder<Vertex<V>, Vertex<V>>(
-                v -> Flows.map2(
-                        idAdapters.forVertexId.apply(type.label).encode.apply(v.id),
-                        propertiesCoder.encode.apply(v.properties),
-                        (id, props) -> new Vertex<V>(v.label, id, props)),
-                v -> Flows.map2(
-                        idAdapters.forVertexId.apply(type.label).decode.apply(v.id),
-                        propertiesCoder.decode.apply(v.properties),
-                        (id, props) -> new Vertex<V>(v.label, id, props)));
-    }
-
-    private static <T, V> StatelessCoder<Edge<V>, Edge<V>> constructEdgeCoder(
-            EdgeType<T> type,
-            IdAdapters<T, V> idAdapters,
-            Set<PropertyKey> unifiedPropertyKeys) {
-        StatelessCoder<Map<PropertyKey, V>, Map<PropertyKey, V>> propertiesCoder
-                = constructPropertiesCoder(type.label.value, unifiedPropertyKeys);
-
-        return new StatelessCoder<Edge<V>, Edge<V>>(
-                e -> Flows.map4(
-                        idAdapters.forEdgeId.apply(type.label).encode.apply(e.id),
-                        idAdapters.forVertexId.apply(type.out).encode.apply(e.out),
-                        idAdapters.forVertexId.apply(type.in).encode.apply(e.in),
-                        propertiesCoder.encode.apply(e.properties),
-                        (id, outId, inId, props) -> new Edge<V>(e.label, id, outId, inId, props)),
-                e -> Flows.map4(
-                        idAdapters.forEdgeId.apply(type.label).decode.apply(e.id),
-                        idAdapters.forVertexId.apply(type.out).decode.apply(e.out),
-                        idAdapters.forVertexId.apply(type.in).decode.apply(e.in),
-                        propertiesCoder.decode.apply(e.properties),
-                        (id, outId, inId, props) -> new Edge<V>(e.label, id, outId, inId, props)));
-    }
-
-    private static <V> StatelessCoder<Map<PropertyKey, V>, Map<PropertyKey, V>> constructPropertiesCoder(
-            String label,
-            Set<PropertyKey> unifiedPropertyKeys) {
-        Function<Map<PropertyKey, V>, Flow<Unit, Map<PropertyKey, V>>> encode = before -> {
-            Map<PropertyKey, V> after = new HashMap<PropertyKey, V>();
-            for (Map.Entry<PropertyKey, V> entry : before.entrySet()) {
-                after.put(encodePropertyKey(label, entry.getKey(), unifiedPropertyKeys), entry.getValue());
-            }
-            return Flows.pure(after);
-        };
-
-        Function<Map<PropertyKey, V>, Flow<Unit, Map<PropertyKey, V>>> decode = before -> {
-            Map<PropertyKey, V> after = new HashMap<PropertyKey, V>();
-            for (Map.Entry<PropertyKey, V> entry : before.entrySet()) {
-                after.put(decodePropertyKey(label, entry.getKey(), unifiedPropertyKeys), entry.getValue());
-            }
-            return Flows.pure(after);
-        };
-
-        return new StatelessCoder<Map<PropertyKey, V>, Map<PropertyKey, V>>(encode, decode);
-    }
-
-    private static <V, T, L> Map<L, StatelessCoder<V, V>> constructCoders(
-            List<T> types,
-            Function<T, L> getLabel,
-            Function<T, StatelessCoder<V, V>> constructCoder) {
-        Map<L, StatelessCoder<V, V>> coders = new HashMap<L, StatelessCoder<V, V>>();
-        for (T type : types) {
-            coders.put(getLabel.apply(type), constructCoder.apply(type));
+        Map<Object, ElementCoder<Edge<V>>> coders = new HashMap<Object, ElementCoder<Edge<V>>>();
+        for (EdgeType<T> type : types) {
+            coders.put(type.label, new EdgeCoder<V>(
+                    idAdapters.forEdgeId.apply(type.label),
+                    idAdapters.forVertexId.apply(type.out),
+                    idAdapters.forVertexId.apply(type.in),
+                    new PropertyKeyTable(type.label.value, type.properties, unifiedPropertyKeys)));
         }
-        return coders;
-    }
-
-    private static <T, V> Map<VertexLabel, StatelessCoder<Vertex<V>, Vertex<V>>> constructVertexCoders(
-            List<VertexType<T>> types,
-            IdAdapters<T, V> idAdapters,
-            Set<PropertyKey> unifiedPropertyKeys) {
-        return constructCoders(types, type -> type.label,
-                type -> constructVertexCoder(type, idAdapters, unifiedPropertyKeys));
+        return new MergedCoder<Edge<V>>(coders, e -> e.label);
     }
 
-    private static <T, V> Map<EdgeLabel, StatelessCoder<Edge<V>, Edge<V>>> constructEdgeCoders(
-            List<EdgeType<T>> types,
-            IdAdapters<T, V> idAdapters,
-            Set<PropertyKey> unifiedPropertyKeys) {
-        return constructCoders(types, type -> type.label,
-                type -> constructEdgeCoder(type, idAdapters, unifiedPropertyKeys));
+    /**
+     * Find the batch coder of an adapter created by {@link #createVertexAdapter} or {@link #createEdgeAdapter}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> MergedCoder<E> batchCoder(StatelessAdapter<?, ?, E, E> adapter) {
+        if (adapter.coder instanceof MergedCoder) {
+            return (MergedCoder<E>) adapter.coder;
+        } else {
+            throw new IllegalArgumentException("not a merged vertex or edge adapter");
+        }
     }
 
     private static PropertyKey encodePropertyKey(String label, PropertyKey key, Set<PropertyKey> unifiedPropertyKeys) {
@@ -228,13 +162,6 @@ public class Merging {
         }
     }
 
-    private static <L, E> Flow<Unit, StatelessCoder<E, E>> getCoder(Map<L, StatelessCoder<E, E>> coders, L label) {
-        StatelessCoder<E, E> helper = coders.get(label);
-        return helper == null
-                ? Flows.fail("No coder associated with label " + label)
-                : Flows.pure(helper);
-    }
-
     private static <T, V> MergedEntity<VertexType<T>> mergeVertexTypes(List<VertexType<T>> types,
                                                                        IdAdapters<T, V> idAdapters,
                                                                        boolean unifyIdenticalTypes) {
@@ -371,50 +298,256 @@ public class Merging {
     public static final Merging.IdAdapters<LiteralType, Literal> STRING_ID_ADAPTERS = new Merging.IdAdapters<>(
             LiteralTypes.string(),
             LiteralTypes.string(),
-            label -> StatelessCoder.of(literal -> literal.accept(new Literal.PartialVisitor<Flow<Unit, Literal>>() {
-                @Override
-                public Flow<Unit, Literal> otherwise(Literal instance) {
-                    return Flows.unexpected("string literal", instance);
-                }
+            label -> prefixedStringIdCoder(label.value),
+            label -> prefixedStringIdCoder(label.value));
 
-                @Override
-                public Flow<Unit, Literal> visit(Literal.String_ id) {
-                    return pure(Literals.string(
-                            Basics.decapitalize(label.value) + "_" + ((Literal.String_) literal).value));
-                }
-            }), literal -> literal.accept(new Literal.PartialVisitor<Flow<Unit, Literal>>() {
-                @Override
-                public Flow<Unit, Literal> otherwise(Literal instance) {
-                    return Flows.unexpected("string literal", instance);
-                }
+    /**
+     * A coder which prefixes string ids with the decapitalized label. The prefix is computed once per label.
+     */
+    private static StatelessCoder<Literal, Literal> prefixedStringIdCoder(String label) {
+        String prefix = Basics.decapitalize(label) + "_";
+        return StatelessCoder.of(literal -> literal.accept(new Literal.PartialVisitor<Flow<Unit, Literal>>() {
+            @Override
+            public Flow<Unit, Literal> otherwise(Literal instance) {
+                return Flows.unexpected("string literal", instance);
+            }
 
-                @Override
-                public Flow<Unit, Literal> visit(Literal.String_ id) {
-                    return pure(Literals.string(id.value.substring(label.value.length() + 1)));
-                }
-            })),
-            label -> StatelessCoder.of(literal -> literal.accept(new Literal.PartialVisitor<Flow<Unit, Literal>>() {
-                @Override
-                public Flow<Unit, Literal> otherwise(Literal instance) {
-                    return Flows.unexpected("string literal", instance);
-                }
+            @Override
+            public Flow<Unit, Literal> visit(Literal.String_ id) {
+                return pure(Literals.string(prefix + id.value));
+            }
+        }), literal -> literal.accept(new Literal.PartialVisitor<Flow<Unit, Literal>>() {
+            @Override
+            public Flow<Unit, Literal> otherwise(Literal instance) {
+                return Flows.unexpected("string literal", instance);
+            }
 
-                @Override
-                public Flow<Unit, Literal> visit(Literal.String_ id) {
-                    return pure(Literals.string(
-                            Basics.decapitalize(label.value) + "_" + ((Literal.String_) literal).value));
-                }
-            }), literal -> literal.accept(new Literal.PartialVisitor<Flow<Unit, Literal>>() {
-                @Override
-                public Flow<Unit, Literal> otherwise(Literal instance) {
-                    return Flows.unexpected("string literal", instance);
-                }
+            @Override
+            public Flow<Unit, Literal> visit(Literal.String_ id) {
+                return pure(Literals.string(id.value.substring(prefix.length())));
+            }
+        }));
+    }
 
-                @Override
-                public Flow<Unit, Literal> visit(Literal.String_ id) {
-                    return pure(Literals.string(id.value.substring(label.value.length() + 1)));
-                }
-            })));
+    /**
+     * The coder of a merged vertex or edge adapter. In addition to encoding and decoding individual elements as flows,
+     * it encodes and decodes whole batches of elements in a tight loop, optionally in parallel.
+     * Property keys are translated using tables computed once per label, and any failure is thrown as a
+     * {@link FlowException}.
+     */
+    public static class MergedCoder<E> extends StatelessCoder<E, E> {
+        private final Map<Object, ElementCoder<E>> coders;
+        private final Function<E, Object> getLabel;
+
+        private MergedCoder(Map<Object, ElementCoder<E>> coders, Function<E, Object> getLabel) {
+            super(e -> Flows.bind(getCoder(coders, getLabel.apply(e)), coder -> coder.encode(e)),
+                    e -> Flows.bind(getCoder(coders, getLabel.apply(e)), coder -> coder.decode(e)));
+            this.coders = coders;
+            this.getLabel = getLabel;
+        }
+
+        /**
+         * Encode a collection of elements, preserving their order.
+         */
+        public List<E> encodeAll(Collection<E> elements, boolean parallel) {
+            return codeAll(elements, parallel, true);
+        }
+
+        /**
+         * Decode a collection of elements, preserving their order.
+         */
+        public List<E> decodeAll(Collection<E> elements, boolean parallel) {
+            return codeAll(elements, parallel, false);
+        }
+
+        /**
+         * Lazily encode a stream of elements. The result is parallel if the given stream is.
+         */
+        public Stream<E> encodeAll(Stream<E> elements) {
+            return elements.map(this::encodeNow);
+        }
+
+        /**
+         * Lazily decode a stream of elements. The result is parallel if the given stream is.
+         */
+        public Stream<E> decodeAll(Stream<E> elements) {
+            return elements.map(this::decodeNow);
+        }
+
+        private List<E> codeAll(Collection<E> elements, boolean parallel, boolean encode) {
+            if (parallel) {
+                return elements.parallelStream()
+                        .map(encode ? this::encodeNow : this::decodeNow)
+                        .collect(Collectors.toList());
+            }
+            List<E> result = new ArrayList<E>(elements.size());
+            for (E element : elements) {
+                result.add(encode ? encodeNow(element) : decodeNow(element));
+            }
+            return result;
+        }
+
+        private E encodeNow(E element) {
+            return coderFor(element).encodeNow(element);
+        }
+
+        private E decodeNow(E element) {
+            return coderFor(element).decodeNow(element);
+        }
+
+        private ElementCoder<E> coderFor(E element) {
+            Object label = getLabel.apply(element);
+            ElementCoder<E> coder = coders.get(label);
+            if (coder == null) {
+                throw new FlowException(Traces.appendError("No coder associated with label " + label, Traces.EMPTY));
+            }
+            return coder;
+        }
+
+        private static <E> Flow<Unit, ElementCoder<E>> getCoder(Map<Object, ElementCoder<E>> coders, Object label) {
+            ElementCoder<E> coder = coders.get(label);
+            return coder == null
+                    ? Flows.fail("No coder associated with label " + label)
+                    : Flows.pure(coder);
+        }
+    }
+
+    /**
+     * Encodes and decodes the elements of a single label, either as flows or eagerly.
+     */
+    private interface ElementCoder<E> {
+        Flow<Unit, E> encode(E element);
+
+        Flow<Unit, E> decode(E element);
+
+        E encodeNow(E element);
+
+        E decodeNow(E element);
+    }
+
+    private static class VertexCoder<V> implements ElementCoder<Vertex<V>> {
+        private final StatelessCoder<V, V> idCoder;
+        private final PropertyKeyTable keys;
+
+        private VertexCoder(StatelessCoder<V, V> idCoder, PropertyKeyTable keys) {
+            this.idCoder = idCoder;
+            this.keys = keys;
+        }
+
+        @Override
+        public Flow<Unit, Vertex<V>> encode(Vertex<V> v) {
+            return Flows.map(idCoder.encode.apply(v.id), id -> new Vertex<V>(v.label, id, keys.encode(v.properties)));
+        }
+
+        @Override
+        public Flow<Unit, Vertex<V>> decode(Vertex<V> v) {
+            return Flows.map(idCoder.decode.apply(v.id), id -> new Vertex<V>(v.label, id, keys.decode(v.properties)));
+        }
+
+        @Override
+        public Vertex<V> encodeNow(Vertex<V> v) {
+            return new Vertex<V>(v.label, Flows.fromFlow(idCoder.encode.apply(v.id)), keys.encode(v.properties));
+        }
+
+        @Override
+        public Vertex<V> decodeNow(Vertex<V> v) {
+            return new Vertex<V>(v.label, Flows.fromFlow(idCoder.decode.apply(v.id)), keys.decode(v.properties));
+        }
+    }
+
+    private static class EdgeCoder<V> implements ElementCoder<Edge<V>> {
+        private final StatelessCoder<V, V> idCoder;
+        private final StatelessCoder<V, V> outCoder;
+        private final StatelessCoder<V, V> inCoder;
+        private final PropertyKeyTable keys;
+
+        private EdgeCoder(StatelessCoder<V, V> idCoder,
+                          StatelessCoder<V, V> outCoder,
+                          StatelessCoder<V, V> inCoder,
+                          PropertyKeyTable keys) {
+            this.idCoder = idCoder;
+            this.outCoder = outCoder;
+            this.inCoder = inCoder;
+            this.keys = keys;
+        }
+
+        @Override
+        public Flow<Unit, Edge<V>> encode(Edge<V> e) {
+            return Flows.map3(idCoder.encode.apply(e.id), outCoder.encode.apply(e.out), inCoder.encode.apply(e.in),
+                    (id, outId, inId) -> new Edge<V>(e.label, id, outId, inId, keys.encode(e.properties)));
+        }
+
+        @Override
+        public Flow<Unit, Edge<V>> decode(Edge<V> e) {
+            return Flows.map3(idCoder.decode.apply(e.id), outCoder.decode.apply(e.out), inCoder.decode.apply(e.in),
+                    (id, outId, inId) -> new Edge<V>(e.label, id, outId, inId, keys.decode(e.properties)));
+        }
+
+        @Override
+        public Edge<V> encodeNow(Edge<V> e) {
+            return new Edge<V>(e.label,
+                    Flows.fromFlow(idCoder.encode.apply(e.id)),
+                    Flows.fromFlow(outCoder.encode.apply(e.out)),
+                    Flows.fromFlow(inCoder.encode.apply(e.in)),
+                    keys.encode(e.properties));
+        }
+
+        @Override
+        public Edge<V> decodeNow(Edge<V> e) {
+            return new Edge<V>(e.label,
+                    Flows.fromFlow(idCoder.decode.apply(e.id)),
+                    Flows.fromFlow(outCoder.decode.apply(e.out)),
+                    Flows.fromFlow(inCoder.decode.apply(e.in)),
+                    keys.decode(e.properties));
+        }
+    }
+
+    /**
+     * The encoded and decoded forms of the property keys declared for a label, computed once rather than per element.
+     * Keys which are not declared are translated on the fly. The tables are never modified after construction,
+     * so they may be shared between threads.
+     */
+    private static class PropertyKeyTable {
+        private final String label;
+        private final Set<PropertyKey> unifiedPropertyKeys;
+        private final Map<PropertyKey, PropertyKey> encoded = new HashMap<PropertyKey, PropertyKey>();
+        private final Map<PropertyKey, PropertyKey> decoded = new HashMap<PropertyKey, PropertyKey>();
+
+        private <T> PropertyKeyTable(String label, List<PropertyType<T>> types, Set<PropertyKey> unifiedPropertyKeys) {
+            this.label = label;
+            this.unifiedPropertyKeys = unifiedPropertyKeys;
+            for (PropertyType<T> type : types) {
+                PropertyKey key = encodePropertyKey(label, type.key, unifiedPropertyKeys);
+                encoded.put(type.key, key);
+                decoded.put(key, decodePropertyKey(label, key, unifiedPropertyKeys));
+            }
+        }
+
+        private <V> Map<PropertyKey, V> encode(Map<PropertyKey, V> before) {
+            Map<PropertyKey, V> after = new HashMap<PropertyKey, V>(capacity(before.size()));
+            for (Map.Entry<PropertyKey, V> entry : before.entrySet()) {
+                PropertyKey key = encoded.get(entry.getKey());
+                after.put(key == null ? encodePropertyKey(label, entry.getKey(), unifiedPropertyKeys) : key,
+                        entry.getValue());
+            }
+            return after;
+        }
+
+        private <V> Map<PropertyKey, V> decode(Map<PropertyKey, V> before) {
+            Map<PropertyKey, V> after = new HashMap<PropertyKey, V>(capacity(before.size()));
+            for (Map.Entry<PropertyKey, V> entry : before.entrySet()) {
+                PropertyKey key = decoded.get(entry.getKey());
+                after.put(key == null ? decodePropertyKey(label, entry.getKey(), unifiedPropertyKeys) : key,
+                        entry.getValue());
+            }
+            return after;
+        }
+
+        // A capacity at which a HashMap holds the given number of entries without rehashing
+        private static int capacity(int size) {
+            return (int) (size / 0.75f) + 1;
+        }
+    }
 
     private static class MergedEntity<A> {
         private final A entity;
@@ -0,0 +1,1419 @@
+package hydra.langs.tinkerpop;
+
+import hydra.langs.tinkerpop.propertyGraph.Direction;
+import hydra.langs.tinkerpop.propertyGraph.EdgeLabel;
+import hydra.langs.tinkerpop.propertyGraph.Graph;
+import hydra.langs.tinkerpop.propertyGraph.PropertyKey;
+import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
+import hydra.langs.tinkerpop.queries.AggregationQuery;
+import hydra.langs.tinkerpop.queries.BinaryBooleanOperator;
+import hydra.langs.tinkerpop.queries.BinaryOperator;
+import hydra.langs.tinkerpop.queries.ComparisonOperator;
+import hydra.langs.tinkerpop.queries.EdgeProjectionPattern;
+import hydra.langs.tinkerpop.queries.Expression;
+import hydra.langs.tinkerpop.queries.MatchQuery;
+import hydra.langs.tinkerpop.queries.Projection;
+import hydra.langs.tinkerpop.queries.PropertyPattern;
+import hydra.langs.tinkerpop.queries.PropertyValuePattern;
+import hydra.langs.tinkerpop.queries.Query;
+import hydra.langs.tinkerpop.queries.SelectQuery;
+import hydra.langs.tinkerpop.queries.VertexPattern;
+import hydra.tools.MapperBase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * A local, in-memory executor for hydra.langs.tinkerpop.queries queries, such as those produced from Cypher by
+ * FromCypher. Queries are compiled into physical plans over a ColumnarGraph: each vertex pattern becomes a label scan,
+ * a seek into a hash index of property values, or a check of a vertex bound by an earlier clause, and each edge
+ * pattern an expansion over the adjacency index. Property patterns are pushed down into the scan or expansion which
+ * binds their element, equalities on properties (including those of the WHERE clause which relate a pattern to
+ * already-bound variables) are answered by hash joins against the property index, and the remaining conjuncts of the
+ * WHERE clause are applied as soon as the variables they refer to are bound.
+ * Plans may be executed any number of times, by any number of threads.
+ */
+public class QueryEngine<V> extends MapperBase {
+    private static final VertexPattern ANONYMOUS_VERTEX = new VertexPattern(
+            Optional.empty(), Optional.empty(), Collections.emptyList(), Collections.emptyList());
+
+    private static final int OUT = 1;
+    private static final int IN = 2;
+    private static final int BOTH = OUT | IN;
+
+    private static final String[] COMPARISONS = {"=", "<>", "<", "<=", ">", ">="};
+    private static final int EQ = 0;
+    private static final int NEQ = 1;
+    private static final int LT = 2;
+    private static final int LTE = 3;
+    private static final int GT = 4;
+    private static final int GTE = 5;
+
+    private final ColumnarGraph<V> graph;
+    private final Function<String, V> values;
+    private final Comparator<? super V> order;
+    // Hash indexes from property values to vertices, keyed by vertex label (null for all vertices) and property key
+    private final Map<List<Object>, Map<V, int[]>> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Construct an engine over a graph, given a function which decodes the values of property patterns.
+     * Property values are compared according to their natural ordering.
+     */
+    public QueryEngine(Graph<V> graph, Function<String, V> values) {
+        this(ColumnarGraph.from(graph), values, QueryEngine::compareNaturally);
+    }
+
+    /**
+     * Construct an engine over a columnar graph, given a function which decodes the values of property patterns,
+     * and an ordering of property values.
+     */
+    public QueryEngine(ColumnarGraph<V> graph, Function<String, V> values, Comparator<? super V> order) {
+        this.graph = graph;
+        this.values = values;
+        this.order = order;
+    }
+
+    /**
+     * Compile a query into a reusable plan. Queries are sequences of MATCH clauses, optionally followed by a
+     * projection or a count.
+     */
+    public Plan compile(Query query) {
+        return new Planner().plan(query);
+    }
+
+    /**
+     * Compile and execute a query.
+     */
+    public Result execute(Query query) {
+        return compile(query).execute();
+    }
+
+    private Map<V, int[]> index(VertexLabel label, PropertyKey key) {
+        return indexes.computeIfAbsent(Arrays.asList(label, key), k -> buildIndex(label, key));
+    }
+
+    private Map<V, int[]> buildIndex(VertexLabel label, PropertyKey key) {
+        Map<V, int[]> counts = new HashMap<>();
+        vertices(label).forEach(v -> {
+            V value = graph.vertexProperty(v, key);
+            if (value != null) {
+                counts.computeIfAbsent(value, k -> new int[1])[0]++;
+            }
+        });
+        Map<V, int[]> index = new HashMap<>();
+        for (Map.Entry<V, int[]> e : counts.entrySet()) {
+            index.put(e.getKey(), new int[e.getValue()[0]]);
+            e.getValue()[0] = 0;
+        }
+        vertices(label).forEach(v -> {
+            V value = graph.vertexProperty(v, key);
+            if (value != null) {
+                index.get(value)[counts.get(value)[0]++] = v;
+            }
+        });
+        return index;
+    }
+
+    private IntStream vertices(VertexLabel label) {
+        return label == null ? IntStream.range(0, graph.vertexCount()) : graph.vertices(label);
+    }
+
+    // The range of indices of the vertices or edges with all of the given labels
+    private static int[] range(List<?> labels, Function<Object, IntStream> elements, int count) {
+        if (labels.isEmpty()) {
+            return new int[] {0, count};
+        }
+        for (Object label : labels) {
+            if (!label.equals(labels.get(0))) {
+                return new int[] {0, 0};
+            }
+        }
+        int start = elements.apply(labels.get(0)).findFirst().orElse(0);
+        return new int[] {start, start + (int) elements.apply(labels.get(0)).count()};
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareNaturally(Object left, Object right) {
+        if (!(left instanceof Comparable)) {
+            throw new MapperException("values are not ordered: " + left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    private static Boolean asBoolean(Object value) {
+        if (value != null && !(value instanceof Boolean)) {
+            throw new MapperException("expected a boolean value, found: " + value);
+        }
+        return (Boolean) value;
+    }
+
+    // Three-valued conjunction, disjunction and exclusive disjunction, in which null is unknown
+    private static Object and(Eval[] operands, Frame f) {
+        boolean unknown = false;
+        for (Eval operand : operands) {
+            Boolean b = asBoolean(operand.eval(f));
+            if (b == null) {
+                unknown = true;
+            } else if (!b) {
+                return false;
+            }
+        }
+        return unknown ? null : true;
+    }
+
+    private static Object or(Eval[] operands, Frame f) {
+        boolean unknown = false;
+        for (Eval operand : operands) {
+            Boolean b = asBoolean(operand.eval(f));
+            if (b == null) {
+                unknown = true;
+            } else if (b) {
+                return true;
+            }
+        }
+        return unknown ? null : false;
+    }
+
+    private static Object xor(Eval[] operands, Frame f) {
+        boolean result = false;
+        for (Eval operand : operands) {
+            Boolean b = asBoolean(operand.eval(f));
+            if (b == null) {
+                return null;
+            }
+            result ^= b;
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object compare(int comparison, Object left, Object right) {
+        if (left == null || right == null) {
+            return null;
+        }
+        switch (comparison) {
+            case EQ:
+                return left.equals(right);
+            case NEQ:
+                return !left.equals(right);
+            default:
+                int c = order.compare((V) left, (V) right);
+                return comparison == LT ? c < 0 : comparison == LTE ? c <= 0 : comparison == GT ? c > 0 : c >= 0;
+        }
+    }
+
+    private static int comparison(ComparisonOperator op) {
+        return op.accept(new ComparisonOperator.Visitor<Integer>() {
+            @Override
+            public Integer visit(ComparisonOperator.Eq instance) {
+                return EQ;
+            }
+
+            @Override
+            public Integer visit(ComparisonOperator.Neq instance) {
+                return NEQ;
+            }
+
+            @Override
+            public Integer visit(ComparisonOperator.Lt instance) {
+                return LT;
+            }
+
+            @Override
+            public Integer visit(ComparisonOperator.Lte instance) {
+                return LTE;
+            }
+
+            @Override
+            public Integer visit(ComparisonOperator.Gt instance) {
+                return GT;
+            }
+
+            @Override
+            public Integer visit(ComparisonOperator.Gte instance) {
+                return GTE;
+            }
+        });
+    }
+
+    private static String symbol(BinaryOperator op) {
+        return op.accept(new BinaryOperator.Visitor<String>() {
+            @Override
+            public String visit(BinaryOperator.Boolean_ instance) {
+                return instance.value.accept(new BinaryBooleanOperator.Visitor<String>() {
+                    @Override
+                    public String visit(BinaryBooleanOperator.And instance) {
+                        return "AND";
+                    }
+
+                    @Override
+                    public String visit(BinaryBooleanOperator.Or instance) {
+                        return "OR";
+                    }
+
+                    @Override
+                    public String visit(BinaryBooleanOperator.Xor instance) {
+                        return "XOR";
+                    }
+                });
+            }
+
+            @Override
+            public String visit(BinaryOperator.Comparison instance) {
+                return COMPARISONS[comparison(instance.value)];
+            }
+
+            @Override
+            public String visit(BinaryOperator.Power instance) {
+                return "^";
+            }
+        });
+    }
+
+    private static int direction(Direction direction) {
+        return direction.accept(new Direction.Visitor<Integer>() {
+            @Override
+            public Integer visit(Direction.Out instance) {
+                return OUT;
+            }
+
+            @Override
+            public Integer visit(Direction.In instance) {
+                return IN;
+            }
+
+            @Override
+            public Integer visit(Direction.Both instance) {
+                return BOTH;
+            }
+
+            @Override
+            public Integer visit(Direction.Undirected instance) {
+                return BOTH;
+            }
+        });
+    }
+
+    /**
+     * A textual form of an expression, used in plan descriptions and as the default names of projected columns.
+     */
+    static String show(Expression expression) {
+        return expression.accept(new Expression.PartialVisitor<String>() {
+            @Override
+            public String otherwise(Expression instance) {
+                return "_";
+            }
+
+            @Override
+            public String visit(Expression.Associative instance) {
+                return instance.value.operands.stream().map(QueryEngine::show)
+                        .collect(Collectors.joining(" " + symbol(instance.value.operator) + " ", "(", ")"));
+            }
+
+            @Override
+            public String visit(Expression.Binary instance) {
+                return show(instance.value.left) + " " + symbol(instance.value.operator) + " "
+                        + show(instance.value.right);
+            }
+
+            @Override
+            public String visit(Expression.Property instance) {
+                return show(instance.value.base) + "." + instance.value.key.value;
+            }
+
+            @Override
+            public String visit(Expression.Unary instance) {
+                return "NOT " + show(instance.value.operand);
+            }
+
+            @Override
+            public String visit(Expression.Variable instance) {
+                return instance.value.value;
+            }
+        });
+    }
+
+    /**
+     * A compiled query, which may be executed repeatedly.
+     */
+    public class Plan {
+        private final Step root;
+        private final Output output;
+        private final int vertexSlots;
+        private final int valueSlots;
+        private final int edgeSlots;
+        private final int optionals;
+
+        private Plan(Step root, Output output, int vertexSlots, int valueSlots, int edgeSlots, int optionals) {
+            this.root = root;
+            this.output = output;
+            this.vertexSlots = vertexSlots;
+            this.valueSlots = valueSlots;
+            this.edgeSlots = edgeSlots;
+            this.optionals = optionals;
+        }
+
+        public Result execute() {
+            Frame f = new Frame(vertexSlots, valueSlots, edgeSlots, optionals);
+            root.run(f);
+            return output.result(f);
+        }
+
+        /**
+         * A description of the operators of the plan, one per line, in the order in which they are applied.
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            explain(root, "", sb);
+            return sb.toString();
+        }
+
+        private void explain(Step step, String indent, StringBuilder sb) {
+            for (Step s = step; s != null && !(s instanceof Matched); s = s.next) {
+                sb.append(indent).append(s.describe()).append("\n");
+                if (s instanceof OptionalMatch) {
+                    explain(((OptionalMatch) s).body, indent + "  ", sb);
+                }
+            }
+        }
+    }
+
+    /**
+     * The rows produced by a query. Each value is a vertex, a property value, a boolean, or null, or in the case of
+     * a count, a Long.
+     */
+    public static class Result {
+        public final List<String> columns;
+        public final List<List<Object>> rows;
+
+        private Result(List<String> columns, List<List<Object>> rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * The state of a single execution: the vertex, value and edge bound to each slot (with -1 or null for an
+     * unmatched optional pattern), the number of times each optional match has matched, and the output.
+     */
+    private static class Frame {
+        private final int[] vertices;
+        private final Object[] values;
+        private final int[] edges;
+        private final int[] matches;
+        private final List<List<Object>> rows = new ArrayList<>();
+        private final Set<List<Object>> distinct = new HashSet<>();
+        private long count = 0;
+
+        Frame(int vertexSlots, int valueSlots, int edgeSlots, int optionals) {
+            vertices = new int[vertexSlots];
+            values = new Object[valueSlots];
+            edges = new int[edgeSlots];
+            matches = new int[optionals];
+        }
+    }
+
+    private interface Eval {
+        Object eval(Frame f);
+    }
+
+    /**
+     * A physical operator. Operators are chained, each calling the next once for each binding it produces.
+     */
+    private abstract static class Step {
+        Step next;
+
+        abstract void run(Frame f);
+
+        abstract String describe();
+    }
+
+    private abstract static class Output extends Step {
+        abstract Result result(Frame f);
+    }
+
+    /**
+     * A constraint on a property value: equality with a constant or with a bound value variable, or the binding of
+     * a value variable. Absent properties never match.
+     */
+    private class PropertyTest {
+        private final PropertyKey key;
+        private final V constant;
+        private final int slot;
+        private final boolean binds;
+        private final String text;
+
+        PropertyTest(PropertyKey key, V constant, int slot, boolean binds, String text) {
+            this.key = key;
+            this.constant = constant;
+            this.slot = slot;
+            this.binds = binds;
+            this.text = text;
+        }
+
+        boolean test(Frame f, V value) {
+            if (value == null) {
+                return false;
+            }
+            if (binds) {
+                f.values[slot] = value;
+                return true;
+            }
+            return value.equals(slot < 0 ? constant : f.values[slot]);
+        }
+    }
+
+    /**
+     * The constraints on a vertex or edge: a range of indices for its label, and property tests.
+     */
+    private class ElementTest {
+        private final boolean vertex;
+        private final int start;
+        private final int end;
+        private final List<PropertyTest> properties;
+
+        ElementTest(boolean vertex, int[] range, List<PropertyTest> properties) {
+            this.vertex = vertex;
+            this.start = range[0];
+            this.end = range[1];
+            this.properties = properties;
+        }
+
+        boolean test(Frame f, int element) {
+            if (element < start || element >= end) {
+                return false;
+            }
+            for (int i = 0; i < properties.size(); i++) {
+                PropertyTest p = properties.get(i);
+                V value = vertex ? graph.vertexProperty(element, p.key) : graph.edgeProperty(element, p.key);
+                if (!p.test(f, value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String describe() {
+            return properties.isEmpty() ? "" : properties.stream().map(p -> p.text)
+                    .collect(Collectors.joining(", ", " {", "}"));
+        }
+    }
+
+    private class Scan extends Step {
+        private final int slot;
+        private final ElementTest test;
+        private final String text;
+
+        Scan(int slot, ElementTest test, String text) {
+            this.slot = slot;
+            this.test = test;
+            this.text = text;
+        }
+
+        @Override
+        void run(Frame f) {
+            for (int v = test.start; v < test.end; v++) {
+                if (test.test(f, v)) {
+                    f.vertices[slot] = v;
+                    next.run(f);
+                }
+            }
+        }
+
+        @Override
+        String describe() {
+            return (text.contains(":") ? "NodeByLabelScan" : "AllNodesScan") + text + test.describe();
+        }
+    }
+
+    private class IndexSeek extends Step {
+        private final int slot;
+        private final Map<V, int[]> index;
+        private final Eval value;
+        private final ElementTest test;
+        private final String text;
+
+        IndexSeek(int slot, Map<V, int[]> index, Eval value, ElementTest test, String text) {
+            this.slot = slot;
+            this.index = index;
+            this.value = value;
+            this.test = test;
+            this.text = text;
+        }
+
+        @Override
+        void run(Frame f) {
+            Object key = value.eval(f);
+            int[] matches = key == null ? null : index.get(key);
+            if (matches != null) {
+                for (int v : matches) {
+                    if (test.test(f, v)) {
+                        f.vertices[slot] = v;
+                        next.run(f);
+                    }
+                }
+            }
+        }
+
+        @Override
+        String describe() {
+            return "NodeIndexSeek" + text + test.describe();
+        }
+    }
+
+    private class Check extends Step {
+        private final int slot;
+        private final ElementTest test;
+        private final String text;
+
+        Check(int slot, ElementTest test, String text) {
+            this.slot = slot;
+            this.test = test;
+            this.text = text;
+        }
+
+        @Override
+        void run(Frame f) {
+            int v = f.vertices[slot];
+            if (v >= 0 && test.test(f, v)) {
+                next.run(f);
+            }
+        }
+
+        @Override
+        String describe() {
+            return "Check" + text + test.describe();
+        }
+    }
+
+    private class Expand extends Step {
+        private final int from;
+        private final int to;
+        private final int direction;
+        private final int edgeSlot;
+        private final int[] distinctFrom;
+        private final ElementTest edgeTest;
+        private final boolean into;
+        // Constraints on the far vertex, or null if it was checked when it was bound
+        private final ElementTest toTest;
+        private final String text;
+
+        Expand(int from, int to, int direction, int edgeSlot, int[] distinctFrom, ElementTest edgeTest,
+               boolean into, ElementTest toTest, String text) {
+            this.from = from;
+            this.to = to;
+            this.direction = direction;
+            this.edgeSlot = edgeSlot;
+            this.distinctFrom = distinctFrom;
+            this.edgeTest = edgeTest;
+            this.into = into;
+            this.toTest = toTest;
+            this.text = text;
+        }
+
+        @Override
+        void run(Frame f) {
+            int v = f.vertices[from];
+            if (v < 0) {
+                return;
+            }
+            if ((direction & OUT) != 0) {
+                for (int i = 0; i < graph.outDegree(v); i++) {
+                    int e = graph.outEdge(v, i);
+                    traverse(f, e, graph.inVertex(e));
+                }
+            }
+            if ((direction & IN) != 0) {
+                for (int i = 0; i < graph.inDegree(v); i++) {
+                    int e = graph.inEdge(v, i);
+                    int w = graph.outVertex(e);
+                    // An undirected pattern matches a self-loop only once
+                    if (direction != BOTH || w != v) {
+                        traverse(f, e, w);
+                    }
+                }
+            }
+        }
+
+        private void traverse(Frame f, int e, int w) {
+            for (int other : distinctFrom) {
+                if (f.edges[other] == e) {
+                    return;
+                }
+            }
+            if (!edgeTest.test(f, e) || (into && f.vertices[to] != w) || (toTest != null && !toTest.test(f, w))) {
+                return;
+            }
+            f.vertices[to] = w;
+            f.edges[edgeSlot] = e;
+            next.run(f);
+        }
+
+        @Override
+        String describe() {
+            return (into ? "ExpandInto" : "Expand") + text + edgeTest.describe()
+                    + (toTest == null ? "" : toTest.describe());
+        }
+    }
+
+    private static class Filter extends Step {
+        private final Eval predicate;
+        private final String text;
+
+        Filter(Eval predicate, String text) {
+            this.predicate = predicate;
+            this.text = text;
+        }
+
+        @Override
+        void run(Frame f) {
+            if (Boolean.TRUE.equals(asBoolean(predicate.eval(f)))) {
+                next.run(f);
+            }
+        }
+
+        @Override
+        String describe() {
+            return "Filter(" + text + ")";
+        }
+    }
+
+    /**
+     * A left outer join with the pattern of an OPTIONAL MATCH: if the body produces no bindings, the variables it
+     * would bind are set to null, its edge slots are cleared, and execution continues.
+     */
+    private static class OptionalMatch extends Step {
+        private Step body;
+        private final int id;
+        private final int firstVertex;
+        private final int lastVertex;
+        private final int firstValue;
+        private final int lastValue;
+        private final int firstEdge;
+        private final int lastEdge;
+
+        OptionalMatch(int id, int firstVertex, int lastVertex, int firstValue, int lastValue, int firstEdge,
+                      int lastEdge) {
+            this.id = id;
+            this.firstVertex = firstVertex;
+            this.lastVertex = lastVertex;
+            this.firstValue = firstValue;
+            this.lastValue = lastValue;
+            this.firstEdge = firstEdge;
+            this.lastEdge = lastEdge;
+        }
+
+        @Override
+        void run(Frame f) {
+            int before = f.matches[id];
+            body.run(f);
+            if (f.matches[id] == before) {
+                Arrays.fill(f.vertices, firstVertex, lastVertex, -1);
+                Arrays.fill(f.values, firstValue, lastValue, null);
+                Arrays.fill(f.edges, firstEdge, lastEdge, -1);
+                next.run(f);
+            }
+        }
+
+        @Override
+        String describe() {
+            return "Optional";
+        }
+    }
+
+    private static class Matched extends Step {
+        private final OptionalMatch owner;
+
+        Matched(OptionalMatch owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        void run(Frame f) {
+            f.matches[owner.id]++;
+            owner.next.run(f);
+        }
+
+        @Override
+        String describe() {
+            return "Matched";
+        }
+    }
+
+    private static class Project extends Output {
+        private final List<String> columns;
+        private final Eval[] evals;
+        private final boolean distinct;
+
+        Project(List<String> columns, List<Eval> evals, boolean distinct) {
+            this.columns = columns;
+            this.evals = evals.toArray(new Eval[0]);
+            this.distinct = distinct;
+        }
+
+        @Override
+        void run(Frame f) {
+            Object[] row = new Object[evals.length];
+            for (int i = 0; i < evals.length; i++) {
+                row[i] = evals[i].eval(f);
+            }
+            List<Object> r = Arrays.asList(row);
+            if (!distinct || f.distinct.add(r)) {
+                f.rows.add(r);
+            }
+        }
+
+        @Override
+        String describe() {
+            return (distinct ? "Distinct" : "Project") + columns;
+        }
+
+        @Override
+        Result result(Frame f) {
+            return new Result(columns, f.rows);
+        }
+    }
+
+    private static class Count extends Output {
+        @Override
+        void run(Frame f) {
+            f.count++;
+        }
+
+        @Override
+        String describe() {
+            return "Count";
+        }
+
+        @Override
+        Result result(Frame f) {
+            return new Result(Collections.singletonList("count"),
+                    Collections.singletonList(Collections.singletonList(f.count)));
+        }
+    }
+
+    /**
+     * A vertex pattern, merged with all other patterns for the same variable in a MATCH clause.
+     */
+    private static class Node {
+        private final String variable;
+        private final int slot;
+        private final List<VertexLabel> labels = new ArrayList<>();
+        private final List<PropertyPattern> properties = new ArrayList<>();
+        private final List<Link> links = new ArrayList<>();
+        private boolean visited = false;
+
+        Node(String variable, int slot) {
+            this.variable = variable;
+            this.slot = slot;
+        }
+
+        String describe() {
+            return "(" + (variable == null ? "" : variable)
+                    + labels.stream().map(l -> ":" + l.value).collect(Collectors.joining()) + ")";
+        }
+    }
+
+    /**
+     * An edge pattern between two vertex patterns.
+     */
+    private static class Link {
+        private final Node from;
+        private final Node to;
+        private final int direction;
+        private final Optional<EdgeLabel> label;
+        private final List<PropertyPattern> properties;
+        private final int slot;
+        private boolean done = false;
+
+        Link(Node from, Node to, EdgeProjectionPattern pattern, int slot) {
+            this.from = from;
+            this.to = to;
+            this.direction = direction(pattern.direction);
+            this.label = pattern.label;
+            this.properties = pattern.properties;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * A conjunct of a WHERE clause, which is applied once all of the variables it refers to are bound.
+     */
+    private static class Conjunct {
+        private final Expression expression;
+        private final Eval eval;
+        private final Set<String> variables;
+
+        Conjunct(Expression expression, Eval eval, Set<String> variables) {
+            this.expression = expression;
+            this.eval = eval;
+            this.variables = variables;
+        }
+    }
+
+    /**
+     * A way of finding the vertices for a pattern through a property index, and the estimated number of matches.
+     */
+    private class Seek {
+        private final PropertyKey key;
+        private final Eval value;
+        private final String text;
+        private final PropertyPattern pattern;
+        private final Conjunct conjunct;
+        private final double estimate;
+
+        Seek(PropertyKey key, Eval value, String text, PropertyPattern pattern, Conjunct conjunct, double estimate) {
+            this.key = key;
+            this.value = value;
+            this.text = text;
+            this.pattern = pattern;
+            this.conjunct = conjunct;
+            this.estimate = estimate;
+        }
+    }
+
+    private class Planner {
+        private final Map<String, Integer> vertexSlots = new HashMap<>();
+        private final Map<String, Integer> valueSlots = new HashMap<>();
+        // Named variables, in order of appearance
+        private final List<String> variables = new ArrayList<>();
+        private final BitSet boundVertices = new BitSet();
+        private final BitSet boundValues = new BitSet();
+        private int vertexCount = 0;
+        private int valueCount = 0;
+        private int edgeCount = 0;
+        private int optionalCount = 0;
+
+        Plan plan(Query query) {
+            List<Query> clauses = new ArrayList<>();
+            flatten(query, clauses);
+            List<Step> steps = new ArrayList<>();
+            Output output = null;
+            for (Query clause : clauses) {
+                if (output != null) {
+                    return unsupported("a projection must be the last clause of a query");
+                }
+                output = clause.accept(new Query.PartialVisitor<Output>() {
+                    @Override
+                    public Output otherwise(Query instance) {
+                        return unsupported("unsupported query: " + instance);
+                    }
+
+                    @Override
+                    public Output visit(Query.Aggregate instance) {
+                        return instance.value.accept(new AggregationQuery.Visitor<Output>() {
+                            @Override
+                            public Output visit(AggregationQuery.Count instance) {
+                                return new Count();
+                            }
+                        });
+                    }
+
+                    @Override
+                    public Output visit(Query.Match instance) {
+                        planMatch(instance.value, steps);
+                        return null;
+                    }
+
+                    @Override
+                    public Output visit(Query.Select instance) {
+                        return select(instance.value);
+                    }
+                });
+            }
+            if (output == null) {
+                output = selectAll(false);
+            }
+            steps.add(output);
+            link(steps);
+            return new Plan(steps.get(0), output, vertexCount, valueCount, edgeCount, optionalCount);
+        }
+
+        private void flatten(Query query, List<Query> clauses) {
+            if (query instanceof Query.Application) {
+                for (Query q : ((Query.Application) query).value.value) {
+                    flatten(q, clauses);
+                }
+            } else {
+                clauses.add(query);
+            }
+        }
+
+        private void link(List<Step> steps) {
+            for (int i = 0; i < steps.size() - 1; i++) {
+                steps.get(i).next = steps.get(i + 1);
+            }
+        }
+
+        private Output select(SelectQuery query) {
+            Project all = selectAll(query.distinct);
+            List<String> columns = new ArrayList<>(query.projection.all ? all.columns : Collections.emptyList());
+            List<Eval> evals = new ArrayList<>(
+                    query.projection.all ? Arrays.asList(all.evals) : Collections.emptyList());
+            for (Projection p : query.projection.explicit) {
+                evals.add(compile(p.value, new HashSet<>()));
+                columns.add(p.as.map(v -> v.value).orElseGet(() -> show(p.value)));
+            }
+            return new Project(columns, evals, query.distinct);
+        }
+
+        private Project selectAll(boolean distinct) {
+            List<Eval> evals = new ArrayList<>();
+            for (String name : variables) {
+                evals.add(variable(name, new HashSet<>()));
+            }
+            return new Project(new ArrayList<>(variables), evals, distinct);
+        }
+
+        private void planMatch(MatchQuery match, List<Step> steps) {
+            List<Step> body = match.optional ? new ArrayList<>() : steps;
+            int firstVertex = vertexCount;
+            int firstValue = valueCount;
+            int firstEdge = edgeCount;
+
+            Map<String, Node> named = new HashMap<>();
+            List<Node> nodes = new ArrayList<>();
+            for (Projection p : match.pattern) {
+                if (p.as.isPresent()) {
+                    unsupported("path variables are not yet supported");
+                }
+                if (!(p.value instanceof Expression.Vertex)) {
+                    invalid("expected a vertex pattern, found: " + p.value);
+                }
+                node(((Expression.Vertex) p.value).value, named, nodes);
+            }
+
+            List<Conjunct> conjuncts = new ArrayList<>();
+            match.where.ifPresent(w -> conjuncts(w, conjuncts));
+
+            // Conjuncts which refer only to variables of earlier clauses are applied first
+            filter(conjuncts, body);
+            List<Integer> edges = new ArrayList<>();
+            List<Node> unvisited = new ArrayList<>(nodes);
+            while (!unvisited.isEmpty()) {
+                Node start = unvisited.get(0);
+                double best = estimate(start, conjuncts);
+                for (Node n : unvisited) {
+                    double e = estimate(n, conjuncts);
+                    if (e < best) {
+                        start = n;
+                        best = e;
+                    }
+                }
+                scan(start, conjuncts, body);
+                unvisited.remove(start);
+                filter(conjuncts, body);
+
+                Link link;
+                while ((link = nextLink(nodes)) != null) {
+                    Node from = link.from.visited ? link.from : link.to;
+                    expand(link, from, edges, body);
+                    unvisited.remove(link.from == from ? link.to : link.from);
+                    filter(conjuncts, body);
+                }
+            }
+
+            if (match.optional) {
+                OptionalMatch optional = new OptionalMatch(optionalCount++, firstVertex, vertexCount, firstValue,
+                        valueCount, firstEdge, edgeCount);
+                body.add(new Matched(optional));
+                link(body);
+                optional.body = body.get(0);
+                steps.add(optional);
+            }
+        }
+
+        private Node node(VertexPattern pattern, Map<String, Node> named, List<Node> nodes) {
+            Node node = pattern.variable.isPresent() ? named.get(pattern.variable.get().value) : null;
+            if (node == null) {
+                String name = pattern.variable.map(v -> v.value).orElse(null);
+                node = new Node(name, name == null ? vertexCount++ : vertexSlot(name));
+                nodes.add(node);
+                if (name != null) {
+                    named.put(name, node);
+                }
+            }
+            pattern.label.ifPresent(node.labels::add);
+            node.properties.addAll(pattern.properties);
+            for (PropertyPattern p : pattern.properties) {
+                declareValue(p);
+            }
+            for (EdgeProjectionPattern e : pattern.edges) {
+                Node other = node(e.vertex.orElse(ANONYMOUS_VERTEX), named, nodes);
+                Link link = new Link(node, other, e, edgeCount++);
+                node.links.add(link);
+                other.links.add(link);
+                for (PropertyPattern p : e.properties) {
+                    declareValue(p);
+                }
+            }
+            return node;
+        }
+
+        private int vertexSlot(String name) {
+            if (valueSlots.containsKey(name)) {
+                return invalid("variable is bound to both a vertex and a value: " + name);
+            }
+            return vertexSlots.computeIfAbsent(name, n -> {
+                variables.add(n);
+                return vertexCount++;
+            });
+        }
+
+        private void declareValue(PropertyPattern pattern) {
+            if (pattern.value instanceof PropertyValuePattern.Variable) {
+                String name = ((PropertyValuePattern.Variable) pattern.value).value.value;
+                if (vertexSlots.containsKey(name)) {
+                    invalid("variable is bound to both a vertex and a value: " + name);
+                }
+                valueSlots.computeIfAbsent(name, n -> {
+                    variables.add(n);
+                    return valueCount++;
+                });
+            }
+        }
+
+        private boolean isBound(String name) {
+            Integer slot = vertexSlots.get(name);
+            if (slot != null) {
+                return boundVertices.get(slot);
+            }
+            slot = valueSlots.get(name);
+            return slot != null && boundValues.get(slot);
+        }
+
+        private void conjuncts(Expression expression, List<Conjunct> conjuncts) {
+            if (expression instanceof Expression.Associative) {
+                Expression.Associative a = (Expression.Associative) expression;
+                if (a.value.operator instanceof BinaryOperator.Boolean_
+                        && ((BinaryOperator.Boolean_) a.value.operator).value instanceof BinaryBooleanOperator.And) {
+                    for (Expression operand : a.value.operands) {
+                        conjuncts(operand, conjuncts);
+                    }
+                    return;
+                }
+            }
+            Set<String> refs = new HashSet<>();
+            Eval eval = compile(expression, refs);
+            conjuncts.add(new Conjunct(expression, eval, refs));
+        }
+
+        // Apply each conjunct whose variables are all bound
+        private void filter(List<Conjunct> conjuncts, List<Step> steps) {
+            conjuncts.removeIf(c -> {
+                if (c.variables.stream().allMatch(this::isBound)) {
+                    steps.add(new Filter(c.eval, show(c.expression)));
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        private double estimate(Node node, List<Conjunct> conjuncts) {
+            if (boundVertices.get(node.slot)) {
+                return 0;
+            }
+            Seek seek = seek(node, conjuncts);
+            return seek != null ? seek.estimate : size(node);
+        }
+
+        private int size(Node node) {
+            int[] range = vertexRange(node.labels);
+            return range[1] - range[0];
+        }
+
+        // The most selective property index seek for a node, if any
+        private Seek seek(Node node, List<Conjunct> conjuncts) {
+            VertexLabel label = node.labels.isEmpty() ? null : node.labels.get(0);
+            Seek best = null;
+            for (PropertyPattern p : node.properties) {
+                Seek s = p.value.accept(new PropertyValuePattern.Visitor<Seek>() {
+                    @Override
+                    public Seek visit(PropertyValuePattern.Variable instance) {
+                        Integer slot = valueSlots.get(instance.value.value);
+                        return boundValues.get(slot)
+                                ? seek(label, p.key, f -> f.values[slot], "$" + instance.value.value, p, null)
+                                : null;
+                    }
+
+                    @Override
+                    public Seek visit(PropertyValuePattern.Value instance) {
+                        V value = values.apply(instance.value);
+                        int[] matches = index(label, p.key).get(value);
+                        return new Seek(p.key, f -> value, "'" + instance.value + "'", p, null,
+                                matches == null ? 0 : matches.length);
+                    }
+                });
+                if (s != null && (best == null || s.estimate < best.estimate)) {
+                    best = s;
+                }
+            }
+            if (node.variable != null) {
+                for (Conjunct c : conjuncts) {
+                    Seek s = seek(label, node.variable, c);
+                    if (s != null && (best == null || s.estimate < best.estimate)) {
+                        best = s;
+                    }
+                }
+            }
+            return best;
+        }
+
+        // A seek for a conjunct of the form variable.key = expression, where the expression is already bound
+        private Seek seek(VertexLabel label, String variable, Conjunct c) {
+            if (!(c.expression instanceof Expression.Binary)) {
+                return null;
+            }
+            Expression.Binary b = (Expression.Binary) c.expression;
+            if (!(b.value.operator instanceof BinaryOperator.Comparison)
+                    || comparison(((BinaryOperator.Comparison) b.value.operator).value) != EQ) {
+                return null;
+            }
+            for (Expression[] sides : new Expression[][] {
+                    {b.value.left, b.value.right}, {b.value.right, b.value.left}}) {
+                if (sides[0] instanceof Expression.Property) {
+                    Expression.Property prop = (Expression.Property) sides[0];
+                    if (prop.value.base instanceof Expression.Variable
+                            && ((Expression.Variable) prop.value.base).value.value.equals(variable)) {
+                        Set<String> refs = new HashSet<>();
+                        Eval value = compile(sides[1], refs);
+                        if (!refs.contains(variable) && refs.stream().allMatch(this::isBound)) {
+                            return seek(label, prop.value.key, value, show(sides[1]), null, c);
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        private Seek seek(VertexLabel label, PropertyKey key, Eval value, String text, PropertyPattern pattern,
+                          Conjunct conjunct) {
+            Map<V, int[]> index = index(label, key);
+            int total = 0;
+            for (int[] matches : index.values()) {
+                total += matches.length;
+            }
+            return new Seek(key, value, text, pattern, conjunct, index.isEmpty() ? 0 : (double) total / index.size());
+        }
+
+        // Emit the operator which binds a node at the start of a connected pattern
+        private void scan(Node node, List<Conjunct> conjuncts, List<Step> steps) {
+            String text = node.describe();
+            if (boundVertices.get(node.slot)) {
+                steps.add(new Check(node.slot, vertexTest(node, null), text));
+            } else {
+                Seek seek = seek(node, conjuncts);
+                if (seek == null) {
+                    steps.add(new Scan(node.slot, vertexTest(node, null), text));
+                } else {
+                    if (seek.conjunct != null) {
+                        conjuncts.remove(seek.conjunct);
+                    }
+                    VertexLabel label = node.labels.isEmpty() ? null : node.labels.get(0);
+                    steps.add(new IndexSeek(node.slot, index(label, seek.key), seek.value,
+                            vertexTest(node, seek.pattern), text + " {" + seek.key.value + " = " + seek.text + "}"));
+                }
+                boundVertices.set(node.slot);
+            }
+            node.visited = true;
+        }
+
+        // The next edge pattern to traverse from the visited nodes, preferring those which close a cycle
+        private Link nextLink(List<Node> nodes) {
+            Link next = null;
+            for (Node n : nodes) {
+                if (n.visited) {
+                    for (Link l : n.links) {
+                        if (!l.done) {
+                            if (l.from.visited && l.to.visited) {
+                                return l;
+                            }
+                            if (next == null) {
+                                next = l;
+                            }
+                        }
+                    }
+                }
+            }
+            return next;
+        }
+
+        private void expand(Link link, Node from, List<Integer> edges, List<Step> steps) {
+            boolean forward = link.from == from;
+            Node to = forward ? link.to : link.from;
+            int direction = forward || link.direction == BOTH ? link.direction : BOTH ^ link.direction;
+            boolean into = to.visited || boundVertices.get(to.slot);
+
+            ElementTest edgeTest = new ElementTest(false,
+                    range(link.label.map(Collections::singletonList).orElse(Collections.emptyList()),
+                            l -> graph.edges((EdgeLabel) l), graph.edgeCount()),
+                    propertyTests(link.properties, null));
+            ElementTest toTest = to.visited ? null : vertexTest(to, null);
+            String edge = link.label.map(l -> "[:" + l.value + "]").orElse("");
+            String text = from.describe() + (direction == IN ? "<-" : "-") + edge + (direction == OUT ? "->" : "-")
+                    + to.describe();
+
+            steps.add(new Expand(from.slot, to.slot, direction, link.slot,
+                    edges.stream().mapToInt(Integer::intValue).toArray(), edgeTest, into, toTest, text));
+            edges.add(link.slot);
+            link.done = true;
+            to.visited = true;
+            boundVertices.set(to.slot);
+        }
+
+        private int[] vertexRange(List<VertexLabel> labels) {
+            return range(labels, l -> graph.vertices((VertexLabel) l), graph.vertexCount());
+        }
+
+        private ElementTest vertexTest(Node node, PropertyPattern excluded) {
+            return new ElementTest(true, vertexRange(node.labels), propertyTests(node.properties, excluded));
+        }
+
+        // Value variables which are not yet bound are bound by the first test which refers to them
+        private List<PropertyTest> propertyTests(List<PropertyPattern> patterns, PropertyPattern excluded) {
+            List<PropertyTest> tests = new ArrayList<>();
+            for (PropertyPattern p : patterns) {
+                if (p == excluded) {
+                    continue;
+                }
+                tests.add(p.value.accept(new PropertyValuePattern.Visitor<PropertyTest>() {
+                    @Override
+                    public PropertyTest visit(PropertyValuePattern.Variable instance) {
+                        String name = instance.value.value;
+                        int slot = valueSlots.get(name);
+                        boolean binds = !boundValues.get(slot);
+                        boundValues.set(slot);
+                        return new PropertyTest(p.key, null, slot, binds,
+                                p.key.value + (binds ? " AS $" : " = $") + name);
+                    }
+
+                    @Override
+                    public PropertyTest visit(PropertyValuePattern.Value instance) {
+                        return new PropertyTest(p.key, values.apply(instance.value), -1, false,
+                                p.key.value + " = '" + instance.value + "'");
+                    }
+                }));
+            }
+            return tests;
+        }
+
+        private Eval variable(String name, Set<String> refs) {
+            refs.add(name);
+            Integer slot = vertexSlots.get(name);
+            if (slot != null) {
+                int s = slot;
+                return f -> f.vertices[s] < 0 ? null : graph.vertex(f.vertices[s]);
+            }
+            slot = valueSlots.get(name);
+            if (slot != null) {
+                int s = slot;
+                return f -> f.values[s];
+            }
+            return invalid("unknown variable: " + name);
+        }
+
+        private Eval compile(Expression expression, Set<String> refs) {
+            return expression.accept(new Expression.PartialVisitor<Eval>() {
+                @Override
+                public Eval otherwise(Expression instance) {
+                    return unsupported("unsupported expression: " + instance);
+                }
+
+                @Override
+                public Eval visit(Expression.Associative instance) {
+                    Eval[] operands = instance.value.operands.stream().map(e -> compile(e, refs))
+                            .toArray(Eval[]::new);
+                    return binary(instance.value.operator, operands);
+                }
+
+                @Override
+                public Eval visit(Expression.Binary instance) {
+                    return binary(instance.value.operator, new Eval[] {
+                            compile(instance.value.left, refs), compile(instance.value.right, refs)});
+                }
+
+                @Override
+                public Eval visit(Expression.Property instance) {
+                    if (!(instance.value.base instanceof Expression.Variable)
+                            || !vertexSlots.containsKey(((Expression.Variable) instance.value.base).value.value)) {
+                        return unsupported("properties may only be projected from vertex variables");
+                    }
+                    String name = ((Expression.Variable) instance.value.base).value.value;
+                    refs.add(name);
+                    int slot = vertexSlots.get(name);
+                    PropertyKey key = instance.value.key;
+                    return f -> f.vertices[slot] < 0 ? null : graph.vertexProperty(f.vertices[slot], key);
+                }
+
+                @Override
+                public Eval visit(Expression.Unary instance) {
+                    Eval operand = compile(instance.value.operand, refs);
+                    return f -> {
+                        Boolean b = asBoolean(operand.eval(f));
+                        return b == null ? null : !b;
+                    };
+                }
+
+                @Override
+                public Eval visit(Expression.Variable instance) {
+                    return variable(instance.value.value, refs);
+                }
+            });
+        }
+
+        private Eval binary(BinaryOperator operator, Eval[] operands) {
+            return operator.accept(new BinaryOperator.Visitor<Eval>() {
+                @Override
+                public Eval visit(BinaryOperator.Boolean_ instance) {
+                    return instance.value.accept(new BinaryBooleanOperator.Visitor<Eval>() {
+                        @Override
+                        public Eval visit(BinaryBooleanOperator.And instance) {
+                            return f -> and(operands, f);
+                        }
+
+                        @Override
+                        public Eval visit(BinaryBooleanOperator.Or instance) {
+                            return f -> or(operands, f);
+                        }
+
+                        @Override
+                        public Eval visit(BinaryBooleanOperator.Xor instance) {
+                            return f -> xor(operands, f);
+                        }
+                    });
+                }
+
+                @Override
+                public Eval visit(BinaryOperator.Comparison instance) {
+                    if (operands.length != 2) {
+                        return invalid("comparisons must have two operands");
+                    }
+                    int comparison = comparison(instance.value);
+                    Eval left = operands[0];
+                    Eval right = operands[1];
+                    return f -> compare(comparison, left.eval(f), right.eval(f));
+                }
+
+                @Override
+                public Eval visit(BinaryOperator.Power instance) {
+                    return unsupported("arithmetic is not yet supported");
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package hydra.langs.tinkerpop;
+
+import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A compact index from vertex ids to vertex labels, used to check edge endpoints without retaining vertices.
+ * Ids are stored in an open-addressing table alongside a 16-bit label number, so that each entry costs one
+ * reference and two bytes, rather than a map entry. Distinct labels are stored once, in a small side table.
+ */
+class VertexLabelIndex<V> {
+    private static final int MAX_LABELS = 1 << 16;
+
+    private final List<VertexLabel> labels = new ArrayList<>();
+    private final Map<VertexLabel, Integer> labelNumbers = new HashMap<>();
+
+    private Object[] ids = new Object[1024];
+    private short[] labelsById = new short[1024];
+    private int size = 0;
+
+    /**
+     * Add a vertex id with its label. Returns false, leaving the index unchanged, if the id is already present.
+     */
+    boolean put(V id, VertexLabel label) {
+        if (2 * (size + 1) > ids.length) {
+            resize();
+        }
+        int slot = find(ids, id);
+        if (ids[slot] != null) {
+            return false;
+        }
+        ids[slot] = id;
+        labelsById[slot] = (short) labelNumber(label);
+        size++;
+        return true;
+    }
+
+    /**
+     * The label of the vertex with the given id, or null if there is no such vertex.
+     */
+    VertexLabel get(V id) {
+        int slot = find(ids, id);
+        return ids[slot] == null ? null : labels.get(labelsById[slot] & 0xffff);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int labelNumber(VertexLabel label) {
+        Integer n = labelNumbers.get(label);
+        if (n == null) {
+            if (labels.size() == MAX_LABELS) {
+                throw new IllegalStateException("too many distinct vertex labels: " + MAX_LABELS);
+            }
+            n = labels.size();
+            labels.add(label);
+            labelNumbers.put(label, n);
+        }
+        return n;
+    }
+
+    // Linear probing over a power-of-two table which is never more than half full
+    private static int find(Object[] table, Object id) {
+        int mask = table.length - 1;
+        int h = id.hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (table[slot] != null && !table[slot].equals(id)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        Object[] oldIds = ids;
+        short[] oldLabels = labelsById;
+        ids = new Object[oldIds.length * 2];
+        labelsById = new short[oldIds.length * 2];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != null) {
+                int slot = find(ids, oldIds[i]);
+                ids[slot] = oldIds[i];
+                labelsById[slot] = oldLabels[i];
+            }
+        }
+    }
+}
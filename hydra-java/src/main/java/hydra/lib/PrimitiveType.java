@@ -6,6 +6,7 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Types;
 import hydra.graph.Graph;
+import hydra.tools.LiteralTerms;
 
 import java.math.BigInteger;
 import java.util.Comparator;
@@ -21,6 +22,10 @@ public class PrimitiveType<A, T> {
     public final Type<A> type;
     public final Function<Term<A>, Flow<Graph<A>, T>> expect;
     public final Comparator<T> comparator;
+    /**
+     * Unboxed access to literal terms of this type, producing null for any other term.
+     */
+    public final Function<Term<A>, T> fromLiteral;
 
     /**
      * Construct a primitive type.
@@ -29,10 +34,22 @@ public class PrimitiveType<A, T> {
                          Type<A> type,
                          Function<Term<A>, Flow<Graph<A>, T>> expect,
                          Comparator<T> comparator) {
+        this(name, type, expect, comparator, term -> null);
+    }
+
+    /**
+     * Construct a primitive type with a fast path for literal terms.
+     */
+    public PrimitiveType(String name,
+                         Type<A> type,
+                         Function<Term<A>, Flow<Graph<A>, T>> expect,
+                         Comparator<T> comparator,
+                         Function<Term<A>, T> fromLiteral) {
         this.name = name;
         this.type = type;
         this.expect = expect;
         this.comparator = comparator;
+        this.fromLiteral = fromLiteral;
     }
 
     /**
@@ -95,7 +112,8 @@ public class PrimitiveType<A, T> {
      * The primitive type for int32 literal values.
      */
     public static <A> PrimitiveType<A, Integer> int32() {
-        return new PrimitiveType<A, Integer>("int32", Types.int32(), Expect::int32, Integer::compareTo);
+        return new PrimitiveType<A, Integer>("int32", Types.int32(), Expect::int32, Integer::compareTo,
+            term -> LiteralTerms.isInt32(term) ? LiteralTerms.int32Value(term) : null);
     }
 
     /**
@@ -109,7 +127,8 @@ public class PrimitiveType<A, T> {
      * The primitive type for string literal values.
      */
     public static <A> PrimitiveType<A, String> string() {
-        return new PrimitiveType<A, String>("string", Types.string(), Expect::string, String::compareTo);
+        return new PrimitiveType<A, String>("string", Types.string(), Expect::string, String::compareTo,
+            term -> LiteralTerms.isString(term) ? LiteralTerms.stringValue(term) : null);
     }
 
     /**
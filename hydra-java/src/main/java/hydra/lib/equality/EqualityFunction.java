@@ -7,6 +7,7 @@ import hydra.core.Type;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
 import hydra.lib.PrimitiveType;
+import hydra.tools.LiteralTerms;
 import hydra.tools.PrimitiveFunction;
 
 import java.util.Comparator;
@@ -39,20 +40,23 @@ public abstract class EqualityFunction<A, T> extends PrimitiveFunction<A> {
     protected final Name name;
     protected final Type<A> type;
     protected final Function<Term<A>, Flow<Graph<A>, T>> expect;
+    protected final Function<Term<A>, T> fromLiteral;
     protected final BiFunction<T, T, Boolean> criterion;
 
     public EqualityFunction(PrimitiveType<A, T> type, Relation relation) {
-        this(type.name, type.type, type.expect, type.comparator, relation);
+        this(type.name, type.type, type.expect, type.fromLiteral, type.comparator, relation);
     }
 
     private EqualityFunction(String typeName,
                              Type<A> datatype,
                              Function<Term<A>, Flow<Graph<A>, T>> expect,
+                             Function<Term<A>, T> fromLiteral,
                              Comparator<T> comparator,
                              Relation relation) {
         this.name = new Name("hydra/lib/equality." + relation.prefix + capitalize(typeName));
         this.type = function(datatype, datatype, boolean_());
         this.expect = expect;
+        this.fromLiteral = fromLiteral;
         switch (relation) {
             case EQUALS:
                 this.criterion = Object::equals;
@@ -91,4 +95,14 @@ public abstract class EqualityFunction<A, T> extends PrimitiveFunction<A> {
         return args -> map2(expect.apply(args.get(0)), expect.apply(args.get(1)),
                 (arg0, arg1) -> Terms.boolean_(criterion.apply(arg0, arg1)));
     }
+
+    @Override
+    protected Term<A> applyToLiterals(List<Term<A>> args) {
+        T arg0 = fromLiteral.apply(args.get(0));
+        if (arg0 == null) {
+            return null;
+        }
+        T arg1 = fromLiteral.apply(args.get(1));
+        return arg1 == null ? null : LiteralTerms.boolean_(criterion.apply(arg0, arg1));
+    }
 }
@@ -7,7 +7,9 @@ import hydra.core.Term;
 import hydra.core.Type;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.PersistentSortedMap;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 
 import java.util.Collections;
 import java.util.List;
@@ -29,7 +31,7 @@ public class Empty<A> extends PrimitiveFunction<A> {
 
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
-        return ignored -> Flows.pure(Terms.map(apply()));
+        return ignored -> Flows.pure(Terms.map(PersistentSortedMap.empty(TermOrdering.terms())));
     }
 
     public static <K, V> Map<K, V> apply() {
@@ -9,6 +9,7 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.graph.Graph;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 
 import java.util.HashMap;
 import java.util.List;
@@ -37,7 +38,8 @@ public class FromList<A> extends PrimitiveFunction<A> {
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
         return args -> Flows.map(list(term -> Expect.pair(Flows::pure, Flows::pure, term), args.get(0)),
-                (Function<List<Tuple.Tuple2<Term<A>, Term<A>>>, Term<A>>) pairs -> new Term.Map<>(apply(pairs)));
+                (Function<List<Tuple.Tuple2<Term<A>, Term<A>>>, Term<A>>) pairs ->
+                        new Term.Map<>(TermOrdering.sortedMap(apply(pairs))));
     }
 
     /**
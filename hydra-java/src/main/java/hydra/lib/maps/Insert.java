@@ -8,7 +8,9 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.PersistentSortedMap;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 
 import java.util.HashMap;
 import java.util.List;
@@ -35,8 +37,8 @@ public class Insert<A> extends PrimitiveFunction<A> {
         return args -> {
             Term<A> key = args.get(0);
             Term<A> value = args.get(1);
-            return Flows.map(Expect.map(Flows::pure, Flows::pure, args.get(2)),
-                    before -> Terms.map(apply(key, value, before)));
+            return Flows.map(Expect.termMap(args.get(2)),
+                    before -> Terms.map(apply(key, value, TermOrdering.sortedMap(before))));
         };
     }
 
@@ -52,6 +54,10 @@ public class Insert<A> extends PrimitiveFunction<A> {
      * Apply the function to all three arguments.
      */
     public static <K, V> Map<K, V> apply(K k, V v, Map<K, V> before) {
+        if (before instanceof PersistentSortedMap) {
+            return ((PersistentSortedMap<K, V>) before).insert(k, v);
+        }
+
         Map<K, V> after = new HashMap<>(before);
         after.put(k, v);
         return after;
@@ -8,12 +8,13 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.PersistentSortedMap;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 import java.util.HashMap;
 import java.util.List;
 import java.util.function.Function;
 
-import static hydra.Flows.pure;
 import static hydra.dsl.Types.function;
 import static hydra.dsl.Types.lambda;
 import static hydra.dsl.Types.map;
@@ -32,8 +33,8 @@ public class Map<A> extends PrimitiveFunction<A> {
 
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
-        return args -> Flows.map(
-            Expect.map(Flows::pure, v -> pure(Terms.apply(args.get(0), v)), args.get(1)), Terms::map);
+        return args -> Flows.map(Expect.termMap(args.get(1)),
+            mp -> Terms.map(apply(v -> Terms.apply(args.get(0), v), TermOrdering.sortedMap(mp))));
     }
 
     public static <K, V1, V2> Function<java.util.Map<K, V1>, java.util.Map<K, V2>> apply(Function<V1, V2> mapping) {
@@ -44,6 +45,10 @@ public class Map<A> extends PrimitiveFunction<A> {
      * Apply the function to both arguments.
      */
     public static <K, V1, V2> java.util.Map<K, V2> apply(Function<V1, V2> mapping, java.util.Map<K, V1> arg) {
+        if (arg instanceof PersistentSortedMap) {
+            return ((PersistentSortedMap<K, V1>) arg).mapValues(mapping);
+        }
+
         java.util.Map<K, V2> result = new HashMap<>();
         for (java.util.Map.Entry<K, V1> e : arg.entrySet()) {
             result.put(e.getKey(), mapping.apply(e.getValue()));
@@ -9,6 +9,7 @@ import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 import java.util.HashMap;
 import java.util.List;
 import java.util.function.Function;
@@ -33,7 +34,8 @@ public class MapKeys<A> extends PrimitiveFunction<A> {
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
         return args -> Flows.map(
-            Expect.map(k -> pure(Terms.apply(args.get(0), k)), Flows::pure, args.get(1)), Terms::map);
+            Expect.map(k -> pure(Terms.apply(args.get(0), k)), Flows::pure, args.get(1)),
+            mp -> Terms.map(TermOrdering.sortedMap(mp)));
     }
 
     public static <K1, K2, V> Function<java.util.Map<K1, V>, java.util.Map<K2, V>> apply(Function<K1, K2> mapping) {
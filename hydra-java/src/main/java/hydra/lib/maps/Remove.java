@@ -8,7 +8,9 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.PersistentSortedMap;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 
 import java.util.HashMap;
 import java.util.List;
@@ -34,8 +36,8 @@ public class Remove<A> extends PrimitiveFunction<A> {
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
         return args -> {
             Term<A> key = args.get(0);
-            return Flows.map(Expect.map(Flows::pure, Flows::pure, args.get(2)),
-                    before -> Terms.map(apply(key, before)));
+            return Flows.map(Expect.termMap(args.get(1)),
+                    before -> Terms.map(apply(key, TermOrdering.sortedMap(before))));
         };
     }
 
@@ -47,6 +49,10 @@ public class Remove<A> extends PrimitiveFunction<A> {
      * Apply the function to both arguments.
      */
     public static <K, V> Map<K, V> apply(K k, Map<K, V> before) {
+        if (before instanceof PersistentSortedMap) {
+            return ((PersistentSortedMap<K, V>) before).delete(k);
+        }
+
         Map<K, V> after = new HashMap<>(before);
         after.remove(k);
         return after;
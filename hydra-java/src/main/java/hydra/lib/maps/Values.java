@@ -36,7 +36,7 @@ public class Values<A> extends PrimitiveFunction<A> {
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
         return args -> {
-            Flow<Graph<A>, Map<Term<A>, Term<A>>> r = Expect.map(Flows::pure, Flows::pure, args.get(0));
+            Flow<Graph<A>, Map<Term<A>, Term<A>>> r = Expect.termMap(args.get(0));
             return Flows.map(r, map -> Terms.list(apply(map)));
         };
     }
@@ -6,6 +6,7 @@ import hydra.core.Term;
 import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.graph.Graph;
+import hydra.tools.LiteralTerms;
 import hydra.tools.PrimitiveFunction;
 
 import java.util.List;
@@ -34,6 +35,16 @@ public class Add<A> extends PrimitiveFunction<A> {
             (arg0, arg1) -> Terms.int32(apply(arg0, arg1)));
     }
 
+    @Override
+    protected Term<A> applyToLiterals(List<Term<A>> args) {
+        if (!(LiteralTerms.isInt32(args.get(0)) && LiteralTerms.isInt32(args.get(1)))) {
+            return null;
+        }
+        int a = LiteralTerms.int32Value(args.get(0));
+        int b = LiteralTerms.int32Value(args.get(1));
+        return LiteralTerms.int32(apply(a, b));
+    }
+
     public static Function<Integer, Integer> apply(Integer augend) {
         return (addend) -> apply(augend, addend);
     }
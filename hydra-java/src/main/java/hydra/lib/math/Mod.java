@@ -7,6 +7,7 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.LiteralTerms;
 import hydra.tools.PrimitiveFunction;
 
 import java.util.List;
@@ -32,6 +33,17 @@ public class Mod<A> extends PrimitiveFunction<A> {
             (arg0, arg1) -> Terms.int32(apply(arg0, arg1)));
     }
 
+    @Override
+    protected Term<A> applyToLiterals(List<Term<A>> args) {
+        if (!(LiteralTerms.isInt32(args.get(0)) && LiteralTerms.isInt32(args.get(1)))) {
+            return null;
+        }
+        int a = LiteralTerms.int32Value(args.get(0));
+        int b = LiteralTerms.int32Value(args.get(1));
+        // Division by zero is left to the general implementation, which fails
+        return b == 0 ? null : LiteralTerms.int32(apply(a, b));
+    }
+
     public static Function<Integer, Integer> apply(Integer dividend) {
         return (divisor) -> apply(dividend, divisor);
     }
@@ -8,6 +8,7 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.LiteralTerms;
 import hydra.tools.PrimitiveFunction;
 import java.util.List;
 import java.util.function.Function;
@@ -32,6 +33,14 @@ public class Neg<A> extends PrimitiveFunction<A> {
             (arg0) -> Terms.int32(apply(arg0)));
     }
 
+    @Override
+    protected Term<A> applyToLiterals(List<Term<A>> args) {
+        if (!LiteralTerms.isInt32(args.get(0))) {
+            return null;
+        }
+        return LiteralTerms.int32(apply(LiteralTerms.int32Value(args.get(0))));
+    }
+
     public static Integer apply(Integer num) {
         return (-1 * num);
     }
@@ -7,7 +7,9 @@ import hydra.core.Term;
 import hydra.core.Type;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.PersistentSortedSet;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 
 import java.util.Collections;
 import java.util.List;
@@ -30,7 +32,7 @@ public class Empty<A> extends PrimitiveFunction<A> {
 
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
-        return ignored -> Flows.pure(Terms.set(apply()));
+        return ignored -> Flows.pure(Terms.set(PersistentSortedSet.empty(TermOrdering.terms())));
     }
 
     public static <X> Set<X> apply() {
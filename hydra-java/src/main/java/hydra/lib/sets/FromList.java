@@ -9,6 +9,7 @@ import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 
 import java.util.HashSet;
 import java.util.List;
@@ -33,7 +34,7 @@ public class FromList<A> extends PrimitiveFunction<A> {
 
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
-        return args -> Flows.map(Expect.list(Flows::pure, args.get(0)), arg -> Terms.set(apply(arg)));
+        return args -> Flows.map(Expect.list(Flows::pure, args.get(0)), arg -> Terms.set(TermOrdering.sortedSet(arg)));
     }
 
     public static <X> Set<X> apply(List<X> arg) {
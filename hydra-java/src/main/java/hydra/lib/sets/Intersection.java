@@ -8,7 +8,9 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.PersistentSortedSet;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 
 import java.util.HashSet;
 import java.util.List;
@@ -32,9 +34,9 @@ public class Intersection<A> extends PrimitiveFunction<A> {
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
         return args -> Flows.map2(
-                Expect.set(Flows::pure, args.get(0)),
-                Expect.set(Flows::pure, args.get(1)),
-                (s1, s2) -> Terms.set(apply(s1, s2)));
+                Expect.termSet(args.get(0)),
+                Expect.termSet(args.get(1)),
+                (s1, s2) -> Terms.set(apply(TermOrdering.sortedSet(s1), s2)));
     }
 
     public static <X> Function<Set<X>, Set<X>> apply(Set<X> s1) {
@@ -45,6 +47,11 @@ public class Intersection<A> extends PrimitiveFunction<A> {
      * Apply the function to both arguments.
      */
     public static <X> Set<X> apply(Set<X> s1, Set<X> s2) {
+        if (s1 instanceof PersistentSortedSet) {
+            PersistentSortedSet<X> sorted = (PersistentSortedSet<X>) s1;
+            return sorted.intersection(PersistentSortedSet.from(sorted.comparator(), s2));
+        }
+
         Set<X> newSet = new HashSet<>(s1);
         newSet.retainAll(s2);
         return newSet;
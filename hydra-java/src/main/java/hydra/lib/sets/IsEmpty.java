@@ -32,7 +32,7 @@ public class IsEmpty<A> extends PrimitiveFunction<A> {
 
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
-        return args -> Flows.map(Expect.set(Flows::pure, args.get(0)), arg -> Terms.boolean_(apply(arg)));
+        return args -> Flows.map(Expect.termSet(args.get(0)), arg -> Terms.boolean_(apply(arg)));
     }
 
     public static <X> Boolean apply(Set<X> arg) {
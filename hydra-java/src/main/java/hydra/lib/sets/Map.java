@@ -9,6 +9,7 @@ import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 
 import java.util.List;
 import java.util.function.Function;
@@ -35,8 +36,8 @@ public class Map<A> extends PrimitiveFunction<A> {
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
         return args -> {
             Term<A> mapping = args.get(0);
-            return Flows.map(Expect.set(Flows::pure, args.get(1)),
-                arg -> Terms.set(arg.stream().map(e -> Terms.apply(mapping, e)).collect(Collectors.toSet())));
+            return Flows.map(Expect.termSet(args.get(1)), arg -> Terms.set(TermOrdering.sortedSet(
+                arg.stream().map(e -> Terms.apply(mapping, e)).collect(Collectors.toList()))));
         };
     }
 
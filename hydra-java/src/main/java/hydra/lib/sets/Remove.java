@@ -8,7 +8,9 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.PersistentSortedSet;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 
 import java.util.List;
 import java.util.function.Function;
@@ -32,7 +34,8 @@ public class Remove<A> extends PrimitiveFunction<A> {
 
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
-        return args -> Flows.map(Expect.set(Flows::pure, args.get(1)), arg -> Terms.set(apply(args.get(0), arg)));
+        return args -> Flows.map(Expect.termSet(args.get(1)),
+            arg -> Terms.set(apply(args.get(0), TermOrdering.sortedSet(arg))));
     }
 
     public static <X> Function<Set<X>, Set<X>> apply(X elem) {
@@ -43,6 +46,10 @@ public class Remove<A> extends PrimitiveFunction<A> {
      * Apply the function to both arguments.
      */
     public static <X> Set<X> apply(X elem, Set<X> arg) {
+        if (arg instanceof PersistentSortedSet) {
+            return ((PersistentSortedSet<X>) arg).delete(elem);
+        }
+
         Set<X> newSet = new HashSet<>(arg);
         newSet.remove(elem);
         return newSet;
@@ -8,7 +8,9 @@ import hydra.core.Type;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
 import hydra.tools.PrimitiveFunction;
+import hydra.tools.TermOrdering;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -31,7 +33,7 @@ public class Singleton<A> extends PrimitiveFunction<A> {
 
     @Override
     protected Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation() {
-        return args -> Flows.pure(Terms.set(apply(args.get(0))));
+        return args -> Flows.pure(Terms.set(TermOrdering.sortedSet(Collections.singleton(args.get(0)))));
     }
 
     /**
@@ -8,6 +8,7 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.LiteralTerms;
 import hydra.tools.PrimitiveFunction;
 
 import java.util.List;
@@ -34,6 +35,13 @@ public class Cat2<A> extends PrimitiveFunction<A> {
             (l, r) -> Terms.string(Cat2.apply(l, r)));
     }
 
+    @Override
+    protected Term<A> applyToLiterals(List<Term<A>> args) {
+        return LiteralTerms.isString(args.get(0)) && LiteralTerms.isString(args.get(1))
+                ? Terms.string(apply(LiteralTerms.stringValue(args.get(0)), LiteralTerms.stringValue(args.get(1))))
+                : null;
+    }
+
     public static String apply(String left, String right) {
         return left + right;
     }
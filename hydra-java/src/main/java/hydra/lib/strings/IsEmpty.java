@@ -7,6 +7,7 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.LiteralTerms;
 import hydra.tools.PrimitiveFunction;
 
 import java.util.List;
@@ -33,6 +34,13 @@ public class IsEmpty<A> extends PrimitiveFunction<A> {
         return args -> map(Expect.string(args.get(0)), s -> Terms.boolean_(apply(s)));
     }
 
+    @Override
+    protected Term<A> applyToLiterals(List<Term<A>> args) {
+        return LiteralTerms.isString(args.get(0))
+                ? LiteralTerms.boolean_(apply(LiteralTerms.stringValue(args.get(0))))
+                : null;
+    }
+
     public static boolean apply(String s) {
         return s.isEmpty();
     }
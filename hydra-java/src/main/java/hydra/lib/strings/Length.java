@@ -7,6 +7,7 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.LiteralTerms;
 import hydra.tools.PrimitiveFunction;
 import java.util.List;
 import java.util.function.Function;
@@ -32,6 +33,13 @@ public class Length<A> extends PrimitiveFunction<A> {
         return args -> map(Expect.string(args.get(0)), s -> Terms.int32(apply(s)));
     }
 
+    @Override
+    protected Term<A> applyToLiterals(List<Term<A>> args) {
+        return LiteralTerms.isString(args.get(0))
+                ? LiteralTerms.int32(apply(LiteralTerms.stringValue(args.get(0))))
+                : null;
+    }
+
     public static int apply(String s) {
         return s.length();
     }
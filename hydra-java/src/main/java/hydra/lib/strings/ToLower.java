@@ -8,6 +8,7 @@ import hydra.core.Type;
 import hydra.dsl.Expect;
 import hydra.dsl.Terms;
 import hydra.graph.Graph;
+import hydra.tools.LiteralTerms;
 import hydra.tools.PrimitiveFunction;
 import java.util.List;
 import java.util.function.Function;
@@ -31,6 +32,11 @@ public class ToLower<A> extends PrimitiveFunction<A> {
         return args -> Flows.map(Expect.string(args.get(0)), s -> Terms.string(apply(s)));
     }
 
+    @Override
+    protected Term<A> applyToLiterals(List<Term<A>> args) {
+        return LiteralTerms.isString(args.get(0)) ? Terms.string(apply(LiteralTerms.stringValue(args.get(0)))) : null;
+    }
+
     public static String apply(String upper) {
         // TODO: Java's built-in behavior may not agree with that of Haskell or other host languages
         return upper.toLowerCase();
@@ -0,0 +1,214 @@
+package hydra.tools;
+
+import hydra.compute.Kv;
+import hydra.core.Term;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/**
+ * An immutable map of annotation keys to annotation values, held in a pair of arrays sorted by key. Annotation maps
+ * are usually very small, and an array map needs a small fraction of the memory of a HashMap with the same entries.
+ * Keys are interned, so that lookups usually succeed on the first identity comparison, and the hash code is computed
+ * at most once.
+ * The standard mutators of java.util.Map are not supported; use with or without instead.
+ */
+public final class AnnotationMap extends AbstractMap<String, Term<Kv>> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final AnnotationMap EMPTY = new AnnotationMap(new String[0], newValues(0));
+
+    // Larger maps are searched by bisection rather than by scanning
+    private static final int MAX_SCAN = 4;
+
+    private final String[] keys;
+    private final Term<Kv>[] values;
+    private int hash;
+
+    private AnnotationMap(String[] keys, Term<Kv>[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * The empty annotation map.
+     */
+    public static AnnotationMap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Construct an annotation map with the same entries as another map. If the map is already an AnnotationMap, it
+     * is returned as-is.
+     */
+    public static AnnotationMap from(Map<String, Term<Kv>> map) {
+        if (map instanceof AnnotationMap) {
+            return (AnnotationMap) map;
+        }
+        if (map.isEmpty()) {
+            return EMPTY;
+        }
+        String[] keys = new String[map.size()];
+        int i = 0;
+        for (String key : map.keySet()) {
+            keys[i++] = key.intern();
+        }
+        Arrays.sort(keys);
+        Term<Kv>[] values = newValues(keys.length);
+        for (i = 0; i < keys.length; i++) {
+            values[i] = map.get(keys[i]);
+        }
+        return new AnnotationMap(keys, values);
+    }
+
+    /**
+     * This map with an entry added or replaced.
+     */
+    public AnnotationMap with(String key, Term<Kv> value) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            if (values[i].equals(value)) {
+                return this;
+            }
+            Term<Kv>[] vs = values.clone();
+            vs[i] = value;
+            return new AnnotationMap(keys, vs);
+        }
+        int at = -(i + 1);
+        String[] ks = new String[keys.length + 1];
+        Term<Kv>[] vs = newValues(keys.length + 1);
+        System.arraycopy(keys, 0, ks, 0, at);
+        System.arraycopy(values, 0, vs, 0, at);
+        ks[at] = key.intern();
+        vs[at] = value;
+        System.arraycopy(keys, at, ks, at + 1, keys.length - at);
+        System.arraycopy(values, at, vs, at + 1, keys.length - at);
+        return new AnnotationMap(ks, vs);
+    }
+
+    /**
+     * This map without the entry for a key, if any.
+     */
+    public AnnotationMap without(String key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return this;
+        }
+        if (keys.length == 1) {
+            return EMPTY;
+        }
+        String[] ks = new String[keys.length - 1];
+        Term<Kv>[] vs = newValues(keys.length - 1);
+        System.arraycopy(keys, 0, ks, 0, i);
+        System.arraycopy(values, 0, vs, 0, i);
+        System.arraycopy(keys, i + 1, ks, i, keys.length - i - 1);
+        System.arraycopy(values, i + 1, vs, i, keys.length - i - 1);
+        return new AnnotationMap(ks, vs);
+    }
+
+    @Override
+    public Term<Kv> get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int i = indexOf((String) key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Term<Kv>>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Term<Kv>>>() {
+            @Override
+            public Iterator<Map.Entry<String, Term<Kv>>> iterator() {
+                return new Iterator<Map.Entry<String, Term<Kv>>>() {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, Term<Kv>> next() {
+                        if (next >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next++;
+                        return new SimpleImmutableEntry<>(keys[i], values[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other instanceof AnnotationMap) {
+            AnnotationMap o = (AnnotationMap) other;
+            return hashCode() == o.hashCode() && Arrays.equals(keys, o.keys) && Arrays.equals(values, o.values);
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && keys.length > 0) {
+            h = super.hashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    // An array of values. Arrays of a generic type cannot be created directly, but this array holds only terms.
+    @SuppressWarnings("unchecked")
+    private static Term<Kv>[] newValues(int length) {
+        return (Term<Kv>[]) new Term<?>[length];
+    }
+
+    // The index of a key, or (-(insertion point) - 1) if there is no such key
+    private int indexOf(String key) {
+        if (keys.length <= MAX_SCAN) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            for (int i = 0; i < keys.length; i++) {
+                int c = keys[i].compareTo(key);
+                if (c == 0) {
+                    return i;
+                } else if (c > 0) {
+                    return -(i + 1);
+                }
+            }
+            return -(keys.length + 1);
+        }
+        return Arrays.binarySearch(keys, key);
+    }
+}
@@ -0,0 +1,218 @@
+package hydra.tools;
+
+import hydra.core.Literal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+
+/**
+ * An immutable sequence of bytes, which may be a view of part of a larger array or buffer, including a buffer mapped
+ * from a file. Slicing does not copy, and the hash code is computed at most once.
+ * <p>
+ * Binary literals hold their bytes as base64 text, and are converted explicitly at the boundary: see
+ * {@link #fromLiteral} and {@link #toLiteral}. Bytes may also be converted to and from binary strings, in which each
+ * character, from U+0000 to U+00FF, stands for one byte; the JVM stores such strings with one byte per character.
+ * A string always owns its characters, so converting to or from a string copies the bytes: once if they are held in
+ * an array, and twice if they are held in a direct or mapped buffer, which must first be read into an array.
+ */
+public final class Bytes implements Comparable<Bytes> {
+    private static final Bytes EMPTY = new Bytes(new byte[0], 0, 0);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // A read-only buffer whose position is zero and whose limit is the length
+    private final ByteBuffer buffer;
+    // The array which holds the bytes, starting at the offset, or null if they are not held in an accessible array
+    private final byte[] array;
+    private final int offset;
+    private int hash;
+
+    private Bytes(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.array = null;
+        this.offset = 0;
+    }
+
+    private Bytes(byte[] array, int offset, int length) {
+        this.buffer = ByteBuffer.wrap(array, offset, length).slice().asReadOnlyBuffer();
+        this.array = array;
+        this.offset = offset;
+    }
+
+    /**
+     * The empty byte sequence.
+     */
+    public static Bytes empty() {
+        return EMPTY;
+    }
+
+    /**
+     * A copy of an array of bytes.
+     */
+    public static Bytes of(byte[] bytes) {
+        return new Bytes(bytes.clone(), 0, bytes.length);
+    }
+
+    /**
+     * A view of the remaining bytes of a buffer, which is not copied. The bytes must not change afterwards.
+     */
+    public static Bytes wrap(ByteBuffer buffer) {
+        return buffer.hasArray()
+                ? new Bytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining())
+                : new Bytes(buffer.slice().asReadOnlyBuffer());
+    }
+
+    /**
+     * The bytes of a binary string.
+     *
+     * @throws IllegalArgumentException if the string contains a character above U+00FF
+     */
+    public static Bytes fromBinaryString(String s) {
+        if (!isBinaryString(s)) {
+            throw new IllegalArgumentException("not a binary string");
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.ISO_8859_1);
+        return new Bytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The bytes of a binary literal, which holds them as base64 text.
+     *
+     * @throws IllegalArgumentException if the literal is not valid base64
+     */
+    public static Bytes fromLiteral(Literal.Binary literal) {
+        byte[] bytes = Base64.getDecoder().decode(literal.value);
+        return new Bytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Whether each character of a string stands for a byte.
+     */
+    public static boolean isBinaryString(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xff) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The number of bytes.
+     */
+    public int length() {
+        return buffer.limit();
+    }
+
+    /**
+     * The byte at a given index.
+     */
+    public byte get(int index) {
+        return buffer.get(index);
+    }
+
+    /**
+     * The bytes from an index (inclusive) to another (exclusive), as a view of these bytes.
+     */
+    public Bytes slice(int from, int to) {
+        if (from < 0 || to > length() || from > to) {
+            throw new IndexOutOfBoundsException("slice [" + from + ", " + to + ") of " + length() + " bytes");
+        }
+        if (from == 0 && to == length()) {
+            return this;
+        }
+        if (array != null) {
+            return new Bytes(array, offset + from, to - from);
+        }
+        ByteBuffer view = buffer.duplicate();
+        view.position(from).limit(to);
+        return new Bytes(view.slice());
+    }
+
+    /**
+     * A read-only buffer over these bytes.
+     */
+    public ByteBuffer asByteBuffer() {
+        return buffer.duplicate();
+    }
+
+    /**
+     * A copy of these bytes.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[length()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * These bytes as a binary string, as held by a binary literal.
+     */
+    public String toBinaryString() {
+        return array != null
+                ? new String(array, offset, length(), StandardCharsets.ISO_8859_1)
+                : new String(toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * A binary literal holding these bytes, as base64 text.
+     */
+    public Literal toLiteral() {
+        ByteBuffer encoded = Base64.getEncoder().encode(buffer.duplicate());
+        return new Literal.Binary(new String(encoded.array(), 0, encoded.remaining(), StandardCharsets.ISO_8859_1));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Bytes)) {
+            return false;
+        }
+        Bytes o = (Bytes) other;
+        return length() == o.length() && hashCode() == o.hashCode() && buffer.equals(o.buffer);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 1;
+            for (int i = 0; i < length(); i++) {
+                h = 31 * h + buffer.get(i);
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Compare bytes lexicographically, as unsigned values. This is the order of the corresponding binary strings.
+     */
+    @Override
+    public int compareTo(Bytes other) {
+        int n = Math.min(length(), other.length());
+        for (int i = 0; i < n; i++) {
+            int c = Integer.compare(get(i) & 0xff, other.get(i) & 0xff);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return Integer.compare(length(), other.length());
+    }
+
+    /**
+     * These bytes in hexadecimal.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(2 * length());
+        for (int i = 0; i < length(); i++) {
+            int b = buffer.get(i) & 0xff;
+            sb.append(HEX[b >>> 4]).append(HEX[b & 0xf]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,149 @@
+package hydra.tools;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Supplier;
+
+
+/**
+ * An immutable, structurally shared list with constant-time prepend (cons) and append (snoc).
+ * The list is made up of a front and a back tail-sharing list, so that any number of lists derived from a common
+ * ancestor share all of the ancestor's nodes. Elements may be provided lazily, in which case they are computed at
+ * most once, when first read. Random access materializes the elements into an array on first use.
+ */
+public class ConsList<X> extends AbstractList<X> {
+    private static final ConsList<?> EMPTY = new ConsList<>(null, null, 0);
+
+    // Elements from the head of the list onward, in order
+    private final LList<Object> front;
+    // Elements appended to the end of the list, most recently appended first
+    private final LList<Object> back;
+    private final int size;
+    private volatile Object[] elements;
+
+    private ConsList(LList<Object> front, LList<Object> back, int size) {
+        this.front = front;
+        this.back = back;
+        this.size = size;
+    }
+
+    /**
+     * The empty list.
+     */
+    @SuppressWarnings("unchecked")
+    public static <X> ConsList<X> empty() {
+        return (ConsList<X>) EMPTY;
+    }
+
+    /**
+     * View a list as a ConsList, copying its elements only if it is not one already.
+     */
+    public static <X> ConsList<X> from(List<X> list) {
+        if (list instanceof ConsList) {
+            return (ConsList<X>) list;
+        }
+
+        LList<Object> front = null;
+        ListIterator<X> iter = list.listIterator(list.size());
+        while (iter.hasPrevious()) {
+            front = LList.push(iter.previous(), front);
+        }
+        return new ConsList<>(front, null, list.size());
+    }
+
+    /**
+     * Construct a list by prepending an element to another list (which is not modified).
+     */
+    public static <X> ConsList<X> cons(X first, List<X> rest) {
+        return prepend(first, from(rest));
+    }
+
+    /**
+     * Construct a list by prepending a lazily computed element to another list (which is not modified).
+     */
+    public static <X> ConsList<X> consLazy(Supplier<X> first, List<X> rest) {
+        return prepend(new Lazy<>(first), from(rest));
+    }
+
+    /**
+     * Construct a list by appending an element to another list (which is not modified).
+     */
+    public static <X> ConsList<X> snoc(List<X> init, X last) {
+        ConsList<X> l = from(init);
+        return new ConsList<>(l.front, LList.push(last, l.back), l.size + 1);
+    }
+
+    private static <X> ConsList<X> prepend(Object first, ConsList<X> rest) {
+        return new ConsList<>(LList.push(first, rest.front), rest.back, rest.size + 1);
+    }
+
+    /**
+     * Get an element by index. The first call copies the whole list into an array, which takes O(n) time and space;
+     * later calls on the same list take constant time. Each list derived by cons or snoc makes its own copy, so
+     * prefer iteration over indexing for lists which are read only once.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public X get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for list of size " + size);
+        }
+        Object el = materialize()[index];
+        return el instanceof Lazy ? ((Lazy<X>) el).get() : (X) el;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private Object[] materialize() {
+        Object[] els = elements;
+        if (els == null) {
+            els = new Object[size];
+            int i = 0;
+            for (LList<Object> cur = front; cur != null; cur = cur.rest) {
+                els[i++] = cur.first;
+            }
+            int j = size;
+            for (LList<Object> cur = back; cur != null; cur = cur.rest) {
+                els[--j] = cur.first;
+            }
+            elements = els;
+        }
+        return els;
+    }
+
+    /**
+     * An element which is computed on first access, and then retained.
+     */
+    private static class Lazy<X> {
+        private Supplier<X> supplier;
+        private volatile X value;
+
+        private Lazy(Supplier<X> supplier) {
+            this.supplier = supplier;
+        }
+
+        private X get() {
+            X v = value;
+            if (v == null) {
+                synchronized (this) {
+                    v = value;
+                    if (v == null) {
+                        v = supplier.get();
+                        value = v;
+                        supplier = null;
+                    }
+                }
+            }
+            return v;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package hydra.tools;
+
+import hydra.Flows;
+import hydra.compute.Flow;
+import hydra.core.IntegerValue;
+import hydra.core.Literal;
+import hydra.core.Term;
+
+
+/**
+ * Unboxed access to literal terms, for use in the fast paths of primitive functions.
+ * Terms for small int32 values and for booleans are shared, rather than allocated on each use, as are the pure flows
+ * which produce them.
+ */
+public class LiteralTerms {
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+
+    private static final Term<?>[] INT32_CACHE = new Term<?>[CACHE_HIGH - CACHE_LOW + 1];
+    private static final Term<?> TRUE = new Term.Literal<>(new Literal.Boolean_(true));
+    private static final Term<?> FALSE = new Term.Literal<>(new Literal.Boolean_(false));
+
+    private static final Flow<?, ?>[] INT32_FLOWS = new Flow<?, ?>[INT32_CACHE.length];
+    private static final Flow<?, ?> TRUE_FLOW = Flows.pure(TRUE);
+    private static final Flow<?, ?> FALSE_FLOW = Flows.pure(FALSE);
+
+    static {
+        for (int i = 0; i < INT32_CACHE.length; i++) {
+            INT32_CACHE[i] = newInt32(i + CACHE_LOW);
+            INT32_FLOWS[i] = Flows.pure(INT32_CACHE[i]);
+        }
+    }
+
+    private LiteralTerms() {
+    }
+
+    /**
+     * Construct a boolean literal term.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> Term<A> boolean_(boolean value) {
+        return (Term<A>) (value ? TRUE : FALSE);
+    }
+
+    /**
+     * Construct an int32 literal term, using a shared instance for small values.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> Term<A> int32(int value) {
+        return value >= CACHE_LOW && value <= CACHE_HIGH
+                ? (Term<A>) INT32_CACHE[value - CACHE_LOW]
+                : newInt32(value);
+    }
+
+    /**
+     * Produce a term as a pure flow. The flows for shared terms are themselves shared; other terms get a new flow.
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, A> Flow<S, Term<A>> pure(Term<A> term) {
+        if (term == TRUE) {
+            return (Flow<S, Term<A>>) TRUE_FLOW;
+        }
+        if (term == FALSE) {
+            return (Flow<S, Term<A>>) FALSE_FLOW;
+        }
+        if (isInt32(term)) {
+            int value = int32Value(term);
+            if (value >= CACHE_LOW && value <= CACHE_HIGH && INT32_CACHE[value - CACHE_LOW] == term) {
+                return (Flow<S, Term<A>>) INT32_FLOWS[value - CACHE_LOW];
+            }
+        }
+        return Flows.pure(term);
+    }
+
+    /**
+     * Check whether a term is an (unannotated) int32 literal.
+     */
+    public static boolean isInt32(Term<?> term) {
+        return term instanceof Term.Literal
+                && ((Term.Literal<?>) term).value instanceof Literal.Integer_
+                && ((Literal.Integer_) ((Term.Literal<?>) term).value).value instanceof IntegerValue.Int32;
+    }
+
+    /**
+     * Check whether a term is an (unannotated) string literal.
+     */
+    public static boolean isString(Term<?> term) {
+        return term instanceof Term.Literal && ((Term.Literal<?>) term).value instanceof Literal.String_;
+    }
+
+    /**
+     * Get the value of a term which is known to be an int32 literal.
+     */
+    public static int int32Value(Term<?> term) {
+        return ((IntegerValue.Int32) ((Literal.Integer_) ((Term.Literal<?>) term).value).value).value;
+    }
+
+    /**
+     * Get the value of a term which is known to be a string literal.
+     */
+    public static String stringValue(Term<?> term) {
+        return ((Literal.String_) ((Term.Literal<?>) term).value).value;
+    }
+
+    private static <A> Term<A> newInt32(int value) {
+        return new Term.Literal<>(new Literal.Integer_(new IntegerValue.Int32(value)));
+    }
+}
@@ -0,0 +1,431 @@
+package hydra.tools;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+
+/**
+ * An immutable map backed by a hash array mapped trie (HAMT), after Bagwell and Clojure's PersistentHashMap.
+ * Each level of the trie consumes five bits of a key's hash, so that insertion, removal and lookup take
+ * O(log32 n) time, and a new map shares all but O(log32 n) nodes with the original map. Hashes are computed once,
+ * when an entry is inserted, and are stored with the entry; they are compared before keys on lookup, and are never
+ * recomputed as the trie is restructured. Entries are iterated in no particular order.
+ * The standard mutators of java.util.Map are not supported; use insert and delete instead.
+ */
+public class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(Branch.EMPTY, 0);
+
+    private final Branch root;
+    private final int size;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentHashMap(Branch root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * The empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Construct a map from the entries of another map. If the map is already a PersistentHashMap, it is returned
+     * as-is.
+     */
+    public static <K, V> PersistentHashMap<K, V> from(Map<K, V> map) {
+        if (map instanceof PersistentHashMap) {
+            return (PersistentHashMap<K, V>) map;
+        }
+        PersistentHashMap<K, V> result = empty();
+        for (Map.Entry<K, V> e : map.entrySet()) {
+            result = result.insert(e.getKey(), e.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Get the value for a key, or null if the key is not present.
+     */
+    @Override
+    public V get(Object key) {
+        Leaf<K, V> leaf = find(key);
+        return leaf == null ? null : leaf.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    /**
+     * Add or replace an entry, producing a new map.
+     */
+    public PersistentHashMap<K, V> insert(K key, V value) {
+        Leaf<K, V> leaf = new Leaf<>(hash(key), key, value);
+        int[] added = new int[1];
+        Branch r = (Branch) insert(root, leaf, 0, added);
+        return r == root ? this : new PersistentHashMap<>(r, size + added[0]);
+    }
+
+    /**
+     * Remove an entry, if present, producing a new map.
+     */
+    public PersistentHashMap<K, V> delete(K key) {
+        Object r = delete(root, hash(key), key, 0);
+        if (r == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(r == null ? Branch.EMPTY : (Branch) r, size - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new LeafIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException("persistent map; use insert instead");
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException("persistent map; use delete instead");
+    }
+
+    // Spread the bits of a hash code, so that the low-order bits used by the first levels of the trie are well mixed
+    // even for hash codes, such as those of the generated Hydra classes, which are multiples of a constant
+    static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Leaf<K, V> find(Object key) {
+        int hash = hash(key);
+        Object node = root;
+        for (int shift = 0; ; shift += BITS) {
+            if (node instanceof Branch) {
+                Branch b = (Branch) node;
+                int bit = bit(hash, shift);
+                if ((b.bitmap & bit) == 0) {
+                    return null;
+                }
+                node = b.slots[b.index(bit)];
+            } else if (node instanceof Leaf) {
+                Leaf<K, V> leaf = (Leaf<K, V>) node;
+                return leaf.hash == hash && Objects.equals(leaf.key, key) ? leaf : null;
+            } else {
+                return ((Collision) node).find(hash, key);
+            }
+        }
+    }
+
+    // Insert a leaf into a node at the given depth, returning the node itself if nothing has changed.
+    // The first element of the array is set to 1 if a new key has been added
+    @SuppressWarnings("unchecked")
+    private static Object insert(Object node, Leaf<?, ?> leaf, int shift, int[] added) {
+        if (node instanceof Branch) {
+            Branch b = (Branch) node;
+            int bit = bit(leaf.hash, shift);
+            int i = b.index(bit);
+            if ((b.bitmap & bit) == 0) {
+                added[0] = 1;
+                return b.inserted(bit, i, leaf);
+            }
+            Object child = b.slots[i];
+            Object c = insert(child, leaf, shift + BITS, added);
+            return c == child ? b : b.replaced(i, c);
+        } else if (node instanceof Leaf) {
+            Leaf<?, ?> existing = (Leaf<?, ?>) node;
+            if (existing.hash == leaf.hash && Objects.equals(existing.key, leaf.key)) {
+                return existing.value == leaf.value ? existing : leaf;
+            }
+            added[0] = 1;
+            return merge(existing, existing.hash, leaf, shift);
+        } else {
+            Collision c = (Collision) node;
+            if (c.hash != leaf.hash) {
+                added[0] = 1;
+                return merge(c, c.hash, leaf, shift);
+            }
+            return c.inserted(leaf, added);
+        }
+    }
+
+    // Combine an existing node with a new leaf of a different key, pushing both down until their hashes diverge
+    private static Object merge(Object existing, int existingHash, Leaf<?, ?> leaf, int shift) {
+        if (existingHash == leaf.hash) {
+            return new Collision(leaf.hash, new Leaf<?, ?>[] {(Leaf<?, ?>) existing, leaf});
+        }
+        int a = (existingHash >>> shift) & MASK;
+        int b = (leaf.hash >>> shift) & MASK;
+        if (a == b) {
+            return new Branch(1 << a, new Object[] {merge(existing, existingHash, leaf, shift + BITS)});
+        }
+        return new Branch((1 << a) | (1 << b), a < b ? new Object[] {existing, leaf} : new Object[] {leaf, existing});
+    }
+
+    // Delete a key from a node, returning the node itself if the key is not present, or null if the node is now empty.
+    // A branch left with a single leaf collapses into that leaf, except at the root
+    private static Object delete(Object node, int hash, Object key, int shift) {
+        if (node instanceof Branch) {
+            Branch b = (Branch) node;
+            int bit = bit(hash, shift);
+            if ((b.bitmap & bit) == 0) {
+                return b;
+            }
+            int i = b.index(bit);
+            Object child = b.slots[i];
+            Object c = delete(child, hash, key, shift + BITS);
+            if (c == child) {
+                return b;
+            }
+            if (c == null) {
+                if (b.slots.length == 1) {
+                    return null;
+                }
+                Branch removed = b.removed(bit, i);
+                return shift > 0 && removed.slots.length == 1 && !(removed.slots[0] instanceof Branch)
+                        ? removed.slots[0] : removed;
+            }
+            if (shift > 0 && b.slots.length == 1 && !(c instanceof Branch)) {
+                return c;
+            }
+            return b.replaced(i, c);
+        } else if (node instanceof Leaf) {
+            Leaf<?, ?> leaf = (Leaf<?, ?>) node;
+            return leaf.hash == hash && Objects.equals(leaf.key, key) ? null : leaf;
+        } else {
+            return ((Collision) node).deleted(hash, key);
+        }
+    }
+
+    /**
+     * An interior node of the trie, holding leaves, collisions and other branches in the order of their five-bit
+     * hash fragments.
+     */
+    private static final class Branch {
+        private static final Branch EMPTY = new Branch(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] slots;
+
+        private Branch(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private Branch inserted(int bit, int i, Object child) {
+            Object[] s = new Object[slots.length + 1];
+            System.arraycopy(slots, 0, s, 0, i);
+            s[i] = child;
+            System.arraycopy(slots, i, s, i + 1, slots.length - i);
+            return new Branch(bitmap | bit, s);
+        }
+
+        private Branch replaced(int i, Object child) {
+            Object[] s = slots.clone();
+            s[i] = child;
+            return new Branch(bitmap, s);
+        }
+
+        private Branch removed(int bit, int i) {
+            Object[] s = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, s, 0, i);
+            System.arraycopy(slots, i + 1, s, i, slots.length - i - 1);
+            return new Branch(bitmap & ~bit, s);
+        }
+    }
+
+    /**
+     * A node holding the leaves of distinct keys with the same full hash.
+     */
+    private static final class Collision {
+        private final int hash;
+        private final Leaf<?, ?>[] leaves;
+
+        private Collision(int hash, Leaf<?, ?>[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <K, V> Leaf<K, V> find(int h, Object key) {
+            if (h == hash) {
+                for (Leaf<?, ?> leaf : leaves) {
+                    if (Objects.equals(leaf.key, key)) {
+                        return (Leaf<K, V>) leaf;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private Object inserted(Leaf<?, ?> leaf, int[] added) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (Objects.equals(leaves[i].key, leaf.key)) {
+                    if (leaves[i].value == leaf.value) {
+                        return this;
+                    }
+                    Leaf<?, ?>[] l = leaves.clone();
+                    l[i] = leaf;
+                    return new Collision(hash, l);
+                }
+            }
+            added[0] = 1;
+            Leaf<?, ?>[] l = new Leaf<?, ?>[leaves.length + 1];
+            System.arraycopy(leaves, 0, l, 0, leaves.length);
+            l[leaves.length] = leaf;
+            return new Collision(hash, l);
+        }
+
+        private Object deleted(int h, Object key) {
+            if (h != hash) {
+                return this;
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (Objects.equals(leaves[i].key, key)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Leaf<?, ?>[] l = new Leaf<?, ?>[leaves.length - 1];
+                    System.arraycopy(leaves, 0, l, 0, i);
+                    System.arraycopy(leaves, i + 1, l, i, leaves.length - i - 1);
+                    return new Collision(hash, l);
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * An entry of the map, together with the hash of its key.
+     */
+    private static final class Leaf<K, V> implements Map.Entry<K, V> {
+        private final int hash;
+        private final K key;
+        private final V value;
+
+        private Leaf(int hash, K key, V value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException("entries of a persistent map are immutable");
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) other;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * A depth-first iterator over the leaves of the trie, using an explicit stack of nodes.
+     */
+    private static final class LeafIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final ArrayDeque<Object> stack = new ArrayDeque<>();
+
+        private LeafIterator(Branch root) {
+            stack.push(root);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Leaf<K, V> leaf = (Leaf<K, V>) stack.pop();
+            advance();
+            return leaf;
+        }
+
+        // Expand nodes on top of the stack until a leaf is on top, or the stack is empty
+        private void advance() {
+            while (!stack.isEmpty() && !(stack.peek() instanceof Leaf)) {
+                Object node = stack.pop();
+                Object[] children = node instanceof Branch ? ((Branch) node).slots : ((Collision) node).leaves;
+                for (int i = children.length - 1; i >= 0; i--) {
+                    stack.push(children[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package hydra.tools;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+
+/**
+ * An immutable map backed by a weight-balanced binary search tree, after Haskell's Data.Map.
+ * Insertion, removal and lookup take O(log n) time, and share all but O(log n) nodes with the original map.
+ * Union, intersection and difference use the divide-and-conquer algorithms of Adams, which take
+ * O(m log(n/m + 1)) time for maps of sizes m and n, m <= n. Entries are iterated in key order.
+ * The standard mutators of java.util.Map are not supported; use insert and delete instead.
+ */
+public class PersistentSortedMap<K, V> extends AbstractMap<K, V> {
+    private static final int DELTA = 3;
+    private static final int RATIO = 2;
+
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> root;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentSortedMap(Comparator<? super K> comparator, Node<K, V> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    /**
+     * An empty map with the given key ordering.
+     */
+    public static <K, V> PersistentSortedMap<K, V> empty(Comparator<? super K> comparator) {
+        return new PersistentSortedMap<>(comparator, null);
+    }
+
+    /**
+     * Construct a map with the given key ordering from the entries of another map.
+     * If the map is already a PersistentSortedMap with the same ordering, it is returned as-is.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentSortedMap<K, V> from(Comparator<? super K> comparator, Map<K, V> map) {
+        if (map instanceof PersistentSortedMap && ((PersistentSortedMap<K, V>) map).comparator == comparator) {
+            return (PersistentSortedMap<K, V>) map;
+        }
+        PersistentSortedMap<K, V> result = empty(comparator);
+        for (Map.Entry<K, V> e : map.entrySet()) {
+            result = result.insert(e.getKey(), e.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * The key ordering of this map.
+     */
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Get the value for a key, or null if the key is not present.
+     */
+    @Override
+    public V get(Object key) {
+        Node<K, V> n = find(key);
+        return n == null ? null : n.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    /**
+     * Add or replace an entry, producing a new map.
+     */
+    public PersistentSortedMap<K, V> insert(K key, V value) {
+        Node<K, V> r = insert(root, key, value);
+        return r == root ? this : new PersistentSortedMap<>(comparator, r);
+    }
+
+    /**
+     * Remove an entry, if present, producing a new map.
+     */
+    public PersistentSortedMap<K, V> delete(K key) {
+        Node<K, V> r = delete(root, key);
+        return r == root ? this : new PersistentSortedMap<>(comparator, r);
+    }
+
+    /**
+     * The union of this map with another, preferring the entries of this map where keys coincide.
+     */
+    public PersistentSortedMap<K, V> union(PersistentSortedMap<K, V> other) {
+        return new PersistentSortedMap<>(comparator, union(root, sameOrdering(other).root));
+    }
+
+    /**
+     * The entries of this map whose keys are also present in another map.
+     */
+    public PersistentSortedMap<K, V> intersection(PersistentSortedMap<K, ?> other) {
+        return new PersistentSortedMap<>(comparator, intersection(root, sameOrdering(other).root));
+    }
+
+    /**
+     * The entries of this map whose keys are not present in another map.
+     */
+    public PersistentSortedMap<K, V> difference(PersistentSortedMap<K, ?> other) {
+        return new PersistentSortedMap<>(comparator, difference(root, sameOrdering(other).root));
+    }
+
+    /**
+     * Apply a function to each value, producing a map with the same keys. This takes O(n) time, as the tree is not
+     * rebalanced.
+     */
+    public <W> PersistentSortedMap<K, W> mapValues(Function<? super V, ? extends W> f) {
+        return new PersistentSortedMap<>(comparator, mapValues(root, f));
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new NodeIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return PersistentSortedMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException("persistent map; use insert instead");
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException("persistent map; use delete instead");
+    }
+
+    // Iterate over the keys in order, without allocating entries
+    Iterator<K> keyIterator() {
+        NodeIterator<K, V> entries = new NodeIterator<>(root);
+        return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return entries.next().key;
+            }
+        };
+    }
+
+    private <W> PersistentSortedMap<K, W> sameOrdering(PersistentSortedMap<K, W> other) {
+        if (other.comparator != comparator) {
+            throw new IllegalArgumentException("maps have different key orderings");
+        }
+        return other;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<K, V> find(Object key) {
+        Node<K, V> n = root;
+        try {
+            while (n != null) {
+                int c = comparator.compare((K) key, n.key);
+                if (c == 0) {
+                    return n;
+                }
+                n = c < 0 ? n.left : n.right;
+            }
+        } catch (ClassCastException e) {
+            // A key of the wrong type is simply not present
+            return null;
+        }
+        return null;
+    }
+
+    private Node<K, V> insert(Node<K, V> t, K key, V value) {
+        if (t == null) {
+            return new Node<>(key, value, null, null);
+        }
+        int c = comparator.compare(key, t.key);
+        if (c < 0) {
+            Node<K, V> l = insert(t.left, key, value);
+            return l == t.left ? t : balance(t.key, t.value, l, t.right);
+        } else if (c > 0) {
+            Node<K, V> r = insert(t.right, key, value);
+            return r == t.right ? t : balance(t.key, t.value, t.left, r);
+        } else {
+            return t.key == key && t.value == value ? t : new Node<>(key, value, t.left, t.right);
+        }
+    }
+
+    private Node<K, V> delete(Node<K, V> t, K key) {
+        if (t == null) {
+            return null;
+        }
+        int c = comparator.compare(key, t.key);
+        if (c < 0) {
+            Node<K, V> l = delete(t.left, key);
+            return l == t.left ? t : balance(t.key, t.value, l, t.right);
+        } else if (c > 0) {
+            Node<K, V> r = delete(t.right, key);
+            return r == t.right ? t : balance(t.key, t.value, t.left, r);
+        } else {
+            return glue(t.left, t.right);
+        }
+    }
+
+    private <W> Split<K, W> split(Node<K, W> t, K key) {
+        if (t == null) {
+            return new Split<>(null, null, null);
+        }
+        int c = comparator.compare(key, t.key);
+        if (c < 0) {
+            Split<K, W> s = split(t.left, key);
+            return new Split<>(s.less, s.found, link(t.key, t.value, s.greater, t.right));
+        } else if (c > 0) {
+            Split<K, W> s = split(t.right, key);
+            return new Split<>(link(t.key, t.value, t.left, s.less), s.found, s.greater);
+        } else {
+            return new Split<>(t.left, t, t.right);
+        }
+    }
+
+    private Node<K, V> union(Node<K, V> t1, Node<K, V> t2) {
+        if (t1 == null) {
+            return t2;
+        }
+        if (t2 == null) {
+            return t1;
+        }
+        Split<K, V> s = split(t2, t1.key);
+        return link(t1.key, t1.value, union(t1.left, s.less), union(t1.right, s.greater));
+    }
+
+    private <W> Node<K, V> intersection(Node<K, V> t1, Node<K, W> t2) {
+        if (t1 == null || t2 == null) {
+            return null;
+        }
+        Split<K, W> s = split(t2, t1.key);
+        Node<K, V> l = intersection(t1.left, s.less);
+        Node<K, V> r = intersection(t1.right, s.greater);
+        return s.found != null ? link(t1.key, t1.value, l, r) : merge(l, r);
+    }
+
+    private <W> Node<K, V> difference(Node<K, V> t1, Node<K, W> t2) {
+        if (t1 == null) {
+            return null;
+        }
+        if (t2 == null) {
+            return t1;
+        }
+        Split<K, V> s = split(t1, t2.key);
+        return merge(difference(s.less, t2.left), difference(s.greater, t2.right));
+    }
+
+    private static <K, V, W> Node<K, W> mapValues(Node<K, V> t, Function<? super V, ? extends W> f) {
+        return t == null ? null : new Node<>(t.key, f.apply(t.value), mapValues(t.left, f), mapValues(t.right, f));
+    }
+
+    private static int size(Node<?, ?> t) {
+        return t == null ? 0 : t.size;
+    }
+
+    // Rebalance a node whose subtrees were balanced before one of them changed in size by at most one
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> l, Node<K, V> r) {
+        int sl = size(l);
+        int sr = size(r);
+        if (sl + sr <= 1) {
+            return new Node<>(key, value, l, r);
+        } else if (sr > DELTA * sl) {
+            return size(r.left) < RATIO * size(r.right)
+                    ? new Node<>(r.key, r.value, new Node<>(key, value, l, r.left), r.right)
+                    : new Node<>(r.left.key, r.left.value,
+                            new Node<>(key, value, l, r.left.left),
+                            new Node<>(r.key, r.value, r.left.right, r.right));
+        } else if (sl > DELTA * sr) {
+            return size(l.right) < RATIO * size(l.left)
+                    ? new Node<>(l.key, l.value, l.left, new Node<>(key, value, l.right, r))
+                    : new Node<>(l.right.key, l.right.value,
+                            new Node<>(l.key, l.value, l.left, l.right.left),
+                            new Node<>(key, value, l.right.right, r));
+        } else {
+            return new Node<>(key, value, l, r);
+        }
+    }
+
+    // Join two trees and a key which lies between them
+    private static <K, V> Node<K, V> link(K key, V value, Node<K, V> l, Node<K, V> r) {
+        if (l == null) {
+            return insertMin(key, value, r);
+        } else if (r == null) {
+            return insertMax(key, value, l);
+        } else if (DELTA * l.size < r.size) {
+            return balance(r.key, r.value, link(key, value, l, r.left), r.right);
+        } else if (DELTA * r.size < l.size) {
+            return balance(l.key, l.value, l.left, link(key, value, l.right, r));
+        } else {
+            return new Node<>(key, value, l, r);
+        }
+    }
+
+    // Join two trees, all of whose keys in the first are less than those in the second
+    private static <K, V> Node<K, V> merge(Node<K, V> l, Node<K, V> r) {
+        if (l == null) {
+            return r;
+        } else if (r == null) {
+            return l;
+        } else if (DELTA * l.size < r.size) {
+            return balance(r.key, r.value, merge(l, r.left), r.right);
+        } else if (DELTA * r.size < l.size) {
+            return balance(l.key, l.value, l.left, merge(l.right, r));
+        } else {
+            return glue(l, r);
+        }
+    }
+
+    // Join two balanced trees of similar size
+    private static <K, V> Node<K, V> glue(Node<K, V> l, Node<K, V> r) {
+        if (l == null) {
+            return r;
+        } else if (r == null) {
+            return l;
+        } else if (l.size > r.size) {
+            Node<K, V> max = l;
+            while (max.right != null) {
+                max = max.right;
+            }
+            return balance(max.key, max.value, deleteMax(l), r);
+        } else {
+            Node<K, V> min = r;
+            while (min.left != null) {
+                min = min.left;
+            }
+            return balance(min.key, min.value, l, deleteMin(r));
+        }
+    }
+
+    private static <K, V> Node<K, V> insertMin(K key, V value, Node<K, V> t) {
+        return t == null
+                ? new Node<>(key, value, null, null)
+                : balance(t.key, t.value, insertMin(key, value, t.left), t.right);
+    }
+
+    private static <K, V> Node<K, V> insertMax(K key, V value, Node<K, V> t) {
+        return t == null
+                ? new Node<>(key, value, null, null)
+                : balance(t.key, t.value, t.left, insertMax(key, value, t.right));
+    }
+
+    private static <K, V> Node<K, V> deleteMin(Node<K, V> t) {
+        return t.left == null ? t.right : balance(t.key, t.value, deleteMin(t.left), t.right);
+    }
+
+    private static <K, V> Node<K, V> deleteMax(Node<K, V> t) {
+        return t.right == null ? t.left : balance(t.key, t.value, t.left, deleteMax(t.right));
+    }
+
+    /**
+     * A tree node, which doubles as an immutable map entry.
+     */
+    private static final class Node<K, V> implements Map.Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final Node<K, V> left;
+        private final Node<K, V> right;
+        private final int size;
+
+        private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException("entries of a persistent map are immutable");
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) other;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private static final class Split<K, V> {
+        private final Node<K, V> less;
+        private final Node<K, V> found;
+        private final Node<K, V> greater;
+
+        private Split(Node<K, V> less, Node<K, V> found, Node<K, V> greater) {
+            this.less = less;
+            this.found = found;
+            this.greater = greater;
+        }
+    }
+
+    /**
+     * An in-order iterator, using an explicit stack of left spines.
+     */
+    private static final class NodeIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final ArrayDeque<Node<K, V>> stack = new ArrayDeque<>();
+
+        private NodeIterator(Node<K, V> root) {
+            pushLeft(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Node<K, V> next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> n = stack.pop();
+            pushLeft(n.right);
+            return n;
+        }
+
+        private void pushLeft(Node<K, V> n) {
+            for (Node<K, V> cur = n; cur != null; cur = cur.left) {
+                stack.push(cur);
+            }
+        }
+    }
+}
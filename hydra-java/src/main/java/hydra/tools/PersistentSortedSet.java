@@ -0,0 +1,113 @@
+package hydra.tools;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+
+
+/**
+ * An immutable set backed by a weight-balanced binary search tree; see PersistentSortedMap.
+ * Elements are iterated in order. The standard mutators of java.util.Set are not supported; use insert and delete
+ * instead.
+ */
+public class PersistentSortedSet<X> extends AbstractSet<X> {
+    private final PersistentSortedMap<X, Boolean> map;
+
+    private PersistentSortedSet(PersistentSortedMap<X, Boolean> map) {
+        this.map = map;
+    }
+
+    /**
+     * An empty set with the given element ordering.
+     */
+    public static <X> PersistentSortedSet<X> empty(Comparator<? super X> comparator) {
+        return new PersistentSortedSet<>(PersistentSortedMap.empty(comparator));
+    }
+
+    /**
+     * Construct a set with the given element ordering from the elements of another collection.
+     * If the collection is already a PersistentSortedSet with the same ordering, it is returned as-is.
+     */
+    @SuppressWarnings("unchecked")
+    public static <X> PersistentSortedSet<X> from(Comparator<? super X> comparator, Collection<X> elements) {
+        if (elements instanceof PersistentSortedSet
+                && ((PersistentSortedSet<X>) elements).map.comparator() == comparator) {
+            return (PersistentSortedSet<X>) elements;
+        }
+        PersistentSortedSet<X> result = empty(comparator);
+        for (X x : elements) {
+            result = result.insert(x);
+        }
+        return result;
+    }
+
+    /**
+     * The element ordering of this set.
+     */
+    public Comparator<? super X> comparator() {
+        return map.comparator();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    /**
+     * Add an element, producing a new set.
+     */
+    public PersistentSortedSet<X> insert(X x) {
+        PersistentSortedMap<X, Boolean> m = map.insert(x, true);
+        return m == map ? this : new PersistentSortedSet<>(m);
+    }
+
+    /**
+     * Remove an element, if present, producing a new set.
+     */
+    public PersistentSortedSet<X> delete(X x) {
+        PersistentSortedMap<X, Boolean> m = map.delete(x);
+        return m == map ? this : new PersistentSortedSet<>(m);
+    }
+
+    /**
+     * The union of this set with another.
+     */
+    public PersistentSortedSet<X> union(PersistentSortedSet<X> other) {
+        return new PersistentSortedSet<>(map.union(other.map));
+    }
+
+    /**
+     * The elements of this set which are also in another set.
+     */
+    public PersistentSortedSet<X> intersection(PersistentSortedSet<X> other) {
+        return new PersistentSortedSet<>(map.intersection(other.map));
+    }
+
+    /**
+     * The elements of this set which are not in another set.
+     */
+    public PersistentSortedSet<X> difference(PersistentSortedSet<X> other) {
+        return new PersistentSortedSet<>(map.difference(other.map));
+    }
+
+    @Override
+    public Iterator<X> iterator() {
+        return map.keyIterator();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean add(X x) {
+        throw new UnsupportedOperationException("persistent set; use insert instead");
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException("persistent set; use delete instead");
+    }
+}
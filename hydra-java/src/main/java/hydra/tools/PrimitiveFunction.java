@@ -18,11 +18,24 @@ public abstract class PrimitiveFunction<A> {
 
     protected abstract Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> implementation();
 
+    /**
+     * A fast path for arguments which are already literal terms, which bypasses flows and visitor dispatch.
+     * Returns the result term, or null if the general implementation should be used instead, e.g. because an
+     * argument is not a literal of the expected type. Primitives with cheap literal implementations override this.
+     */
+    protected Term<A> applyToLiterals(List<Term<A>> args) {
+        return null;
+    }
+
     public Term<A> term() {
         return Terms.primitive(name());
     }
 
     public Primitive<A> toNative() {
-        return new Primitive<>(name(), type(), implementation());
+        Function<List<Term<A>>, Flow<Graph<A>, Term<A>>> impl = implementation();
+        return new Primitive<>(name(), type(), args -> {
+            Term<A> result = applyToLiterals(args);
+            return result == null ? impl.apply(args) : LiteralTerms.pure(result);
+        });
     }
 }
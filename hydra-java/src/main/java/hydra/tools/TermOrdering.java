@@ -0,0 +1,455 @@
+package hydra.tools;
+
+import hydra.compute.Kv;
+import hydra.core.Annotated;
+import hydra.core.CaseStatement;
+import hydra.core.Elimination;
+import hydra.core.Field;
+import hydra.core.FieldName;
+import hydra.core.FloatValue;
+import hydra.core.IntegerValue;
+import hydra.core.Literal;
+import hydra.core.Name;
+import hydra.core.OptionalCases;
+import hydra.core.Projection;
+import hydra.core.Term;
+import hydra.core.TupleProjection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+
+/**
+ * A total ordering over terms and literals, consistent with their equals methods.
+ * Terms of different variants are ordered by the position of the variant in the hydra/core.Term union; terms of the
+ * same variant are compared field by field, with lists and products compared lexicographically and sets and maps
+ * compared as sorted sequences of elements or entries. Literals are ordered by variant, then by value.
+ * Annotations, which may be of any type, are compared structurally if they are Kv annotations or maps, and by their
+ * natural ordering if they are Comparable. Other annotations are compared by class name and then by hash code;
+ * distinct annotations which cannot be told apart in this way are ordered by when they were first compared.
+ */
+public class TermOrdering {
+    private static final Map<Class<?>, Integer> VARIANTS = new HashMap<>();
+
+    private static final Comparator<Term<?>> TERMS = TermOrdering::compareTerms;
+    private static final Comparator<Literal> LITERALS = TermOrdering::compareLiterals;
+
+    // Guarded by itself, as is nextTieBreak
+    private static final Map<Object, Long> TIE_BREAKS = new WeakHashMap<>();
+    private static long nextTieBreak = 0;
+
+    static {
+        register(Term.Annotated.class, Term.Application.class, Term.Function.class, Term.Let.class, Term.List.class,
+                Term.Literal.class, Term.Map.class, Term.Optional.class, Term.Product.class, Term.Record.class,
+                Term.Set.class, Term.Stream.class, Term.Sum.class, Term.Union.class, Term.Variable.class,
+                Term.Wrap.class);
+        register(hydra.core.Function.Elimination.class, hydra.core.Function.Lambda.class,
+                hydra.core.Function.Primitive.class);
+        register(Elimination.List.class, Elimination.Optional.class, Elimination.Product.class,
+                Elimination.Record.class, Elimination.Union.class, Elimination.Wrap.class);
+        register(Literal.Binary.class, Literal.Boolean_.class, Literal.Float_.class, Literal.Integer_.class,
+                Literal.String_.class);
+        register(FloatValue.Bigfloat.class, FloatValue.Float32.class, FloatValue.Float64.class);
+        register(IntegerValue.Bigint.class, IntegerValue.Int8.class, IntegerValue.Int16.class,
+                IntegerValue.Int32.class, IntegerValue.Int64.class, IntegerValue.Uint8.class,
+                IntegerValue.Uint16.class, IntegerValue.Uint32.class, IntegerValue.Uint64.class);
+    }
+
+    private TermOrdering() {
+    }
+
+    /**
+     * The ordering over literals.
+     */
+    public static Comparator<Literal> literals() {
+        return LITERALS;
+    }
+
+    /**
+     * The ordering over terms.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> Comparator<Term<A>> terms() {
+        return (Comparator<Term<A>>) (Comparator<?>) TERMS;
+    }
+
+    /**
+     * Collect terms into a persistent set under this ordering. A set which is already sorted in this way is not
+     * copied.
+     */
+    public static <A> PersistentSortedSet<Term<A>> sortedSet(Collection<Term<A>> terms) {
+        return PersistentSortedSet.from(terms(), terms);
+    }
+
+    /**
+     * Collect the entries of a map with term keys into a persistent map under this ordering. A map which is already
+     * sorted in this way is not copied.
+     */
+    public static <A, V> PersistentSortedMap<Term<A>, V> sortedMap(Map<Term<A>, V> map) {
+        return PersistentSortedMap.from(terms(), map);
+    }
+
+    private static void register(Class<?>... variants) {
+        for (int i = 0; i < variants.length; i++) {
+            VARIANTS.put(variants[i], i);
+        }
+    }
+
+    private static int compareVariants(Object a, Object b) {
+        return Integer.compare(variant(a), variant(b));
+    }
+
+    private static int variant(Object x) {
+        Integer v = VARIANTS.get(x.getClass());
+        if (v == null) {
+            throw new IllegalArgumentException("no ordering is defined for instances of " + x.getClass().getName());
+        }
+        return v;
+    }
+
+    private static int compareTerms(Term<?> a, Term<?> b) {
+        if (a == b) {
+            return 0;
+        }
+        int c = compareVariants(a, b);
+        if (c != 0) {
+            return c;
+        }
+
+        if (a instanceof Term.Annotated) {
+            Annotated<? extends Term<?>, ?> aa = ((Term.Annotated<?>) a).value;
+            Annotated<? extends Term<?>, ?> ba = ((Term.Annotated<?>) b).value;
+            c = compareTerms(aa.subject, ba.subject);
+            return c != 0 ? c : compareAnnotations(aa.annotation, ba.annotation);
+        } else if (a instanceof Term.Application) {
+            hydra.core.Application<?> aa = ((Term.Application<?>) a).value;
+            hydra.core.Application<?> ba = ((Term.Application<?>) b).value;
+            c = compareTerms(aa.function, ba.function);
+            return c != 0 ? c : compareTerms(aa.argument, ba.argument);
+        } else if (a instanceof Term.Function) {
+            return compareFunctions(((Term.Function<?>) a).value, ((Term.Function<?>) b).value);
+        } else if (a instanceof Term.Let) {
+            hydra.core.Let<?> al = ((Term.Let<?>) a).value;
+            hydra.core.Let<?> bl = ((Term.Let<?>) b).value;
+            c = compareSequences(sorted(al.bindings), sorted(bl.bindings), TermOrdering::compareBindings);
+            return c != 0 ? c : compareTerms(al.environment, bl.environment);
+        } else if (a instanceof Term.List) {
+            return compareSequences(((Term.List<?>) a).value, ((Term.List<?>) b).value, TERMS);
+        } else if (a instanceof Term.Literal) {
+            return compareLiterals(((Term.Literal<?>) a).value, ((Term.Literal<?>) b).value);
+        } else if (a instanceof Term.Map) {
+            return compareSequences(sorted(((Term.Map<?>) a).value), sorted(((Term.Map<?>) b).value),
+                    TermOrdering::compareEntries);
+        } else if (a instanceof Term.Optional) {
+            return compareOptionals(((Term.Optional<?>) a).value, ((Term.Optional<?>) b).value);
+        } else if (a instanceof Term.Product) {
+            return compareSequences(((Term.Product<?>) a).value, ((Term.Product<?>) b).value, TERMS);
+        } else if (a instanceof Term.Record) {
+            hydra.core.Record<?> ar = ((Term.Record<?>) a).value;
+            hydra.core.Record<?> br = ((Term.Record<?>) b).value;
+            c = compareNames(ar.typeName, br.typeName);
+            return c != 0 ? c : compareSequences(ar.fields, br.fields, TermOrdering::compareFields);
+        } else if (a instanceof Term.Set) {
+            return compareSequences(sorted(((Term.Set<?>) a).value), sorted(((Term.Set<?>) b).value), TERMS);
+        } else if (a instanceof Term.Sum) {
+            hydra.core.Sum<?> as = ((Term.Sum<?>) a).value;
+            hydra.core.Sum<?> bs = ((Term.Sum<?>) b).value;
+            c = Integer.compare(as.index, bs.index);
+            if (c == 0) {
+                c = Integer.compare(as.size, bs.size);
+            }
+            return c != 0 ? c : compareTerms(as.term, bs.term);
+        } else if (a instanceof Term.Union) {
+            hydra.core.Injection<?> ai = ((Term.Union<?>) a).value;
+            hydra.core.Injection<?> bi = ((Term.Union<?>) b).value;
+            c = compareNames(ai.typeName, bi.typeName);
+            return c != 0 ? c : compareFields(ai.field, bi.field);
+        } else if (a instanceof Term.Variable) {
+            return compareNames(((Term.Variable<?>) a).value, ((Term.Variable<?>) b).value);
+        } else if (a instanceof Term.Wrap) {
+            hydra.core.Nominal<? extends Term<?>> aw = ((Term.Wrap<?>) a).value;
+            hydra.core.Nominal<? extends Term<?>> bw = ((Term.Wrap<?>) b).value;
+            c = compareNames(aw.typeName, bw.typeName);
+            return c != 0 ? c : compareTerms(aw.object, bw.object);
+        } else {
+            return compareStreams(((Term.Stream<?>) a).value, ((Term.Stream<?>) b).value);
+        }
+    }
+
+    private static int compareFunctions(hydra.core.Function<?> a, hydra.core.Function<?> b) {
+        int c = compareVariants(a, b);
+        if (c != 0) {
+            return c;
+        }
+
+        if (a instanceof hydra.core.Function.Elimination) {
+            return compareEliminations(((hydra.core.Function.Elimination<?>) a).value,
+                    ((hydra.core.Function.Elimination<?>) b).value);
+        } else if (a instanceof hydra.core.Function.Lambda) {
+            hydra.core.Lambda<?> al = ((hydra.core.Function.Lambda<?>) a).value;
+            hydra.core.Lambda<?> bl = ((hydra.core.Function.Lambda<?>) b).value;
+            c = compareNames(al.parameter, bl.parameter);
+            return c != 0 ? c : compareTerms(al.body, bl.body);
+        } else {
+            return compareNames(((hydra.core.Function.Primitive<?>) a).value,
+                    ((hydra.core.Function.Primitive<?>) b).value);
+        }
+    }
+
+    private static int compareEliminations(Elimination<?> a, Elimination<?> b) {
+        int c = compareVariants(a, b);
+        if (c != 0) {
+            return c;
+        }
+
+        if (a instanceof Elimination.List) {
+            return compareTerms(((Elimination.List<?>) a).value, ((Elimination.List<?>) b).value);
+        } else if (a instanceof Elimination.Optional) {
+            OptionalCases<?> ao = ((Elimination.Optional<?>) a).value;
+            OptionalCases<?> bo = ((Elimination.Optional<?>) b).value;
+            c = compareTerms(ao.nothing, bo.nothing);
+            return c != 0 ? c : compareTerms(ao.just, bo.just);
+        } else if (a instanceof Elimination.Product) {
+            TupleProjection ap = ((Elimination.Product<?>) a).value;
+            TupleProjection bp = ((Elimination.Product<?>) b).value;
+            c = Integer.compare(ap.arity, bp.arity);
+            return c != 0 ? c : Integer.compare(ap.index, bp.index);
+        } else if (a instanceof Elimination.Record) {
+            Projection ap = ((Elimination.Record<?>) a).value;
+            Projection bp = ((Elimination.Record<?>) b).value;
+            c = compareNames(ap.typeName, bp.typeName);
+            return c != 0 ? c : compareFieldNames(ap.field, bp.field);
+        } else if (a instanceof Elimination.Union) {
+            CaseStatement<?> as = ((Elimination.Union<?>) a).value;
+            CaseStatement<?> bs = ((Elimination.Union<?>) b).value;
+            c = compareNames(as.typeName, bs.typeName);
+            if (c == 0) {
+                c = compareOptionals(as.default_, bs.default_);
+            }
+            return c != 0 ? c : compareSequences(as.cases, bs.cases, TermOrdering::compareFields);
+        } else {
+            return compareNames(((Elimination.Wrap<?>) a).value, ((Elimination.Wrap<?>) b).value);
+        }
+    }
+
+    private static int compareLiterals(Literal a, Literal b) {
+        int c = compareVariants(a, b);
+        if (c != 0) {
+            return c;
+        }
+
+        if (a instanceof Literal.Binary) {
+            return ((Literal.Binary) a).value.compareTo(((Literal.Binary) b).value);
+        } else if (a instanceof Literal.Boolean_) {
+            return ((Literal.Boolean_) a).value.compareTo(((Literal.Boolean_) b).value);
+        } else if (a instanceof Literal.Float_) {
+            FloatValue af = ((Literal.Float_) a).value;
+            FloatValue bf = ((Literal.Float_) b).value;
+            c = compareVariants(af, bf);
+            return c != 0 ? c : compareValues(floatValue(af), floatValue(bf));
+        } else if (a instanceof Literal.Integer_) {
+            IntegerValue ai = ((Literal.Integer_) a).value;
+            IntegerValue bi = ((Literal.Integer_) b).value;
+            c = compareVariants(ai, bi);
+            return c != 0 ? c : compareValues(integerValue(ai), integerValue(bi));
+        } else {
+            return ((Literal.String_) a).value.compareTo(((Literal.String_) b).value);
+        }
+    }
+
+    private static Comparable<?> floatValue(FloatValue v) {
+        if (v instanceof FloatValue.Bigfloat) {
+            return ((FloatValue.Bigfloat) v).value;
+        } else if (v instanceof FloatValue.Float32) {
+            return ((FloatValue.Float32) v).value;
+        } else {
+            return ((FloatValue.Float64) v).value;
+        }
+    }
+
+    private static Comparable<?> integerValue(IntegerValue v) {
+        if (v instanceof IntegerValue.Bigint) {
+            return ((IntegerValue.Bigint) v).value;
+        } else if (v instanceof IntegerValue.Int8) {
+            return ((IntegerValue.Int8) v).value;
+        } else if (v instanceof IntegerValue.Int16) {
+            return ((IntegerValue.Int16) v).value;
+        } else if (v instanceof IntegerValue.Int32) {
+            return ((IntegerValue.Int32) v).value;
+        } else if (v instanceof IntegerValue.Int64) {
+            return ((IntegerValue.Int64) v).value;
+        } else if (v instanceof IntegerValue.Uint8) {
+            return ((IntegerValue.Uint8) v).value;
+        } else if (v instanceof IntegerValue.Uint16) {
+            return ((IntegerValue.Uint16) v).value;
+        } else if (v instanceof IntegerValue.Uint32) {
+            return ((IntegerValue.Uint32) v).value;
+        } else {
+            return ((IntegerValue.Uint64) v).value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Comparable<?> a, Comparable<?> b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private static int compareAnnotations(Object a, Object b) {
+        if (a == b) {
+            return 0;
+        } else if (a == null || b == null) {
+            return a == null ? -1 : 1;
+        } else if (a instanceof Kv && b instanceof Kv) {
+            return compareMaps(((Kv) a).annotations, ((Kv) b).annotations);
+        } else if (a instanceof Map && b instanceof Map) {
+            return compareMaps((Map<?, ?>) a, (Map<?, ?>) b);
+        } else if (a instanceof Comparable && a.getClass().equals(b.getClass())) {
+            return compareValues((Comparable<?>) a, (Comparable<?>) b);
+        } else if (a.equals(b)) {
+            return 0;
+        }
+
+        int c = a.getClass().getName().compareTo(b.getClass().getName());
+        if (c == 0) {
+            c = Integer.compare(a.hashCode(), b.hashCode());
+        }
+        return c != 0 ? c : Long.compare(tieBreak(a), tieBreak(b));
+    }
+
+    // A number which distinguishes unequal annotations of the same class and hash code. Equal annotations share a
+    // number, and numbers are assigned in order of first use, so the order is stable for the life of the JVM.
+    private static long tieBreak(Object annotation) {
+        synchronized (TIE_BREAKS) {
+            Long n = TIE_BREAKS.get(annotation);
+            if (n == null) {
+                n = nextTieBreak++;
+                TIE_BREAKS.put(annotation, n);
+            }
+            return n;
+        }
+    }
+
+    // Compare the keys or values of annotation maps, which are terms or other annotations
+    private static int compareAnnotationValues(Object a, Object b) {
+        return a instanceof Term && b instanceof Term
+                ? compareTerms((Term<?>) a, (Term<?>) b)
+                : compareAnnotations(a, b);
+    }
+
+    // Compare maps as sequences of entries, sorted by key
+    private static int compareMaps(Map<?, ?> a, Map<?, ?> b) {
+        List<Map.Entry<?, ?>> ae = new ArrayList<>(a.entrySet());
+        List<Map.Entry<?, ?>> be = new ArrayList<>(b.entrySet());
+        Comparator<Map.Entry<?, ?>> byKey = (x, y) -> compareAnnotationValues(x.getKey(), y.getKey());
+        ae.sort(byKey);
+        be.sort(byKey);
+        return compareSequences(ae, be, (x, y) -> {
+            int c = byKey.compare(x, y);
+            return c != 0 ? c : compareAnnotationValues(x.getValue(), y.getValue());
+        });
+    }
+
+    private static int compareNames(Name a, Name b) {
+        return a.value.compareTo(b.value);
+    }
+
+    private static int compareFieldNames(FieldName a, FieldName b) {
+        return a.value.compareTo(b.value);
+    }
+
+    private static int compareFields(Field<?> a, Field<?> b) {
+        int c = compareFieldNames(a.name, b.name);
+        return c != 0 ? c : compareTerms(a.term, b.term);
+    }
+
+    private static int compareBindings(Map.Entry<Name, ? extends Term<?>> a, Map.Entry<Name, ? extends Term<?>> b) {
+        int c = compareNames(a.getKey(), b.getKey());
+        return c != 0 ? c : compareTerms(a.getValue(), b.getValue());
+    }
+
+    private static int compareEntries(Map.Entry<? extends Term<?>, ? extends Term<?>> a,
+                                      Map.Entry<? extends Term<?>, ? extends Term<?>> b) {
+        int c = compareTerms(a.getKey(), b.getKey());
+        return c != 0 ? c : compareTerms(a.getValue(), b.getValue());
+    }
+
+    private static int compareOptionals(Optional<? extends Term<?>> a, Optional<? extends Term<?>> b) {
+        if (!a.isPresent()) {
+            return b.isPresent() ? -1 : 0;
+        }
+        return b.isPresent() ? compareTerms(a.get(), b.get()) : 1;
+    }
+
+    private static <T> int compareSequences(Collection<? extends T> a,
+                                            Collection<? extends T> b,
+                                            Comparator<? super T> cmp) {
+        Iterator<? extends T> ai = a.iterator();
+        Iterator<? extends T> bi = b.iterator();
+        while (ai.hasNext() && bi.hasNext()) {
+            int c = cmp.compare(ai.next(), bi.next());
+            if (c != 0) {
+                return c;
+            }
+        }
+        return Boolean.compare(ai.hasNext(), bi.hasNext());
+    }
+
+    // Streams are built from final fields, so they are normally finite. A cyclic stream (which may be produced by
+    // deserialization) is rejected as soon as its cycle is detected, rather than being compared forever.
+    private static int compareStreams(hydra.core.Stream<?> a, hydra.core.Stream<?> b) {
+        hydra.core.Stream<?> as = a;
+        hydra.core.Stream<?> bs = b;
+        // Floyd's cycle detection on the first stream; the comparison only continues while both streams agree
+        hydra.core.Stream<?> slow = a;
+        boolean advanceSlow = false;
+        while (as != null && bs != null) {
+            if (as == bs) {
+                return 0;
+            }
+            int c = compareTerms(as.first, bs.first);
+            if (c != 0) {
+                return c;
+            }
+            as = as.rest;
+            bs = bs.rest;
+            if (advanceSlow) {
+                slow = slow.rest;
+            }
+            advanceSlow = !advanceSlow;
+            if (as != null && as == slow) {
+                throw new IllegalArgumentException("cannot order cyclic streams");
+            }
+        }
+        return Boolean.compare(as != null, bs != null);
+    }
+
+    // The elements of a set of terms in order. Sets which are already sorted under this ordering are not copied.
+    private static Collection<? extends Term<?>> sorted(java.util.Set<? extends Term<?>> set) {
+        if (set instanceof PersistentSortedSet && ((PersistentSortedSet<?>) set).comparator() == TERMS) {
+            return set;
+        }
+        List<Term<?>> elements = new ArrayList<>(set);
+        elements.sort(TERMS);
+        return elements;
+    }
+
+    // The entries of a map of terms, or of let bindings, in order of their keys. Maps which are already sorted under
+    // this ordering are not copied.
+    private static <K, V> Collection<Map.Entry<K, V>> sorted(Map<K, V> map) {
+        if (map instanceof PersistentSortedMap && ((PersistentSortedMap<K, V>) map).comparator() == TERMS) {
+            return map.entrySet();
+        }
+        List<Map.Entry<K, V>> entries = new ArrayList<>(map.entrySet());
+        entries.sort((a, b) -> a.getKey() instanceof Name
+                ? compareNames((Name) a.getKey(), (Name) b.getKey())
+                : compareTerms((Term<?>) a.getKey(), (Term<?>) b.getKey()));
+        return entries;
+    }
+}
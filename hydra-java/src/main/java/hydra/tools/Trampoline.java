@@ -0,0 +1,225 @@
+package hydra.tools;
+
+import hydra.compute.Flow;
+import hydra.compute.FlowState;
+import hydra.compute.Trace;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+
+/**
+ * A stack-safe interpreter for flows. The basic flow combinators (pure, bind, map, traversals, and state access)
+ * are represented as defunctionalized subclasses of Flow, which are evaluated in a loop against an explicit
+ * continuation stack rather than through nested closures. Long chains of binds, such as those built by Flows.mapM and Flows.sequence,
+ * therefore run in constant Java stack depth.
+ * Any other flow is treated as an opaque step, and is evaluated by applying its function directly.
+ * The state and trace are threaded through local variables, and values are passed between steps without wrapping
+ * them in Optional; a FlowState is only created when an evaluation returns, or when an opaque flow is applied.
+ */
+public class Trampoline {
+    private Trampoline() {
+    }
+
+    /**
+     * Evaluate a flow with a given initial state and trace.
+     */
+    public static <S, X> FlowState<S, X> run(Flow<S, X> flow, S state, Trace trace) {
+        return run(flow, new ArrayDeque<>(), state, trace);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, X> FlowState<S, X> run(Flow<S, ?> flow, ArrayDeque<Object> stack, S state, Trace trace) {
+        Flow<S, Object> current = (Flow<S, Object>) flow;
+        S s = state;
+        Trace t = trace;
+
+        while (true) {
+            // Descend through binds, maps and traversals to the next leaf, pushing continuations as we go
+            Object value;
+            if (current instanceof Bind) {
+                Bind<S, Object, Object> node = (Bind<S, Object, Object>) current;
+                stack.push(node.continuation);
+                current = node.source;
+                continue;
+            } else if (current instanceof Map) {
+                Map<S, Object, Object> node = (Map<S, Object, Object>) current;
+                stack.push(node);
+                current = node.source;
+                continue;
+            } else if (current instanceof Traverse) {
+                Traversal<S, Object, Object> frame = ((Traverse<S, Object, Object, ?>) current).start();
+                if (frame.iterator.hasNext()) {
+                    stack.push(frame);
+                    current = frame.next();
+                    continue;
+                }
+                value = frame.results;
+            } else if (current instanceof Pure) {
+                value = ((Pure<S, Object>) current).object;
+            } else if (current instanceof GetState) {
+                value = s;
+            } else if (current instanceof PutState) {
+                s = ((PutState<S>) (Flow<S, ?>) current).state;
+                value = true;
+            } else {
+                FlowState<S, Object> result = current.value.apply(s).apply(t);
+                s = result.state;
+                t = result.trace;
+                if (!result.value.isPresent()) {
+                    return new FlowState<>(Optional.empty(), s, t);
+                }
+                value = result.value.get();
+            }
+
+            // Ascend, applying mappings until a continuation produces the next flow to evaluate
+            current = null;
+            while (!stack.isEmpty()) {
+                Object frame = stack.pop();
+                if (frame instanceof Map) {
+                    value = ((Map<S, Object, Object>) frame).function.apply(value);
+                    // Consistent with Optional.map, a null result is treated as a failure
+                    if (value == null) {
+                        return new FlowState<>(Optional.empty(), s, t);
+                    }
+                } else if (frame instanceof Traversal) {
+                    Traversal<S, Object, Object> traversal = (Traversal<S, Object, Object>) frame;
+                    traversal.results.add(value);
+                    if (traversal.iterator.hasNext()) {
+                        stack.push(traversal);
+                        current = traversal.next();
+                        break;
+                    }
+                    value = traversal.results;
+                } else {
+                    current = ((Function<Object, Flow<S, Object>>) frame).apply(value);
+                    break;
+                }
+            }
+
+            if (current == null) {
+                return new FlowState<>(Optional.of((X) value), s, t);
+            }
+        }
+    }
+
+    /**
+     * A flow which produces a given value, leaving state and trace unchanged.
+     */
+    public static final class Pure<S, X> extends Flow<S, X> {
+        public final X object;
+
+        public Pure(X object) {
+            super(s -> t -> new FlowState<>(Optional.of(object), s, t));
+            this.object = object;
+        }
+    }
+
+    /**
+     * A flow which produces the current state. Being stateless, a single instance is shared by all evaluations.
+     */
+    public static final class GetState<S> extends Flow<S, S> {
+        private static final GetState<?> INSTANCE = new GetState<>();
+
+        private GetState() {
+            super(s -> t -> new FlowState<>(Optional.of(s), s, t));
+        }
+
+        /**
+         * Get the shared instance.
+         */
+        @SuppressWarnings("unchecked")
+        public static <S> GetState<S> instance() {
+            return (GetState<S>) INSTANCE;
+        }
+    }
+
+    /**
+     * A flow which replaces the current state, producing true as a placeholder value.
+     */
+    public static final class PutState<S> extends Flow<S, Boolean> {
+        public final S state;
+
+        public PutState(S state) {
+            super(s -> t -> new FlowState<>(Optional.of(true), state, t));
+            this.state = state;
+        }
+    }
+
+    /**
+     * A flow which feeds the value of a source flow into a continuation (monadic bind).
+     */
+    public static final class Bind<S, A, X> extends Flow<S, X> {
+        public final Flow<S, A> source;
+        public final Function<A, Flow<S, X>> continuation;
+
+        public Bind(Flow<S, A> source, Function<A, Flow<S, X>> continuation) {
+            super(s -> t -> run(new Bind<>(source, continuation), s, t));
+            this.source = source;
+            this.continuation = continuation;
+        }
+    }
+
+    /**
+     * A flow which applies a pure function to the value of a source flow.
+     * Map nodes double as their own frames on the continuation stack.
+     */
+    public static final class Map<S, A, X> extends Flow<S, X> {
+        public final Flow<S, A> source;
+        public final Function<A, X> function;
+
+        public Map(Flow<S, A> source, Function<A, X> function) {
+            super(s -> t -> run(new Map<>(source, function), s, t));
+            this.source = source;
+            this.function = function;
+        }
+    }
+
+    /**
+     * A flow which maps a monadic function over a sequence of elements from left to right, collecting the results.
+     * Unlike an equivalent chain of binds, a traversal allocates a single frame per evaluation.
+     */
+    public static final class Traverse<S, A, B, C extends Collection<B>> extends Flow<S, C> {
+        public final Iterable<A> elements;
+        public final Function<A, Flow<S, B>> function;
+        public final Supplier<C> results;
+
+        /**
+         * Construct a traversal from a sequence of elements, a monadic function, and a supplier for a mutable
+         * collection of results.
+         */
+        public Traverse(Iterable<A> elements, Function<A, Flow<S, B>> function, Supplier<C> results) {
+            super(s -> t -> run(new Traverse<>(elements, function, results), s, t));
+            this.elements = elements;
+            this.function = function;
+            this.results = results;
+        }
+
+        private Traversal<S, A, B> start() {
+            return new Traversal<>(elements.iterator(), function, results.get());
+        }
+    }
+
+    /**
+     * The mutable state of a traversal in progress, held on the continuation stack.
+     */
+    private static final class Traversal<S, A, B> {
+        private final Iterator<A> iterator;
+        private final Function<A, Flow<S, B>> function;
+        private final Collection<B> results;
+
+        private Traversal(Iterator<A> iterator, Function<A, Flow<S, B>> function, Collection<B> results) {
+            this.iterator = iterator;
+            this.function = function;
+            this.results = results;
+        }
+
+        private Flow<S, B> next() {
+            return function.apply(iterator.next());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package hydra.tools;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * A thread-safe interner which holds canonical instances weakly, so that an instance is retained only for as long as
+ * it is otherwise reachable. Interning never takes a global lock; the table is a ConcurrentHashMap keyed by weak
+ * references, and references which have been cleared are removed as they are enqueued.
+ */
+public final class WeakInterner<T> {
+    private final ConcurrentHashMap<Object, Ref<T>> table = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+    /**
+     * Get the canonical instance which is equal to a value, making the value itself canonical if there is none.
+     */
+    public T intern(T value) {
+        expunge();
+        int hash = value.hashCode();
+        while (true) {
+            Ref<T> ref = table.get(new Probe(value, hash));
+            if (ref == null) {
+                Ref<T> created = new Ref<>(value, hash, queue);
+                ref = table.putIfAbsent(created, created);
+                if (ref == null) {
+                    return value;
+                }
+            }
+            T existing = ref.get();
+            if (existing != null) {
+                return existing;
+            }
+            // The canonical instance has just been collected; replace it
+            table.remove(ref, ref);
+        }
+    }
+
+    /**
+     * The number of canonical instances, including any which have been collected but not yet removed.
+     */
+    public int size() {
+        expunge();
+        return table.size();
+    }
+
+    private void expunge() {
+        for (Object ref = queue.poll(); ref != null; ref = queue.poll()) {
+            table.remove(ref, ref);
+        }
+    }
+
+    // A weak reference which is equal to another reference, or to a probe, with an equal referent
+    private static final class Ref<T> extends WeakReference<T> {
+        private final int hash;
+
+        private Ref(T referent, int hash, ReferenceQueue<T> queue) {
+            super(referent, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            Object referent = get();
+            if (referent == null) {
+                return false;
+            }
+            if (other instanceof Ref) {
+                return referent.equals(((Ref<?>) other).get());
+            }
+            return other instanceof Probe && referent.equals(((Probe) other).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // A strong key used for lookups, so that no weak reference is created unless a value is added
+    private static final class Probe {
+        private final Object value;
+        private final int hash;
+
+        private Probe(Object value, int hash) {
+            this.value = value;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof Ref) {
+                Object referent = ((Ref<?>) other).get();
+                return referent != null && value.equals(referent);
+            }
+            return other instanceof Probe && value.equals(((Probe) other).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
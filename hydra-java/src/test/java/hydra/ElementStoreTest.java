@@ -0,0 +1,82 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.core.Name;
+import hydra.graph.Element;
+import hydra.graph.Graph;
+import hydra.module.Namespace;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.string;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class ElementStoreTest extends HydraTestBase {
+    private static final Namespace PEOPLE = new Namespace("example/people");
+    private static final Namespace PLACES = new Namespace("example/places");
+
+    private static final Element<Kv> ARTHUR = element("example/people.arthur", "Person");
+    private static final Element<Kv> FORD = element("example/people.ford", "Person");
+    private static final Element<Kv> EARTH = element("example/places.earth", "Planet");
+    private static final Element<Kv> ANSWER = new Element<>(new Name("example/places.answer"), int32(42));
+
+    @Test
+    public void elementsAreIndexedByNamespaceAndType() {
+        ElementStore<Kv> store = ElementStore.<Kv>empty().insertAll(Arrays.asList(ARTHUR, FORD, EARTH, ANSWER));
+        assertEquals(4, store.size());
+        assertSame(FORD, store.get(FORD.name));
+        assertEquals(new HashSet<>(Arrays.asList(ARTHUR.name, FORD.name)), store.inNamespace(PEOPLE).keySet());
+        assertEquals(new HashSet<>(Arrays.asList(EARTH.name, ANSWER.name)), store.inNamespace(PLACES).keySet());
+        assertEquals(new HashSet<>(Arrays.asList(ARTHUR.name, FORD.name)),
+                store.ofType(new Name("Person")).keySet());
+        assertTrue(store.ofType(new Name("Spaceship")).isEmpty());
+
+        assertEquals(Optional.of(PEOPLE), ElementStore.namespaceOf(ARTHUR.name));
+        assertEquals(Optional.empty(), ElementStore.namespaceOf(new Name("unqualified")));
+    }
+
+    @Test
+    public void replacementsAndDeletionsUpdateTheIndexes() {
+        ElementStore<Kv> store = ElementStore.<Kv>empty().insertAll(Arrays.asList(ARTHUR, FORD, EARTH));
+
+        // Arthur becomes a planet
+        ElementStore<Kv> replaced = store.insert(element("example/people.arthur", "Planet"));
+        assertEquals(new HashSet<>(Arrays.asList(ARTHUR.name, EARTH.name)),
+                replaced.ofType(new Name("Planet")).keySet());
+        assertEquals(1, replaced.ofType(new Name("Person")).size());
+        assertEquals(2, store.ofType(new Name("Person")).size());
+
+        ElementStore<Kv> deleted = store.deleteNamespace(PEOPLE);
+        assertEquals(1, deleted.size());
+        assertTrue(deleted.inNamespace(PEOPLE).isEmpty());
+        assertTrue(deleted.ofType(new Name("Person")).isEmpty());
+        assertNull(deleted.get(ARTHUR.name));
+        assertSame(deleted, deleted.delete(ARTHUR.name));
+    }
+
+    @Test
+    public void graphsAreUpdatedIncrementally() {
+        Graph<Kv> empty = emptyGraph();
+        Graph<Kv> g1 = ElementStore.withElement(empty, ARTHUR);
+        Graph<Kv> g2 = ElementStore.withElement(g1, FORD);
+        assertTrue(g2.elements instanceof ElementStore);
+        assertEquals(1, g1.elements.size());
+        assertEquals(2, g2.elements.size());
+        assertSame(ARTHUR, g2.elements.get(ARTHUR.name));
+        assertSame(g1.primitives, g2.primitives);
+    }
+
+    private static Element<Kv> element(String name, String type) {
+        return new Element<>(new Name(name), record(type, field("name", string(name))));
+    }
+}
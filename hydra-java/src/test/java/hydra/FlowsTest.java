@@ -4,6 +4,7 @@ import hydra.compute.Flow;
 import hydra.compute.FlowState;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -38,6 +39,53 @@ public class FlowsTest {
         assertFalse(result2.value.isPresent());
     }
 
+    @Test
+    public void checkDeepBindChainsAreStackSafe() {
+        int n = 200000;
+        List<Integer> ints = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ints.add(i);
+        }
+
+        // mapM and sequence build left-nested chains of binds, one per element
+        Flow<Integer, List<Integer>> flow1 = mapM(ints, i -> map(getState(), s -> i + s));
+        FlowState<Integer, List<Integer>> result1 = flow1.value.apply(1).apply(EMPTY_TRACE);
+        assertTrue(result1.value.isPresent());
+        assertEquals(n, result1.value.get().size());
+        assertEquals(n, result1.value.get().get(n - 1));
+
+        List<Flow<Integer, Integer>> flows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            flows.add(pure(i));
+        }
+        FlowState<Integer, List<Integer>> result2 = Flows.sequence(flows).value.apply(0).apply(EMPTY_TRACE);
+        assertEquals(ints, result2.value.get());
+
+        // Right-nested binds, with state updates along the way
+        Flow<Integer, Integer> flow3 = pure(0);
+        for (int i = 0; i < n; i++) {
+            Flow<Integer, Integer> prev = flow3;
+            flow3 = bind(getState(), s -> bind(putState(s + 1), ignored -> prev));
+        }
+        FlowState<Integer, Integer> result3 = flow3.value.apply(0).apply(EMPTY_TRACE);
+        assertEquals(n, result3.state);
+
+        // Nested maps
+        Flow<Integer, Integer> flow4 = pure(0);
+        for (int i = 0; i < n; i++) {
+            flow4 = map(flow4, x -> x + 1);
+        }
+        assertEquals(n, Flows.fromFlow(0, flow4));
+
+        // Failure at the end of a long chain
+        List<Integer> withFailure = new ArrayList<>(ints);
+        withFailure.add(-1);
+        Flow<Integer, List<Integer>> flow5 = mapM(withFailure, i -> i < 0 ? Flows.fail("negative") : pure(i));
+        FlowState<Integer, List<Integer>> result5 = flow5.value.apply(0).apply(EMPTY_TRACE);
+        assertFalse(result5.value.isPresent());
+        assertEquals("Error: negative", result5.trace.messages.get(0));
+    }
+
     @Test
     public void checkGetAndPutState() {
         Flow<Integer, Integer> flow1 = bind(pure(42), value -> map(getState(), state -> value + state));
@@ -60,6 +108,44 @@ public class FlowsTest {
         assertEquals(Optional.of(43), result3.value);
     }
 
+    @Test
+    public void checkTraceStack() {
+        Flow<Void, Integer> flow1 = pure(42);
+        for (int i = 0; i < 10; i++) {
+            flow1 = Flows.withTrace("frame" + i, flow1);
+        }
+        FlowState<Void, Integer> result1 = flow1.value.apply(null).apply(EMPTY_TRACE);
+        assertTrue(result1.value.isPresent());
+        assertTrue(result1.trace.stack.isEmpty());
+
+        // Exceeding the maximum trace depth is an error, which includes the stack from the outermost frame inward
+        Flow<Void, Integer> flow2 = pure(42);
+        for (int i = 0; i < 100; i++) {
+            flow2 = Flows.withTrace("frame" + i, flow2);
+        }
+        FlowState<Void, Integer> result2 = flow2.value.apply(null).apply(EMPTY_TRACE);
+        assertFalse(result2.value.isPresent());
+        assertEquals(1, result2.trace.messages.size());
+        String msg = result2.trace.messages.get(0);
+        assertTrue(msg.startsWith("Error: maximum trace depth exceeded"), msg);
+        assertTrue(msg.contains("(frame99 > frame98 > "), msg);
+
+        // Without stack tracking, frames are not recorded at all. The setting applies when a flow is evaluated,
+        // including flows which were built before the setting was changed.
+        Flow<Void, Integer> flow3 = pure(42);
+        for (int i = 0; i < 100; i++) {
+            flow3 = Flows.withTrace("frame" + i, flow3);
+        }
+        Traces.setStackTracking(false);
+        try {
+            FlowState<Void, Integer> result3 = flow3.value.apply(null).apply(EMPTY_TRACE);
+            assertEquals(Optional.of(42), result3.value);
+        } finally {
+            Traces.setStackTracking(true);
+        }
+        assertFalse(flow3.value.apply(null).apply(EMPTY_TRACE).value.isPresent());
+    }
+
     @Test
     public void checkWarnings() {
         final Flow<Void, Integer> flow0 = pure(42);
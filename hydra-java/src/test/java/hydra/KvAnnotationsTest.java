@@ -0,0 +1,75 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.core.Term;
+import hydra.core.Type;
+import hydra.dsl.Types;
+import hydra.tools.AnnotationMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static hydra.coreEncoding.CoreEncoding.coreEncodeType;
+import static hydra.dsl.Terms.annot;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.string;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class KvAnnotationsTest {
+    @Test
+    public void equalAnnotationSetsAreShared() {
+        Term<Kv> first = KvAnnotations.setTermType(Optional.of(Types.int32()), int32(1));
+        Term<Kv> second = KvAnnotations.setTermType(Optional.of(Types.int32()), int32(2));
+        Kv firstKv = ((Term.Annotated<Kv>) first).value.annotation;
+        assertSame(firstKv, ((Term.Annotated<Kv>) second).value.annotation);
+        assertTrue(firstKv.annotations instanceof AnnotationMap);
+        assertEquals(Optional.of(coreEncodeType(Types.<Kv>int32())),
+                KvAnnotations.getAnnotation(KvAnnotations.TYPE, firstKv));
+
+        Map<String, Term<Kv>> hashMap = new HashMap<>();
+        hashMap.put(KvAnnotations.TYPE, coreEncodeType(Types.int32()));
+        assertEquals(new Kv(hashMap), firstKv);
+        assertSame(firstKv, KvAnnotations.kv(hashMap));
+    }
+
+    @Test
+    public void settersKeepASingleLayerOfAnnotations() {
+        Map<String, Term<Kv>> inner = new HashMap<>();
+        inner.put("a", int32(1));
+        inner.put(KvAnnotations.DESCRIPTION, string("inner"));
+        Map<String, Term<Kv>> outer = new HashMap<>();
+        outer.put(KvAnnotations.DESCRIPTION, string("outer"));
+        Term<Kv> layered = annot(new Kv(outer), annot(new Kv(inner), list()));
+
+        Term<Kv> typed = KvAnnotations.setTermType(Optional.of(Types.string()), layered);
+        Term.Annotated<Kv> annotated = (Term.Annotated<Kv>) typed;
+        assertEquals(list(), annotated.value.subject);
+        assertEquals(3, annotated.value.annotation.annotations.size());
+        assertEquals(string("outer"), annotated.value.annotation.annotations.get(KvAnnotations.DESCRIPTION));
+
+        Term<Kv> described = KvAnnotations.setTermDescription(Optional.of("new"), typed);
+        assertEquals(string("new"),
+                ((Term.Annotated<Kv>) described).value.annotation.annotations.get(KvAnnotations.DESCRIPTION));
+
+        Term<Kv> stripped = KvAnnotations.setTermAnnotation("a", Optional.empty(),
+                KvAnnotations.setTermType(Optional.empty(),
+                        KvAnnotations.setTermDescription(Optional.empty(), described)));
+        assertEquals(list(), stripped);
+    }
+
+    @Test
+    public void typesAreAnnotatedAndStripped() {
+        Type<Kv> type = KvAnnotations.setTypeDescription(Optional.of("a number"), Types.int32());
+        assertEquals(Optional.of(string("a number")),
+                KvAnnotations.getAnnotation(KvAnnotations.DESCRIPTION, KvAnnotations.typeAnnotation(type)));
+        assertEquals(Types.int32(), KvAnnotations.stripType(type));
+        assertEquals(Types.int32(), KvAnnotations.setTypeDescription(Optional.empty(), type));
+        assertSame(KvAnnotations.empty(), KvAnnotations.typeAnnotation(Types.int32()));
+    }
+}
@@ -0,0 +1,193 @@
+package hydra;
+
+import hydra.compute.Kv;
+import hydra.core.FieldName;
+import hydra.core.Name;
+import hydra.core.Projection;
+import hydra.core.Term;
+import hydra.dsl.Terms;
+import hydra.graph.Element;
+import hydra.graph.Graph;
+import hydra.query.ComparisonConstraint;
+import hydra.query.Edge;
+import hydra.query.GraphPattern;
+import hydra.query.Node;
+import hydra.query.Path;
+import hydra.query.Pattern;
+import hydra.query.Query;
+import hydra.query.Range;
+import hydra.query.RegexQuantifier;
+import hydra.query.RegexSequence;
+import hydra.query.Step;
+import hydra.query.TriplePattern;
+import hydra.query.Variable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.string;
+import static hydra.dsl.Terms.variable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+public class QueryEvaluatorTest extends HydraTestBase {
+    private static final Path DERIVED_FROM = new Path.Step(new Step.Edge(
+            new Edge(new Name("DerivedFrom"), Optional.empty(), Optional.empty())));
+    private static final Path NAME = new Path.Step(new Step.Project(
+            new Projection(new Name("Dataset"), new FieldName("name"))));
+    private static final Path SIZE = new Path.Step(new Step.Project(
+            new Projection(new Name("Dataset"), new FieldName("size"))));
+
+    // A lineage chain a <- b <- c <- d, in which each dataset is derived from the one before it
+    private static final QueryEvaluator<Kv> EVALUATOR = new QueryEvaluator<>(graph(
+            dataset("a", 10), dataset("b", 20), dataset("c", 30), dataset("d", 40),
+            derivation("b", "a"), derivation("c", "b"), derivation("d", "c")));
+
+    @Test
+    public void transitivePathsAreFollowedInBothDirections() {
+        assertSucceedsWith(nodes("c", "b", "a"), EVALUATOR.reachable(variable("d"), plus(DERIVED_FROM)));
+        assertSucceedsWith(nodes("b", "c", "d"), EVALUATOR.reachable(variable("a"), plus(inverse(DERIVED_FROM))));
+        assertSucceedsWith(nodes("d", "c", "b", "a"), EVALUATOR.reachable(variable("d"),
+                quantified(DERIVED_FROM, new RegexQuantifier.ZeroOrMore())));
+
+        assertSucceedsWith(true, EVALUATOR.connected(variable("d"), plus(DERIVED_FROM), variable("a")));
+        assertSucceedsWith(false, EVALUATOR.connected(variable("a"), plus(DERIVED_FROM), variable("d")));
+        assertSucceedsWith(true, EVALUATOR.connected(variable("a"), plus(inverse(DERIVED_FROM)), variable("d")));
+    }
+
+    @Test
+    public void boundedQuantifiersAreUnrolled() {
+        Path twoOrThree = quantified(DERIVED_FROM, new RegexQuantifier.Range(new Range(2, 3)));
+        assertSucceedsWith(nodes("b", "a"), EVALUATOR.reachable(variable("d"), twoOrThree));
+        assertSucceedsWith(nodes("b"), EVALUATOR.reachable(variable("d"),
+                quantified(DERIVED_FROM, new RegexQuantifier.Exactly(2))));
+        assertSucceedsWith(nodes("a"), EVALUATOR.reachable(variable("d"),
+                quantified(DERIVED_FROM, new RegexQuantifier.AtLeast(3))));
+        assertSucceedsWith(false, EVALUATOR.connected(variable("d"), twoOrThree, variable("c")));
+        assertFails(EVALUATOR.reachable(variable("d"),
+                quantified(DERIVED_FROM, new RegexQuantifier.Range(new Range(3, 2)))));
+    }
+
+    @Test
+    public void unboundTransitivePatternsProduceTheClosure() {
+        // ?x derivedFrom+ ?y
+        checkFlow(EVALUATOR.evaluate(query(Arrays.asList("x", "y"),
+                triple(var("x"), plus(DERIVED_FROM), var("y")))), closure -> assertEquals(6, closure.size()));
+
+        // The names of the ancestors of d which are no larger than 20
+        Query<Kv> ancestors = query(Collections.singletonList("n"), new Pattern.Conjunction<>(Arrays.asList(
+                triple(new Node.Term<>(int32(20)), compare(new ComparisonConstraint.GreaterThanOrEqual()),
+                        var("s")),
+                triple(var("x"), SIZE, var("s")),
+                triple(var("x"), NAME, var("n")),
+                triple(new Node.Term<>(variable("d")), plus(DERIVED_FROM), var("x")))));
+        checkFlow(EVALUATOR.evaluate(ancestors), bindings -> assertEquals(
+                new HashSet<>(Arrays.asList(binding("n", string("a")), binding("n", string("b")))),
+                new HashSet<>(bindings)));
+    }
+
+    @Test
+    public void negationsAndDisjunctionsFilterAndUnion() {
+        // Datasets which are not derived from anything
+        Query<Kv> roots = query(Collections.singletonList("n"), new Pattern.Conjunction<>(Arrays.asList(
+                triple(var("x"), NAME, var("n")),
+                new Pattern.Negation<>(triple(var("x"), DERIVED_FROM, new Node.Wildcard<>())))));
+        assertSucceedsWith(Collections.singletonList(binding("n", string("a"))), EVALUATOR.evaluate(roots));
+
+        // The direct neighbours of b, in either direction
+        Query<Kv> neighbours = query(Collections.singletonList("x"), new Pattern.Disjunction<>(Arrays.asList(
+                triple(new Node.Term<>(variable("b")), DERIVED_FROM, var("x")),
+                triple(var("x"), DERIVED_FROM, new Node.Term<>(variable("b"))))));
+        checkFlow(EVALUATOR.evaluate(neighbours), bindings -> assertEquals(
+                new HashSet<>(Arrays.asList(binding("x", variable("a")), binding("x", variable("c")))),
+                new HashSet<>(bindings)));
+    }
+
+    @Test
+    public void unsupportedQueriesFail() {
+        // A comparison as one step of a longer path
+        assertFails(EVALUATOR.reachable(variable("d"), new Path.Regex(new RegexSequence(
+                compare(new ComparisonConstraint.LessThan()), new RegexQuantifier.OneOrMore()))));
+
+        // A comparison with an end which no other pattern binds
+        assertFails(EVALUATOR.evaluate(query(Collections.singletonList("s"),
+                triple(new Node.Term<>(int32(20)), compare(new ComparisonConstraint.LessThan()), var("s")))));
+
+        // A pattern over another graph
+        assertFails(EVALUATOR.evaluate(query(Collections.singletonList("n"), new Pattern.Graph<>(
+                new GraphPattern<>(new Name("other"), Collections.singletonList(
+                        triple(var("x"), NAME, var("n"))))))));
+
+        // A selected variable which appears in no pattern
+        assertFails(EVALUATOR.evaluate(query(Collections.singletonList("y"), triple(var("x"), NAME, var("n")))));
+    }
+
+    private static Element<Kv> dataset(String name, int size) {
+        return new Element<>(new Name(name), record("Dataset",
+                field("name", string(name)), field("size", int32(size))));
+    }
+
+    private static Element<Kv> derivation(String from, String to) {
+        return new Element<>(new Name(from + "-" + to), record("DerivedFrom",
+                field("out", variable(from)), field("in", variable(to))));
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static Graph<Kv> graph(Element<Kv>... elements) {
+        Map<Name, Element<Kv>> map = new HashMap<>();
+        for (Element<Kv> element : elements) {
+            map.put(element.name, element);
+        }
+        Graph<Kv> empty = emptyGraph();
+        return empty.withElements(map);
+    }
+
+    private static Set<Term<Kv>> nodes(String... names) {
+        return Arrays.stream(names).map(n -> Terms.<Kv>variable(n)).collect(Collectors.toSet());
+    }
+
+    private static Map<Variable, Term<Kv>> binding(String variable, Term<Kv> value) {
+        return Collections.singletonMap(new Variable(variable), value);
+    }
+
+    private static Path plus(Path path) {
+        return quantified(path, new RegexQuantifier.OneOrMore());
+    }
+
+    private static Path quantified(Path path, RegexQuantifier quantifier) {
+        return new Path.Regex(new RegexSequence(path, quantifier));
+    }
+
+    private static Path inverse(Path path) {
+        return new Path.Inverse(path);
+    }
+
+    private static Path compare(ComparisonConstraint constraint) {
+        return new Path.Step(new Step.Compare(constraint));
+    }
+
+    private static Node<Kv> var(String name) {
+        return new Node.Variable<>(new Variable(name));
+    }
+
+    private static Pattern<Kv> triple(Node<Kv> subject, Path predicate, Node<Kv> object) {
+        return new Pattern.Triple<>(new TriplePattern<>(subject, predicate, object));
+    }
+
+    private static Query<Kv> query(List<String> variables, Pattern<Kv> pattern) {
+        return new Query<>(variables.stream().map(Variable::new).collect(Collectors.toList()),
+                Collections.singletonList(pattern));
+    }
+}
@@ -1,16 +1,33 @@
 package hydra;
 
 import hydra.compute.Kv;
+import hydra.core.Name;
 import hydra.core.Term;
+import hydra.graph.Graph;
+import hydra.lib.equality.EqualInt32;
+import hydra.lib.math.Add;
+import hydra.lib.math.Div;
+import hydra.lib.strings.Length;
 import hydra.lib.strings.SplitOn;
+import hydra.tools.LiteralTerms;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
+
+import static hydra.dsl.Terms.annot;
 import static hydra.dsl.Terms.apply;
+import static hydra.dsl.Terms.boolean_;
 import static hydra.dsl.Terms.int32;
 import static hydra.dsl.Terms.lambda;
+import static hydra.dsl.Terms.let;
 import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.primitive;
 import static hydra.dsl.Terms.string;
 import static hydra.dsl.Terms.variable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 
 /**
@@ -43,6 +60,92 @@ public class ReductionTest extends HydraTestBase {
             apply(int32(42), int32(42)));
     }
 
+    @Test
+    public void checkEnvironmentBasedEvaluation() {
+        Term<Kv> add = new Add<Kv>().term();
+
+        // Let bindings are added to the environment, and may be shadowed
+        checkEvaluation(let("x", int32(42), variable("x")), int32(42));
+        checkEvaluation(
+            let("x", int32(1), let("y", apply(add, variable("x"), int32(1)),
+                apply(lambda("x", apply(add, variable("x"), variable("y"))), int32(10)))),
+            int32(12));
+
+        // Closures which escape into the result are closed over their environment
+        checkEvaluation(
+            let("y", int32(5), lambda("x", apply(add, variable("x"), variable("y")))),
+            lambda("x", apply(add, variable("x"), int32(5))));
+        checkEvaluation(
+            apply(lambda("f", apply(variable("f"), int32(1))), apply(add, int32(2))),
+            int32(3));
+
+        // Binders are renamed where they would capture a free variable of a substituted value
+        checkEvaluation(
+            apply(lambda("x", lambda("y", apply(variable("x"), variable("y")))), variable("y")),
+            lambda("y1", apply(variable("y"), variable("y1"))));
+        checkEvaluation(
+            apply(lambda("x", lambda("z", let("y", variable("z"), apply(variable("x"), variable("y"))))),
+                variable("y")),
+            lambda("z", let("y1", variable("z"), apply(variable("y"), variable("y1")))));
+    }
+
+    @Test
+    public void checkLazyEvaluationSkipsUnusedArguments() {
+        Term<Kv> bad = apply(new Length<Kv>().term(), int32(42));
+        Term<Kv> term = apply(lambda("x", int32(1)), bad);
+
+        assertSucceedsWith(int32(1), Evaluation.reduce(false, term), emptyGraph());
+        assertFails(Evaluation.reduce(true, term), emptyGraph());
+    }
+
+    @Test
+    public void checkPrimitiveDispatch() {
+        Graph<Kv> graph = emptyGraph();
+        PrimitiveTable<Kv> table = PrimitiveTable.of(graph);
+        PrimitiveTable.Entry<Kv> add = table.get(new Add<Kv>().name());
+        assertEquals(2, add.arity);
+        assertSame(add, table.get(table.id(new Add<Kv>().name())));
+        assertSame(add, table.get(add.id));
+        assertNull(table.get(new Name("hydra/lib/math.noSuchPrimitive")));
+        assertEquals(-1, table.id(new Name("hydra/lib/math.noSuchPrimitive")));
+
+        // Tables are cached per graph, and are not evicted by other graphs
+        PrimitiveTable<Kv> other = PrimitiveTable.of(emptyGraph());
+        assertNotSame(table, other);
+        assertSame(table, PrimitiveTable.of(graph));
+
+        Term<Kv> term = apply(primitive("hydra/lib/math.noSuchPrimitive"), int32(42));
+        assertFails(Reduction.reduce(true, term), emptyGraph());
+        assertFails(Evaluation.reduce(true, term), emptyGraph());
+    }
+
+    @Test
+    public void checkLiteralFastPaths() {
+        Kv ann = new Kv(Collections.emptyMap());
+        Term<Kv> add = new Add<Kv>().term();
+        Term<Kv> div = new Div<Kv>().term();
+        Term<Kv> equal = new EqualInt32<Kv>().term();
+
+        checkEvaluation(apply(add, int32(2000000000), int32(2000000000)), int32(-294967296));
+        checkEvaluation(apply(equal, int32(1), int32(1)), boolean_(true));
+        checkEvaluation(apply(new Length<Kv>().term(), string("foo")), int32(3));
+
+        // Results which are shared terms are produced by shared flows
+        Term<Kv> three = LiteralTerms.int32(3);
+        assertSame(LiteralTerms.pure(three), LiteralTerms.pure(three));
+        assertSame(LiteralTerms.pure(LiteralTerms.boolean_(true)), LiteralTerms.pure(LiteralTerms.boolean_(true)));
+
+        // Anything other than a plain literal of the expected type is left to the general implementations
+        assertFails(Evaluation.reduce(true, apply(equal, annot(ann, int32(1)), int32(1))), emptyGraph());
+        assertFails(Evaluation.reduce(true, apply(div, int32(1), int32(0))), emptyGraph());
+        assertFails(Evaluation.reduce(true, apply(add, string("1"), int32(2))), emptyGraph());
+    }
+
+    private static void checkEvaluation(Term<Kv> input, Term<Kv> output) {
+        assertSucceedsWith(output, Evaluation.reduce(true, input), emptyGraph());
+        assertSucceedsWith(output, Evaluation.reduce(false, input), emptyGraph());
+    }
+
     private static void checkEager(int idx, Term<Kv> input, Term<Kv> output) {
         TestSuiteRunner.runReductionTestCase(true, "" + idx, input, output);
     }
@@ -0,0 +1,114 @@
+package hydra;
+
+import hydra.core.Name;
+import hydra.core.Term;
+import hydra.tools.PersistentSortedMap;
+import hydra.tools.PersistentSortedSet;
+import hydra.tools.TermOrdering;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static hydra.dsl.Terms.annot;
+import static hydra.dsl.Terms.apply;
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.lambda;
+import static hydra.dsl.Terms.let;
+import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.map;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.set;
+import static hydra.dsl.Terms.string;
+import static hydra.dsl.Terms.variable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+public class TermRewriterTest {
+    private static final Name pointName = new Name("Point");
+
+    private static final Term<String> point = annot("a point",
+            record(pointName, field("x", annot("x coordinate", variable("x"))), field("y", int32(1))));
+
+    private static final Term<String> points = list(point, record(pointName, field("x", int32(2)),
+            field("y", variable("y"))), lambda("x", apply(variable("x"), variable("y"))));
+
+    @Test
+    public void unchangedTermsAreReturnedAsIs() {
+        assertSame(points, TermRewriter.rewrite(points));
+        assertSame(points, TermRewriter.rewrite(points, TermRewriter.replaceFreeName(new Name("z"), int32(0))));
+        assertSame(points, TermRewriter.rewrite(points, TermRewriter.mapAnnotations(a -> a)));
+        assertSame(points, Reduction.replaceFreeName(new Name("z"), int32(0), points));
+    }
+
+    @Test
+    public void fusedRulesMatchSequentialPasses() {
+        Term<String> expected = list(
+                record(pointName, field("x", int32(0)), field("y", int32(1))),
+                record(pointName, field("x", int32(2)), field("y", string("y"))),
+                lambda("x", apply(variable("x"), string("y"))));
+
+        Term<String> fused = TermRewriter.rewrite(points,
+                TermRewriter.stripAnnotations(),
+                TermRewriter.replaceFreeName(new Name("x"), int32(0)),
+                TermRewriter.replaceFreeName(new Name("y"), string("y")));
+        assertEquals(expected, fused);
+
+        Term<String> sequential = TermRewriter.rewrite(points, TermRewriter.stripAnnotations());
+        sequential = Reduction.replaceFreeName(new Name("x"), int32(0), sequential);
+        sequential = Reduction.replaceFreeName(new Name("y"), string("y"), sequential);
+        assertEquals(expected, sequential);
+
+        // Elements without annotations are shared between the original and the stripped list
+        List<Term<String>> before = ((Term.List<String>) points).value;
+        Term<String> stripped = TermRewriter.rewrite(points, TermRewriter.stripAnnotations());
+        assertSame(before.get(1), ((Term.List<String>) stripped).value.get(1));
+        assertSame(before.get(2), ((Term.List<String>) stripped).value.get(2));
+    }
+
+    @Test
+    public void boundVariablesAreNotReplaced() {
+        Term<String> term = let("x", int32(1), apply(variable("x"), variable("y")));
+        assertSame(term, Reduction.replaceFreeName(new Name("x"), int32(0), term));
+        assertEquals(let("x", int32(1), apply(variable("x"), int32(0))),
+                Reduction.replaceFreeName(new Name("y"), int32(0), term));
+
+        Term<String> annotated = TermRewriter.rewrite(point, TermRewriter.mapAnnotations(a -> a.toUpperCase()));
+        assertEquals(annot("A POINT", record(pointName, field("x", annot("X COORDINATE", variable("x"))),
+                field("y", int32(1)))), annotated);
+    }
+
+    @Test
+    public void rewrittenSetsAndMapsAreOrderedByTerm() {
+        Term<String> term = set(new HashSet<>(Arrays.asList(int32(3), int32(1), int32(2))));
+        Term<String> rewritten = Rewriting.rewriteTerm(recurse -> recurse, a -> a, term);
+        assertEquals(term, rewritten);
+        Set<Term<String>> set = ((Term.Set<String>) rewritten).value;
+        assertSame(TermOrdering.terms(), ((PersistentSortedSet<Term<String>>) set).comparator());
+        assertEquals(Arrays.asList(int32(1), int32(2), int32(3)), new ArrayList<>(set));
+
+        Map<Term<String>, Term<String>> entries = new HashMap<>();
+        entries.put(string("b"), int32(2));
+        entries.put(string("a"), int32(1));
+        Term<String> mapTerm = Rewriting.rewriteTerm(recurse -> recurse, a -> a, map(entries));
+        Map<Term<String>, Term<String>> rewrittenMap = ((Term.Map<String>) mapTerm).value;
+        assertSame(TermOrdering.terms(), ((PersistentSortedMap<Term<String>, Term<String>>) rewrittenMap).comparator());
+        assertEquals(Arrays.asList(string("a"), string("b")), new ArrayList<>(rewrittenMap.keySet()));
+    }
+
+    @Test
+    public void setsAreCopiedOnlyWhenAnElementChanges() {
+        Term<String> term = set(new HashSet<>(Arrays.asList(variable("x"), int32(1), variable("y"))));
+        assertSame(term, TermRewriter.rewrite(term, TermRewriter.replaceFreeName(new Name("z"), int32(0))));
+
+        Term<String> rewritten = TermRewriter.rewrite(term, TermRewriter.replaceFreeName(new Name("y"), int32(0)));
+        assertEquals(set(new HashSet<>(Arrays.asList(variable("x"), int32(1), int32(0)))), rewritten);
+    }
+}
@@ -36,10 +36,15 @@ public class TestSuiteRunner extends HydraTestBase {
      * Run a beta-reduction test case.
      */
     public static void runReductionTestCase(boolean eager, String name, Term<Kv> input, Term<Kv> output) {
+        // Both the substitution-based reducer and the environment-based evaluator are expected to pass
+        checkReduction(Reduction.reduce(eager, input), name, output);
+        checkReduction(Evaluation.reduce(eager, input), name + ", environment-based", output);
+    }
+
+    private static void checkReduction(Flow<Graph<Kv>, Term<Kv>> reduced, String name, Term<Kv> output) {
         Graph<Kv> graph = emptyGraph();
         String suffix = " (" + name + ")";
 
-        Flow<Graph<Kv>, Term<Kv>> reduced = Reduction.reduce(eager, input);
         FlowState<Graph<Kv>, Term<Kv>> result = reduced.value.apply(graph).apply(EMPTY_TRACE);
         if (result.value.isPresent()) {
             if (!result.value.get().equals(output)) {
@@ -0,0 +1,191 @@
+package hydra.binary;
+
+import hydra.compute.Kv;
+import hydra.core.Name;
+import hydra.core.Stream;
+import hydra.core.Term;
+import hydra.core.Type;
+import hydra.dsl.Interner;
+import hydra.dsl.Types;
+import hydra.graph.Element;
+import hydra.module.Module;
+import hydra.module.Namespace;
+import hydra.tools.Bytes;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static hydra.dsl.Terms.annot;
+import static hydra.dsl.Terms.apply;
+import static hydra.dsl.Terms.bigfloat;
+import static hydra.dsl.Terms.bigint;
+import static hydra.dsl.Terms.binary;
+import static hydra.dsl.Terms.boolean_;
+import static hydra.dsl.Terms.cases;
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.float32;
+import static hydra.dsl.Terms.float64;
+import static hydra.dsl.Terms.inject;
+import static hydra.dsl.Terms.int16;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.int64;
+import static hydra.dsl.Terms.int8;
+import static hydra.dsl.Terms.just;
+import static hydra.dsl.Terms.lambda;
+import static hydra.dsl.Terms.let;
+import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.map;
+import static hydra.dsl.Terms.nothing;
+import static hydra.dsl.Terms.pair;
+import static hydra.dsl.Terms.primitive;
+import static hydra.dsl.Terms.project;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.set;
+import static hydra.dsl.Terms.string;
+import static hydra.dsl.Terms.uint16;
+import static hydra.dsl.Terms.uint32;
+import static hydra.dsl.Terms.uint64;
+import static hydra.dsl.Terms.uint8;
+import static hydra.dsl.Terms.unwrap;
+import static hydra.dsl.Terms.variable;
+import static hydra.dsl.Terms.wrap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class BinaryFormatTest {
+    private static final Kv ANN = new Kv(Collections.singletonMap("comment", string("a comment")));
+
+    @Test
+    public void literalsRoundTrip() {
+        for (Term<Kv> literal : Arrays.<Term<Kv>>asList(
+                binary("aGVsbG8="), binary(Bytes.of(new byte[] {0, (byte) 0x80, (byte) 0xff})), binary("☃"),
+                boolean_(true), boolean_(false),
+                bigfloat(3.5), float32(-1.25f), float64(Double.NaN),
+                bigint(new BigInteger("-123456789012345678901234567890")),
+                int8((short) -128), int16((short) 32767), int32(Integer.MIN_VALUE), int64(Long.MAX_VALUE),
+                uint8((byte) 255), uint16((char) 65535), uint32(4294967295L),
+                uint64(new BigInteger("18446744073709551615")), string("café ☃"))) {
+            assertRoundTrip(literal);
+        }
+    }
+
+    @Test
+    public void termsRoundTrip() {
+        Map<Term<Kv>, Term<Kv>> entries = new HashMap<>();
+        entries.put(string("one"), int32(1));
+        entries.put(string("two"), int32(2));
+
+        assertRoundTrip(apply(lambda("x", record("Point", field("x", variable("x")), field("y", int32(0)))),
+                int32(42)));
+        assertRoundTrip(let("x", int32(1), list(variable("x"), nothing(), just(string("y")))));
+        assertRoundTrip(map(entries));
+        assertRoundTrip(set(new HashSet<>(Arrays.asList(string("a"), string("b"), string("c")))));
+        assertRoundTrip(pair(inject("Shape", field("circle", float64(1.0))), wrap(new Name("Id"), string("x"))));
+        assertRoundTrip(list(primitive("hydra/lib/strings.cat"), project("Point", "x"), unwrap(new Name("Id")),
+                cases(new Name("Shape"), Optional.of(int32(0)), field("circle", int32(1)))));
+        assertRoundTrip(annot(ANN, list(annot(ANN, int32(1)), annot(ANN, int32(2)))));
+    }
+
+    @Test
+    public void typesRoundTrip() {
+        for (Type<Kv> type : Arrays.<Type<Kv>>asList(
+                Types.record("Point", Types.field("x", Types.int32()), Types.field("y", Types.float64())),
+                Types.union("Shape", Types.field("circle", Types.bigfloat())),
+                Types.lambda("a", Types.function(Types.variable("a"),
+                        Types.map(Types.string(), Types.optional(Types.set(Types.uint64()))))),
+                Types.apply(Types.variable("List"), Types.pair(Types.binary(), Types.boolean_())),
+                Types.annot(ANN, Types.wrap("Id", Types.list(Types.uint8()))))) {
+            assertEquals(type, BinaryReader.decodeType(BinaryWriter.encode(type)));
+        }
+    }
+
+    @Test
+    public void modulesRoundTripWithSharedDependencies() {
+        Module<Kv> base = new Module<>(new Namespace("example/base"),
+                Arrays.asList(new Element<>(new Name("example/base.zero"), int32(0))),
+                Collections.emptyList(), Collections.emptyList(), Optional.of("The base module"));
+        Module<Kv> left = module("example/left", base);
+        Module<Kv> right = module("example/right", base);
+        Module<Kv> top = new Module<>(new Namespace("example/top"), Collections.emptyList(),
+                Arrays.asList(left, right), Arrays.asList(base), Optional.empty());
+
+        Module<Kv> decoded = BinaryReader.decodeModule(BinaryWriter.encode(top));
+        assertEquals(top, decoded);
+        assertSame(decoded.termDependencies.get(0).termDependencies.get(0),
+                decoded.termDependencies.get(1).termDependencies.get(0));
+        assertSame(decoded.termDependencies.get(0).termDependencies.get(0), decoded.typeDependencies.get(0));
+    }
+
+    @Test
+    public void sharedSubtermsAreWrittenOnce() {
+        Term<Kv> big = record("Person", field("name", string("Arthur Dent")), field("age", int32(42)));
+        Term<Kv> once = list(big);
+        Term<Kv> thrice = list(big, big, big);
+        byte[] bytes = BinaryWriter.encode(thrice);
+        assertTrue(bytes.length < BinaryWriter.encode(once).length + 2 * 4);
+
+        Term<Kv> decoded = BinaryReader.decodeTerm(bytes);
+        assertEquals(thrice, decoded);
+        List<Term<Kv>> elements = ((Term.List<Kv>) decoded).value;
+        assertSame(elements.get(0), elements.get(1));
+        assertSame(elements.get(0), elements.get(2));
+
+        // Structurally equal copies are shared once interned
+        Term<Kv> copies = list(big, record("Person", field("name", string("Arthur Dent")), field("age", int32(42))));
+        Interner<Kv> interner = new Interner<>();
+        assertTrue(BinaryWriter.encode(interner.term(copies)).length < BinaryWriter.encode(copies).length);
+    }
+
+    @Test
+    public void rootsShareAStringTableAndDecodeInAnyOrder() {
+        Element<Kv> first = new Element<>(new Name("example.first"), string("example.second"));
+        Element<Kv> second = new Element<>(new Name("example.second"), variable("example.first"));
+        byte[] bytes = new BinaryWriter().element(first).element(second).term(first.data).toByteArray();
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        BinaryReader reader = new BinaryReader(direct);
+        assertEquals(3, reader.rootCount());
+        assertEquals(second, reader.element(1));
+        assertEquals(first, reader.element(0));
+        assertEquals(first.data, reader.term(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.term(3));
+    }
+
+    @Test
+    public void malformedInputIsRejected() {
+        byte[] bytes = BinaryWriter.encode(int32(1));
+        bytes[0] = 'X';
+        assertThrows(IllegalArgumentException.class, () -> BinaryReader.decodeTerm(bytes));
+        assertThrows(IllegalArgumentException.class, () -> BinaryReader.decodeTerm(new byte[] {'H', 'Y'}));
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryReader.decodeType(BinaryWriter.encode(int32(1))));
+    }
+
+    @Test
+    public void streamsAreRejected() {
+        Term<Kv> stream = new Term.Stream<>(new Stream<>(int32(1), null));
+        assertThrows(IllegalArgumentException.class, () -> BinaryWriter.encode(list(stream)));
+    }
+
+    private static void assertRoundTrip(Term<Kv> term) {
+        assertEquals(term, BinaryReader.decodeTerm(BinaryWriter.encode(term)));
+    }
+
+    private static Module<Kv> module(String namespace, Module<Kv> dependency) {
+        return new Module<>(new Namespace(namespace),
+                Arrays.asList(new Element<>(new Name(namespace + ".value"), string(namespace))),
+                Arrays.asList(dependency), Collections.emptyList(), Optional.empty());
+    }
+}
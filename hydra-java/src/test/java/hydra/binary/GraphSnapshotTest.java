@@ -0,0 +1,86 @@
+package hydra.binary;
+
+import hydra.HydraTestBase;
+import hydra.compute.Kv;
+import hydra.core.Name;
+import hydra.core.Term;
+import hydra.graph.Element;
+import hydra.graph.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.string;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class GraphSnapshotTest extends HydraTestBase {
+    @Test
+    public void snapshotsRoundTripThroughMappedFiles(@TempDir Path dir) throws IOException {
+        Graph<Kv> graph = graph();
+        Path file = dir.resolve("graph.hybn");
+        GraphSnapshot.write(graph, file);
+
+        Graph<Kv> loaded = GraphSnapshot.load(file, graph.primitives, graph.annotations);
+        assertEquals(graph.elements.keySet(), loaded.elements.keySet());
+        Element<Kv> arthur = loaded.elements.get(new Name("example/people.arthur"));
+        assertEquals(graph.elements.get(arthur.name), arthur);
+        assertSame(arthur, loaded.elements.get(arthur.name));
+        assertEquals(graph.elements, loaded.elements);
+        assertEquals(graph.environment, loaded.environment);
+        assertEquals(graph.body, loaded.body);
+        assertEquals(graph.primitives.keySet(), loaded.primitives.keySet());
+        assertTrue(loaded.schema.isPresent());
+        assertEquals(graph.schema.get().elements, loaded.schema.get().elements);
+        assertNull(loaded.elements.get(new Name("example/people.zaphod")));
+
+        // The elements of a snapshot are read-only
+        assertThrows(UnsupportedOperationException.class, () -> loaded.elements.keySet().remove(arthur.name));
+        assertEquals(graph.elements.size(), loaded.elements.size());
+    }
+
+    @Test
+    public void missingPrimitivesAreRejected() throws IOException {
+        Graph<Kv> graph = graph();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GraphSnapshot.write(graph, out);
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphSnapshot.load(buffer, Collections.emptyMap(), graph.annotations));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Graph<Kv> graph() {
+        Graph<Kv> empty = emptyGraph();
+        Map<Name, Element<Kv>> schemaElements = new HashMap<>();
+        schemaElements.put(new Name("example/people.Person"), new Element<>(new Name("example/people.Person"),
+                string("the Person type")));
+        Graph<Kv> schema = empty.withElements(schemaElements);
+
+        Map<Name, Element<Kv>> elements = new HashMap<>();
+        for (String name : new String[] {"arthur", "ford", "trillian"}) {
+            Element<Kv> element = new Element<>(new Name("example/people." + name),
+                    record("example/people.Person", field("name", string(name)), field("age", int32(42))));
+            elements.put(element.name, element);
+        }
+        Map<Name, Optional<Term<Kv>>> environment = new HashMap<>();
+        environment.put(new Name("x"), Optional.of(int32(1)));
+        environment.put(new Name("y"), Optional.empty());
+        return empty.withElements(elements).withEnvironment(environment).withSchema(Optional.of(schema));
+    }
+}
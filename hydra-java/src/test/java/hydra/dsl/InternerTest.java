@@ -0,0 +1,142 @@
+package hydra.dsl;
+
+import hydra.core.Term;
+import hydra.core.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static hydra.dsl.Terms.annot;
+import static hydra.dsl.Terms.apply;
+import static hydra.dsl.Terms.field;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.lambda;
+import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.record;
+import static hydra.dsl.Terms.set;
+import static hydra.dsl.Terms.string;
+import static hydra.dsl.Terms.variable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+public class InternerTest {
+    @Test
+    public void equalTermsAreInternedToTheSameInstance() {
+        Interner<String> interner = new Interner<>();
+        Term<String> t1 = apply(lambda("x", list(variable("x"), string("foo"))), int32(42));
+        Term<String> t2 = apply(lambda("x", list(variable("x"), string("foo"))), int32(42));
+        assertNotSame(t1, t2);
+
+        Term<String> i1 = interner.term(t1);
+        Term<String> i2 = interner.term(t2);
+        assertSame(i1, i2);
+        assertEquals(t1, i1);
+
+        // Interning is idempotent, and distinct terms remain distinct
+        assertSame(i1, interner.term(i1));
+        assertNotSame(i1, interner.term(apply(lambda("y", list(variable("y"), string("foo"))), int32(42))));
+    }
+
+    @Test
+    public void subtermsAreShared() {
+        Interner<String> interner = new Interner<>();
+        Term<String> t = interner.term(list(string("foo"), string("foo"), list(string("foo"))));
+        List<Term<String>> els = ((Term.List<String>) t).value;
+        assertSame(els.get(0), els.get(1));
+        assertSame(els.get(0), ((Term.List<String>) els.get(2)).value.get(0));
+        // One string literal and two lists
+        assertEquals(3, interner.size());
+    }
+
+    @Test
+    public void setsAreInternedRegardlessOfOrder() {
+        Interner<String> interner = new Interner<>();
+        Term<String> s1 = set(new HashSet<>(Arrays.asList(int32(1), int32(2), int32(3))));
+        Term<String> s2 = set(new HashSet<>(Arrays.asList(int32(3), int32(2), int32(1))));
+        assertSame(interner.term(s1), interner.term(s2));
+
+        // Maps whose entries are iterated in different orders
+        Map<Term<String>, Term<String>> m1 = new LinkedHashMap<>();
+        Map<Term<String>, Term<String>> m2 = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            m1.put(int32(i), string("v" + i));
+            m2.put(int32(99 - i), string("v" + (99 - i)));
+        }
+        assertSame(interner.term(new Term.Map<>(m1)), interner.term(new Term.Map<>(m2)));
+    }
+
+    @Test
+    public void equalTypesAreInternedToTheSameInstance() {
+        Interner<String> interner = new Interner<>();
+        Type<String> latLon1 = Types.record("LatLon", Types.field("lat", Types.float32()),
+                Types.field("lon", Types.float32()));
+        Type<String> latLon2 = Types.record("LatLon", Types.field("lat", Types.float32()),
+                Types.field("lon", Types.float32()));
+
+        Type<String> i1 = interner.type(Types.list(latLon1));
+        Type<String> i2 = interner.type(Types.list(latLon2));
+        assertSame(i1, i2);
+        assertEquals(Types.list(latLon1), i1);
+        assertNotSame(i1, interner.type(Types.set(latLon2)));
+    }
+
+    @Test
+    public void unchangedRecordsAreNotCopied() {
+        Interner<String> interner = new Interner<>();
+        Term<String> rec = record("Point", field("x", interner.term(int32(1))), field("y", interner.term(int32(2))));
+        Term<String> interned = interner.term(rec);
+        assertSame(rec, interned);
+        assertSame(((Term.Record<String>) rec).value.fields, ((Term.Record<String>) interned).value.fields);
+    }
+
+    @Test
+    public void equalAnnotationsAreShared() {
+        Interner<String> interner = new Interner<>();
+        Term<String> t1 = interner.term(annot(new String("note"), int32(42)));
+        Term<String> t2 = interner.term(annot(new String("note"), int32(42)));
+        assertSame(t1, t2);
+        assertNotSame(t1, interner.term(annot("other", int32(42))));
+    }
+
+    @Test
+    public void deeplyNestedTermsDoNotOverflowTheStack() {
+        Interner<String> interner = new Interner<>();
+        Term<String> t1 = int32(0);
+        Term<String> t2 = int32(0);
+        for (int i = 0; i < 100000; i++) {
+            t1 = list(t1);
+            t2 = list(t2);
+        }
+        assertSame(interner.term(t1), interner.term(t2));
+        assertEquals(100001, interner.size());
+    }
+
+    @Test
+    public void concurrentCallersAgreeOnTheCanonicalInstance() throws Exception {
+        Interner<String> interner = new Interner<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Term<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> interner.term(
+                        apply(lambda("x", list(variable("x"), string("foo"))), int32(42)))));
+            }
+            Term<String> first = results.get(0).get();
+            for (Future<Term<String>> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
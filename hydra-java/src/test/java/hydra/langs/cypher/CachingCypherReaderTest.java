@@ -0,0 +1,50 @@
+package hydra.langs.cypher;
+
+import hydra.langs.cypher.openCypher.Query;
+import hydra.tools.AntlrReaderBase;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+public class CachingCypherReaderTest {
+    private static final String QUERY
+            = "MATCH (keanu:Person {name:'Keanu  Reeves'})\n"
+            + "RETURN keanu.name AS name, keanu.born AS born";
+
+    @Test
+    public void layoutIsNormalizedOutsideOfQuotesAndComments() {
+        assertEquals("MATCH (keanu:Person {name:'Keanu  Reeves'}) RETURN keanu.name AS name, keanu.born AS born",
+                CachingCypherReader.normalize("  " + QUERY.replace("\n", "\n\t ") + "\n"));
+        assertEquals("MATCH (n:`My  Label`) // a  comment\n RETURN \"a \\\"  b\"",
+                CachingCypherReader.normalize("MATCH  (n:`My  Label`)   // a  comment\n  RETURN \"a \\\"  b\""));
+    }
+
+    @Test
+    public void equivalentQueriesAreParsedOnce() {
+        CachingCypherReader reader = new CachingCypherReader(2);
+        Query query = reader.read(QUERY);
+        assertEquals(CypherReader.read(QUERY), query);
+        assertSame(query, reader.read(QUERY.replace("\n", "\n    ")));
+        assertNotSame(query, reader.read(QUERY.replace("Keanu  Reeves", "Keanu Reeves")));
+        assertEquals(2, reader.size());
+
+        // The least recently used query is evicted
+        reader.read("MATCH (n) RETURN *");
+        reader.read("MATCH (n:Person) RETURN COUNT(n)");
+        assertEquals(2, reader.size());
+        assertNotSame(query, reader.read(QUERY));
+    }
+
+    @Test
+    public void invalidQueriesAreRejectedAndNotCached() {
+        CachingCypherReader reader = new CachingCypherReader(10);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(AntlrReaderBase.MapperException.class, () -> reader.read("MATCH oops"));
+        }
+        assertEquals(0, reader.size());
+    }
+}
@@ -0,0 +1,51 @@
+package hydra.langs.cypher;
+
+import hydra.langs.cypher.openCypher.Query;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+public class CypherTranslatorTest {
+    @Test
+    public void equivalentQueriesShareAPlan() {
+        CypherTranslator<Query> translator = new CypherTranslator<>(10, q -> q);
+        Query keanu = translator.translate(
+                "MATCH (keanu:Person {name:'Keanu Reeves'})\nRETURN keanu.name AS name, keanu.born AS born");
+        Query again = translator.translate(
+                "MATCH (keanu:Person {name:'Keanu Reeves'})  RETURN keanu.name AS name, keanu.born AS born");
+        assertSame(keanu, again);
+        assertEquals(CypherReader.read(
+                "MATCH (keanu:Person {name:'Keanu Reeves'}) RETURN keanu.name AS name, keanu.born AS born"), keanu);
+        assertEquals(1, translator.size());
+
+        // Literals are part of the key
+        Query tom = translator.translate(
+                "MATCH (keanu:Person {name:'Tom Hanks'}) RETURN keanu.name AS name, keanu.born AS born");
+        assertNotEquals(keanu, tom);
+        assertEquals(2, translator.size());
+    }
+
+    @Test
+    public void failedTranslationsAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        CypherTranslator<Query> translator = new CypherTranslator<>(10, q -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new UnsupportedOperationException("not supported");
+            }
+            return q;
+        });
+        String query = "MATCH (n:Person {age: 42}) RETURN n";
+        assertThrows(UnsupportedOperationException.class, () -> translator.translate(query));
+        assertEquals(0, translator.size());
+        translator.translate(query);
+        translator.translate(query);
+        assertEquals(2, calls.get());
+        assertEquals(1, translator.size());
+    }
+}
@@ -0,0 +1,155 @@
+package hydra.langs.json;
+
+import hydra.json.Value;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class JsonStreamTest {
+    private static final String JSON_STRING = "{"
+            + "\"numVal\": 42, "
+            + "\"boolVal\": true, "
+            + "\"nullVal\": null, "
+            + "\"objVal\": {\"foo\": \"b\\\"a\\\\r\\u00e9\\n\"}, "
+            + "\"arrayVal\": [1, -2.5, 3e2, []]}";
+
+    private static final Value JSON_VALUE = new Value.Object_(new LinkedHashMap<String, Value>() {{
+        put("numVal", new Value.Number_(42.0));
+        put("boolVal", new Value.Boolean_(true));
+        put("nullVal", new Value.Null());
+        put("objVal", new Value.Object_(Collections.singletonMap("foo", new Value.String_("b\"a\\r\u00e9\n"))));
+        put("arrayVal", new Value.Array(Arrays.asList(new Value.Number_(1.0), new Value.Number_(-2.5),
+                new Value.Number_(300.0), new Value.Array(Collections.emptyList()))));
+    }});
+
+    @Test
+    public void checkDecoding() throws IOException {
+        assertEquals(JSON_VALUE, JsonStreamReader.parse(JSON_STRING));
+        assertEquals(new Value.String_("foo"), JsonStreamReader.parse(" \"foo\" "));
+        assertEquals(new Value.Number_(-0.0), JsonStreamReader.parse("-0"));
+        assertEquals(new Value.Number_(1.0E20), JsonStreamReader.parse("100000000000000000000"));
+        assertEquals(new Value.Null(), JsonStreamReader.parse("null"));
+
+        // Tokens which straddle buffer boundaries are handled the same way
+        assertEquals(JSON_VALUE, new JsonStreamReader(new OneCharReader(JSON_STRING)).readValue());
+    }
+
+    @Test
+    public void checkEncoding() throws IOException {
+        assertEquals("\"foo\"", JsonStreamWriter.toString(new Value.String_("foo")));
+        assertEquals("42.0", JsonStreamWriter.toString(new Value.Number_(42.0)));
+        assertEquals("1.0E20", JsonStreamWriter.toString(new Value.Number_(1.0E20)));
+        assertEquals("{\"numVal\":42.0,\"boolVal\":true,\"nullVal\":null,\"objVal\":{\"foo\":\"b\\\"a\\\\r\u00e9\\n\"},"
+                + "\"arrayVal\":[1.0,-2.5,300.0,[]]}", JsonStreamWriter.toString(JSON_VALUE));
+
+        StringWriter sw = new StringWriter();
+        new JsonStreamWriter(sw).beginObject().name("a").beginArray().value(1).value("x").nullValue().endArray()
+                .name("b").value(false).endObject();
+        assertEquals("{\"a\":[1.0,\"x\",null],\"b\":false}", sw.toString());
+
+        assertThrows(IllegalStateException.class, () -> new JsonStreamWriter(sw).beginObject().value(1));
+        assertThrows(IllegalArgumentException.class, () -> JsonStreamWriter.toString(new Value.Number_(Double.NaN)));
+    }
+
+    @Test
+    public void checkRoundTrip() throws IOException {
+        assertEquals(JSON_VALUE, JsonStreamReader.parse(JsonStreamWriter.toString(JSON_VALUE)));
+    }
+
+    @Test
+    public void checkNewlineDelimitedRecords() throws IOException {
+        StringWriter sw = new StringWriter();
+        JsonStreamWriter writer = new JsonStreamWriter(sw);
+        for (int i = 0; i < 3; i++) {
+            writer.writeLine(new Value.Object_(Collections.singletonMap("id", new Value.Number_((double) i))));
+        }
+        assertEquals("{\"id\":0.0}\n{\"id\":1.0}\n{\"id\":2.0}\n", sw.toString());
+
+        List<Value> records = new ArrayList<>();
+        JsonStreamReader reader = new JsonStreamReader(new StringReader(sw.toString()));
+        while (reader.hasNext()) {
+            records.add(reader.readValue());
+        }
+        assertEquals(3, records.size());
+        assertEquals(new Value.Object_(Collections.singletonMap("id", new Value.Number_(2.0))), records.get(2));
+    }
+
+    @Test
+    public void checkEvents() throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(new StringReader("{\"skip\": [1, {\"x\": 2}], \"keep\": 3}"));
+        assertEquals(JsonStreamReader.Event.BEGIN_OBJECT, reader.next());
+        assertEquals(JsonStreamReader.Event.NAME, reader.next());
+        assertEquals("skip", reader.stringValue());
+        reader.skipValue(reader.next());
+        assertEquals(JsonStreamReader.Event.NAME, reader.next());
+        assertEquals("keep", reader.stringValue());
+        assertEquals(JsonStreamReader.Event.NUMBER, reader.next());
+        assertEquals(3.0, reader.numberValue());
+        assertEquals(JsonStreamReader.Event.END_OBJECT, reader.next());
+        assertNull(reader.next());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void checkDeepNesting() throws IOException {
+        int depth = 100000;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append('[');
+        }
+        for (int i = 0; i < depth; i++) {
+            sb.append(']');
+        }
+        Value value = JsonStreamReader.parse(sb.toString());
+        for (int i = 1; i < depth; i++) {
+            value = ((Value.Array) value).value.get(0);
+        }
+        assertTrue(((Value.Array) value).value.isEmpty());
+    }
+
+    @Test
+    public void checkFailOnInvalidJson() {
+        for (String invalid : Arrays.asList("{{", "[1,]", "{\"a\" 1}", "\"abc", "tru", "01x", "-", "1.", "[1 2]",
+                "{\"a\":1,}", "1 }", "\"\\x\"")) {
+            assertThrows(IOException.class, () -> JsonStreamReader.parse(invalid), invalid);
+        }
+    }
+
+    // A reader which returns a single character at a time, forcing every token across a buffer boundary
+    private static class OneCharReader extends Reader {
+        private final String s;
+        private int pos = 0;
+
+        OneCharReader(String s) {
+            this.s = s;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (pos == s.length()) {
+                return -1;
+            }
+            cbuf[off] = s.charAt(pos++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
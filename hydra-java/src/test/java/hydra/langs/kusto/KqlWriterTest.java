@@ -0,0 +1,101 @@
+package hydra.langs.kusto;
+
+import hydra.langs.kusto.kql.BinaryExpression;
+import hydra.langs.kusto.kql.BinaryOperator;
+import hydra.langs.kusto.kql.ColumnName;
+import hydra.langs.kusto.kql.Command;
+import hydra.langs.kusto.kql.Expression;
+import hydra.langs.kusto.kql.KeyValuePair;
+import hydra.langs.kusto.kql.Literal;
+import hydra.langs.kusto.kql.ParseCommand;
+import hydra.langs.kusto.kql.PipelineExpression;
+import hydra.langs.kusto.kql.Projection;
+import hydra.langs.kusto.kql.Query;
+import hydra.langs.kusto.kql.TableName;
+import hydra.langs.kusto.kql.TabularExpression;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+public class KqlWriterTest {
+    @Test
+    public void pipelineStagesAreWrittenOnSeparateLines() {
+        assertEquals("StormEvents\n\t| where State == \"TEXAS\"\n\t| project EventType\n\t| take 10",
+                KqlWriter.write(query("StormEvents", "State", "TEXAS", "EventType")));
+    }
+
+    @Test
+    public void stringsAndNamesAreWrittenVerbatim() {
+        assertEquals("Storm Events\n\t| where $left == \"say \"hi\"\"\n\t| project it's\n\t| take 10",
+                KqlWriter.write(query("Storm Events", "$left", "say \"hi\"", "it's")));
+    }
+
+    @Test
+    public void parseCommandsWriteTheColumnName() {
+        ParseCommand parse = new ParseCommand(new ColumnName("c"),
+                Collections.singletonList(new KeyValuePair("x", column("y"))));
+        assertEquals("T\n\t| parse c with x y",
+                KqlWriter.write(new Query(pipeline(
+                        new TabularExpression.Table(new TableName("T")),
+                        command(new Command.Parse(parse))))));
+    }
+
+    @Test
+    public void appendablesAreWrittenDirectly() throws IOException {
+        Query q = query("StormEvents", "State", "TEXAS", "EventType");
+        StringWriter out = new StringWriter();
+        KqlWriter.write(q, out, false);
+        assertEquals(KqlWriter.write(q), out.toString());
+
+        Writer failing = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        assertEquals("closed", assertThrows(IOException.class, () -> KqlWriter.write(q, failing, false))
+                .getMessage());
+    }
+
+    private static Expression column(String name) {
+        return new Expression.Column(new ColumnName(name));
+    }
+
+    private static TabularExpression command(Command c) {
+        return new TabularExpression.Command(c);
+    }
+
+    private static TabularExpression pipeline(TabularExpression... stages) {
+        return new TabularExpression.Pipeline(new PipelineExpression(Arrays.asList(stages)));
+    }
+
+    // table | where column == "value" | project projected | take 10
+    private static Query query(String table, String column, String value, String projected) {
+        return new Query(pipeline(
+                new TabularExpression.Table(new TableName(table)),
+                command(new Command.Where(new Expression.Binary(new BinaryExpression(
+                        column(column),
+                        new BinaryOperator.Equal(),
+                        new Expression.Literal(new Literal.String_(value)))))),
+                command(new Command.Project(Collections.singletonList(
+                        new Projection(column(projected), Optional.empty())))),
+                command(new Command.Take(10))));
+    }
+}
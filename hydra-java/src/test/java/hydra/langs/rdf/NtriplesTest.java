@@ -0,0 +1,98 @@
+package hydra.langs.rdf;
+
+import hydra.langs.rdf.syntax.BlankNode;
+import hydra.langs.rdf.syntax.Iri;
+import hydra.langs.rdf.syntax.LanguageTag;
+import hydra.langs.rdf.syntax.Literal;
+import hydra.langs.rdf.syntax.Node;
+import hydra.langs.rdf.syntax.Resource;
+import hydra.langs.rdf.syntax.Triple;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+public class NtriplesTest {
+    private static final Iri XSD_INT = new Iri("http://www.w3.org/2001/XMLSchema#int");
+
+    private static final List<Triple> TRIPLES = Arrays.asList(
+            new Triple(new Resource.Iri(new Iri("urn:a")), new Iri("urn:knows"),
+                    new Node.Iri(new Iri("urn:b"))),
+            new Triple(new Resource.Bnode(new BlankNode("b0")), new Iri("urn:name"),
+                    new Node.Literal(new Literal("say \"hi\"\n\\ été",
+                            new Iri(NtriplesWriter.XSD_STRING), Optional.empty()))),
+            new Triple(new Resource.Iri(new Iri("urn:a")), new Iri("urn:label"),
+                    new Node.Literal(new Literal("bonjour", new Iri(NtriplesWriter.RDF_LANG_STRING),
+                            Optional.of(new LanguageTag("fr-CA"))))),
+            new Triple(new Resource.Iri(new Iri("urn:a")), new Iri("urn:age"),
+                    new Node.Literal(new Literal("42", XSD_INT, Optional.empty()))),
+            new Triple(new Resource.Iri(new Iri("urn:a")), new Iri("urn:friend"),
+                    new Node.Bnode(new BlankNode("b0"))));
+
+    @Test
+    public void writtenTriplesAreValidNtriples() throws IOException {
+        StringWriter sw = new StringWriter();
+        Serde.writeNtriples(TRIPLES.iterator(), sw);
+        String lines = sw.toString();
+        assertEquals(
+                "<urn:a> <urn:knows> <urn:b> .\n"
+                + "_:b0 <urn:name> \"say \\\"hi\\\"\\n\\\\ été\" .\n"
+                + "<urn:a> <urn:label> \"bonjour\"@fr-CA .\n"
+                + "<urn:a> <urn:age> \"42\"^^<http://www.w3.org/2001/XMLSchema#int> .\n"
+                + "<urn:a> <urn:friend> _:b0 .\n", lines);
+
+        // The output is also accepted by RDF4j's own parser
+        Model model = Rio.parse(new StringReader(lines), "", RDFFormat.NTRIPLES);
+        assertEquals(TRIPLES.size(), model.size());
+    }
+
+    @Test
+    public void triplesRoundTrip() throws IOException {
+        StringWriter sw = new StringWriter();
+        Serde.writeNtriples(TRIPLES.iterator(), sw);
+        assertEquals(TRIPLES, Serde.readNtriples(new StringReader(sw.toString())).collect(Collectors.toList()));
+
+        // Characters which are not allowed in IRIs are written as unicode escapes
+        Triple weird = new Triple(new Resource.Iri(new Iri("urn:a")), new Iri("urn:p"),
+                new Node.Iri(new Iri("urn:b <weird> iri")));
+        sw = new StringWriter();
+        Serde.writeNtriples(Arrays.asList(weird).iterator(), sw);
+        assertEquals("<urn:a> <urn:p> <urn:b\\u0020\\u003Cweird\\u003E\\u0020iri> .\n", sw.toString());
+        assertEquals(weird, new NtriplesReader(new StringReader(sw.toString())).read());
+    }
+
+    @Test
+    public void commentsBlankLinesAndEscapesAreRead() throws IOException {
+        String doc = "# a comment\n\n"
+                + "  _:x.y <urn:p>\t\"a\\tb\\u00E9\\U0001F600\" . # trailing comment\n"
+                + "<urn:s> <urn:p> _:z.\n";
+        NtriplesReader reader = new NtriplesReader(new StringReader(doc));
+        Triple t1 = reader.read();
+        assertEquals(new Resource.Bnode(new BlankNode("x.y")), t1.subject);
+        assertEquals("a\tbé😀", ((Node.Literal) t1.object).value.lexicalForm);
+        assertEquals(new Node.Bnode(new BlankNode("z")), reader.read().object);
+        assertEquals(null, reader.read());
+    }
+
+    @Test
+    public void invalidLinesAreRejected() {
+        for (String invalid : Arrays.asList("<urn:s> <urn:p> <urn:o>", "<urn:s> <urn:p> \"abc .",
+                "<urn:s> _:p <urn:o> .", "<urn:s> <urn:p> <urn:o> . <urn:x>", "<urn:s> <urn:p> \"x\"@ .")) {
+            assertThrows(UncheckedIOException.class,
+                    () -> Serde.readNtriples(new StringReader(invalid)).count(), invalid);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package hydra.langs.tinkerpop;
+
+import hydra.core.Literal;
+import hydra.dsl.Literals;
+import hydra.langs.tinkerpop.propertyGraph.Edge;
+import hydra.langs.tinkerpop.propertyGraph.EdgeLabel;
+import hydra.langs.tinkerpop.propertyGraph.Graph;
+import hydra.langs.tinkerpop.propertyGraph.PropertyKey;
+import hydra.langs.tinkerpop.propertyGraph.Vertex;
+import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+public class ColumnarGraphTest extends PropertyGraphTestBase {
+    private static final Graph<Literal> GRAPH = graph(
+            Arrays.asList(VERTEX_PERSON_1, VERTEX_PERSON_2, VERTEX_PERSON_3, VERTEX_ORGANIZATION_1,
+                    VERTEX_ORGANIZATION_2),
+            Arrays.asList(EDGE_WORKSAT_1, EDGE_FOUNDED_1, EDGE_PARTOF_1));
+
+    @Test
+    public void roundTripPreservesTheGraph() {
+        assertEquals(GRAPH, ColumnarGraph.from(GRAPH).toGraph());
+    }
+
+    @Test
+    public void labelScansAndPropertiesAreColumnar() {
+        ColumnarGraph<Literal> g = ColumnarGraph.from(GRAPH);
+        assertEquals(5, g.vertexCount());
+        assertEquals(3, g.edgeCount());
+
+        List<Literal> people = g.vertices(new VertexLabel("Person")).mapToObj(g::vertexId)
+                .collect(Collectors.toList());
+        assertEquals(3, people.size());
+        assertEquals(0, g.vertices(new VertexLabel("Planet")).count());
+
+        List<Literal> names = g.vertexColumn(new VertexLabel("Person"), new PropertyKey("name"));
+        assertEquals(3, names.size());
+        assertEquals(VERTEX_PERSON_1.properties.get(new PropertyKey("name")),
+                names.get(people.indexOf(VERTEX_PERSON_1.id)));
+
+        int ford = g.vertexIndex(VERTEX_PERSON_2.id);
+        assertEquals(Literals.string("Ix"), g.vertexProperty(ford, new PropertyKey("nickname")));
+        assertNull(g.vertexProperty(ford, new PropertyKey("age")));
+        assertNull(g.vertexProperty(ford, new PropertyKey("noSuchKey")));
+        assertEquals(-1, g.vertexIndex(Literals.string("nobody")));
+
+        int worksAt = g.edgeIndex(EDGE_WORKSAT_1.id);
+        assertEquals(new EdgeLabel("worksAt"), g.edgeLabel(worksAt));
+        assertEquals(Literals.string("current"), g.edgeProperty(worksAt, new PropertyKey("employeeStatus")));
+        assertEquals(EDGE_WORKSAT_1, g.edge(worksAt));
+    }
+
+    @Test
+    public void adjacencyIsIndexedInBothDirections() {
+        ColumnarGraph<Literal> g = ColumnarGraph.from(GRAPH);
+        int megadodo = g.vertexIndex(VERTEX_ORGANIZATION_1.id);
+
+        // Ford works at Megadodo, and Hoopy founded it
+        assertEquals(2, g.inDegree(megadodo));
+        assertEquals(new HashSet<>(Arrays.asList(VERTEX_PERSON_2.id, VERTEX_PERSON_3.id)),
+                g.inNeighbors(megadodo).mapToObj(g::vertexId).collect(Collectors.toSet()));
+
+        // Megadodo is part of Infinidim
+        assertEquals(1, g.outDegree(megadodo));
+        int partOf = g.outEdge(megadodo, 0);
+        assertEquals(EDGE_PARTOF_1.id, g.edgeId(partOf));
+        assertEquals(VERTEX_ORGANIZATION_2.id, g.vertexId(g.inVertex(partOf)));
+        assertEquals(0, g.outDegree(g.vertexIndex(VERTEX_PERSON_1.id)));
+    }
+
+    @Test
+    public void danglingEdgesAreRejected() {
+        Graph<Literal> dangling = graph(Arrays.asList(VERTEX_PERSON_2),
+                Arrays.asList(EDGE_WORKSAT_1));
+        assertThrows(IllegalArgumentException.class, () -> ColumnarGraph.from(dangling));
+    }
+
+    private static Graph<Literal> graph(List<Vertex<Literal>> vertexList, List<Edge<Literal>> edgeList) {
+        Map<Literal, Vertex<Literal>> vertices = new HashMap<>();
+        vertexList.forEach(v -> vertices.put(v.id, v));
+        Map<Literal, Edge<Literal>> edges = new HashMap<>();
+        edgeList.forEach(e -> edges.put(e.id, e));
+        return new Graph<>(vertices, edges);
+    }
+}
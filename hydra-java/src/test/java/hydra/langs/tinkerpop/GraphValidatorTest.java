@@ -0,0 +1,161 @@
+package hydra.langs.tinkerpop;
+
+import hydra.core.Literal;
+import hydra.core.LiteralType;
+import hydra.dsl.Literals;
+import hydra.langs.tinkerpop.propertyGraph.Edge;
+import hydra.langs.tinkerpop.propertyGraph.EdgeLabel;
+import hydra.langs.tinkerpop.propertyGraph.EdgeType;
+import hydra.langs.tinkerpop.propertyGraph.Graph;
+import hydra.langs.tinkerpop.propertyGraph.GraphSchema;
+import hydra.langs.tinkerpop.propertyGraph.Vertex;
+import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
+import hydra.langs.tinkerpop.propertyGraph.VertexType;
+import hydra.langs.tinkerpop.validate.Validate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class GraphValidatorTest extends PropertyGraphTestBase {
+    private static final Function<LiteralType, Function<Literal, Optional<String>>> CHECK_LITERAL
+            = type -> value -> Literals.checkLiteral(type, value);
+
+    private static final GraphSchema<LiteralType> SCHEMA = schema(
+            Arrays.asList(VERTEX_TYPE_PERSON_A, VERTEX_TYPE_ORGANIZATION),
+            Arrays.asList(EDGE_TYPE_WORKSAT_A, EDGE_TYPE_FOUNDED));
+
+    private static final GraphValidator<LiteralType, Literal> VALIDATOR
+            = new GraphValidator<>(SCHEMA, CHECK_LITERAL, Literals::showLiteral);
+
+    @Test
+    public void errorsAgreeWithReferenceValidator() {
+        List<Vertex<Literal>> vertices = Arrays.asList(
+                VERTEX_PERSON_1,
+                VERTEX_PERSON_2.withProperties(new HashMap<>()),
+                VERTEX_PERSON_3.withId(Literals.int32(42)),
+                VERTEX_ORGANIZATION_1.withLabel(new VertexLabel("Planet")),
+                VERTEX_ORGANIZATION_2);
+        for (Vertex<Literal> v : vertices) {
+            assertEquals(Validate.validateGraph(CHECK_LITERAL).apply(Literals::showLiteral).apply(SCHEMA)
+                    .apply(graph(Arrays.asList(v), Arrays.asList())), VALIDATOR.checkVertex(v));
+        }
+
+        List<Vertex<Literal>> allVertices = Arrays.asList(VERTEX_PERSON_2, VERTEX_PERSON_3, VERTEX_ORGANIZATION_1);
+        List<Edge<Literal>> edges = Arrays.asList(
+                EDGE_WORKSAT_1,
+                EDGE_FOUNDED_1.withOut(VERTEX_ORGANIZATION_1.id),
+                EDGE_FOUNDED_1.withIn(Literals.string("nowhere")),
+                EDGE_WORKSAT_1.withProperties(new HashMap<>()),
+                EDGE_PARTOF_1);
+        for (Edge<Literal> e : edges) {
+            Graph<Literal> g = graph(allVertices, Arrays.asList(e));
+            assertEquals(Validate.validateGraph(CHECK_LITERAL).apply(Literals::showLiteral).apply(SCHEMA).apply(g),
+                    VALIDATOR.validate(g, GraphValidator.Mode.FAIL_FAST).firstError());
+        }
+    }
+
+    @Test
+    public void allErrorsAreCollectedAndCountedByLabel() {
+        List<Vertex<Literal>> vertices = new ArrayList<>();
+        List<Edge<Literal>> edges = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            Literal id = Literals.string("person" + i);
+            Vertex<Literal> person = VERTEX_PERSON_1.withId(id);
+            // Every tenth person is missing their required name
+            vertices.add(i % 10 == 0 ? person.withProperties(new HashMap<>()) : person);
+            Edge<Literal> edge = EDGE_WORKSAT_1.withId(Literals.string("edge" + i)).withOut(id)
+                    .withIn(VERTEX_ORGANIZATION_2.id);
+            // Every hundredth edge points to a missing organization
+            edges.add(i % 100 == 0 ? edge.withIn(Literals.string("nowhere")) : edge);
+        }
+        vertices.add(VERTEX_ORGANIZATION_2);
+        Graph<Literal> g = graph(vertices, edges);
+
+        GraphValidator.Report all = VALIDATOR.validate(g, GraphValidator.Mode.COLLECT_ALL);
+        assertEquals(1100, all.errors.size());
+        assertEquals(Long.valueOf(1000), all.vertexErrorCounts.get(new VertexLabel("Person")));
+        assertEquals(Long.valueOf(100), all.edgeErrorCounts.get(new EdgeLabel("worksAt")));
+
+        GraphValidator.Report first = VALIDATOR.validate(g, GraphValidator.Mode.FAIL_FAST);
+        assertEquals(1, first.errors.size());
+        assertTrue(first.errors.get(0).startsWith("Invalid vertex with id"));
+
+        Graph<Literal> valid = graph(Arrays.asList(VERTEX_PERSON_2, VERTEX_ORGANIZATION_2),
+                Arrays.asList(EDGE_WORKSAT_1.withIn(VERTEX_ORGANIZATION_2.id)));
+        assertTrue(VALIDATOR.validate(valid, GraphValidator.Mode.COLLECT_ALL).isValid());
+    }
+
+    @Test
+    public void streamsAreValidatedIncrementally() {
+        List<String> errors = new ArrayList<>();
+        List<Vertex<Literal>> vertices = Arrays.asList(VERTEX_PERSON_2, VERTEX_PERSON_3, VERTEX_ORGANIZATION_2,
+                VERTEX_PERSON_3.withLabel(new VertexLabel("Organization")));
+        List<Edge<Literal>> edges = Arrays.asList(
+                EDGE_WORKSAT_1.withIn(VERTEX_ORGANIZATION_2.id),
+                EDGE_FOUNDED_1.withIn(VERTEX_ORGANIZATION_1.id),
+                EDGE_FOUNDED_1.withIn(VERTEX_PERSON_2.id));
+
+        GraphValidator.Report report = VALIDATOR.validate(vertices.stream(), edges.stream(),
+                GraphValidator.Mode.COLLECT_ALL, errors::add);
+        assertEquals(Arrays.asList(
+                "Invalid vertex with id string:\"hoopy\": Invalid property: Missing value for : nickname",
+                "Invalid edge with id string:\"hoopy-founded\": In-vertex does not exist: string:\"megadodo\"",
+                "Invalid edge with id string:\"hoopy-founded\": Wrong in-vertex label: "
+                        + "expected Organization, found Person"),
+                errors);
+        assertEquals(Long.valueOf(1), report.vertexErrorCounts.get(new VertexLabel("Organization")));
+        assertEquals(Long.valueOf(2), report.edgeErrorCounts.get(new EdgeLabel("founded")));
+        assertFalse(report.isValid());
+
+        errors.clear();
+        report = VALIDATOR.validate(vertices.stream(), edges.stream(), GraphValidator.Mode.FAIL_FAST, errors::add);
+        assertEquals(1, errors.size());
+        assertTrue(report.edgeErrorCounts.isEmpty());
+
+        assertTrue(VALIDATOR.validate(vertices.subList(0, 3).iterator(), edges.subList(0, 1).iterator(),
+                GraphValidator.Mode.COLLECT_ALL, errors::add).isValid());
+    }
+
+    @Test
+    public void vertexLabelIndexGrowsAndRejectsDuplicates() {
+        VertexLabelIndex<Integer> index = new VertexLabelIndex<>();
+        VertexLabel[] labels = {new VertexLabel("A"), new VertexLabel("B"), new VertexLabel("C")};
+        for (int i = 0; i < 100000; i++) {
+            assertTrue(index.put(i, labels[i % 3]));
+        }
+        assertFalse(index.put(42, labels[1]));
+        assertEquals(100000, index.size());
+        assertEquals(labels[0], index.get(42));
+        assertEquals(labels[2], index.get(99998));
+        assertEquals(null, index.get(100000));
+    }
+
+    private static GraphSchema<LiteralType> schema(List<VertexType<LiteralType>> vertexTypes,
+                                                   List<EdgeType<LiteralType>> edgeTypes) {
+        Map<VertexLabel, VertexType<LiteralType>> vertices = new HashMap<>();
+        vertexTypes.forEach(t -> vertices.put(t.label, t));
+        Map<EdgeLabel, EdgeType<LiteralType>> edges = new HashMap<>();
+        edgeTypes.forEach(t -> edges.put(t.label, t));
+        return new GraphSchema<>(vertices, edges);
+    }
+
+    private static Graph<Literal> graph(List<Vertex<Literal>> vertexList, List<Edge<Literal>> edgeList) {
+        Map<Literal, Vertex<Literal>> vertices = new LinkedHashMap<>();
+        vertexList.forEach(v -> vertices.put(v.id, v));
+        Map<Literal, Edge<Literal>> edges = new LinkedHashMap<>();
+        edgeList.forEach(e -> edges.put(e.id, e));
+        return new Graph<>(vertices, edges);
+    }
+}
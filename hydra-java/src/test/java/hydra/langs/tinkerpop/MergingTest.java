@@ -13,11 +13,17 @@ import hydra.langs.tinkerpop.propertyGraph.EdgeType;
 import hydra.langs.tinkerpop.propertyGraph.PropertyKey;
 import hydra.langs.tinkerpop.propertyGraph.Vertex;
 import hydra.langs.tinkerpop.propertyGraph.VertexType;
+import hydra.tools.FlowException;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MergingTest extends PropertyGraphTestBase {
     private static final boolean DO_NOT_UNIFY = false;
@@ -409,6 +415,45 @@ public class MergingTest extends PropertyGraphTestBase {
         });
     }
 
+    @Test
+    public void batchEncodingAgreesWithPerElementEncoding() {
+        for (boolean unify : Arrays.asList(DO_NOT_UNIFY, UNIFY)) {
+            StatelessAdapter<List<VertexType<LiteralType>>, VertexType<LiteralType>, Vertex<Literal>, Vertex<Literal>>
+                    vertexAdapter = Flows.fromFlow(Merging.createVertexAdapter(
+                            Arrays.asList(VERTEX_TYPE_PERSON_A, VERTEX_TYPE_ORGANIZATION),
+                            Merging.STRING_ID_ADAPTERS, unify));
+            Merging.MergedCoder<Vertex<Literal>> vertexCoder = Merging.batchCoder(vertexAdapter);
+            List<Vertex<Literal>> vertices = Arrays.asList(VERTEX_PERSON_1, VERTEX_PERSON_2, VERTEX_PERSON_3,
+                    VERTEX_ORGANIZATION_1, VERTEX_ORGANIZATION_2);
+            List<Vertex<Literal>> encodedVertices = Flows.fromFlow(Flows.mapM(vertices, vertexCoder.encode));
+            assertEquals(encodedVertices, vertexCoder.encodeAll(vertices, false));
+            assertEquals(encodedVertices, vertexCoder.encodeAll(vertices, true));
+            assertEquals(vertices, vertexCoder.decodeAll(encodedVertices, true));
+            assertEquals(vertices, vertexCoder.decodeAll(vertexCoder.encodeAll(vertices.stream()))
+                    .collect(Collectors.toList()));
+
+            StatelessAdapter<List<EdgeType<LiteralType>>, EdgeType<LiteralType>, Edge<Literal>, Edge<Literal>>
+                    edgeAdapter = Flows.fromFlow(Merging.createEdgeAdapter(
+                            Arrays.asList(EDGE_TYPE_WORKSAT_A, EDGE_TYPE_FOUNDED, EDGE_TYPE_PARTOF),
+                            Merging.STRING_ID_ADAPTERS, unify));
+            Merging.MergedCoder<Edge<Literal>> edgeCoder = Merging.batchCoder(edgeAdapter);
+            List<Edge<Literal>> edges = Arrays.asList(EDGE_WORKSAT_1, EDGE_FOUNDED_1, EDGE_PARTOF_1);
+            List<Edge<Literal>> encodedEdges = Flows.fromFlow(Flows.mapM(edges, edgeCoder.encode));
+            assertEquals(encodedEdges, edgeCoder.encodeAll(edges, false));
+            assertEquals(edges, edgeCoder.decodeAll(edgeCoder.encodeAll(edges, true), false));
+        }
+    }
+
+    @Test
+    public void batchEncodingFailsOnUnknownLabels() {
+        StatelessAdapter<List<VertexType<LiteralType>>, VertexType<LiteralType>, Vertex<Literal>, Vertex<Literal>>
+                adapter = Flows.fromFlow(Merging.createVertexAdapter(
+                        Arrays.asList(VERTEX_TYPE_PERSON_A), Merging.STRING_ID_ADAPTERS, DO_NOT_UNIFY));
+        FlowException e = assertThrows(FlowException.class, () -> Merging.batchCoder(adapter)
+                .encodeAll(Arrays.asList(VERTEX_PERSON_1, VERTEX_ORGANIZATION_1), false));
+        assertTrue(e.getMessage().contains("No coder associated with label"));
+    }
+
     private static Flow<Unit, Vertex<Literal>> encodeVertex(Vertex<Literal> v,
                                                             boolean unifyIdenticalTypes) {
         return Flows.bind(
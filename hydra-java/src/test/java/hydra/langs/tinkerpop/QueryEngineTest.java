@@ -0,0 +1,129 @@
+package hydra.langs.tinkerpop;
+
+import hydra.core.Literal;
+import hydra.dsl.Literals;
+import hydra.langs.cypher.CypherReader;
+import hydra.langs.cypher.FromCypher;
+import hydra.langs.tinkerpop.propertyGraph.Edge;
+import hydra.langs.tinkerpop.propertyGraph.Graph;
+import hydra.langs.tinkerpop.propertyGraph.PropertyKey;
+import hydra.langs.tinkerpop.propertyGraph.Vertex;
+import hydra.langs.tinkerpop.propertyGraph.VertexLabel;
+import hydra.langs.tinkerpop.queries.AggregationQuery;
+import hydra.langs.tinkerpop.queries.Expression;
+import hydra.langs.tinkerpop.queries.MatchQuery;
+import hydra.langs.tinkerpop.queries.Projection;
+import hydra.langs.tinkerpop.queries.PropertyPattern;
+import hydra.langs.tinkerpop.queries.PropertyValuePattern;
+import hydra.langs.tinkerpop.queries.Query;
+import hydra.langs.tinkerpop.queries.Variable;
+import hydra.langs.tinkerpop.queries.VertexPattern;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static hydra.langs.tinkerpop.dsl.Queries.apply;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class QueryEngineTest extends PropertyGraphTestBase {
+    private static final QueryEngine<Literal> ENGINE = new QueryEngine<>(graph(
+            Arrays.asList(VERTEX_PERSON_1, VERTEX_PERSON_2, VERTEX_PERSON_3, VERTEX_ORGANIZATION_1,
+                    VERTEX_ORGANIZATION_2),
+            Arrays.asList(EDGE_WORKSAT_1, EDGE_FOUNDED_1, EDGE_PARTOF_1)), Literals::string);
+
+    @Test
+    public void translatedCypherQueriesExecute() {
+        QueryEngine.Result result = execute(
+                "MATCH (p:Person)-[:worksAt]->(o:Organization)-[:partOf]->(parent) RETURN p.name, o.name, parent");
+        assertEquals(Arrays.asList("p.name", "o.name", "parent"), result.columns);
+        assertEquals(Collections.singletonList(Arrays.asList(VERTEX_PERSON_2.properties.get(new PropertyKey("name")),
+                VERTEX_ORGANIZATION_1.properties.get(new PropertyKey("name")), VERTEX_ORGANIZATION_2)),
+                result.rows);
+
+        // Two people and Infinidim are connected to Megadodo, and Megadodo to Infinidim, in either direction
+        assertEquals(new HashSet<>(Arrays.asList(Collections.singletonList(VERTEX_PERSON_2),
+                Collections.singletonList(VERTEX_PERSON_3), Collections.singletonList(VERTEX_ORGANIZATION_1),
+                Collections.singletonList(VERTEX_ORGANIZATION_2))),
+                new HashSet<>(execute("MATCH (o:Organization)--(x) WHERE o.nickname = o.nickname AND NOT x = o "
+                        + "RETURN DISTINCT x").rows));
+
+        // Only Arthur has an age
+        assertEquals(Collections.singletonList(Collections.singletonList(VERTEX_PERSON_1)),
+                execute("MATCH (p:Person) WHERE p.age = p.age RETURN p").rows);
+    }
+
+    @Test
+    public void optionalMatchesProduceNulls() {
+        QueryEngine.Result result = execute(
+                "MATCH (p:Person) OPTIONAL MATCH (p)-[:worksAt]->(o) RETURN p.name, o.nickname");
+        Map<Object, Object> employers = new HashMap<>();
+        result.rows.forEach(row -> employers.put(row.get(0), row.get(1)));
+        assertEquals(3, employers.size());
+        assertEquals(Literals.string("Megadodo"), employers.get(Literals.string("Ford Prefect")));
+        assertEquals(null, employers.get(Literals.string("Arthur Dent")));
+    }
+
+    @Test
+    public void propertyPatternsAndEqualitiesUseTheIndex() {
+        // MATCH (p:Person {name: 'Ford Prefect'})-->(o) RETURN o
+        VertexPattern ford = new VertexPattern(Optional.of(new Variable("p")),
+                Optional.of(new VertexLabel("Person")),
+                Collections.singletonList(new PropertyPattern(new PropertyKey("name"),
+                        new PropertyValuePattern.Value("Ford Prefect"))),
+                Collections.emptyList());
+        Query query = match(FromCypher.from(CypherReader.read("MATCH (p)-->(o) RETURN o")), ford);
+        QueryEngine<Literal>.Plan plan = ENGINE.compile(query);
+        assertTrue(plan.toString().startsWith("NodeIndexSeek(p:Person) {name = 'Ford Prefect'}"), plan.toString());
+        assertEquals(Collections.singletonList(Collections.singletonList(VERTEX_ORGANIZATION_1)),
+                plan.execute().rows);
+
+        // A join on property values is a seek into the index of the second pattern
+        QueryEngine<Literal>.Plan join = ENGINE.compile(FromCypher.from(CypherReader.read(
+                "MATCH (a:Person), (b) WHERE a.name = b.name RETURN a, b")));
+        assertTrue(join.toString().contains("NodeIndexSeek(b) {name = a.name}"), join.toString());
+        assertEquals(3, join.execute().rows.size());
+        join.execute().rows.forEach(row -> assertEquals(row.get(0), row.get(1)));
+    }
+
+    @Test
+    public void verticesAreCounted() {
+        Query query = FromCypher.from(CypherReader.read("MATCH (o:Organization)<--(p) RETURN p"));
+        Query count = new Query.Aggregate(new AggregationQuery.Count());
+        assertThrows(UnsupportedOperationException.class, () -> ENGINE.compile(apply(query, count)));
+
+        Query match = ((Query.Application) query).value.value.get(0);
+        assertEquals(Collections.singletonList(Collections.singletonList(3L)),
+                ENGINE.execute(apply(match, count)).rows);
+    }
+
+    private static QueryEngine.Result execute(String cypher) {
+        return ENGINE.execute(FromCypher.from(CypherReader.read(cypher)));
+    }
+
+    // Prepend a vertex pattern to the first MATCH clause of a query
+    private static Query match(Query query, VertexPattern pattern) {
+        List<Query> clauses = ((Query.Application) query).value.value;
+        MatchQuery first = ((Query.Match) clauses.get(0)).value;
+        List<Projection> projections = new ArrayList<>(first.pattern);
+        projections.add(0, new Projection(new Expression.Vertex(pattern), Optional.empty()));
+        return apply(new Query.Match(new MatchQuery(first.optional, projections, first.where)), clauses.get(1));
+    }
+
+    private static Graph<Literal> graph(List<Vertex<Literal>> vertexList, List<Edge<Literal>> edgeList) {
+        Map<Literal, Vertex<Literal>> vertices = new HashMap<>();
+        vertexList.forEach(v -> vertices.put(v.id, v));
+        Map<Literal, Edge<Literal>> edges = new HashMap<>();
+        edgeList.forEach(e -> edges.put(e.id, e));
+        return new Graph<>(vertices, edges);
+    }
+}
@@ -0,0 +1,51 @@
+package hydra.tools;
+
+import hydra.compute.Kv;
+import hydra.core.Term;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static hydra.dsl.Terms.int32;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class AnnotationMapTest {
+    @Test
+    public void annotationMapsBehaveAsMaps() {
+        Map<String, Term<Kv>> expected = new HashMap<>();
+        AnnotationMap map = AnnotationMap.empty();
+        // Enough keys to exercise both scanning and bisection
+        for (int i = 9; i >= 0; i--) {
+            String key = new String("key" + i);
+            expected.put(key, int32(i));
+            map = map.with(key, int32(i));
+            assertEquals(expected, map);
+            assertEquals(map, expected);
+            assertEquals(expected.hashCode(), map.hashCode());
+        }
+        assertEquals(int32(3), map.get("key3"));
+        assertTrue(map.containsKey("key9"));
+        assertNull(map.get("key10"));
+        assertFalse(map.containsKey(42));
+        assertEquals("key0", map.keySet().iterator().next());
+
+        for (int i = 0; i < 10; i += 2) {
+            expected.remove("key" + i);
+            map = map.without("key" + i);
+            assertEquals(expected, map);
+        }
+        assertSame(map, map.without("key0"));
+        assertSame(map, map.with("key1", int32(1)));
+        assertEquals(map, AnnotationMap.from(expected));
+        assertSame(AnnotationMap.empty(), AnnotationMap.from(new HashMap<>()));
+        AnnotationMap last = map;
+        assertThrows(UnsupportedOperationException.class, () -> last.put("key0", int32(0)));
+    }
+}
@@ -0,0 +1,75 @@
+package hydra.tools;
+
+import hydra.HydraTestBase;
+import hydra.core.Literal;
+import hydra.dsl.Expect;
+import hydra.dsl.Terms;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class BytesTest extends HydraTestBase {
+    private static final byte[] DATA = {0, 1, (byte) 0x7f, (byte) 0x80, (byte) 0xff};
+
+    @Test
+    public void bytesRoundTripThroughBinaryLiterals() {
+        Bytes bytes = Bytes.of(DATA);
+        Literal literal = bytes.toLiteral();
+        assertEquals("AAF/gP8=", ((Literal.Binary) literal).value);
+        assertEquals(bytes, Bytes.fromLiteral((Literal.Binary) literal));
+        assertArrayEquals(DATA, Bytes.fromLiteral((Literal.Binary) literal).toByteArray());
+        assertEquals("00017f80ff", bytes.toString());
+
+        assertSucceedsWith(bytes, Expect.bytes(Terms.binary(bytes)));
+        assertSucceedsWith(Bytes.of("hello".getBytes(StandardCharsets.US_ASCII)),
+                Expect.bytes(Terms.binary("aGVsbG8=")));
+        assertFails(Expect.bytes(Terms.binary("hello!")));
+        assertFails(Expect.bytes(Terms.binary("☃")));
+        assertTrue(Bytes.isBinaryString("abcÿ"));
+        assertFalse(Bytes.isBinaryString("Ā"));
+        assertThrows(IllegalArgumentException.class, () -> Bytes.fromBinaryString("☃"));
+    }
+
+    @Test
+    public void slicesAreViewsWithValueSemantics() {
+        byte[] array = {9, 0, 1, (byte) 0x7f, (byte) 0x80, (byte) 0xff, 9};
+        Bytes wrapped = Bytes.wrap(ByteBuffer.wrap(array, 1, 5));
+        assertEquals(Bytes.of(DATA), wrapped);
+        assertEquals(Bytes.of(DATA).hashCode(), wrapped.hashCode());
+
+        Bytes middle = wrapped.slice(1, 4);
+        assertEquals(Bytes.of(new byte[] {1, (byte) 0x7f, (byte) 0x80}), middle);
+        assertEquals(Bytes.empty(), middle.slice(2, 2));
+        assertEquals(3, middle.asByteBuffer().remaining());
+        assertThrows(IndexOutOfBoundsException.class, () -> middle.slice(2, 4));
+        assertThrows(ReadOnlyBufferException.class, () -> middle.asByteBuffer().put((byte) 0));
+
+        // Views of arrays and of direct buffers give the same binary strings
+        assertEquals("\u0001\u007f\u0080", middle.toBinaryString());
+        ByteBuffer direct = ByteBuffer.allocateDirect(array.length);
+        direct.put(array).position(1).limit(6);
+        assertEquals(wrapped, Bytes.wrap(direct));
+        assertEquals(middle.toBinaryString(), Bytes.wrap(direct).slice(1, 4).toBinaryString());
+    }
+
+    @Test
+    public void bytesAreOrderedAsUnsignedValues() {
+        Bytes low = Bytes.of(new byte[] {0x7f});
+        Bytes high = Bytes.of(new byte[] {(byte) 0x80});
+        assertTrue(low.compareTo(high) < 0);
+        assertTrue(Bytes.of(new byte[] {1}).compareTo(Bytes.of(new byte[] {1, 0})) < 0);
+        assertEquals(Integer.signum(low.toBinaryString().compareTo(high.toBinaryString())),
+                Integer.signum(low.compareTo(high)));
+        assertNotEquals(low, high);
+    }
+}
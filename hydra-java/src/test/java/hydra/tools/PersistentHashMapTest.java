@@ -0,0 +1,100 @@
+package hydra.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class PersistentHashMapTest {
+    @Test
+    public void insertionsAndDeletionsAgreeWithHashMap() {
+        Random random = new Random(42);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> actual = PersistentHashMap.empty();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                actual = actual.delete(key);
+            } else {
+                expected.put(key, i);
+                actual = actual.insert(key, i);
+            }
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new HashSet<>(expected.entrySet()), new HashSet<>(actual.entrySet()));
+        assertEquals(expected.hashCode(), actual.hashCode());
+    }
+
+    @Test
+    public void updatesDoNotAffectTheOriginalMap() {
+        PersistentHashMap<String, Integer> m1 = PersistentHashMap.<String, Integer>empty()
+                .insert("one", 1).insert("two", 2);
+        PersistentHashMap<String, Integer> m2 = m1.insert("three", 3).delete("one");
+
+        assertEquals(2, m1.size());
+        assertEquals(2, m2.size());
+        assertEquals(1, m1.get("one"));
+        assertFalse(m2.containsKey("one"));
+        assertEquals(3, m2.get("three"));
+
+        // Removing an absent key, or re-inserting an identical entry, leaves the map unchanged
+        assertSame(m2, m2.delete("one"));
+        assertSame(m1, m1.insert("one", m1.get("one")));
+        assertSame(m1, PersistentHashMap.from(m1));
+    }
+
+    @Test
+    public void keysWithEqualHashesAreKeptApart() {
+        PersistentHashMap<Colliding, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 100; i++) {
+            map = map.insert(new Colliding(i), i);
+        }
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, map.get(new Colliding(i)));
+        }
+        assertNull(map.get(new Colliding(100)));
+
+        for (int i = 0; i < 100; i += 2) {
+            map = map.delete(new Colliding(i));
+        }
+        assertEquals(50, map.size());
+        assertFalse(map.containsKey(new Colliding(0)));
+        assertTrue(map.containsKey(new Colliding(1)));
+        for (int i = 1; i < 100; i += 2) {
+            map = map.delete(new Colliding(i));
+        }
+        assertTrue(map.isEmpty());
+    }
+
+    // Keys which fall into one of four hash buckets
+    private static final class Colliding {
+        private final int id;
+
+        private Colliding(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Colliding && ((Colliding) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 4;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package hydra.tools;
+
+import hydra.compute.Kv;
+import hydra.core.Term;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static hydra.dsl.Terms.annot;
+import static hydra.dsl.Terms.int32;
+import static hydra.dsl.Terms.list;
+import static hydra.dsl.Terms.string;
+import static hydra.dsl.Terms.variable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class PersistentSortedMapTest {
+    private static final Comparator<Integer> INTS = Comparator.naturalOrder();
+
+    @Test
+    public void insertionsAndDeletionsAgreeWithTreeMap() {
+        Random random = new Random(42);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        PersistentSortedMap<Integer, Integer> actual = PersistentSortedMap.empty(INTS);
+        for (int i = 0; i < 10000; i++) {
+            int key = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                actual = actual.delete(key);
+            } else {
+                expected.put(key, i);
+                actual = actual.insert(key, i);
+            }
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+        assertEquals(expected.hashCode(), actual.hashCode());
+    }
+
+    @Test
+    public void updatesDoNotAffectTheOriginalMap() {
+        PersistentSortedMap<Integer, String> m1 = PersistentSortedMap.<Integer, String>empty(INTS)
+                .insert(1, "one").insert(2, "two");
+        PersistentSortedMap<Integer, String> m2 = m1.insert(3, "three").delete(1);
+
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(m1.keySet()));
+        assertEquals(Arrays.asList(2, 3), new ArrayList<>(m2.keySet()));
+        assertEquals("one", m1.get(1));
+        assertFalse(m2.containsKey(1));
+
+        // Removing an absent key, or re-inserting an identical entry, leaves the map unchanged
+        assertSame(m2, m2.delete(1));
+        assertSame(m1, m1.insert(1, m1.get(1)));
+    }
+
+    @Test
+    public void setOperationsAgreeWithTreeSet() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 50; trial++) {
+            TreeSet<Integer> a = new TreeSet<>();
+            TreeSet<Integer> b = new TreeSet<>();
+            for (int i = 0; i < random.nextInt(200); i++) {
+                a.add(random.nextInt(300));
+            }
+            for (int i = 0; i < random.nextInt(200); i++) {
+                b.add(random.nextInt(300));
+            }
+            PersistentSortedSet<Integer> pa = PersistentSortedSet.from(INTS, a);
+            PersistentSortedSet<Integer> pb = PersistentSortedSet.from(INTS, b);
+
+            TreeSet<Integer> union = new TreeSet<>(a);
+            union.addAll(b);
+            TreeSet<Integer> intersection = new TreeSet<>(a);
+            intersection.retainAll(b);
+            TreeSet<Integer> difference = new TreeSet<>(a);
+            difference.removeAll(b);
+
+            assertEquals(new ArrayList<>(union), new ArrayList<>(pa.union(pb)));
+            assertEquals(new ArrayList<>(intersection), new ArrayList<>(pa.intersection(pb)));
+            assertEquals(new ArrayList<>(difference), new ArrayList<>(pa.difference(pb)));
+        }
+    }
+
+    @Test
+    public void termsAreTotallyOrdered() {
+        Comparator<Term<String>> cmp = TermOrdering.terms();
+        List<Term<String>> terms = Arrays.asList(
+                int32(2), int32(-1), string("b"), string("a"), variable("x"),
+                list(int32(1), int32(2)), list(int32(1)), list(), int32(2));
+
+        // Equal terms compare as equal, and ordering is antisymmetric
+        for (Term<String> t1 : terms) {
+            for (Term<String> t2 : terms) {
+                assertEquals(t1.equals(t2), cmp.compare(t1, t2) == 0);
+                assertEquals(Integer.signum(cmp.compare(t1, t2)), -Integer.signum(cmp.compare(t2, t1)));
+            }
+        }
+
+        Set<Term<String>> sorted = TermOrdering.sortedSet(new HashSet<>(terms));
+        assertEquals(Arrays.asList(list(), list(int32(1)), list(int32(1), int32(2)),
+                int32(-1), int32(2), string("a"), string("b"), variable("x")), new ArrayList<>(sorted));
+        assertTrue(sorted.contains(string("a")));
+        assertEquals(sorted, new HashSet<>(terms));
+    }
+
+    @Test
+    public void annotationsAreOrderedStructurally() {
+        Comparator<Term<Kv>> cmp = TermOrdering.terms();
+
+        // "Aa" and "BB" have the same hash code
+        Term<Kv> t1 = annot(new Kv(Collections.singletonMap("Aa", int32(1))), int32(42));
+        Term<Kv> t2 = annot(new Kv(Collections.singletonMap("BB", int32(1))), int32(42));
+        Term<Kv> t3 = annot(new Kv(Collections.singletonMap("Aa", int32(2))), int32(42));
+        assertTrue(cmp.compare(t1, t2) < 0);
+        assertTrue(cmp.compare(t1, t3) < 0);
+        assertEquals(0, cmp.compare(t1, annot(new Kv(Collections.singletonMap("Aa", int32(1))), int32(42))));
+        assertEquals(3, TermOrdering.sortedSet(Arrays.asList(t1, t2, t3)).size());
+    }
+
+    @Test
+    public void annotationsWithCollidingHashCodesAreOrdered() {
+        Comparator<Term<Object>> cmp = TermOrdering.terms();
+        Term<Object> t1 = annot(new Colliding("a"), int32(42));
+        Term<Object> t2 = annot(new Colliding("b"), int32(42));
+        int c = cmp.compare(t1, t2);
+        assertTrue(c != 0);
+        assertEquals(-Integer.signum(c), Integer.signum(cmp.compare(t2, t1)));
+
+        // Equal annotations compare as equal, and are ordered consistently
+        Term<Object> t3 = annot(new Colliding("a"), int32(42));
+        assertEquals(0, cmp.compare(t1, t3));
+        assertEquals(Integer.signum(c), Integer.signum(cmp.compare(t3, t2)));
+    }
+
+    @Test
+    public void cyclicStreamsAreRejected() throws ReflectiveOperationException {
+        hydra.core.Stream<String> a = new hydra.core.Stream<>(int32(1), null);
+        hydra.core.Stream<String> b = new hydra.core.Stream<>(int32(1), null);
+        java.lang.reflect.Field rest = hydra.core.Stream.class.getField("rest");
+        rest.setAccessible(true);
+        rest.set(a, a);
+        rest.set(b, b);
+        assertThrows(IllegalArgumentException.class,
+                () -> TermOrdering.<String>terms().compare(new Term.Stream<>(a), new Term.Stream<>(b)));
+    }
+
+    @Test
+    public void entriesAreMapEntries() {
+        PersistentSortedMap<Integer, String> map = PersistentSortedMap.<Integer, String>empty(INTS).insert(1, "one");
+        Map.Entry<Integer, String> entry = map.entrySet().iterator().next();
+        assertEquals(new AbstractMap.SimpleImmutableEntry<>(1, "one"), entry);
+        assertEquals(new AbstractMap.SimpleImmutableEntry<>(1, "one").hashCode(), entry.hashCode());
+        assertEquals("1=one", entry.toString());
+        assertThrows(UnsupportedOperationException.class, () -> entry.setValue("two"));
+    }
+
+    // An annotation whose instances all have the same hash code
+    private static final class Colliding {
+        private final String id;
+
+        private Colliding(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Colliding && ((Colliding) other).id.equals(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package hydra.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+public class WeakInternerTest {
+    @Test
+    public void equalValuesShareAnInstance() {
+        WeakInterner<String> interner = new WeakInterner<>();
+        String a = new String("annotation");
+        String b = new String("annotation");
+        assertNotSame(a, b);
+        assertSame(a, interner.intern(a));
+        assertSame(a, interner.intern(b));
+        assertSame(a, interner.intern(a));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void concurrentCallersAgreeOnTheCanonicalInstance() throws Exception {
+        WeakInterner<String> interner = new WeakInterner<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> interner.intern(new String("shared"))));
+            }
+            String first = results.get(0).get();
+            for (Future<String> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}